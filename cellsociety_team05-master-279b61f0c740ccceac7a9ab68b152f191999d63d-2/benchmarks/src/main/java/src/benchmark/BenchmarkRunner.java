@@ -0,0 +1,71 @@
+package src.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.ProfilerConfig;
+
+import java.io.IOException;
+
+/**
+ * Runs the benchmarks with JMH's usual command line, always adding the GC profiler so that every result comes with its
+ * allocation rate (<code>gc.alloc.rate</code>, MB/sec, and <code>gc.alloc.rate.norm</code>, bytes per operation).
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar [JMH options] [benchmark regexps]
+ * </pre>
+ */
+
+public class BenchmarkRunner {
+
+    private static final String GC_PROFILER = "gc";
+
+    public static void main(String[] args) throws RunnerException, IOException{
+
+        CommandLineOptions commandLineOptions;
+
+        try{
+            commandLineOptions = new CommandLineOptions(args);
+        }
+        catch(CommandLineOptionException E){
+            System.err.println("Error parsing command line: " + E.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        if(commandLineOptions.shouldHelp() || commandLineOptions.shouldList() || commandLineOptions.shouldListWithParams()
+                || commandLineOptions.shouldListProfilers() || commandLineOptions.shouldListResultFormats()){
+            /*Informational runs are left to JMH's own entry point*/
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        OptionsBuilder runOptions = new OptionsBuilder();
+        runOptions.parent(commandLineOptions);
+
+        if(!hasGCProfiler(commandLineOptions)){
+            runOptions.addProfiler(GCProfiler.class);
+        }
+
+        new Runner(runOptions.build()).run();
+
+    }
+
+    /*Helper Methods*/
+
+    private static boolean hasGCProfiler(CommandLineOptions commandLineOptions){
+
+        for(ProfilerConfig xProfiler : commandLineOptions.getProfilers()){
+            if(xProfiler.getKlass().equals(GC_PROFILER) || xProfiler.getKlass().equals(GCProfiler.class.getName())){
+                return true;
+            }
+        }
+
+        return false;
+
+    }
+
+}
@@ -0,0 +1,101 @@
+package src.benchmark;
+
+import src.cell.Cell;
+import src.cell.CellShape;
+import src.cell.state.CounterRandom;
+import src.society.Society;
+import src.society.property.BorderType;
+import src.society.property.GridType;
+import src.society.property.SocietyType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Builds the square societies the benchmarks step, with the populations of the resource scenarios and a layout drawn
+ * from a fixed seed, so every fork of a benchmark starts from the same grid
+ */
+
+public class BenchmarkSocieties {
+
+    public static final long SEED = 42;
+
+    private BenchmarkSocieties(){
+    }
+
+    /**
+     * Creates a society of <code>gridSize</code> by <code>gridSize</code> cells, stepped on one thread
+     * @param societyType type of society
+     * @param gridSize number of rows and of columns
+     * @param cellShape shape of the cells
+     * @param gridType storage of the grid
+     * @param borderType border of the grid
+     * @return new society
+     */
+    public static Society create(SocietyType societyType, int gridSize, CellShape cellShape, GridType gridType, BorderType borderType){
+
+        Society newSociety = societyType.createSociety(gridSize, gridSize, createCells(societyType, gridSize * gridSize), cellShape, gridType);
+        newSociety.setBorderType(borderType);
+        newSociety.setParallelism(1);
+        newSociety.setSeed(SEED);
+
+        return newSociety;
+
+    }
+
+    /*Helper Methods*/
+
+    private static List<Cell> createCells(SocietyType societyType, int cellCount){
+
+        String[] stateNames = getStateNames(societyType);
+        double[] populations = getPopulations(societyType);
+        List<Cell> cellList = new ArrayList<Cell>(cellCount);
+
+        for(int xState = 0; xState < stateNames.length; xState ++){
+
+            int stateCount = (xState == stateNames.length - 1) ? cellCount - cellList.size() : (int) (populations[xState] * cellCount);
+
+            for(int xCell = 0; xCell < stateCount; xCell ++){
+                cellList.add(societyType.createCell(stateNames[xState]));
+            }
+
+        }
+
+        Collections.shuffle(cellList, new CounterRandom(SEED));
+
+        return cellList;
+
+    }
+
+    private static String[] getStateNames(SocietyType societyType){
+
+        switch(societyType){
+            case SEGREGATION:
+                return new String[]{"AGENT_X", "AGENT_O", "EMPTY"};
+            case SPREADING_FIRE:
+                return new String[]{"BURNING", "TREE", "EMPTY"};
+            case WATOR:
+                return new String[]{"PREDATOR", "PREY", "EMPTY"};
+            default:
+                return new String[]{"ALIVE", "DEAD"};
+        }
+
+    }
+
+    private static double[] getPopulations(SocietyType societyType){
+
+        switch(societyType){
+            case SEGREGATION:
+                return new double[]{0.4, 0.4, 0.2};
+            case SPREADING_FIRE:
+                return new double[]{0.01, 0.8, 0.19};
+            case WATOR:
+                return new double[]{0.05, 0.3, 0.65};
+            default:
+                return new double[]{0.3, 0.7};
+        }
+
+    }
+
+}
@@ -0,0 +1,117 @@
+package src.benchmark;
+
+import src.cell.CellShape;
+import src.society.Society;
+import src.society.property.BorderType;
+import src.society.property.GridType;
+import src.society.property.SocietyType;
+import src.ui.Chart;
+
+import javafx.application.Platform;
+import javafx.scene.chart.XYChart;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the chart's per-frame population update. <code>countStates</code> is the read that
+ * <code>Chart.updateStateCount</code> makes of the grid's <code>PopulationCounter</code>; <code>updateChart</code>
+ * is the whole <code>Chart.updateChart</code>, that read plus a data point per state.
+ *
+ * <code>updateChart</code> builds JavaFX controls, so it needs the JavaFX toolkit and therefore a display; on a
+ * headless machine exclude it with <code>-e ChartBenchmark.updateChart</code>.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class ChartBenchmark {
+
+    /**
+     * A chart over the benchmark's society, on a started JavaFX toolkit
+     */
+    @State(Scope.Thread)
+    public static class ChartState {
+
+        /*Points kept per series before the series are emptied, so a long iteration does not fill the heap*/
+        private static final int SERIES_LIMIT = 10000;
+
+        private Chart chart;
+        private int pointCount;
+
+        @Setup
+        public void createChart(ChartBenchmark benchmark){
+
+            try{
+                Platform.startup(() -> {});
+            }
+            catch(IllegalStateException E){
+                /*Toolkit already started*/
+            }
+
+            this.chart = new Chart(benchmark.getSocietyType(), benchmark.society);
+
+        }
+
+        private void update(){
+
+            this.chart.updateChart();
+
+            if(++ this.pointCount == SERIES_LIMIT){
+
+                for(Object xSeries : this.chart.getChart().getData()){
+                    ((XYChart.Series<?, ?>) xSeries).getData().clear();
+                }
+
+                this.pointCount = 0;
+
+            }
+
+        }
+
+    }
+
+    @Param({"GAME_OF_LIFE", "SEGREGATION", "SPREADING_FIRE", "WATOR", "LIFE_LIKE"})
+    public String societyType;
+
+    @Param({"256"})
+    public int gridSize;
+
+    private Society society;
+
+    @Setup
+    public void createSociety(){
+        this.society = BenchmarkSocieties.create(this.getSocietyType(), this.gridSize, CellShape.SQUARE, GridType.DENSE, BorderType.TOROIDAL);
+    }
+
+    @Benchmark
+    public Map<?, ?> countStates(){
+        return this.society.getSocietyGrid().getPopulationCounter().getCounts();
+    }
+
+    @Benchmark
+    public void updateChart(ChartState chartState){
+        chartState.update();
+    }
+
+    /*Helper Methods*/
+
+    private SocietyType getSocietyType(){
+        return SocietyType.valueOf(this.societyType);
+    }
+
+}
@@ -0,0 +1,97 @@
+package src.benchmark;
+
+import src.cell.CellShape;
+import src.cell.location.Location;
+import src.society.Grid;
+import src.society.NeighborTable;
+import src.society.property.BorderType;
+import src.society.property.GridType;
+import src.society.property.SocietyType;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of looking up the neighbors of one cell, walking the grid in row-major order from call to call.
+ * <code>neighborCellMap</code> is the allocating <code>Grid.getNeighborCellMap</code>; <code>neighborTable</code>
+ * reads the same neighbors from the grid's <code>NeighborTable</code>, as the society step does.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class NeighborLookupBenchmark {
+
+    @Param({"SQUARE", "HEXAGON_POINT", "TRIANGLE"})
+    public String cellShape;
+
+    @Param({"DENSE", "SPARSE"})
+    public String gridType;
+
+    @Param({"REGULAR", "TOROIDAL", "INFINITE"})
+    public String borderType;
+
+    @Param({"256"})
+    public int gridSize;
+
+    private Grid societyGrid;
+    private NeighborTable neighborTable;
+    private List<Location> locations;
+    private int nextIndex;
+
+    @Setup
+    public void createGrid(){
+        this.societyGrid = BenchmarkSocieties.create(SocietyType.GAME_OF_LIFE, this.gridSize, CellShape.valueOf(this.cellShape),
+                GridType.valueOf(this.gridType), BorderType.valueOf(this.borderType)).getSocietyGrid();
+        this.neighborTable = this.societyGrid.getNeighborTable();
+        this.locations = this.societyGrid.getOrderedLocations();
+    }
+
+    @Benchmark
+    public Map<?, ?> neighborCellMap(){
+        return this.societyGrid.getNeighborCellMap(this.locations.get(this.advanceIndex()));
+    }
+
+    @Benchmark
+    public void neighborTable(Blackhole blackhole){
+
+        int cellIndex = this.advanceIndex();
+
+        for(int xPosition = this.neighborTable.getStart(cellIndex); xPosition < this.neighborTable.getEnd(cellIndex); xPosition ++){
+
+            int neighborIndex = this.neighborTable.getNeighbor(xPosition);
+            blackhole.consume((neighborIndex == NeighborTable.EDGE) ? null : this.societyGrid.getCell(neighborIndex));
+
+        }
+
+    }
+
+    /*Helper Methods*/
+
+    private int advanceIndex(){
+
+        int cellIndex = this.nextIndex;
+        this.nextIndex = (cellIndex + 1 == this.locations.size()) ? 0 : cellIndex + 1;
+
+        return cellIndex;
+
+    }
+
+}
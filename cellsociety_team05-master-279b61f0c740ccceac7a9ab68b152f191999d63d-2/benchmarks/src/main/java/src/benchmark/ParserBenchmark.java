@@ -0,0 +1,62 @@
+package src.benchmark;
+
+import src.XML.XMLParser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to load each resource scenario with <code>XMLParser</code>: reading the file, building its cells and settings.
+ * The scenarios are read from <code>../resource</code>, or from the directory named by the
+ * <code>cellsociety.resource</code> system property.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class ParserBenchmark {
+
+    private static final String RESOURCE_PROPERTY = "cellsociety.resource";
+    private static final String DEFAULT_RESOURCE = "../resource";
+
+    @Param({"GOL_A.xml", "GOL_B.xml", "GOL_C.xml", "LL_A.xml", "LL_B.xml", "LL_C.xml", "SEG_A.xml", "SEG_B.xml", "SEG_C.xml",
+            "SEG_D.xml", "SF_A.xml", "SF_B.xml", "SF_C.xml", "WT_A.xml", "WT_B.xml", "WT_C.xml"})
+    public String scenario;
+
+    private String filePath;
+
+    @Setup
+    public void findScenario() throws FileNotFoundException{
+
+        File scenarioFile = new File(System.getProperty(RESOURCE_PROPERTY, DEFAULT_RESOURCE), this.scenario);
+
+        if(!scenarioFile.isFile()){
+            throw new FileNotFoundException("No scenario " + scenarioFile.getAbsolutePath() + "; set -D" + RESOURCE_PROPERTY);
+        }
+
+        this.filePath = scenarioFile.getPath();
+
+    }
+
+    @Benchmark
+    public XMLParser load() throws Exception{
+        return new XMLParser(this.filePath);
+    }
+
+}
@@ -0,0 +1,70 @@
+package src.benchmark;
+
+import src.cell.CellShape;
+import src.society.Grid;
+import src.society.Society;
+import src.society.property.BorderType;
+import src.society.property.GridType;
+import src.society.property.SocietyType;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of one generation (<code>updateNextState</code> then <code>advanceNextState</code>) of every society,
+ * across grid sizes, cell shapes and grid storage. The score is in generations per second; multiply by
+ * <code>gridSize</code> squared for cells per second.
+ *
+ * Each iteration starts again from the seeded grid, so societies that settle (a burnt-out fire, a satisfied
+ * segregation) are measured from the same mix of active and quiet generations in every iteration.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class SocietyStepBenchmark {
+
+    @Param({"GAME_OF_LIFE", "SEGREGATION", "SPREADING_FIRE", "WATOR", "LIFE_LIKE"})
+    public String societyType;
+
+    @Param({"64", "256", "1024"})
+    public int gridSize;
+
+    @Param({"SQUARE", "HEXAGON_POINT", "TRIANGLE"})
+    public String cellShape;
+
+    @Param({"DENSE", "SPARSE"})
+    public String gridType;
+
+    private Society society;
+    private Grid societyGrid;
+
+    @Setup(Level.Iteration)
+    public void createSociety(){
+        this.society = BenchmarkSocieties.create(SocietyType.valueOf(this.societyType), this.gridSize,
+                CellShape.valueOf(this.cellShape), GridType.valueOf(this.gridType), BorderType.TOROIDAL);
+        this.societyGrid = this.society.getSocietyGrid();
+    }
+
+    @Benchmark
+    public void step(){
+        this.society.updateNextState(this.societyGrid);
+        this.society.advanceNextState(this.societyGrid);
+    }
+
+}
@@ -0,0 +1,104 @@
+package src.cell.location;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the locations of a grid spread over the bins of a cell map the way <code>HashMap</code> indexes them,
+ * so that no bin grows long enough to be turned into a tree
+ */
+
+public class LocationTest {
+
+    /*Bin length at which HashMap turns a bin into a tree*/
+    private static final int TREEIFY_THRESHOLD = 8;
+
+    /*Square, narrow and wide grids, and windows of an INFINITE grid away from the origin*/
+    private static final int[][] GRID_BOUNDS = {{0, 0, 64, 64}, {0, 0, 256, 256}, {0, 0, 2000, 3}, {0, 0, 3, 2000},
+            {-100, -100, 100, 100}, {5000, -7000, 128, 96}};
+
+    @Test
+    public void gridLocationsSpreadOverTheBins(){
+
+        for(int[] xBounds : GRID_BOUNDS){
+
+            int cellCount = xBounds[2] * xBounds[3];
+            int tableSize = getTableSize(cellCount);
+            int[] binLengths = new int[tableSize];
+            int usedBins = 0;
+            int longestBin = 0;
+
+            for(int xRow = xBounds[0]; xRow < xBounds[0] + xBounds[2]; xRow ++){
+                for(int xCol = xBounds[1]; xCol < xBounds[1] + xBounds[3]; xCol ++){
+
+                    int hashCode = new Location(xRow, xCol).hashCode();
+                    int binIndex = (hashCode ^ (hashCode >>> 16)) & (tableSize - 1);
+
+                    if(binLengths[binIndex] == 0){
+                        usedBins ++;
+                    }
+
+                    binLengths[binIndex] ++;
+                    longestBin = Math.max(longestBin, binLengths[binIndex]);
+
+                }
+            }
+
+            String gridName = xBounds[2] + "x" + xBounds[3] + " grid at " + xBounds[0] + ", " + xBounds[1];
+
+            /*n keys hashed at random into m bins fill m(1 - e^(-n/m)) of them on average*/
+            double randomBins = tableSize * (1 - Math.exp(-(double) cellCount / tableSize));
+
+            assertTrue(usedBins > randomBins * 0.95, gridName + " uses " + usedBins + " bins for " + cellCount + " locations");
+            assertTrue(longestBin < TREEIFY_THRESHOLD, gridName + " has a bin of " + longestBin + " locations");
+
+        }
+
+    }
+
+    @Test
+    public void equalLocationsHashEqually(){
+
+        Map<Location, Integer> cellMap = new HashMap<Location, Integer>();
+
+        for(int xRow = -20; xRow < 20; xRow ++){
+            for(int xCol = -20; xCol < 20; xCol ++){
+                cellMap.put(new Location(xRow, xCol), xRow * 40 + xCol);
+            }
+        }
+
+        assertEquals(1600, cellMap.size());
+
+        for(int xRow = -20; xRow < 20; xRow ++){
+            for(int xCol = -20; xCol < 20; xCol ++){
+                assertEquals(new Location(xRow, xCol).hashCode(), new Location(xRow, xCol).hashCode());
+                assertEquals(xRow * 40 + xCol, cellMap.get(new Location(xRow, xCol)));
+            }
+        }
+
+    }
+
+    /*Helper Methods*/
+
+    /**
+     * Retrieves the number of bins of a default <code>HashMap</code> holding a number of keys: it doubles from 16
+     * whenever it is more than three quarters full
+     */
+    private static int getTableSize(int keyCount){
+
+        int tableSize = 16;
+
+        while(keyCount > tableSize * 3 / 4){
+            tableSize *= 2;
+        }
+
+        return tableSize;
+
+    }
+
+}
@@ -0,0 +1,315 @@
+package src.cell.state;
+
+import org.junit.jupiter.api.Test;
+import src.cell.CellShape;
+import src.society.Grid;
+import src.society.LifeLikeSociety;
+import src.society.ListPathReference;
+import src.society.property.BorderType;
+import src.society.property.GridType;
+import src.society.property.NeighborhoodType;
+import src.society.property.SocietyType;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the three rule notations parse to the counts they name, that bad rules are rejected, and that a society
+ * stepped under a parsed rule matches counting every neighborhood cell by cell
+ */
+
+public class LifeLikeRuleTest {
+
+    private static final int DEAD = LifeLikeState.DEAD.ordinal();
+    private static final int ALIVE = LifeLikeState.ALIVE.ordinal();
+
+    @Test
+    public void lifeLikeNotationParses(){
+
+        LifeLikeRule conwayRule = LifeLikeRule.parse(LifeLikeRule.CONWAY);
+
+        assertCounts(conwayRule, 8, new int[]{3}, new int[]{2, 3});
+        assertEquals(2, conwayRule.getStateCount());
+        assertEquals(1, conwayRule.getRadius());
+        assertEquals(NeighborhoodType.MOORE, conwayRule.getNeighborhoodType());
+        assertFalse(conwayRule.isCenterCounted());
+        assertTrue(conwayRule.isPackable());
+        assertEquals(1 << 3, conwayRule.getBirthMask());
+        assertEquals((1 << 2) | (1 << 3), conwayRule.getSurvivalMask());
+
+        /*Legacy notation gives survival first, without letters*/
+        assertCounts(LifeLikeRule.parse("23/3"), 8, new int[]{3}, new int[]{2, 3});
+        assertCounts(LifeLikeRule.parse("/2"), 8, new int[]{2}, new int[]{});
+
+        /*Letters in either order and case, with counts 0 and 8*/
+        assertCounts(LifeLikeRule.parse(" s012345678/b0 "), 8, new int[]{0}, new int[]{0, 1, 2, 3, 4, 5, 6, 7, 8});
+        assertCounts(LifeLikeRule.parse("B36/S23"), 8, new int[]{3, 6}, new int[]{2, 3});
+
+    }
+
+    @Test
+    public void generationsNotationParses(){
+
+        LifeLikeRule brainRule = LifeLikeRule.parse("B2/S/C3");
+
+        assertCounts(brainRule, 8, new int[]{2}, new int[]{});
+        assertEquals(3, brainRule.getStateCount());
+        assertFalse(brainRule.isPackable());
+
+        assertEquals(4, LifeLikeRule.parse("B3/S23/G4").getStateCount());
+        assertEquals(5, LifeLikeRule.parse("345/2/5").getStateCount());
+        assertEquals(LifeLikeState.values().length, LifeLikeRule.parse("B2/S/C" + LifeLikeState.values().length).getStateCount());
+
+    }
+
+    @Test
+    public void largerThanLifeNotationParses(){
+
+        LifeLikeRule boscoRule = LifeLikeRule.parse("R5,C0,M1,S34..58,B34..45,NM");
+
+        assertEquals(5, boscoRule.getRadius());
+        assertEquals(2, boscoRule.getStateCount());
+        assertTrue(boscoRule.isCenterCounted());
+        assertEquals(NeighborhoodType.MOORE, boscoRule.getNeighborhoodType());
+        assertEquals(121, boscoRule.getMaxCount());
+        assertCounts(boscoRule, 121, range(34, 45), range(34, 58));
+        assertFalse(boscoRule.isPackable());
+
+        LifeLikeRule diamondRule = LifeLikeRule.parse("R3,C4,M0,S7,B5..8,NN");
+
+        assertEquals(NeighborhoodType.VON_NEUMANN, diamondRule.getNeighborhoodType());
+        assertEquals(4, diamondRule.getStateCount());
+        assertFalse(diamondRule.isCenterCounted());
+        assertEquals(24, diamondRule.getMaxCount());
+        assertCounts(diamondRule, 24, range(5, 8), new int[]{7});
+
+        /*Empty ranges and the largest radius*/
+        assertCounts(LifeLikeRule.parse("R1,C0,M0,S,B3,NM"), 8, new int[]{3}, new int[]{});
+        assertEquals(LifeLikeRule.MAX_RADIUS, LifeLikeRule.parse("R" + LifeLikeRule.MAX_RADIUS + ",C0,M0,S2..3,B3,NM").getRadius());
+
+        /*A radius 1 Moore rule that does not count the cell is Life-like, and runs packed*/
+        LifeLikeRule conwayRule = LifeLikeRule.parse("R1,C0,M0,S2..3,B3..3,NM");
+
+        assertTrue(conwayRule.isPackable());
+        assertEquals(LifeLikeRule.parse(LifeLikeRule.CONWAY).getBirthMask(), conwayRule.getBirthMask());
+        assertEquals(LifeLikeRule.parse(LifeLikeRule.CONWAY).getSurvivalMask(), conwayRule.getSurvivalMask());
+        assertFalse(LifeLikeRule.parse("R1,C0,M1,S3..4,B3..3,NM").isPackable());
+
+    }
+
+    @Test
+    public void badRulesAreRejected(){
+
+        String[] badRules = {
+                "", "B3/S23/X", "B9/S23", "B3/SA", "23", "1/2/3/4", "B3/S23/C1", "B3/S23/C",
+                "B3/S23/C" + (LifeLikeState.values().length + 1), "B3/S23/Cx",
+                "R0,C0,M0,S2..3,B3,NM", "R" + (LifeLikeRule.MAX_RADIUS + 1) + ",C0,M0,S2..3,B3,NM", "R-1,S2,B3",
+                "RX,S2,B3", "R1,C0,M0,S2..3,B3,NX", "R1,C0,M0,S3..2,B3,NM", "R1,C0,M0,S2..3..4,B3,NM",
+                "R1,C0,M0,S2..10,B3,NM", "R2,C0,M0,S2,B-1..3,NM", "R1,C17,M0,S2..3,B3,NM", "R1,,S2,B3", "R1,X2,S2,B3"};
+
+        for(String xRule : badRules){
+            assertThrows(IllegalArgumentException.class, () -> LifeLikeRule.parse(xRule), "rule \"" + xRule + "\"");
+        }
+
+    }
+
+    @Test
+    public void generationsDecay(){
+
+        LifeLikeRule brainRule = LifeLikeRule.parse("B2/S/C3");
+
+        assertEquals(ALIVE, brainRule.getNextOrdinal(DEAD, 2));
+        assertEquals(DEAD, brainRule.getNextOrdinal(DEAD, 3));
+        assertEquals(LifeLikeState.DYING_1.ordinal(), brainRule.getNextOrdinal(ALIVE, 2));
+        assertEquals(DEAD, brainRule.getNextOrdinal(LifeLikeState.DYING_1.ordinal(), 2));
+
+        /*A dying cell neither survives nor is born, whatever its neighbors*/
+        LifeLikeRule longRule = LifeLikeRule.parse("B3/S23/C5");
+
+        assertEquals(ALIVE, longRule.getNextOrdinal(ALIVE, 2));
+        assertEquals(LifeLikeState.DYING_1.ordinal(), longRule.getNextOrdinal(ALIVE, 4));
+
+        for(int xCount : new int[]{2, 3}){
+            assertEquals(LifeLikeState.DYING_2.ordinal(), longRule.getNextOrdinal(LifeLikeState.DYING_1.ordinal(), xCount));
+            assertEquals(LifeLikeState.DYING_3.ordinal(), longRule.getNextOrdinal(LifeLikeState.DYING_2.ordinal(), xCount));
+            assertEquals(DEAD, longRule.getNextOrdinal(LifeLikeState.DYING_3.ordinal(), xCount));
+        }
+
+        /*States past the rule's count, left from an earlier rule, die at once*/
+        assertEquals(DEAD, brainRule.getNextOrdinal(LifeLikeState.DYING_5.ordinal(), 3));
+
+        /*Two-state rules never use the dying states*/
+        assertEquals(DEAD, LifeLikeRule.parse(LifeLikeRule.CONWAY).getNextOrdinal(ALIVE, 4));
+
+    }
+
+    @Test
+    public void stepMatchesBruteForce(){
+
+        Object[][] ruleCases = {
+                {"B3/S23", new int[]{3}, new int[]{2, 3}},
+                {"B2/S/C3", new int[]{2}, new int[]{}},
+                {"B36/S125/C6", new int[]{3, 6}, new int[]{1, 2, 5}},
+                {"R1,C0,M1,S3..4,B3..3,NM", new int[]{3}, new int[]{3, 4}},
+                {"R2,C0,M1,S5..9,B4..6,NM", range(4, 6), range(5, 9)},
+                {"R3,C4,M0,S3..7,B5..8,NN", range(5, 8), range(3, 7)},
+                {"R2,C3,M1,S2..5,B3..4,NN", range(3, 4), range(2, 5)}};
+
+        for(Object[] xCase : ruleCases){
+            for(BorderType xBorderType : new BorderType[]{BorderType.REGULAR, BorderType.TOROIDAL}){
+                for(GridType xGridType : GridType.values()){
+
+                    LifeLikeRule lifeRule = LifeLikeRule.parse((String) xCase[0]);
+                    LifeLikeSociety lifeSociety = createSociety(xGridType, xBorderType, lifeRule);
+                    Grid societyGrid = lifeSociety.getSocietyGrid();
+                    int[] currentOrdinals = getOrdinals(societyGrid);
+
+                    for(int xStep = 1; xStep <= 12; xStep ++){
+
+                        currentOrdinals = stepBruteForce(currentOrdinals, societyGrid.getRowCount(), societyGrid.getColCount(),
+                                xBorderType == BorderType.TOROIDAL, lifeRule, (int[]) xCase[1], (int[]) xCase[2]);
+                        lifeSociety.step();
+
+                        assertArrayEquals(currentOrdinals, getOrdinals(societyGrid), xCase[0] + " " + xBorderType + " " + xGridType + ", step " + xStep);
+
+                    }
+
+                }
+            }
+        }
+
+    }
+
+    /*Helper Methods*/
+
+    private static void assertCounts(LifeLikeRule lifeRule, int maxCount, int[] birthCounts, int[] survivalCounts){
+        for(int xCount = 0; xCount <= maxCount; xCount ++){
+            assertEquals(contains(birthCounts, xCount), lifeRule.isBirth(xCount), lifeRule + ": birth on " + xCount);
+            assertEquals(contains(survivalCounts, xCount), lifeRule.isSurvival(xCount), lifeRule + ": survival on " + xCount);
+        }
+    }
+
+    private static boolean contains(int[] counts, int count){
+
+        for(int xCount : counts){
+            if(xCount == count){
+                return true;
+            }
+        }
+
+        return false;
+
+    }
+
+    private static int[] range(int min, int max){
+
+        int[] counts = new int[max - min + 1];
+
+        for(int xCount = min; xCount <= max; xCount ++){
+            counts[xCount - min] = xCount;
+        }
+
+        return counts;
+
+    }
+
+    /**
+     * Creates a square-celled society, larger than any neighborhood, holding live cells and, for Generations rules,
+     * cells in every dying state of the rule
+     */
+    private static LifeLikeSociety createSociety(GridType gridType, BorderType borderType, LifeLikeRule lifeRule){
+
+        LifeLikeSociety lifeSociety = (LifeLikeSociety) ListPathReference.createSociety(SocietyType.LIFE_LIKE, 23, 19, CellShape.SQUARE,
+                gridType, borderType, "ALIVE", "DEAD", 0.4, 17);
+        Grid societyGrid = lifeSociety.getSocietyGrid();
+        Random layoutRandom = new Random(18);
+
+        lifeSociety.setRule(lifeRule);
+
+        for(int xIndex = 0; xIndex < societyGrid.getSize() && lifeRule.getStateCount() > 2; xIndex ++){
+            if(layoutRandom.nextDouble() < 0.2){
+                societyGrid.getCell(xIndex).setCurrentState(LifeLikeState.values()[2 + layoutRandom.nextInt(lifeRule.getStateCount() - 2)]);
+                societyGrid.markChanged(xIndex);
+            }
+        }
+
+        return lifeSociety;
+
+    }
+
+    private static int[] getOrdinals(Grid societyGrid){
+
+        int[] stateOrdinals = new int[societyGrid.getSize()];
+
+        for(int xIndex = 0; xIndex < stateOrdinals.length; xIndex ++){
+            stateOrdinals[xIndex] = ((LifeLikeState) societyGrid.getCell(xIndex).getCurrentState()).ordinal();
+        }
+
+        return stateOrdinals;
+
+    }
+
+    /**
+     * Steps a grid by counting the live cells of every neighborhood one offset at a time and applying the birth and
+     * survival counts as written in the rule string, independently of <code>LifeLikeRule.getNextOrdinal</code>
+     */
+    private static int[] stepBruteForce(int[] currentOrdinals, int rowCount, int colCount, boolean isToroidal, LifeLikeRule lifeRule,
+                                        int[] birthCounts, int[] survivalCounts){
+
+        int radius = lifeRule.getRadius();
+        int[] nextOrdinals = new int[currentOrdinals.length];
+
+        for(int xRow = 0; xRow < rowCount; xRow ++){
+            for(int xCol = 0; xCol < colCount; xCol ++){
+
+                int aliveCount = 0;
+
+                for(int xRowOffset = -radius; xRowOffset <= radius; xRowOffset ++){
+                    for(int xColOffset = -radius; xColOffset <= radius; xColOffset ++){
+
+                        boolean isCenter = (xRowOffset == 0 && xColOffset == 0);
+                        boolean isOutside = (lifeRule.getNeighborhoodType() == NeighborhoodType.VON_NEUMANN
+                                && Math.abs(xRowOffset) + Math.abs(xColOffset) > radius);
+                        int neighborRow = isToroidal ? Math.floorMod(xRow + xRowOffset, rowCount) : xRow + xRowOffset;
+                        int neighborCol = isToroidal ? Math.floorMod(xCol + xColOffset, colCount) : xCol + xColOffset;
+
+                        if(isOutside || (isCenter && !lifeRule.isCenterCounted())
+                                || neighborRow < 0 || neighborRow >= rowCount || neighborCol < 0 || neighborCol >= colCount){
+                            continue;
+                        }
+
+                        if(currentOrdinals[neighborRow * colCount + neighborCol] == ALIVE){
+                            aliveCount ++;
+                        }
+
+                    }
+                }
+
+                int currentOrdinal = currentOrdinals[xRow * colCount + xCol];
+                int nextOrdinal;
+
+                if(currentOrdinal == DEAD){
+                    nextOrdinal = contains(birthCounts, aliveCount) ? ALIVE : DEAD;
+                }
+                else if(currentOrdinal == ALIVE){
+                    nextOrdinal = contains(survivalCounts, aliveCount) ? ALIVE : (lifeRule.getStateCount() > 2) ? LifeLikeState.DYING_1.ordinal() : DEAD;
+                }
+                else{
+                    nextOrdinal = (currentOrdinal + 1 < lifeRule.getStateCount()) ? currentOrdinal + 1 : DEAD;
+                }
+
+                nextOrdinals[xRow * colCount + xCol] = nextOrdinal;
+
+            }
+        }
+
+        return nextOrdinals;
+
+    }
+
+}
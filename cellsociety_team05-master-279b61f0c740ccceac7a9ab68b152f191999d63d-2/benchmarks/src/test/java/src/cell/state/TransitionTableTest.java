@@ -0,0 +1,230 @@
+package src.cell.state;
+
+import org.junit.jupiter.api.Test;
+import src.cell.Cell;
+import src.cell.CellShape;
+import src.cell.state.property.StateRules;
+import src.society.Grid;
+import src.society.ListPathReference;
+import src.society.Society;
+import src.society.property.BorderType;
+import src.society.property.GridType;
+import src.society.property.SocietyType;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks compiled tables against calling the rules: every reachable key holds what the rule returns, keys past the
+ * slot count and keys of stochastic states hold <code>CALL_RULE</code>, and a society compiles its table again when
+ * its rule set changes
+ */
+
+public class TransitionTableTest {
+
+    /*Slot counts of triangles, hexagons and squares*/
+    private static final int[] NEIGHBOR_COUNTS = {3, 6, 8};
+
+    @Test
+    public void tablesMatchTheRules(){
+
+        RuleSet changedRules = new RuleSet();
+
+        changedRules.setValue(StateRules.GOL_MIN, 1);
+        changedRules.setValue(StateRules.GOL_MAX, 4);
+        changedRules.setValue(StateRules.GOL_CHECK, 2);
+        changedRules.setValue(StateRules.SG_XSATISFACTION, 0.5);
+        changedRules.setValue(StateRules.SG_OSATISFACTION, 0.3);
+
+        for(RuleSet xRuleSet : new RuleSet[]{new RuleSet(), changedRules}){
+            for(State[] xStates : new State[][]{GameOfLifeState.values(), SegregationState.values(), SpreadingFireState.values()}){
+                for(int xNeighborCount : NEIGHBOR_COUNTS){
+                    assertTableMatches(TransitionTable.compile(xStates, xNeighborCount, xRuleSet), xStates, xNeighborCount, xRuleSet);
+                }
+            }
+        }
+
+    }
+
+    @Test
+    public void tableKeepsTheRulesItWasCompiledWith(){
+
+        RuleSet ruleSet = new RuleSet();
+        TransitionTable compiledTable = TransitionTable.compile(GameOfLifeState.values(), 8, ruleSet);
+        int[] beforeOrdinals = getOrdinals(compiledTable);
+
+        ruleSet.setValue(StateRules.GOL_CHECK, 2);
+
+        assertArrayEquals(beforeOrdinals, getOrdinals(compiledTable));
+        assertFalse(Arrays.equals(beforeOrdinals, getOrdinals(TransitionTable.compile(GameOfLifeState.values(), 8, ruleSet))));
+
+    }
+
+    @Test
+    public void largeTablesAreNotCompiled(){
+        assertNotNull(TransitionTable.compile(WatorState.values(), 24, new RuleSet()));
+        assertNull(TransitionTable.compile(WatorState.values(), 200, new RuleSet()));
+        assertNull(TransitionTable.compile(new State[0], 8, new RuleSet()));
+    }
+
+    @Test
+    public void societyRecompilesOnRevision(){
+
+        /*Hexagons step through the compiled table rather than the bit-packed engine*/
+        for(GridType xGridType : GridType.values()){
+
+            Society lifeSociety = ListPathReference.createSociety(SocietyType.GAME_OF_LIFE, 24, 30, CellShape.HEXAGON_POINT, xGridType,
+                    BorderType.TOROIDAL, "ALIVE", "DEAD", 0.4, 9);
+            Grid referenceGrid = ListPathReference.createSociety(SocietyType.GAME_OF_LIFE, 24, 30, CellShape.HEXAGON_POINT,
+                    GridType.SPARSE, BorderType.TOROIDAL, "ALIVE", "DEAD", 0.4, 9).getSocietyGrid();
+            RuleSet ruleSet = new RuleSet();
+
+            lifeSociety.setRuleSet(ruleSet);
+
+            for(int xStep = 1; xStep <= 12; xStep ++){
+
+                /*Hexagon rules B2/S34, then B2/S2, changed between steps*/
+                if(xStep == 1){
+                    ruleSet.setValue(StateRules.GOL_CHECK, 2);
+                    ruleSet.setValue(StateRules.GOL_MIN, 3);
+                    ruleSet.setValue(StateRules.GOL_MAX, 4);
+                }
+                else if(xStep == 7){
+                    ruleSet.setValue(StateRules.GOL_MIN, 2);
+                    ruleSet.setValue(StateRules.GOL_MAX, 2);
+                }
+
+                lifeSociety.step();
+                stepRule(referenceGrid, ruleSet);
+
+                assertArrayEquals(ListPathReference.getStates(referenceGrid), ListPathReference.getStates(lifeSociety.getSocietyGrid()),
+                        xGridType + " grid, step " + xStep);
+
+            }
+
+        }
+
+    }
+
+    /*Helper Methods*/
+
+    /**
+     * Walks every combination of current state, slot count and per-state counts up to the slot count, checking that
+     * the keys are laid out without overlap over the whole table
+     */
+    private static void assertTableMatches(TransitionTable transitionTable, State[] stateValues, int maxNeighborCount, RuleSet ruleSet){
+
+        assertNotNull(transitionTable);
+        assertEquals(stateValues.length, transitionTable.getStateCount());
+
+        boolean[] isVisited = new boolean[transitionTable.getSize()];
+        int[] neighborCounts = new int[stateValues.length];
+
+        for(State xState : stateValues){
+
+            assertEquals(xState, transitionTable.getState(((Enum<?>) xState).ordinal()));
+
+            for(int xTotal = 0; xTotal <= maxNeighborCount; xTotal ++){
+                do{
+
+                    int key = transitionTable.getKey(((Enum<?>) xState).ordinal(), xTotal);
+                    int countSum = 0;
+
+                    for(int xOrdinal = 0; xOrdinal < neighborCounts.length; xOrdinal ++){
+                        key += neighborCounts[xOrdinal] * transitionTable.getStride(xOrdinal);
+                        countSum += neighborCounts[xOrdinal];
+                    }
+
+                    String keyName = xState + " with " + xTotal + " slots and counts " + Arrays.toString(neighborCounts);
+
+                    assertFalse(isVisited[key], keyName + " shares key " + key);
+                    isVisited[key] = true;
+
+                    if(countSum > xTotal || xState.isStochastic()){
+                        assertEquals(TransitionTable.CALL_RULE, transitionTable.getNextOrdinal(key), keyName);
+                    }
+                    else{
+                        State nextState = xState.neighborUpdate(neighborCounts.clone(), xTotal, ruleSet, null);
+                        assertEquals(((Enum<?>) nextState).ordinal(), transitionTable.getNextOrdinal(key), keyName);
+                    }
+
+                }
+                while(nextCounts(neighborCounts, maxNeighborCount));
+            }
+
+        }
+
+        for(int xKey = 0; xKey < isVisited.length; xKey ++){
+            assertTrue(isVisited[xKey], "key " + xKey + " belongs to no combination");
+        }
+
+    }
+
+    /**
+     * Advances counts in [0, maxCount] like an odometer
+     * @return false once every combination was visited, leaving the counts at 0
+     */
+    private static boolean nextCounts(int[] neighborCounts, int maxCount){
+
+        for(int xOrdinal = 0; xOrdinal < neighborCounts.length; xOrdinal ++){
+
+            if(neighborCounts[xOrdinal] < maxCount){
+                neighborCounts[xOrdinal] ++;
+                return true;
+            }
+
+            neighborCounts[xOrdinal] = 0;
+
+        }
+
+        return false;
+
+    }
+
+    private static int[] getOrdinals(TransitionTable transitionTable){
+
+        int[] nextOrdinals = new int[transitionTable.getSize()];
+
+        for(int xKey = 0; xKey < nextOrdinals.length; xKey ++){
+            nextOrdinals[xKey] = transitionTable.getNextOrdinal(xKey);
+        }
+
+        return nextOrdinals;
+
+    }
+
+    /**
+     * Steps a grid by calling the rule on a histogram of each cell's neighbor map
+     */
+    private static void stepRule(Grid societyGrid, RuleSet ruleSet){
+
+        State[] nextStates = new State[societyGrid.getSize()];
+
+        for(int xIndex = 0; xIndex < societyGrid.getSize(); xIndex ++){
+
+            State currentState = societyGrid.getCell(xIndex).getCurrentState();
+            int[] neighborCounts = new int[GameOfLifeState.values().length];
+            int neighborTotal = 0;
+
+            for(Cell xNeighbor : societyGrid.getNeighborCellList(societyGrid.getLocation(xIndex))){
+                neighborCounts[((Enum<?>) xNeighbor.getCurrentState()).ordinal()] ++;
+                neighborTotal ++;
+            }
+
+            nextStates[xIndex] = currentState.neighborUpdate(neighborCounts, neighborTotal, ruleSet, null);
+
+        }
+
+        for(int xIndex = 0; xIndex < societyGrid.getSize(); xIndex ++){
+            societyGrid.getCell(xIndex).setCurrentState(nextStates[xIndex]);
+        }
+
+    }
+
+}
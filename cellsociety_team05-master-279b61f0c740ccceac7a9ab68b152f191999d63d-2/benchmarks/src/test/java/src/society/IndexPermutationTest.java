@@ -0,0 +1,112 @@
+package src.society;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a permutation visits every index once, and that its order depends only on the size and the seed
+ */
+
+/*A permute that is not a bijection never finds some index, so next() would spin instead of failing*/
+@Timeout(value = 30, threadMode = Timeout.ThreadMode.SEPARATE_THREAD)
+public class IndexPermutationTest {
+
+    /*Empty and single-index domains, powers of two, where every counter value is a hit, and sizes on either side*/
+    private static final int[] SIZES = {0, 1, 2, 3, 4, 5, 7, 8, 9, 31, 32, 33, 100, 1023, 1024, 1025, 65536, 100003};
+    private static final long[] SEEDS = {0, 1, -1, 42, Long.MIN_VALUE, 0x9E3779B97F4A7C15L};
+
+    @Test
+    public void everyIndexIsVisitedOnce(){
+
+        for(int xSize : SIZES){
+            for(long xSeed : SEEDS){
+
+                String permutationName = "size " + xSize + ", seed " + xSeed;
+                boolean[] isVisited = new boolean[xSize];
+                IndexPermutation indexPermutation = new IndexPermutation(xSize, xSeed);
+
+                for(int xVisit = 0; xVisit < xSize; xVisit ++){
+
+                    assertTrue(indexPermutation.hasNext(), permutationName + " stopped after " + xVisit + " indices");
+
+                    int index = indexPermutation.next();
+
+                    assertTrue(index >= 0 && index < xSize, permutationName + " visited " + index);
+                    assertFalse(isVisited[index], permutationName + " visited " + index + " twice");
+
+                    isVisited[index] = true;
+
+                }
+
+                assertFalse(indexPermutation.hasNext(), permutationName + " has more than " + xSize + " indices");
+
+            }
+        }
+
+    }
+
+    @Test
+    public void sameSeedGivesTheSameOrder(){
+
+        IndexPermutation reusedPermutation = new IndexPermutation(0, 0);
+
+        for(int xSize : SIZES){
+            for(long xSeed : SEEDS){
+
+                int[] firstOrder = getOrder(new IndexPermutation(xSize, xSeed));
+
+                assertArrayEquals(firstOrder, getOrder(new IndexPermutation(xSize, xSeed)), "size " + xSize + ", seed " + xSeed);
+
+                /*A reset instance starts over as if it were new*/
+                reusedPermutation.reset(xSize, xSeed);
+                assertArrayEquals(firstOrder, getOrder(reusedPermutation), "size " + xSize + ", seed " + xSeed + ", reset");
+
+            }
+        }
+
+    }
+
+    @Test
+    public void otherSeedGivesAnotherOrder(){
+
+        for(int xSize : new int[]{33, 1024, 100003}){
+
+            int[] firstOrder = getOrder(new IndexPermutation(xSize, 1));
+            int[] otherOrder = getOrder(new IndexPermutation(xSize, 2));
+            int samePlaces = 0;
+
+            for(int xVisit = 0; xVisit < xSize; xVisit ++){
+                if(firstOrder[xVisit] == otherOrder[xVisit]){
+                    samePlaces ++;
+                }
+            }
+
+            /*Two random orders agree on about one place*/
+            assertTrue(samePlaces < Math.max(4, xSize / 100), "size " + xSize + ": " + samePlaces + " places agree");
+
+        }
+
+    }
+
+    /*Helper Methods*/
+
+    private static int[] getOrder(IndexPermutation indexPermutation){
+
+        List<Integer> visitOrder = new ArrayList<Integer>();
+
+        while(indexPermutation.hasNext()){
+            visitOrder.add(indexPermutation.next());
+        }
+
+        return visitOrder.stream().mapToInt(Integer::intValue).toArray();
+
+    }
+
+}
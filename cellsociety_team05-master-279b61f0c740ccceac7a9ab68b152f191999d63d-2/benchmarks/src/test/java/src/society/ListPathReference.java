@@ -0,0 +1,129 @@
+package src.society;
+
+import src.cell.Cell;
+import src.cell.CellShape;
+import src.cell.state.State;
+import src.society.property.BorderType;
+import src.society.property.GridType;
+import src.society.property.SocietyType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Reference results for the engine tests. A grid is stepped the way the model stepped before any engine existed: the
+ * neighbors of each cell are collected into a list by <code>Grid.getNeighborCellList</code> and handed to the state's
+ * <code>neighborUpdate</code>. Only deterministic rules can be stepped this way.
+ */
+
+public class ListPathReference {
+
+    private ListPathReference(){
+    }
+
+    /**
+     * Creates a society whose cells are drawn at random from two states
+     * @param societyType type of society
+     * @param row number of rows
+     * @param col number of columns
+     * @param cellShape shape of the cells
+     * @param gridType storage of the grid
+     * @param borderType border of the grid
+     * @param liveName name of the state drawn with probability <code>liveShare</code>
+     * @param deadName name of the other state
+     * @param liveShare share of cells in the live state
+     * @param layoutSeed seed of the layout
+     * @return new society, stepped on one thread
+     */
+    public static Society createSociety(SocietyType societyType, int row, int col, CellShape cellShape, GridType gridType,
+                                        BorderType borderType, String liveName, String deadName, double liveShare, long layoutSeed){
+
+        Random layoutRandom = new Random(layoutSeed);
+        List<Cell> cellList = new ArrayList<Cell>(row * col);
+
+        for(int xIndex = 0; xIndex < row * col; xIndex ++){
+            cellList.add(societyType.createCell((layoutRandom.nextDouble() < liveShare) ? liveName : deadName));
+        }
+
+        Society newSociety = societyType.createSociety(row, col, cellList, cellShape, gridType);
+        newSociety.setBorderType(borderType);
+        newSociety.setParallelism(1);
+
+        return newSociety;
+
+    }
+
+    /**
+     * Advances a grid one generation through the neighbor lists
+     * @param societyGrid grid to step
+     */
+    public static void step(Grid societyGrid){
+
+        State[] nextStates = new State[societyGrid.getSize()];
+
+        for(int xIndex = 0; xIndex < societyGrid.getSize(); xIndex ++){
+
+            Cell xCell = societyGrid.getCell(xIndex);
+
+            if(xCell == null){
+                continue;
+            }
+
+            List<State> neighborStates = new ArrayList<State>();
+
+            for(Cell xNeighbor : societyGrid.getNeighborCellList(societyGrid.getLocation(xIndex))){
+                neighborStates.add(xNeighbor.getCurrentState());
+            }
+
+            nextStates[xIndex] = xCell.getCurrentState().neighborUpdate(neighborStates, null);
+
+        }
+
+        for(int xIndex = 0; xIndex < societyGrid.getSize(); xIndex ++){
+            if(societyGrid.getCell(xIndex) != null){
+                societyGrid.getCell(xIndex).setCurrentState(nextStates[xIndex]);
+            }
+        }
+
+    }
+
+    /**
+     * Copies the current states of a grid
+     * @param societyGrid grid to read
+     * @return states in row-major order, null for missing cells
+     */
+    public static State[] getStates(Grid societyGrid){
+
+        State[] currentStates = new State[societyGrid.getSize()];
+
+        for(int xIndex = 0; xIndex < societyGrid.getSize(); xIndex ++){
+            Cell xCell = societyGrid.getCell(xIndex);
+            currentStates[xIndex] = (xCell == null) ? null : xCell.getCurrentState();
+        }
+
+        return currentStates;
+
+    }
+
+    /**
+     * Counts the cells of a grid in a state by visiting them
+     * @param societyGrid grid to read
+     * @param cellState state to count
+     * @return number of cells in the state
+     */
+    public static long countState(Grid societyGrid, State cellState){
+
+        long stateCount = 0;
+
+        for(State xState : getStates(societyGrid)){
+            if(xState == cellState){
+                stateCount ++;
+            }
+        }
+
+        return stateCount;
+
+    }
+
+}
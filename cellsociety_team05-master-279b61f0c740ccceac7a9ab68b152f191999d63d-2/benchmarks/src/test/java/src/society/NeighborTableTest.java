@@ -0,0 +1,214 @@
+package src.society;
+
+import org.junit.jupiter.api.Test;
+import src.cell.Cell;
+import src.cell.CellShape;
+import src.cell.EdgeCell;
+import src.cell.location.Location;
+import src.society.property.BorderType;
+import src.society.property.GridType;
+import src.society.property.SocietyType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the precomputed neighbor table, including its TOROIDAL wrapping, against
+ * <code>Grid.getNeighborCellMap</code>, which the list path reads, and that every torus it builds is symmetric
+ */
+
+public class NeighborTableTest {
+
+    /*Even and odd sizes, and tori narrower than a neighborhood*/
+    private static final int[][] GRID_SIZES = {{6, 8}, {7, 9}, {2, 5}, {1, 4}, {2, 2}};
+
+    @Test
+    public void tableMatchesTheNeighborMap(){
+
+        for(CellShape xShape : CellShape.values()){
+            for(BorderType xBorderType : BorderType.values()){
+                for(GridType xGridType : GridType.values()){
+                    for(int[] xSize : GRID_SIZES){
+
+                        Grid societyGrid = createGrid(xSize[0], xSize[1], xShape, xGridType, xBorderType);
+
+                        if(xBorderType == BorderType.TOROIDAL && !canWrap(xShape, xSize[0], xSize[1])){
+                            continue;
+                        }
+
+                        NeighborTable neighborTable = societyGrid.getNeighborTable();
+
+                        for(int xIndex = 0; xIndex < societyGrid.getSize(); xIndex ++){
+
+                            String cellName = xShape + " " + xBorderType + " " + xGridType + " " + xSize[0] + "x" + xSize[1] + ", cell " + xIndex;
+                            List<Integer> mapNeighbors = new ArrayList<Integer>();
+                            int mapEdges = 0;
+
+                            for(Map.Entry<Location, Cell> xEntry : societyGrid.getNeighborCellMap(societyGrid.getLocation(xIndex)).entrySet()){
+                                if(xEntry.getValue() instanceof EdgeCell){
+                                    mapEdges ++;
+                                }
+                                else{
+                                    mapNeighbors.add(societyGrid.getIndex(xEntry.getKey()));
+                                }
+                            }
+
+                            List<Integer> tableNeighbors = new ArrayList<Integer>();
+                            int tableEdges = 0;
+
+                            for(int xPosition = neighborTable.getStart(xIndex); xPosition < neighborTable.getEnd(xIndex); xPosition ++){
+                                if(neighborTable.getNeighbor(xPosition) == NeighborTable.EDGE){
+                                    tableEdges ++;
+                                }
+                                else{
+                                    tableNeighbors.add(neighborTable.getNeighbor(xPosition));
+                                }
+                            }
+
+                            Collections.sort(mapNeighbors);
+                            Collections.sort(tableNeighbors);
+
+                            assertEquals(mapNeighbors, tableNeighbors, cellName);
+                            assertEquals(mapEdges, tableEdges, cellName + ", edge slots");
+
+                        }
+
+                    }
+                }
+            }
+        }
+
+    }
+
+    @Test
+    public void torusWrapsTheCorners(){
+
+        Grid societyGrid = createGrid(5, 7, CellShape.SQUARE, GridType.DENSE, BorderType.TOROIDAL);
+
+        /*Top-left corner: the row below, the last column and the bottom row*/
+        assertEquals(List.of(1, 6, 7, 8, 13, 28, 29, 34), getNeighbors(societyGrid.getNeighborTable(), 0));
+
+        /*Bottom-right corner: the row above, the first column and the top row*/
+        assertEquals(List.of(0, 5, 6, 21, 26, 27, 28, 33), getNeighbors(societyGrid.getNeighborTable(), 34));
+
+    }
+
+    @Test
+    public void torusIsSymmetric(){
+
+        for(CellShape xShape : CellShape.values()){
+            for(int[] xSize : new int[][]{{6, 8}, {4, 2}, {2, 6}, {10, 4}}){
+
+                NeighborTable neighborTable = createGrid(xSize[0], xSize[1], xShape, GridType.DENSE, BorderType.TOROIDAL).getNeighborTable();
+
+                for(int xIndex = 0; xIndex < xSize[0] * xSize[1]; xIndex ++){
+                    for(int xNeighbor : getNeighbors(neighborTable, xIndex)){
+                        assertTrue(getNeighbors(neighborTable, xNeighbor).contains(xIndex), xShape + " " + xSize[0] + "x" + xSize[1]
+                                + ": cell " + xIndex + " lists " + xNeighbor + ", which does not list it back");
+                    }
+                }
+
+            }
+        }
+
+    }
+
+    @Test
+    public void oddTorusIsRejected(){
+
+        for(CellShape xShape : CellShape.values()){
+            for(int[] xSize : GRID_SIZES){
+
+                Grid societyGrid = createGrid(xSize[0], xSize[1], xShape, GridType.DENSE, BorderType.TOROIDAL);
+
+                if(canWrap(xShape, xSize[0], xSize[1])){
+                    societyGrid.getNeighborTable();
+                }
+                else{
+                    assertThrows(IllegalArgumentException.class, societyGrid::getNeighborTable, xShape + " " + xSize[0] + "x" + xSize[1]);
+                }
+
+            }
+        }
+
+    }
+
+    @Test
+    public void dependentsAreTheTransposedTable(){
+
+        for(CellShape xShape : CellShape.values()){
+
+            Grid societyGrid = createGrid(6, 4, xShape, GridType.DENSE, BorderType.TOROIDAL);
+            NeighborTable neighborTable = societyGrid.getNeighborTable();
+
+            for(int xIndex = 0; xIndex < societyGrid.getSize(); xIndex ++){
+
+                List<Integer> expectedDependents = new ArrayList<Integer>();
+
+                for(int xOther = 0; xOther < societyGrid.getSize(); xOther ++){
+                    if(getNeighbors(neighborTable, xOther).contains(xIndex)){
+                        expectedDependents.add(xOther);
+                    }
+                }
+
+                List<Integer> tableDependents = new ArrayList<Integer>();
+
+                for(int xPosition = neighborTable.getDependentStart(xIndex); xPosition < neighborTable.getDependentEnd(xIndex); xPosition ++){
+                    tableDependents.add(neighborTable.getDependent(xPosition));
+                }
+
+                Collections.sort(tableDependents);
+
+                assertEquals(expectedDependents, tableDependents, xShape + ", cell " + xIndex);
+
+            }
+
+        }
+
+    }
+
+    /*Helper Methods*/
+
+    private static Grid createGrid(int row, int col, CellShape cellShape, GridType gridType, BorderType borderType){
+        return ListPathReference.createSociety(SocietyType.GAME_OF_LIFE, row, col, cellShape, gridType, borderType,
+                "ALIVE", "DEAD", 0.5, 1).getSocietyGrid();
+    }
+
+    /**
+     * Whether a shape's offset layout closes into a torus: hexagons offset every other row or column, and triangles
+     * alternate along both
+     */
+    private static boolean canWrap(CellShape cellShape, int row, int col){
+        switch(cellShape){
+            case HEXAGON_POINT:
+                return row % 2 == 0;
+            case HEXAGON_EDGE:
+                return col % 2 == 0;
+            case TRIANGLE:
+                return row % 2 == 0 && col % 2 == 0;
+            default:
+                return true;
+        }
+    }
+
+    private static List<Integer> getNeighbors(NeighborTable neighborTable, int index){
+
+        List<Integer> neighborList = new ArrayList<Integer>();
+
+        for(int xPosition = neighborTable.getStart(index); xPosition < neighborTable.getEnd(index); xPosition ++){
+            neighborList.add(neighborTable.getNeighbor(xPosition));
+        }
+
+        Collections.sort(neighborList);
+
+        return neighborList;
+
+    }
+
+}
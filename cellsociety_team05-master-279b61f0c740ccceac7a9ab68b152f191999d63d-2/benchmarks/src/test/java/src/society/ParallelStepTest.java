@@ -0,0 +1,122 @@
+package src.society;
+
+import org.junit.jupiter.api.Test;
+import src.cell.CellShape;
+import src.cell.state.LifeLikeRule;
+import src.society.property.BorderType;
+import src.society.property.GridType;
+import src.society.property.NeighborhoodType;
+import src.society.property.SocietyType;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * Checks that stepping the row bands of a deterministic society on a pool gives the same generations as stepping them
+ * on one thread, and as the neighbor-list step
+ */
+
+public class ParallelStepTest {
+
+    private static final int STEP_COUNT = 20;
+
+    @Test
+    public void bandStepMatchesTheListPath(){
+
+        for(CellShape xShape : CellShape.values()){
+            for(BorderType xBorderType : BorderType.values()){
+                for(GridType xGridType : GridType.values()){
+
+                    /*An INFINITE square grid keeps growing past its window, which the list path cannot follow*/
+                    if(xShape == CellShape.SQUARE && xBorderType == BorderType.INFINITE){
+                        continue;
+                    }
+
+                    Society parallelSociety = createLife(xShape, xGridType, xBorderType);
+                    Grid referenceGrid = createLife(xShape, GridType.SPARSE, xBorderType).getSocietyGrid();
+
+                    parallelSociety.setParallelism(4);
+
+                    for(int xStep = 1; xStep <= STEP_COUNT; xStep ++){
+
+                        parallelSociety.step();
+                        ListPathReference.step(referenceGrid);
+
+                        assertArrayEquals(ListPathReference.getStates(referenceGrid), ListPathReference.getStates(parallelSociety.getSocietyGrid()),
+                                xShape + " " + xBorderType + " " + xGridType + ", step " + xStep);
+
+                    }
+
+                }
+            }
+        }
+
+    }
+
+    @Test
+    public void parallelismKeepsTheGenerations(){
+
+        for(CellShape xShape : CellShape.values()){
+            for(GridType xGridType : GridType.values()){
+                assertSameAtEveryParallelism(() -> createLife(xShape, xGridType, BorderType.TOROIDAL), xShape + " " + xGridType);
+            }
+        }
+
+        assertSameAtEveryParallelism(() -> {
+            Society radiusSociety = createLife(CellShape.SQUARE, GridType.DENSE, BorderType.REGULAR);
+            radiusSociety.setNeighborhood(NeighborhoodType.VON_NEUMANN, 2);
+            return radiusSociety;
+        }, "radius neighborhood");
+
+        for(String xRule : new String[]{LifeLikeRule.CONWAY, "B2/S/C3", "R2,C0,M0,S2..3,B3..3,NM"}){
+            for(CellShape xShape : new CellShape[]{CellShape.SQUARE, CellShape.HEXAGON_POINT}){
+                assertSameAtEveryParallelism(() -> {
+                    LifeLikeSociety lifeLikeSociety = (LifeLikeSociety) ListPathReference.createSociety(SocietyType.LIFE_LIKE, 90, 70,
+                            xShape, GridType.DENSE, BorderType.TOROIDAL, "ALIVE", "DEAD", 0.35, 5);
+                    lifeLikeSociety.setRule(LifeLikeRule.parse(xRule));
+                    return lifeLikeSociety;
+                }, xRule + " on " + xShape);
+            }
+        }
+
+    }
+
+    /*Helper Methods*/
+
+    private interface SocietyFactory {
+        public Society create();
+    }
+
+    /**
+     * Steps a society built the same way at parallelism 1, 2 and 4 and compares every generation
+     */
+    private static void assertSameAtEveryParallelism(SocietyFactory societyFactory, String societyName){
+
+        Society[] societies = new Society[3];
+        int[] parallelisms = {1, 2, 4};
+
+        for(int xSociety = 0; xSociety < societies.length; xSociety ++){
+            societies[xSociety] = societyFactory.create();
+            societies[xSociety].setParallelism(parallelisms[xSociety]);
+        }
+
+        for(int xStep = 1; xStep <= STEP_COUNT; xStep ++){
+
+            for(Society xSociety : societies){
+                xSociety.step();
+            }
+
+            for(int xSociety = 1; xSociety < societies.length; xSociety ++){
+                assertArrayEquals(ListPathReference.getStates(societies[0].getSocietyGrid()), ListPathReference.getStates(societies[xSociety].getSocietyGrid()),
+                        societyName + " at parallelism " + parallelisms[xSociety] + ", step " + xStep);
+            }
+
+        }
+
+    }
+
+    private static Society createLife(CellShape cellShape, GridType gridType, BorderType borderType){
+        return ListPathReference.createSociety(SocietyType.GAME_OF_LIFE, 60, 48, cellShape, gridType, borderType,
+                "ALIVE", "DEAD", 0.35, 3);
+    }
+
+}
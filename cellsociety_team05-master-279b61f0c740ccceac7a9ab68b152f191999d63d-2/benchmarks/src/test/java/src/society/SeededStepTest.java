@@ -0,0 +1,137 @@
+package src.society;
+
+import org.junit.jupiter.api.Test;
+import src.cell.CellShape;
+import src.cell.state.SegregationState;
+import src.cell.state.SpreadingFireState;
+import src.cell.state.State;
+import src.cell.state.WatorState;
+import src.society.property.BorderType;
+import src.society.property.GridType;
+import src.society.property.SocietyType;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Checks that the random societies are reproducible: the same seed and starting grid give the same generations on
+ * every run, grid type and parallelism, and another seed gives other generations
+ */
+
+public class SeededStepTest {
+
+    private static final int STEP_COUNT = 15;
+    private static final long RUN_SEED = 20240917L;
+
+    @Test
+    public void sameSeedGivesTheSameRun(){
+
+        for(SocietyType xType : new SocietyType[]{SocietyType.SPREADING_FIRE, SocietyType.WATOR, SocietyType.SEGREGATION}){
+            for(CellShape xShape : new CellShape[]{CellShape.SQUARE, CellShape.HEXAGON_POINT}){
+
+                State[][] firstRun = run(xType, xShape, GridType.DENSE, 1, RUN_SEED);
+                String runName = xType + " on " + xShape;
+
+                assertRunEquals(firstRun, run(xType, xShape, GridType.DENSE, 1, RUN_SEED), runName + ", repeated");
+
+                for(GridType xGridType : GridType.values()){
+                    for(int xParallelism : new int[]{1, 2, 4}){
+                        assertRunEquals(firstRun, run(xType, xShape, xGridType, xParallelism, RUN_SEED),
+                                runName + ", " + xGridType + " at parallelism " + xParallelism);
+                    }
+                }
+
+            }
+        }
+
+    }
+
+    @Test
+    public void otherSeedGivesAnotherRun(){
+
+        for(SocietyType xType : new SocietyType[]{SocietyType.SPREADING_FIRE, SocietyType.WATOR, SocietyType.SEGREGATION}){
+
+            State[][] firstRun = run(xType, CellShape.SQUARE, GridType.DENSE, 1, RUN_SEED);
+            State[][] otherRun = run(xType, CellShape.SQUARE, GridType.DENSE, 1, RUN_SEED + 1);
+
+            assertFalse(Arrays.equals(firstRun[STEP_COUNT - 1], otherRun[STEP_COUNT - 1]), xType + " ignores its seed");
+
+        }
+
+    }
+
+    /*Helper Methods*/
+
+    private static void assertRunEquals(State[][] expectedRun, State[][] actualRun, String runName){
+        for(int xStep = 0; xStep < STEP_COUNT; xStep ++){
+            assertArrayEquals(expectedRun[xStep], actualRun[xStep], runName + ", step " + (xStep + 1));
+        }
+    }
+
+    /**
+     * Steps a seeded society and records every generation
+     */
+    private static State[][] run(SocietyType societyType, CellShape cellShape, GridType gridType, int parallelism, long runSeed){
+
+        Society randomSociety = createSociety(societyType, cellShape, gridType);
+        State[][] generations = new State[STEP_COUNT][];
+
+        randomSociety.setSeed(runSeed);
+        randomSociety.setParallelism(parallelism);
+
+        for(int xStep = 0; xStep < STEP_COUNT; xStep ++){
+            randomSociety.step();
+            generations[xStep] = ListPathReference.getStates(randomSociety.getSocietyGrid());
+        }
+
+        assertEquals(STEP_COUNT, randomSociety.getGeneration());
+
+        return generations;
+
+    }
+
+    /**
+     * Creates a society of two states and sprinkles a third over it, from a fixed layout
+     */
+    private static Society createSociety(SocietyType societyType, CellShape cellShape, GridType gridType){
+
+        Society newSociety;
+        State sprinkledState;
+
+        switch(societyType){
+            case SPREADING_FIRE:
+                newSociety = ListPathReference.createSociety(societyType, 48, 40, cellShape, gridType, BorderType.REGULAR,
+                        "TREE", "EMPTY", 0.8, 11);
+                sprinkledState = SpreadingFireState.BURNING;
+                break;
+            case WATOR:
+                newSociety = ListPathReference.createSociety(societyType, 48, 40, cellShape, gridType, BorderType.TOROIDAL,
+                        "PREY", "EMPTY", 0.4, 12);
+                sprinkledState = WatorState.PREDATOR;
+                break;
+            default:
+                newSociety = ListPathReference.createSociety(societyType, 48, 40, cellShape, gridType, BorderType.REGULAR,
+                        "AGENT_X", "AGENT_O", 0.5, 13);
+                sprinkledState = SegregationState.EMPTY;
+                break;
+        }
+
+        Grid societyGrid = newSociety.getSocietyGrid();
+        Random layoutRandom = new Random(14);
+
+        for(int xIndex = 0; xIndex < societyGrid.getSize(); xIndex ++){
+            if(layoutRandom.nextDouble() < 0.1){
+                societyGrid.getCell(xIndex).setCurrentState(sprinkledState);
+                societyGrid.markChanged(xIndex);
+            }
+        }
+
+        return newSociety;
+
+    }
+
+}
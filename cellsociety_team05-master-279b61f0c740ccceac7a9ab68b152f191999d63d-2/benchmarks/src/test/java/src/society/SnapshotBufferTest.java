@@ -0,0 +1,178 @@
+package src.society;
+
+import org.junit.jupiter.api.Test;
+import src.cell.CellShape;
+import src.cell.state.GameOfLifeState;
+import src.cell.state.State;
+import src.society.property.BorderType;
+import src.society.property.GridType;
+import src.society.property.SocietyType;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a snapshot copies a generation and keeps it while the society steps on, and that the buffer hands the
+ * reader only the newest published snapshot, never one the writer is filling
+ */
+
+public class SnapshotBufferTest {
+
+    @Test
+    public void snapshotKeepsItsGeneration(){
+
+        for(GridType xGridType : GridType.values()){
+
+            Society lifeSociety = createLife(xGridType);
+            SocietySnapshot societySnapshot = new SocietySnapshot();
+
+            assertEquals(-1, societySnapshot.getGeneration());
+
+            lifeSociety.step();
+            lifeSociety.step();
+            societySnapshot.copyFrom(lifeSociety);
+
+            State[] copiedStates = ListPathReference.getStates(lifeSociety.getSocietyGrid());
+            long aliveCount = ListPathReference.countState(lifeSociety.getSocietyGrid(), GameOfLifeState.ALIVE);
+
+            for(int xStep = 0; xStep < 3; xStep ++){
+                lifeSociety.step();
+            }
+
+            assertEquals(2, societySnapshot.getGeneration(), xGridType + " grid");
+            assertArrayEquals(copiedStates, getStates(societySnapshot), xGridType + " grid");
+            assertEquals(aliveCount, societySnapshot.getStateCounts().get(GameOfLifeState.ALIVE), xGridType + " grid");
+            assertEquals(copiedStates.length - aliveCount, societySnapshot.getStateCounts().get(GameOfLifeState.DEAD), xGridType + " grid");
+
+        }
+
+    }
+
+    @Test
+    public void acquireTakesTheNewestPublished(){
+
+        SnapshotBuffer snapshotBuffer = new SnapshotBuffer();
+        Society lifeSociety = createLife(GridType.DENSE);
+
+        assertNull(snapshotBuffer.acquire(), "nothing was published yet");
+
+        for(int xPublish = 0; xPublish < 3; xPublish ++){
+            lifeSociety.step();
+            snapshotBuffer.getBackSnapshot().copyFrom(lifeSociety);
+            snapshotBuffer.publish();
+        }
+
+        SocietySnapshot frontSnapshot = snapshotBuffer.acquire();
+
+        assertEquals(3, frontSnapshot.getGeneration(), "the newest generation was skipped");
+        assertArrayEquals(ListPathReference.getStates(lifeSociety.getSocietyGrid()), getStates(frontSnapshot));
+        assertNull(snapshotBuffer.acquire(), "the same generation was handed out twice");
+
+        /*The writer goes on filling and publishing without touching the snapshot the reader holds*/
+        for(int xPublish = 0; xPublish < 4; xPublish ++){
+            assertNotSame(frontSnapshot, snapshotBuffer.getBackSnapshot());
+            lifeSociety.step();
+            snapshotBuffer.getBackSnapshot().copyFrom(lifeSociety);
+            snapshotBuffer.publish();
+            assertEquals(3, frontSnapshot.getGeneration());
+        }
+
+        SocietySnapshot nextSnapshot = snapshotBuffer.acquire();
+
+        assertEquals(7, nextSnapshot.getGeneration());
+        assertNotSame(frontSnapshot, nextSnapshot);
+        assertNotSame(nextSnapshot, snapshotBuffer.getBackSnapshot());
+
+        /*Publishing again hands the writer the snapshot the reader gave back*/
+        snapshotBuffer.publish();
+        assertSame(frontSnapshot, snapshotBuffer.getBackSnapshot());
+
+    }
+
+    @Test
+    public void readerSeesWholeGenerationsInOrder() throws InterruptedException{
+
+        SnapshotBuffer snapshotBuffer = new SnapshotBuffer();
+        Society lifeSociety = createLife(GridType.DENSE);
+        int publishCount = 2000;
+        AtomicReference<Throwable> writerFailure = new AtomicReference<Throwable>();
+
+        Thread writerThread = new Thread(() -> {
+            try{
+                for(int xPublish = 0; xPublish < publishCount; xPublish ++){
+                    lifeSociety.step();
+                    snapshotBuffer.getBackSnapshot().copyFrom(lifeSociety);
+                    snapshotBuffer.publish();
+                }
+            }
+            catch(Throwable e){
+                writerFailure.set(e);
+            }
+        });
+
+        writerThread.start();
+
+        long lastGeneration = 0;
+
+        while(lastGeneration < publishCount && writerFailure.get() == null){
+
+            SocietySnapshot frontSnapshot = snapshotBuffer.acquire();
+
+            if(frontSnapshot == null){
+                Thread.onSpinWait();
+                continue;
+            }
+
+            assertTrue(frontSnapshot.getGeneration() > lastGeneration, "generation " + frontSnapshot.getGeneration()
+                    + " came after " + lastGeneration);
+
+            /*A snapshot overwritten while held would not agree with its own population*/
+            long aliveCount = 0;
+
+            for(byte xOrdinal : frontSnapshot.getStateOrdinals()){
+                if(xOrdinal == GameOfLifeState.ALIVE.ordinal()){
+                    aliveCount ++;
+                }
+            }
+
+            assertEquals(frontSnapshot.getStateCounts().get(GameOfLifeState.ALIVE), aliveCount, "generation " + frontSnapshot.getGeneration());
+
+            lastGeneration = frontSnapshot.getGeneration();
+
+        }
+
+        writerThread.join();
+
+        assertNull(writerFailure.get());
+        assertEquals(publishCount, lastGeneration);
+
+    }
+
+    /*Helper Methods*/
+
+    private static State[] getStates(SocietySnapshot societySnapshot){
+
+        byte[] stateOrdinals = societySnapshot.getStateOrdinals();
+        State[] snapshotStates = new State[stateOrdinals.length];
+
+        for(int xIndex = 0; xIndex < stateOrdinals.length; xIndex ++){
+            snapshotStates[xIndex] = (stateOrdinals[xIndex] < 0) ? null : societySnapshot.getStateValues()[stateOrdinals[xIndex]];
+        }
+
+        return snapshotStates;
+
+    }
+
+    private static Society createLife(GridType gridType){
+        return ListPathReference.createSociety(SocietyType.GAME_OF_LIFE, 40, 50, CellShape.SQUARE, gridType, BorderType.TOROIDAL,
+                "ALIVE", "DEAD", 0.35, 21);
+    }
+
+}
@@ -0,0 +1,132 @@
+package src.society;
+
+import org.junit.jupiter.api.Test;
+import src.society.property.NeighborhoodType;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the neighborhood counts of the summed-area tables against counting every neighborhood cell by cell
+ */
+
+public class SummedAreaTableTest {
+
+    private static final int STATE_COUNT = 3;
+
+    /*Even and odd sizes, and grids narrower than a neighborhood*/
+    private static final int[][] GRID_SIZES = {{9, 12}, {11, 7}, {1, 5}, {3, 2}};
+
+    @Test
+    public void countsMatchBruteForce(){
+
+        /*One table for every case, so rebuilding over another size, shape and radius is checked too*/
+        SummedAreaTable areaTable = new SummedAreaTable();
+        ForkJoinPool stepPool = new ForkJoinPool(4);
+
+        try{
+            for(NeighborhoodType xType : new NeighborhoodType[]{NeighborhoodType.MOORE, NeighborhoodType.VON_NEUMANN}){
+                for(int xRadius = 1; xRadius <= 3; xRadius ++){
+                    for(boolean xToroidal : new boolean[]{false, true}){
+                        for(int[] xSize : GRID_SIZES){
+                            for(ForkJoinPool xPool : new ForkJoinPool[]{null, stepPool}){
+
+                                int rowCount = xSize[0];
+                                int colCount = xSize[1];
+                                byte[] currentStates = createStates(rowCount * colCount, rowCount * 31L + colCount);
+                                int[] neighborCounts = new int[STATE_COUNT];
+
+                                areaTable.rebuild(currentStates, rowCount, colCount, STATE_COUNT, xType, xRadius, xToroidal, xPool);
+
+                                for(int xRow = 0; xRow < rowCount; xRow ++){
+                                    for(int xCol = 0; xCol < colCount; xCol ++){
+
+                                        int[] expectedCounts = countNeighborhood(currentStates, rowCount, colCount, xType, xRadius,
+                                                xToroidal, xRow, xCol);
+                                        String cellName = xType + " radius " + xRadius + (xToroidal ? " toroidal " : " ")
+                                                + rowCount + "x" + colCount + ", cell " + xRow + ", " + xCol;
+
+                                        areaTable.getCounts(xRow, xCol, neighborCounts);
+                                        assertArrayEquals(expectedCounts, neighborCounts, cellName);
+
+                                        for(int xOrdinal = 0; xOrdinal < STATE_COUNT; xOrdinal ++){
+                                            assertEquals(expectedCounts[xOrdinal], areaTable.getCount(xOrdinal, xRow, xCol), cellName);
+                                        }
+
+                                    }
+                                }
+
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        finally{
+            stepPool.shutdown();
+        }
+
+    }
+
+    /*Helper Methods*/
+
+    /**
+     * Creates random ordinals, some of them outside the counted states, which the tables must skip
+     */
+    private static byte[] createStates(int cellCount, long layoutSeed){
+
+        Random layoutRandom = new Random(layoutSeed);
+        byte[] currentStates = new byte[cellCount];
+
+        for(int xIndex = 0; xIndex < cellCount; xIndex ++){
+            currentStates[xIndex] = (byte) (layoutRandom.nextInt(STATE_COUNT + 2) - 1);
+        }
+
+        return currentStates;
+
+    }
+
+    /**
+     * Counts the states of a neighborhood, the center included, one offset at a time; on a torus an offset that wraps
+     * onto a cell already counted counts it again, as the padded tables do
+     */
+    private static int[] countNeighborhood(byte[] currentStates, int rowCount, int colCount, NeighborhoodType neighborhoodType,
+                                           int radius, boolean isToroidal, int row, int col){
+
+        int[] stateCounts = new int[STATE_COUNT];
+
+        for(int xRowOffset = -radius; xRowOffset <= radius; xRowOffset ++){
+            for(int xColOffset = -radius; xColOffset <= radius; xColOffset ++){
+
+                if(neighborhoodType == NeighborhoodType.VON_NEUMANN && Math.abs(xRowOffset) + Math.abs(xColOffset) > radius){
+                    continue;
+                }
+
+                int neighborRow = row + xRowOffset;
+                int neighborCol = col + xColOffset;
+
+                if(isToroidal){
+                    neighborRow = Math.floorMod(neighborRow, rowCount);
+                    neighborCol = Math.floorMod(neighborCol, colCount);
+                }
+                else if(neighborRow < 0 || neighborRow >= rowCount || neighborCol < 0 || neighborCol >= colCount){
+                    continue;
+                }
+
+                int neighborOrdinal = currentStates[neighborRow * colCount + neighborCol];
+
+                if(neighborOrdinal >= 0 && neighborOrdinal < STATE_COUNT){
+                    stateCounts[neighborOrdinal] ++;
+                }
+
+            }
+        }
+
+        return stateCounts;
+
+    }
+
+}
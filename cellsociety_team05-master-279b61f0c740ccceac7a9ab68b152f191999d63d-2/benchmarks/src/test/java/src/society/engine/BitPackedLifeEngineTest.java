@@ -0,0 +1,112 @@
+package src.society.engine;
+
+import org.junit.jupiter.api.Test;
+import src.cell.CellShape;
+import src.cell.state.GameOfLifeState;
+import src.cell.state.State;
+import src.society.Grid;
+import src.society.ListPathReference;
+import src.society.Society;
+import src.society.property.BorderType;
+import src.society.property.GridType;
+import src.society.property.SocietyType;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the bit-packed engine, and the Game of Life society that keeps a dense grid in step with it, against the
+ * neighbor-list step
+ */
+
+public class BitPackedLifeEngineTest {
+
+    private static final int BIRTH_MASK = PackedLifeRule.getCountMask(3, 3);
+    private static final int SURVIVAL_MASK = PackedLifeRule.getCountMask(2, 3);
+
+    /*Widths on both sides of word boundaries*/
+    private static final int[] COL_COUNTS = {3, 63, 64, 65, 130};
+
+    @Test
+    public void engineMatchesTheListPath(){
+
+        for(BorderType xBorderType : new BorderType[]{BorderType.REGULAR, BorderType.TOROIDAL}){
+            for(int xCols : COL_COUNTS){
+
+                Grid referenceGrid = createSociety(17, xCols, GridType.SPARSE, xBorderType).getSocietyGrid();
+                BitPackedLifeEngine lifeEngine = new BitPackedLifeEngine(17, xCols, xBorderType);
+
+                lifeEngine.readStates(referenceGrid, GameOfLifeState.ALIVE);
+
+                for(int xStep = 1; xStep <= 40; xStep ++){
+
+                    lifeEngine.step(BIRTH_MASK, SURVIVAL_MASK);
+                    ListPathReference.step(referenceGrid);
+
+                    State[] referenceStates = ListPathReference.getStates(referenceGrid);
+
+                    for(int xIndex = 0; xIndex < referenceStates.length; xIndex ++){
+                        assertEquals(referenceStates[xIndex] == GameOfLifeState.ALIVE, lifeEngine.isAlive(xIndex / xCols, xIndex % xCols),
+                                xBorderType + " " + xCols + " columns, step " + xStep + ", cell " + xIndex);
+                    }
+
+                }
+
+            }
+        }
+
+    }
+
+    @Test
+    public void packedSocietyMatchesTheListPath(){
+
+        for(BorderType xBorderType : new BorderType[]{BorderType.REGULAR, BorderType.TOROIDAL}){
+            for(int xParallelism : new int[]{1, 4}){
+
+                Society packedSociety = createSociety(70, 130, GridType.DENSE, xBorderType);
+                Grid referenceGrid = createSociety(70, 130, GridType.SPARSE, xBorderType).getSocietyGrid();
+                Grid packedGrid = packedSociety.getSocietyGrid();
+
+                packedSociety.setParallelism(xParallelism);
+
+                for(int xStep = 1; xStep <= 60; xStep ++){
+
+                    /*Edits between steps must reach the engine, which otherwise keeps its own copy of the board*/
+                    if(xStep % 17 == 0){
+                        for(int xEdit = 0; xEdit < 5; xEdit ++){
+                            int editIndex = (xStep * 131 + xEdit * 977) % packedGrid.getSize();
+                            packedGrid.getCell(editIndex).cycleState();
+                            packedGrid.markChanged(editIndex);
+                            referenceGrid.getCell(editIndex).cycleState();
+                        }
+                    }
+
+                    packedSociety.step();
+                    ListPathReference.step(referenceGrid);
+
+                    String stepName = xBorderType + " at parallelism " + xParallelism + ", step " + xStep;
+
+                    assertArrayEquals(ListPathReference.getStates(referenceGrid), ListPathReference.getStates(packedGrid), stepName);
+
+                    for(GameOfLifeState xState : GameOfLifeState.values()){
+                        assertEquals(ListPathReference.countState(referenceGrid, xState), packedGrid.getPopulationCounter().getCount(xState),
+                                stepName + ", population of " + xState);
+                    }
+
+                }
+
+                assertEquals(60, packedSociety.getGeneration());
+
+            }
+        }
+
+    }
+
+    /*Helper Methods*/
+
+    private static Society createSociety(int row, int col, GridType gridType, BorderType borderType){
+        return ListPathReference.createSociety(SocietyType.GAME_OF_LIFE, row, col, CellShape.SQUARE, gridType, borderType,
+                "ALIVE", "DEAD", 0.35, row * 1000L + col);
+    }
+
+}
@@ -0,0 +1,124 @@
+package src.society.engine;
+
+import org.junit.jupiter.api.Test;
+import src.cell.CellShape;
+import src.cell.state.GameOfLifeState;
+import src.society.GameOfLifeSociety;
+import src.society.Grid;
+import src.society.ListPathReference;
+import src.society.Society;
+import src.society.property.BorderType;
+import src.society.property.GridType;
+import src.society.property.SocietyType;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks HashLife jumps against the neighbor-list step, and that evicting the node cache does not change the board
+ */
+
+public class HashLifeEngineTest {
+
+    private static final int BIRTH_MASK = PackedLifeRule.getCountMask(3, 3);
+    private static final int SURVIVAL_MASK = PackedLifeRule.getCountMask(2, 3);
+
+    @Test
+    public void jumpsMatchTheListPath(){
+
+        for(GridType xGridType : GridType.values()){
+
+            GameOfLifeSociety jumpedSociety = createSociety(37, 50, xGridType);
+            Grid referenceGrid = createSociety(37, 50, xGridType).getSocietyGrid();
+            long referenceGeneration = 0;
+
+            for(long xJump : new long[]{1, 7, 64, 100}){
+
+                jumpedSociety.jumpGenerations(xJump);
+
+                for(long xStep = 0; xStep < xJump; xStep ++){
+                    ListPathReference.step(referenceGrid);
+                }
+
+                referenceGeneration += xJump;
+
+                assertArrayEquals(ListPathReference.getStates(referenceGrid), ListPathReference.getStates(jumpedSociety.getSocietyGrid()),
+                        xGridType + " grid after " + referenceGeneration + " generations");
+                assertEquals(referenceGeneration, jumpedSociety.getGeneration());
+
+            }
+
+        }
+
+    }
+
+    @Test
+    public void evictionKeepsTheBoard(){
+
+        Grid societyGrid = createSociety(64, 64, GridType.DENSE).getSocietyGrid();
+
+        HashLifeEngine cachedEngine = new HashLifeEngine(64, 64);
+        HashLifeEngine evictingEngine = new HashLifeEngine(64, 64, 256);
+
+        cachedEngine.readStates(societyGrid, GameOfLifeState.ALIVE);
+        evictingEngine.readStates(societyGrid, GameOfLifeState.ALIVE);
+
+        for(int xJump = 0; xJump < 20; xJump ++){
+
+            cachedEngine.jumpGenerations(13, BIRTH_MASK, SURVIVAL_MASK);
+            evictingEngine.jumpGenerations(13, BIRTH_MASK, SURVIVAL_MASK);
+
+            assertEquals(cachedEngine.getPopulation(), evictingEngine.getPopulation());
+
+            for(int xRow = 0; xRow < 64; xRow ++){
+                for(int xCol = 0; xCol < 64; xCol ++){
+                    assertEquals(cachedEngine.isAlive(xRow, xCol), evictingEngine.isAlive(xRow, xCol), "cell " + xRow + ", " + xCol);
+                }
+            }
+
+        }
+
+        assertTrue(evictingEngine.getNodeCount() < cachedEngine.getNodeCount(), "the small cache was never evicted");
+
+    }
+
+    @Test
+    public void jumpsMatchTheBitPackedEngine(){
+
+        Grid societyGrid = createSociety(50, 130, GridType.DENSE).getSocietyGrid();
+
+        HashLifeEngine hashLifeEngine = new HashLifeEngine(50, 130);
+        BitPackedLifeEngine packedEngine = new BitPackedLifeEngine(50, 130, BorderType.REGULAR);
+
+        hashLifeEngine.readStates(societyGrid, GameOfLifeState.ALIVE);
+        packedEngine.readStates(societyGrid, GameOfLifeState.ALIVE);
+
+        hashLifeEngine.jumpGenerations(300, BIRTH_MASK, SURVIVAL_MASK);
+
+        for(int xStep = 0; xStep < 300; xStep ++){
+            packedEngine.step(BIRTH_MASK, SURVIVAL_MASK);
+        }
+
+        assertEquals(packedEngine.getPopulation(), hashLifeEngine.getPopulation());
+
+        for(int xRow = 0; xRow < 50; xRow ++){
+            for(int xCol = 0; xCol < 130; xCol ++){
+                assertEquals(packedEngine.isAlive(xRow, xCol), hashLifeEngine.isAlive(xRow, xCol), "cell " + xRow + ", " + xCol);
+            }
+        }
+
+    }
+
+    /*Helper Methods*/
+
+    private static GameOfLifeSociety createSociety(int row, int col, GridType gridType){
+
+        Society newSociety = ListPathReference.createSociety(SocietyType.GAME_OF_LIFE, row, col, CellShape.SQUARE, gridType,
+                BorderType.REGULAR, "ALIVE", "DEAD", 0.35, row * 1000L + col);
+
+        return (GameOfLifeSociety) newSociety;
+
+    }
+
+}
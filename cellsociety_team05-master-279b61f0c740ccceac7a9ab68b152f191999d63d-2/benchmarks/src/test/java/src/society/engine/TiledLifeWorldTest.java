@@ -0,0 +1,157 @@
+package src.society.engine;
+
+import org.junit.jupiter.api.Test;
+import src.cell.CellShape;
+import src.cell.state.GameOfLifeState;
+import src.society.Grid;
+import src.society.ListPathReference;
+import src.society.Society;
+import src.society.property.BorderType;
+import src.society.property.GridType;
+import src.society.property.SocietyType;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the chunked world against the neighbor-list step on a REGULAR grid wide enough that no pattern reaches its
+ * edge, and that quiet chunks sleep and empty chunks are freed
+ */
+
+public class TiledLifeWorldTest {
+
+    private static final int BIRTH_MASK = PackedLifeRule.getCountMask(3, 3);
+    private static final int SURVIVAL_MASK = PackedLifeRule.getCountMask(2, 3);
+
+    /*Patterns spread at most one cell per step, so a margin wider than the step count keeps the reference unbounded*/
+    private static final int STEP_COUNT = 50;
+    private static final int MARGIN = STEP_COUNT + 2;
+
+    @Test
+    public void worldMatchesTheListPath(){
+
+        /*The pattern straddles chunk boundaries on both sides of row and column 0*/
+        int patternSize = 90;
+        int patternOrigin = -45;
+        Grid referenceGrid = createSociety(patternSize + 2 * MARGIN, patternSize + 2 * MARGIN, GridType.SPARSE, BorderType.REGULAR,
+                MARGIN, patternSize).getSocietyGrid();
+        TiledLifeWorld tiledWorld = new TiledLifeWorld();
+        int referenceCols = referenceGrid.getColCount();
+        long worldOffset = patternOrigin - MARGIN;
+
+        for(int xIndex = 0; xIndex < referenceGrid.getSize(); xIndex ++){
+            if(referenceGrid.getCell(xIndex).isCurrentEqual(GameOfLifeState.ALIVE)){
+                tiledWorld.setAlive(xIndex / referenceCols + worldOffset, xIndex % referenceCols + worldOffset, true);
+            }
+        }
+
+        for(int xStep = 1; xStep <= STEP_COUNT; xStep ++){
+
+            tiledWorld.step(BIRTH_MASK, SURVIVAL_MASK);
+            ListPathReference.step(referenceGrid);
+
+            for(int xIndex = 0; xIndex < referenceGrid.getSize(); xIndex ++){
+                assertEquals(referenceGrid.getCell(xIndex).isCurrentEqual(GameOfLifeState.ALIVE),
+                        tiledWorld.isAlive(xIndex / referenceCols + worldOffset, xIndex % referenceCols + worldOffset),
+                        "step " + xStep + ", cell " + xIndex);
+            }
+
+            assertEquals(ListPathReference.countState(referenceGrid, GameOfLifeState.ALIVE), tiledWorld.getPopulation(), "step " + xStep);
+
+        }
+
+    }
+
+    @Test
+    public void infiniteSocietyMatchesTheListPath(){
+
+        for(GridType xGridType : GridType.values()){
+
+            int windowSize = 40;
+            Society tiledSociety = createSociety(windowSize, windowSize, xGridType, BorderType.INFINITE, 0, windowSize);
+            Grid referenceGrid = createSociety(windowSize + 2 * MARGIN, windowSize + 2 * MARGIN, GridType.SPARSE, BorderType.REGULAR,
+                    MARGIN, windowSize).getSocietyGrid();
+            Grid windowGrid = tiledSociety.getSocietyGrid();
+
+            for(int xStep = 1; xStep <= STEP_COUNT; xStep ++){
+
+                tiledSociety.step();
+                ListPathReference.step(referenceGrid);
+
+                for(int xIndex = 0; xIndex < windowGrid.getSize(); xIndex ++){
+                    int referenceIndex = (xIndex / windowSize + MARGIN) * referenceGrid.getColCount() + xIndex % windowSize + MARGIN;
+                    assertEquals(referenceGrid.getCell(referenceIndex).getCurrentState(), windowGrid.getCell(xIndex).getCurrentState(),
+                            xGridType + " grid, step " + xStep + ", cell " + xIndex);
+                }
+
+            }
+
+        }
+
+    }
+
+    @Test
+    public void quietChunksSleepAndEmptyChunksAreFreed(){
+
+        TiledLifeWorld tiledWorld = new TiledLifeWorld();
+
+        /*A block, which never changes, and a lone cell four chunks away, which dies on the first step*/
+        tiledWorld.setAlive(10, 10, true);
+        tiledWorld.setAlive(10, 11, true);
+        tiledWorld.setAlive(11, 10, true);
+        tiledWorld.setAlive(11, 11, true);
+        tiledWorld.setAlive(300, 300, true);
+
+        assertEquals(2, tiledWorld.getChunkCount());
+
+        for(int xStep = 0; xStep < 3; xStep ++){
+            tiledWorld.step(BIRTH_MASK, SURVIVAL_MASK);
+        }
+
+        assertEquals(1, tiledWorld.getChunkCount(), "the chunk of the dead cell was not freed");
+        assertEquals(0, tiledWorld.getAwakeChunkCount(), "the chunk of the block is still awake");
+        assertEquals(4, tiledWorld.getPopulation());
+
+        /*A blinker across a chunk corner keeps the chunks it touches awake*/
+        tiledWorld.setAlive(63, 63, true);
+        tiledWorld.setAlive(63, 64, true);
+        tiledWorld.setAlive(63, 65, true);
+
+        for(int xStep = 0; xStep < 4; xStep ++){
+            tiledWorld.step(BIRTH_MASK, SURVIVAL_MASK);
+            assertTrue(tiledWorld.getAwakeChunkCount() > 0, "the blinker's chunks fell asleep");
+        }
+
+        assertEquals(7, tiledWorld.getPopulation());
+        assertTrue(tiledWorld.isAlive(63, 64) && tiledWorld.isAlive(63, 63) && tiledWorld.isAlive(63, 65));
+
+    }
+
+    /*Helper Methods*/
+
+    /**
+     * Creates a dead society with a random pattern in a square. The pattern depends only on its size, so societies of
+     * different sizes hold the same pattern.
+     */
+    private static Society createSociety(int row, int col, GridType gridType, BorderType borderType, int patternStart, int patternSize){
+
+        Society newSociety = ListPathReference.createSociety(SocietyType.GAME_OF_LIFE, row, col, CellShape.SQUARE, gridType,
+                borderType, "ALIVE", "DEAD", 0, 0);
+        Grid societyGrid = newSociety.getSocietyGrid();
+        Random patternRandom = new Random(patternSize);
+
+        for(int xRow = 0; xRow < patternSize; xRow ++){
+            for(int xCol = 0; xCol < patternSize; xCol ++){
+                if(patternRandom.nextDouble() < 0.35){
+                    societyGrid.getCell((xRow + patternStart) * col + xCol + patternStart).setCurrentState(GameOfLifeState.ALIVE);
+                }
+            }
+        }
+
+        return newSociety;
+
+    }
+
+}
@@ -0,0 +1,88 @@
+package src.ui;
+
+import org.junit.jupiter.api.Test;
+import src.cell.CellShape;
+import src.society.ListPathReference;
+import src.society.Society;
+import src.society.property.BorderType;
+import src.society.property.GridType;
+import src.society.property.SocietyType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that every edit submitted to a simulation thread completes, whether it ran or the thread was shut down first
+ */
+
+public class SimulationThreadTest {
+
+    @Test
+    public void editsAroundShutDownComplete() throws Exception{
+
+        SimulationThread simulationThread = new SimulationThread(createLife());
+        List<CompletableFuture<Void>> editResults = new ArrayList<CompletableFuture<Void>>();
+
+        simulationThread.submit(() -> {}).get(10, TimeUnit.SECONDS);
+        simulationThread.play();
+        simulationThread.setRate(Double.POSITIVE_INFINITY);
+
+        for(int xEdit = 0; xEdit < 200; xEdit ++){
+            editResults.add(simulationThread.submit(() -> {}));
+        }
+
+        simulationThread.shutDown();
+
+        for(int xEdit = 0; xEdit < 200; xEdit ++){
+            editResults.add(simulationThread.submit(() -> {}));
+        }
+
+        for(CompletableFuture<Void> xResult : editResults){
+            Throwable editFailure = getFailure(xResult);
+            assertTrue(editFailure == null || editFailure instanceof CancellationException, "an edit failed with " + editFailure);
+        }
+
+        /*Once the thread has stopped, a new edit cannot run*/
+        assertTrue(getFailure(simulationThread.submit(() -> {})) instanceof CancellationException);
+
+    }
+
+    @Test
+    public void failedEditCompletesWithItsException() throws Exception{
+
+        SimulationThread simulationThread = new SimulationThread(createLife());
+
+        try{
+            CompletableFuture<Void> editResult = simulationThread.submit(() -> {
+                throw new IllegalStateException("edit failed");
+            });
+
+            assertTrue(getFailure(editResult) instanceof IllegalStateException);
+        }
+        finally{
+            simulationThread.shutDown();
+        }
+
+    }
+
+    /*Helper Methods*/
+
+    /**
+     * Waits for an edit to complete
+     * @return what the edit completed exceptionally with, or null if it ran
+     */
+    private static Throwable getFailure(CompletableFuture<Void> editResult) throws Exception{
+        return editResult.handle((result, failure) -> failure).get(10, TimeUnit.SECONDS);
+    }
+
+    private static Society createLife(){
+        return ListPathReference.createSociety(SocietyType.GAME_OF_LIFE, 30, 30, CellShape.SQUARE, GridType.DENSE, BorderType.TOROIDAL,
+                "ALIVE", "DEAD", 0.35, 31);
+    }
+
+}
@@ -0,0 +1,78 @@
+package src.society.engine;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * <code>RowKernel</code> on the JDK Vector API. Ordinals are loaded a vector of bytes at a time and widened to shorts;
+ * each state's contribution is blended in by a lane-wise compare, and the nine contributions are summed as shorts, so
+ * keys must stay below 2^15. The key vector is widened to ints on store. Only loaded by name from
+ * <code>RowKernel.getDefault</code>; it needs <code>jdk.incubator.vector</code> to compile and to link, so it is kept
+ * out of <code>src</code> and built only by builds that add the module, such as the benchmarks.
+ */
+
+public class VectorRowKernel implements RowKernel {
+
+    private static final VectorSpecies<Short> SHORTS = ShortVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Byte> BYTES = VectorSpecies.of(byte.class, VectorShape.forBitSize(SHORTS.vectorBitSize() / 2));
+    private static final VectorSpecies<Integer> INTS = VectorSpecies.of(int.class, SHORTS.vectorShape());
+
+    @Override
+    public void computeKeys(byte[] currentStates, int colCount, int runStart, int runLength, int[] neighborKeys,
+                            int[] currentKeys, int baseKey, int[] cellKeys){
+
+        int laneCount = SHORTS.length();
+        int[] neighborOffsets = {-colCount - 1, -colCount, -colCount + 1, -1, 1, colCount - 1, colCount, colCount + 1};
+        int xCell = 0;
+
+        for(; xCell <= runLength - laneCount; xCell += laneCount){
+
+            int center = runStart + xCell;
+            ShortVector keyVector = ShortVector.broadcast(SHORTS, (short) baseKey).add(this.mapStates(currentStates, center, currentKeys));
+
+            for(int xOffset : neighborOffsets){
+                keyVector = keyVector.add(this.mapStates(currentStates, center + xOffset, neighborKeys));
+            }
+
+            keyVector.convertShape(VectorOperators.S2I, INTS, 0).reinterpretAsInts().intoArray(cellKeys, xCell);
+            keyVector.convertShape(VectorOperators.S2I, INTS, 1).reinterpretAsInts().intoArray(cellKeys, xCell + INTS.length());
+
+        }
+
+        ScalarRowKernel.computeKeys(currentStates, colCount, runStart, xCell, runLength, neighborKeys, currentKeys, baseKey, cellKeys);
+
+    }
+
+    @Override
+    public int getKeyLimit(){
+        return Short.MAX_VALUE + 1;
+    }
+
+    @Override
+    public String getName(){
+        return "vector-" + SHORTS.vectorBitSize();
+    }
+
+    /*Helper Methods*/
+
+    /**
+     * Loads a vector of ordinals and replaces each with what its state adds to a key (0 for no state)
+     */
+    private ShortVector mapStates(byte[] currentStates, int offset, int[] stateKeys){
+
+        ShortVector ordinals = (ShortVector) ByteVector.fromArray(BYTES, currentStates, offset).convertShape(VectorOperators.B2S, SHORTS, 0);
+        ShortVector mapped = ShortVector.zero(SHORTS);
+
+        for(int xOrdinal = 0; xOrdinal < stateKeys.length; xOrdinal ++){
+            mapped = mapped.blend((short) stateKeys[xOrdinal], ordinals.eq((short) xOrdinal));
+        }
+
+        return mapped;
+
+    }
+
+}
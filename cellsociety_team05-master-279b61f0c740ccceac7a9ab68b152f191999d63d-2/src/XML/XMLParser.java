@@ -11,10 +11,7 @@ package src.XML;
 
 import src.cell.*;
 
-import src.cell.state.GameOfLifeState;
-import src.cell.state.SegregationState;
-import src.cell.state.SpreadingFireState;
-import src.cell.state.WatorState;
+import src.cell.state.CounterRandom;
 import org.w3c.dom.*;
 import org.xml.sax.*;
 import src.society.property.*;
@@ -138,6 +135,13 @@ public class XMLParser {
         this.societySetting.setRow(row);
         this.societySetting.setCol(col);
         this.societySetting.setTitle(rootNode.getAttribute(XMLTag.TITLE.getTag()));
+        this.societySetting.setGridType(rootNode.getAttribute(XMLTag.GRID.getTag()));
+        this.societySetting.setBorderType(rootNode.getAttribute(XMLTag.BORDER.getTag()));
+        this.societySetting.setParallelism(rootNode.getAttribute(XMLTag.PARALLELISM.getTag()));
+        this.societySetting.setSeed(rootNode.getAttribute(XMLTag.SEED.getTag()));
+        this.societySetting.setRule(rootNode.getAttribute(XMLTag.RULE.getTag()));
+        this.societySetting.setNeighborhoodType(rootNode.getAttribute(XMLTag.NEIGHBORHOOD.getTag()));
+        this.societySetting.setNeighborhoodRadius(rootNode.getAttribute(XMLTag.RADIUS.getTag()));
 
         NodeList popList = propertiesNode.getElementsByTagName(XMLTag.POPULATION.getTag());
 
@@ -197,26 +201,17 @@ public class XMLParser {
 
         for(String stateString : tempPop.keySet()){
             for(int xCount = 0; xCount < tempPop.get(stateString); xCount++){
-                switch (societyType){
-                    case SEGREGATION:
-                        cellList.add(new SegregationCell(SegregationState.valueOf(stateString)));
-                        break;
-                    case SPREADING_FIRE:
-                        cellList.add(new SpreadingFireCell(SpreadingFireState.valueOf(stateString)));
-                        break;
-                    case GAME_OF_LIFE:
-                        cellList.add(new GameOfLifeCell(GameOfLifeState.valueOf(stateString)));
-                        break;
-                    case WATOR:
-                        cellList.add(new WatorCell(WatorState.valueOf(stateString)));
-                        break;
-                    default:
-                        break;
-                }
+                cellList.add(societyType.createCell(stateString));
             }
         }
 
-        Collections.shuffle(cellList);
+        if(societySettings.getSeed() == null){
+            Collections.shuffle(cellList);
+        }
+        else{
+            Collections.shuffle(cellList, new CounterRandom(societySettings.getSeed()));
+        }
+
         societySettings.setCellList(cellList);
 
     }
@@ -13,6 +13,13 @@ public enum XMLTag {
     CELL("cell"),
     TYPE("type"),
     TITLE("title"),
+    GRID("grid"),
+    BORDER("border"),
+    PARALLELISM("parallelism"),
+    SEED("seed"),
+    RULE("rule"),
+    NEIGHBORHOOD("neighborhood"),
+    RADIUS("radius"),
     POPULATION("population"),
     DIMENSIONS("dimensions"),
     ROW("row"),
@@ -0,0 +1,219 @@
+package src.batch;
+
+import src.XML.XMLParser;
+import src.cell.CellShape;
+import src.cell.state.State;
+import src.society.Society;
+import src.society.property.SocietySetting;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs XML scenarios from the command line, without the user interface, as fast as the society steps. Each scenario is
+ * loaded through <code>XMLParser</code> and stepped for a number of generations; every step writes one tab-separated
+ * line with the time the step took, its throughput in cells per second and the population of every state. A summary
+ * line per scenario is printed to standard output.
+ *
+ * <pre>
+ * java src.batch.BatchRunner [-n generations] [-o output] [-shape cellShape] [-p parallelism] config.xml ...
+ * </pre>
+ *
+ * The output defaults to <code>batch.tsv</code>; the parallelism, when given, overrides the scenario's. Only the step
+ * is timed: loading and reading the populations (O(states), from the grid's <code>PopulationCounter</code>) are not.
+ * Nothing outside the model packages is loaded, so no JavaFX classes are needed.
+ */
+
+public class BatchRunner {
+
+    private static final int DEFAULT_GENERATIONS = 1000;
+    private static final String DEFAULT_OUTPUT = "batch.tsv";
+    private static final String SEPARATOR = "\t";
+    private static final String HEADER = "scenario\tgeneration\tstepNanos\tcellsPerSecond\tpopulations";
+    private static final String USAGE = "usage: BatchRunner [-n generations] [-o output] [-shape cellShape] [-p parallelism] config.xml ...";
+
+    private int generations = DEFAULT_GENERATIONS;
+    private String outputPath = DEFAULT_OUTPUT;
+    private CellShape cellShape = CellShape.SQUARE;
+    private Integer parallelism;
+    private List<String> filePaths = new ArrayList<String>();
+
+    public static void main(String[] args){
+
+        BatchRunner batchRunner = new BatchRunner();
+
+        try{
+            batchRunner.readArguments(args);
+        }
+        catch(IllegalArgumentException E){
+            System.err.println(E.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        try{
+            batchRunner.runAll();
+        }
+        catch(Exception E){
+            E.printStackTrace();
+            System.exit(1);
+        }
+
+    }
+
+    /**
+     * Reads the options and scenario paths
+     * @param args command-line arguments
+     * @throws IllegalArgumentException if an option is unknown, lacks its value or has a bad value, or no scenario is
+     *         given
+     */
+    public void readArguments(String[] args){
+
+        for(int xArg = 0; xArg < args.length; xArg ++){
+
+            String xOption = args[xArg];
+
+            if(!xOption.startsWith("-")){
+                this.filePaths.add(xOption);
+                continue;
+            }
+
+            if(xArg + 1 == args.length){
+                throw new IllegalArgumentException("Option " + xOption + " needs a value");
+            }
+
+            String optionValue = args[++ xArg];
+
+            switch(xOption){
+                case "-n":
+                    this.generations = this.readCount(xOption, optionValue);
+                    break;
+                case "-o":
+                    this.outputPath = optionValue;
+                    break;
+                case "-shape":
+                    this.cellShape = CellShape.valueOf(optionValue.toUpperCase());
+                    break;
+                case "-p":
+                    this.parallelism = this.readCount(xOption, optionValue);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + xOption);
+            }
+
+        }
+
+        if(this.filePaths.isEmpty()){
+            throw new IllegalArgumentException("No scenario given");
+        }
+
+    }
+
+    /**
+     * Runs every scenario in turn, writing all of their steps to the output file
+     * @throws Exception if a scenario cannot be parsed or the output cannot be written
+     */
+    public void runAll() throws Exception{
+
+        try(PrintWriter outputWriter = new PrintWriter(new FileWriter(this.outputPath))){
+
+            outputWriter.println(HEADER);
+
+            for(String xPath : this.filePaths){
+                this.run(xPath, outputWriter);
+            }
+
+            if(outputWriter.checkError()){
+                throw new IOException("Could not write " + this.outputPath);
+            }
+
+        }
+
+    }
+
+    /**
+     * Loads one scenario and steps it, writing a line per generation
+     * @param filePath path of the XML configuration
+     * @param outputWriter writer of the step lines
+     * @throws Exception if the scenario cannot be parsed
+     */
+    public void run(String filePath, PrintWriter outputWriter) throws Exception{
+
+        SocietySetting societySetting = new XMLParser(filePath).getSocietySetting();
+        Society society = societySetting.createSociety(this.cellShape);
+
+        if(this.parallelism != null){
+            society.setParallelism(this.parallelism);
+        }
+
+        int cellCount = society.getSocietyGrid().getSize();
+        long totalNanos = 0;
+
+        this.writeStep(outputWriter, filePath, 0, 0, cellCount, society);
+
+        for(int xGeneration = 1; xGeneration <= this.generations; xGeneration ++){
+
+            long startTime = System.nanoTime();
+            society.step();
+            long stepNanos = System.nanoTime() - startTime;
+
+            totalNanos += stepNanos;
+            this.writeStep(outputWriter, filePath, xGeneration, stepNanos, cellCount, society);
+
+        }
+
+        /*Releases the society's step pool*/
+        society.setParallelism(1);
+
+        System.out.println(String.format("%s: %d cells, %d generations in %.1f ms, %.0f cells/sec", filePath, cellCount,
+                this.generations, totalNanos / 1e6, this.getCellsPerSecond((long) cellCount * this.generations, totalNanos)));
+
+    }
+
+    /*Helper Methods*/
+
+    private void writeStep(PrintWriter outputWriter, String filePath, int generation, long stepNanos, int cellCount, Society society){
+
+        StringBuilder stepLine = new StringBuilder();
+        stepLine.append(filePath).append(SEPARATOR).append(generation).append(SEPARATOR).append(stepNanos).append(SEPARATOR);
+        stepLine.append(String.format("%.0f", this.getCellsPerSecond(cellCount, stepNanos))).append(SEPARATOR);
+
+        String stateSeparator = "";
+
+        for(Map.Entry<State, Long> xEntry : society.getSocietyGrid().getPopulationCounter().getCounts().entrySet()){
+            stepLine.append(stateSeparator).append(xEntry.getKey()).append('=').append(xEntry.getValue());
+            stateSeparator = " ";
+        }
+
+        outputWriter.println(stepLine);
+
+    }
+
+    private double getCellsPerSecond(long cellSteps, long nanos){
+        return (nanos == 0) ? 0 : cellSteps * 1e9 / nanos;
+    }
+
+    private int readCount(String option, String countString){
+
+        int count;
+
+        try{
+            count = Integer.parseInt(countString);
+        }
+        catch(NumberFormatException E){
+            throw new IllegalArgumentException("Option " + option + " needs a number, was " + countString, E);
+        }
+
+        if(count < 1){
+            throw new IllegalArgumentException("Option " + option + " needs a positive number, was " + count);
+        }
+
+        return count;
+
+    }
+
+}
@@ -0,0 +1,476 @@
+package src.batch;
+
+import src.cell.CellShape;
+import src.cell.state.RuleSet;
+import src.cell.state.State;
+import src.cell.state.property.StateRules;
+import src.society.Society;
+import src.society.property.SocietySetting;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs a scenario once for every combination of rule parameter values, and several times (replicates) for each, on a
+ * bounded pool of threads. Every run gets its own copy of the scenario's cells, laid out by its own seed, and its own
+ * <code>RuleSet</code>, so runs share nothing and the parameters of one never leak into another (or into the user
+ * interface's defaults). Replicate <code>r</code> of every combination uses seed <code>baseSeed + r</code>, so
+ * combinations are compared on the same starting grids and random draws.
+ *
+ * Runs are the unit of parallelism: each society steps on its run's thread. A sweep can be cancelled from any thread;
+ * runs in progress stop at their next generation and only finished runs are reported.
+ */
+
+public class ParameterSweep {
+
+    /**
+     * Values to sweep of one rule parameter
+     */
+    public static class Parameter {
+
+        private static final double STEP_TOLERANCE = 1e-9;
+
+        private StateRules rule;
+        private double[] values;
+
+        public Parameter(StateRules rule, double[] values){
+
+            if(values.length == 0){
+                throw new IllegalArgumentException("Parameter " + rule + " needs at least one value");
+            }
+
+            this.rule = rule;
+            this.values = values.clone();
+
+        }
+
+        /**
+         * Reads a parameter written <code>NAME=from:to:step</code>, <code>NAME=a,b,c</code> or <code>NAME=a</code>,
+         * where NAME is a <code>StateRules</code> constant
+         * @param parameterString parameter and its values
+         * @return parsed parameter
+         * @throws IllegalArgumentException if the name or the values cannot be read
+         */
+        public static Parameter parse(String parameterString){
+
+            String[] tokens = parameterString.split("=", 2);
+
+            if(tokens.length < 2){
+                throw new IllegalArgumentException("Parameter " + parameterString + " needs a value");
+            }
+
+            StateRules rule;
+
+            try{
+                rule = StateRules.valueOf(tokens[0].trim().toUpperCase());
+            }
+            catch(IllegalArgumentException E){
+                throw new IllegalArgumentException("Unknown rule parameter " + tokens[0], E);
+            }
+
+            try{
+                return new Parameter(rule, tokens[1].contains(":") ? readRange(tokens[1]) : readList(tokens[1]));
+            }
+            catch(NumberFormatException E){
+                throw new IllegalArgumentException("Parameter " + parameterString + " has a bad number", E);
+            }
+
+        }
+
+        public StateRules getRule(){
+            return this.rule;
+        }
+
+        public double[] getValues(){
+            return this.values.clone();
+        }
+
+        private static double[] readRange(String rangeString){
+
+            String[] bounds = rangeString.split(":");
+
+            if(bounds.length != 3){
+                throw new IllegalArgumentException("Range " + rangeString + " must be from:to:step");
+            }
+
+            double from = Double.parseDouble(bounds[0]);
+            double to = Double.parseDouble(bounds[1]);
+            double step = Double.parseDouble(bounds[2]);
+
+            if(step <= 0 || from > to){
+                throw new IllegalArgumentException("Range " + rangeString + " needs from <= to and a positive step");
+            }
+
+            int valueCount = (int) Math.floor((to - from) / step + STEP_TOLERANCE) + 1;
+            double[] rangeValues = new double[valueCount];
+
+            for(int xValue = 0; xValue < valueCount; xValue ++){
+                rangeValues[xValue] = from + xValue * step;
+            }
+
+            return rangeValues;
+
+        }
+
+        private static double[] readList(String listString){
+
+            String[] valueStrings = listString.split(",");
+            double[] listValues = new double[valueStrings.length];
+
+            for(int xValue = 0; xValue < valueStrings.length; xValue ++){
+                listValues[xValue] = Double.parseDouble(valueStrings[xValue].trim());
+            }
+
+            return listValues;
+
+        }
+
+    }
+
+    /**
+     * Outcome of one finished run
+     */
+    public static class Result {
+
+        private int runIndex;
+        private int replicate;
+        private long seed;
+        private double[] parameterValues;
+        private int generations;
+        private long elapsedNanos;
+        private int cellCount;
+        private long cellChanges;
+        private Map<State, Long> populations;
+
+        private Result(int runIndex, int replicate, long seed, double[] parameterValues, int generations, long elapsedNanos,
+                       int cellCount, long cellChanges, Map<State, Long> populations){
+            this.runIndex = runIndex;
+            this.replicate = replicate;
+            this.seed = seed;
+            this.parameterValues = parameterValues;
+            this.generations = generations;
+            this.elapsedNanos = elapsedNanos;
+            this.cellCount = cellCount;
+            this.cellChanges = cellChanges;
+            this.populations = populations;
+        }
+
+        public int getRunIndex(){
+            return this.runIndex;
+        }
+
+        public int getReplicate(){
+            return this.replicate;
+        }
+
+        public long getSeed(){
+            return this.seed;
+        }
+
+        /**
+         * @return value of each swept parameter, in the order the parameters were given
+         */
+        public double[] getParameterValues(){
+            return this.parameterValues.clone();
+        }
+
+        public long getElapsedNanos(){
+            return this.elapsedNanos;
+        }
+
+        /**
+         * @return number of times a cell changed state, summed over every generation. Unlike the populations, this
+         * also measures societies that only move their states around, e.g. two changes per relocated segregation agent.
+         */
+        public long getCellChanges(){
+            return this.cellChanges;
+        }
+
+        /**
+         * @return population of every state after the last generation
+         */
+        public Map<State, Long> getPopulations(){
+            return new LinkedHashMap<State, Long>(this.populations);
+        }
+
+        public double getCellsPerSecond(){
+            return (this.elapsedNanos == 0) ? 0 : (double) this.cellCount * this.generations * 1e9 / this.elapsedNanos;
+        }
+
+    }
+
+    private static final String SEPARATOR = "\t";
+
+    private SocietySetting baseSetting;
+    private List<Parameter> parameters;
+    private int replicates;
+    private int generations;
+    private long baseSeed;
+    private CellShape cellShape = CellShape.SQUARE;
+
+    private volatile boolean isCancelled;
+    private volatile ExecutorService runPool;
+
+    /**
+     * @param baseSetting scenario to run; its cells are copied, never stepped
+     * @param parameters parameters to sweep, whose values are combined in every way
+     * @param replicates number of runs of each combination
+     * @param generations number of generations of each run
+     * @throws IllegalArgumentException if a parameter is not read by the scenario's society, or the counts are bad
+     */
+    public ParameterSweep(SocietySetting baseSetting, List<Parameter> parameters, int replicates, int generations){
+
+        if(replicates < 1 || generations < 0){
+            throw new IllegalArgumentException("A sweep needs at least one replicate and no negative generations");
+        }
+
+        for(Parameter xParameter : parameters){
+            if(!baseSetting.getSocietyType().readsRule(xParameter.rule)){
+                throw new IllegalArgumentException("Parameter " + xParameter.rule + " is not read by "
+                        + baseSetting.getSocietyType().getNameOfSociety());
+            }
+        }
+
+        this.baseSetting = baseSetting;
+        this.parameters = new ArrayList<Parameter>(parameters);
+        this.replicates = replicates;
+        this.generations = generations;
+        this.baseSeed = (baseSetting.getSeed() == null) ? 0 : baseSetting.getSeed();
+
+    }
+
+    /**
+     * Sets the shape of the runs' cells
+     * @param cellShape cell shape (SQUARE by default)
+     */
+    public void setCellShape(CellShape cellShape){
+        this.cellShape = cellShape;
+    }
+
+    /**
+     * @return number of runs: one per replicate of every combination of values
+     */
+    public int getRunCount(){
+
+        long runCount = this.replicates;
+
+        for(Parameter xParameter : this.parameters){
+            runCount *= xParameter.values.length;
+        }
+
+        if(runCount > Integer.MAX_VALUE){
+            throw new IllegalArgumentException("Sweep of " + runCount + " runs is too large");
+        }
+
+        return (int) runCount;
+
+    }
+
+    /**
+     * Runs every combination and replicate, blocking until all runs are finished or the sweep is cancelled
+     * @param threadCount number of runs stepped at once
+     * @return finished runs, in run order
+     * @throws ExecutionException if a run failed; the remaining runs are cancelled
+     * @throws InterruptedException if the calling thread is interrupted while waiting; the runs are cancelled
+     */
+    public List<Result> run(int threadCount) throws ExecutionException, InterruptedException{
+
+        int runCount = this.getRunCount();
+        List<Future<Result>> runFutures = new ArrayList<Future<Result>>(runCount);
+        List<Result> results = new ArrayList<Result>();
+
+        this.runPool = Executors.newFixedThreadPool(threadCount);
+
+        try{
+
+            for(int xRun = 0; xRun < runCount && !this.isCancelled; xRun ++){
+                int runIndex = xRun;
+                runFutures.add(this.runPool.submit(() -> this.runOne(runIndex)));
+            }
+
+        }
+        catch(RejectedExecutionException E){
+            /*Cancelled while submitting*/
+        }
+
+        this.runPool.shutdown();
+
+        try{
+
+            for(Future<Result> xFuture : runFutures){
+
+                try{
+                    Result runResult = xFuture.get();
+                    if(runResult != null){
+                        results.add(runResult);
+                    }
+                }
+                catch(CancellationException E){
+                    /*Cancelled before it started*/
+                }
+
+            }
+
+        }
+        catch(ExecutionException | InterruptedException E){
+            this.cancel();
+            throw E;
+        }
+
+        return results;
+
+    }
+
+    /**
+     * Stops the sweep: runs not yet started are dropped and runs in progress stop at their next generation
+     */
+    public void cancel(){
+
+        this.isCancelled = true;
+
+        if(this.runPool != null){
+            /*Runs drained from the queue would otherwise never complete their futures*/
+            for(Runnable xRun : this.runPool.shutdownNow()){
+                ((Future<?>) xRun).cancel(false);
+            }
+        }
+
+    }
+
+    public boolean isCancelled(){
+        return this.isCancelled;
+    }
+
+    /**
+     * Writes a tab-separated table of results, one line per run, with a header naming the parameters and states
+     * @param results results of the sweep
+     * @param outputWriter writer of the table
+     */
+    public void writeResults(List<Result> results, PrintWriter outputWriter){
+
+        StringBuilder headerLine = new StringBuilder("run\treplicate\tseed");
+
+        for(Parameter xParameter : this.parameters){
+            headerLine.append(SEPARATOR).append(xParameter.rule);
+        }
+
+        headerLine.append("\tgenerations\telapsedMs\tcellsPerSecond\tcellChanges");
+
+        if(!results.isEmpty()){
+            for(State xState : results.get(0).populations.keySet()){
+                headerLine.append(SEPARATOR).append(xState);
+            }
+        }
+
+        outputWriter.println(headerLine);
+
+        for(Result xResult : results){
+
+            StringBuilder resultLine = new StringBuilder();
+            resultLine.append(xResult.runIndex).append(SEPARATOR).append(xResult.replicate).append(SEPARATOR).append(xResult.seed);
+
+            for(double xValue : xResult.parameterValues){
+                resultLine.append(SEPARATOR).append(xValue);
+            }
+
+            resultLine.append(SEPARATOR).append(xResult.generations);
+            resultLine.append(SEPARATOR).append(String.format("%.1f", xResult.elapsedNanos / 1e6));
+            resultLine.append(SEPARATOR).append(String.format("%.0f", xResult.getCellsPerSecond()));
+            resultLine.append(SEPARATOR).append(xResult.cellChanges);
+
+            for(long xCount : xResult.populations.values()){
+                resultLine.append(SEPARATOR).append(xCount);
+            }
+
+            outputWriter.println(resultLine);
+
+        }
+
+    }
+
+    /*Helper Methods*/
+
+    /**
+     * Runs one replicate of one combination; the replicate varies fastest with the run index
+     * @return result, or null if the sweep was cancelled before the run finished
+     */
+    private Result runOne(int runIndex){
+
+        int replicate = runIndex % this.replicates;
+        int combination = runIndex / this.replicates;
+        long runSeed = this.baseSeed + replicate;
+
+        double[] parameterValues = new double[this.parameters.size()];
+        RuleSet runRules = new RuleSet();
+
+        for(int xParameter = 0; xParameter < parameterValues.length; xParameter ++){
+            Parameter tempParameter = this.parameters.get(xParameter);
+            parameterValues[xParameter] = tempParameter.values[combination % tempParameter.values.length];
+            combination /= tempParameter.values.length;
+            runRules.setValue(tempParameter.rule, parameterValues[xParameter]);
+        }
+
+        Society society = this.baseSetting.copy(runSeed).createSociety(this.cellShape);
+        society.setParallelism(1);
+        society.setRuleSet(runRules);
+
+        int cellCount = society.getSocietyGrid().getSize();
+        byte[] previousOrdinals = new byte[cellCount];
+        byte[] currentOrdinals = new byte[cellCount];
+        society.getSocietyGrid().copyCurrentStates(previousOrdinals);
+
+        long elapsedNanos = 0;
+        long cellChanges = 0;
+
+        for(int xGeneration = 0; xGeneration < this.generations; xGeneration ++){
+
+            if(this.isCancelled || Thread.currentThread().isInterrupted()){
+                return null;
+            }
+
+            /*Only the step is timed; comparing the states is bookkeeping of the sweep*/
+            long startTime = System.nanoTime();
+            society.step();
+            elapsedNanos += System.nanoTime() - startTime;
+
+            society.getSocietyGrid().copyCurrentStates(currentOrdinals);
+            cellChanges += countChanges(previousOrdinals, currentOrdinals);
+
+            byte[] tempOrdinals = previousOrdinals;
+            previousOrdinals = currentOrdinals;
+            currentOrdinals = tempOrdinals;
+
+        }
+
+        return new Result(runIndex, replicate, runSeed, parameterValues, this.generations, elapsedNanos, cellCount,
+                cellChanges, society.getSocietyGrid().getPopulationCounter().getCounts());
+
+    }
+
+    /**
+     * Counts the cells whose state ordinal differs between two generations
+     */
+    private static int countChanges(byte[] previousOrdinals, byte[] currentOrdinals){
+
+        int changeCount = 0;
+
+        for(int xIndex = 0; xIndex < previousOrdinals.length; xIndex ++){
+            if(previousOrdinals[xIndex] != currentOrdinals[xIndex]){
+                changeCount ++;
+            }
+        }
+
+        return changeCount;
+
+    }
+
+}
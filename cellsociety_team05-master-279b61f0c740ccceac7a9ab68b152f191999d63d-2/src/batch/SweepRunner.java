@@ -0,0 +1,222 @@
+package src.batch;
+
+import src.XML.XMLParser;
+import src.cell.CellShape;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs a <code>ParameterSweep</code> from the command line and writes its results table.
+ *
+ * <pre>
+ * java src.batch.SweepRunner [-n generations] [-r replicates] [-t threads] [-o output] [-shape cellShape]
+ *     [-timeout seconds] base.xml NAME=from:to:step NAME=a,b,c ...
+ * </pre>
+ *
+ * NAME is a <code>StateRules</code> constant read by the scenario's society, e.g. <code>SG_XSATISFACTION=0.1:0.9:0.1</code> or
+ * <code>WT_PREDATORBREED=8,16,24</code>. The threads default to the number of processors and the output to
+ * <code>sweep.tsv</code>. When the timeout passes, or the process is interrupted, the sweep is cancelled and the runs
+ * that finished are still written.
+ */
+
+public class SweepRunner {
+
+    private static final int DEFAULT_GENERATIONS = 100;
+    private static final int DEFAULT_REPLICATES = 1;
+    private static final String DEFAULT_OUTPUT = "sweep.tsv";
+    private static final long SHUTDOWN_WAIT_MILLIS = 5000;
+    private static final String USAGE = "usage: SweepRunner [-n generations] [-r replicates] [-t threads] [-o output] [-shape cellShape] "
+            + "[-timeout seconds] base.xml NAME=from:to:step ...";
+
+    private int generations = DEFAULT_GENERATIONS;
+    private int replicates = DEFAULT_REPLICATES;
+    private int threadCount = Runtime.getRuntime().availableProcessors();
+    private String outputPath = DEFAULT_OUTPUT;
+    private CellShape cellShape = CellShape.SQUARE;
+    private long timeoutSeconds;
+    private String filePath;
+    private List<ParameterSweep.Parameter> parameters = new ArrayList<ParameterSweep.Parameter>();
+
+    public static void main(String[] args){
+
+        SweepRunner sweepRunner = new SweepRunner();
+
+        try{
+            sweepRunner.readArguments(args);
+        }
+        catch(IllegalArgumentException E){
+            System.err.println(E.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        try{
+            sweepRunner.runSweep();
+        }
+        catch(IllegalArgumentException E){
+            System.err.println(E.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        catch(Exception E){
+            E.printStackTrace();
+            System.exit(1);
+        }
+
+    }
+
+    /**
+     * Reads the options, the base scenario and the swept parameters
+     * @param args command-line arguments
+     * @throws IllegalArgumentException if an option or parameter cannot be read, or there is not exactly one scenario
+     */
+    public void readArguments(String[] args){
+
+        for(int xArg = 0; xArg < args.length; xArg ++){
+
+            String xOption = args[xArg];
+
+            if(!xOption.startsWith("-")){
+                this.readOperand(xOption);
+                continue;
+            }
+
+            if(xArg + 1 == args.length){
+                throw new IllegalArgumentException("Option " + xOption + " needs a value");
+            }
+
+            String optionValue = args[++ xArg];
+
+            switch(xOption){
+                case "-n":
+                    this.generations = this.readCount(xOption, optionValue);
+                    break;
+                case "-r":
+                    this.replicates = this.readCount(xOption, optionValue);
+                    break;
+                case "-t":
+                    this.threadCount = this.readCount(xOption, optionValue);
+                    break;
+                case "-o":
+                    this.outputPath = optionValue;
+                    break;
+                case "-shape":
+                    this.cellShape = CellShape.valueOf(optionValue.toUpperCase());
+                    break;
+                case "-timeout":
+                    this.timeoutSeconds = this.readCount(xOption, optionValue);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + xOption);
+            }
+
+        }
+
+        if(this.filePath == null){
+            throw new IllegalArgumentException("No base scenario given");
+        }
+
+    }
+
+    /**
+     * Runs the sweep and writes the finished runs, cancelling it on timeout or interruption
+     * @throws IllegalArgumentException if a parameter is not read by the scenario's society
+     * @throws Exception if the scenario cannot be parsed, a run fails or the output cannot be written
+     */
+    public void runSweep() throws Exception{
+
+        ParameterSweep parameterSweep = new ParameterSweep(new XMLParser(this.filePath).getSocietySetting(), this.parameters,
+                this.replicates, this.generations);
+        parameterSweep.setCellShape(this.cellShape);
+
+        Thread mainThread = Thread.currentThread();
+        Thread shutdownHook = new Thread(() -> {
+            parameterSweep.cancel();
+            try{
+                mainThread.join(SHUTDOWN_WAIT_MILLIS);
+            }
+            catch(InterruptedException E){
+                Thread.currentThread().interrupt();
+            }
+        });
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+
+        if(this.timeoutSeconds > 0){
+            Thread timeoutThread = new Thread(() -> {
+                try{
+                    Thread.sleep(this.timeoutSeconds * 1000);
+                    parameterSweep.cancel();
+                }
+                catch(InterruptedException E){
+                    /*Sweep finished first*/
+                }
+            });
+            timeoutThread.setDaemon(true);
+            timeoutThread.start();
+        }
+
+        long startTime = System.nanoTime();
+        List<ParameterSweep.Result> results = parameterSweep.run(this.threadCount);
+
+        try(PrintWriter outputWriter = new PrintWriter(new FileWriter(this.outputPath))){
+
+            parameterSweep.writeResults(results, outputWriter);
+
+            if(outputWriter.checkError()){
+                throw new IOException("Could not write " + this.outputPath);
+            }
+
+        }
+
+        System.out.println(String.format("%d of %d runs finished in %.1f s%s", results.size(), parameterSweep.getRunCount(),
+                (System.nanoTime() - startTime) / 1e9, parameterSweep.isCancelled() ? " (cancelled)" : ""));
+
+        try{
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        }
+        catch(IllegalStateException E){
+            /*Already shutting down*/
+        }
+
+    }
+
+    /*Helper Methods*/
+
+    private void readOperand(String operand){
+
+        if(operand.contains("=")){
+            this.parameters.add(ParameterSweep.Parameter.parse(operand));
+        }
+        else if(this.filePath == null){
+            this.filePath = operand;
+        }
+        else{
+            throw new IllegalArgumentException("Only one base scenario can be swept, got " + this.filePath + " and " + operand);
+        }
+
+    }
+
+    private int readCount(String option, String countString){
+
+        int count;
+
+        try{
+            count = Integer.parseInt(countString);
+        }
+        catch(NumberFormatException E){
+            throw new IllegalArgumentException("Option " + option + " needs a number, was " + countString, E);
+        }
+
+        if(count < 1){
+            throw new IllegalArgumentException("Option " + option + " needs a positive number, was " + count);
+        }
+
+        return count;
+
+    }
+
+}
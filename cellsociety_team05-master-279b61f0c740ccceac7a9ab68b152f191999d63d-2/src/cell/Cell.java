@@ -11,62 +11,41 @@ package src.cell;
  * Refactored by Justin Wang
  */
 
-/*JavaFX Imports*/
-import javafx.scene.shape.Polygon;
-import javafx.scene.paint.Color;
-
 /*Package Imports*/
 import src.cell.state.*;
-import src.cell.location.Location;
-import javafx.scene.shape.StrokeLineJoin;
-import javafx.scene.shape.StrokeType;
 
 /*Util Imports*/
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import src.cell.CellShape;
 
-public abstract class Cell extends Polygon{
+/**
+ * Simulation model of a single cell: its current and next <code>States</code>, its shape and any per-cell attributes
+ * kept by subclasses. A cell holds no scene-graph node; the UI attaches a view to it only when one is displayed.
+ */
 
-    private Color cellColor;
+public abstract class Cell {
 
     private State currentState;
     private State nextState;
 
     private CellShape cellShape;
 
-    protected Map<State, State> stateSwapMap;
-    
-    private int ROTATION_FACTOR = 180;
+    private StateStore stateStore;
+    private int storeIndex;
+
+    private PopulationCounter populationCounter;
 
     public Cell(){}
 
     public Cell(State currentState){
         this(currentState, CellShape.SQUARE);
-        this.stateSwapMap = new HashMap<State, State>();
     }
     
     public Cell(State currentState, CellShape cellShape){
         this.currentState = currentState;
-        this.setColor();
-        this.setCellStroke();
         this.setCellShape(cellShape);
-        this.stateSwapMap = new HashMap<State, State>();
-    }
-
-    private void setCellStroke(){
-        this.setStroke(Color.DARKSLATEGRAY);
-        this.setStrokeWidth(0.2);
-        this.setStrokeType(StrokeType.INSIDE);
-        this.setStrokeLineJoin(StrokeLineJoin.ROUND);
-    }
-
-    public void setCellColor(Color cellColor){
-        this.cellColor = cellColor;
     }
 
     /**
@@ -75,7 +54,6 @@ public abstract class Cell extends Polygon{
      */
     public void setCellShape(CellShape cellShape){
         this.cellShape = cellShape;
-        this.getPoints().setAll(this.cellShape.getShapeCoordinates());
     }
 
     /**
@@ -89,9 +67,30 @@ public abstract class Cell extends Polygon{
     /**
      * Changes the state based on the cell's neighbors
      * @param neighborCells list of neighboring cells
+     * @param cellRandom random source positioned at this cell
      */
-    public void updateState(List<Cell> neighborCells){
-        this.setNextState(this.currentState.neighborUpdate(this.getNeighborStates(neighborCells)));
+    public void updateState(List<Cell> neighborCells, CounterRandom cellRandom){
+        this.updateStateFromNeighbors(this.getNeighborStates(neighborCells), cellRandom);
+    }
+
+    /**
+     * Changes the state based on the states of the cell's neighbors, with randomness drawn from a keyed source
+     * @param neighborStates list of the neighbors' current states
+     * @param cellRandom random source positioned at this cell
+     */
+    public void updateStateFromNeighbors(List<State> neighborStates, CounterRandom cellRandom){
+        this.setNextState(this.getCurrentState().neighborUpdate(neighborStates, cellRandom));
+    }
+
+    /**
+     * Changes the state based on a histogram of the states of the cell's neighbors
+     * @param neighborCounts number of neighbors in each state, indexed by ordinal
+     * @param neighborTotal number of neighbor slots, including slots past the edge
+     * @param ruleSet parameters of the society's rules
+     * @param cellRandom random source positioned at this cell
+     */
+    public void updateStateFromCounts(int[] neighborCounts, int neighborTotal, RuleSet ruleSet, CounterRandom cellRandom){
+        this.setNextState(this.getCurrentState().neighborUpdate(neighborCounts, neighborTotal, ruleSet, cellRandom));
     }
 
     /**
@@ -118,7 +117,7 @@ public abstract class Cell extends Polygon{
      * @return current state of the cell
      */
     public State getCurrentState(){
-        return this.currentState;
+        return (this.stateStore == null) ? this.currentState : this.stateStore.getCurrentState(this.storeIndex);
     }
 
     /**
@@ -126,8 +125,18 @@ public abstract class Cell extends Polygon{
      * @param currentState new state
      */
     public void setCurrentState(State currentState){
-        this.currentState = currentState;
-        setColor();
+
+        if(this.populationCounter != null){
+            this.populationCounter.changeState(this.getCurrentState(), currentState);
+        }
+
+        if(this.stateStore == null){
+            this.currentState = currentState;
+        }
+        else{
+            this.stateStore.setCurrentState(this.storeIndex, currentState);
+        }
+
     }
 
     /**
@@ -135,7 +144,7 @@ public abstract class Cell extends Polygon{
      * @return next state of the cell
      */
     public State getNextState(){
-        return this.nextState;
+        return (this.stateStore == null) ? this.nextState : this.stateStore.getNextState(this.storeIndex);
     }
 
     /**
@@ -143,67 +152,76 @@ public abstract class Cell extends Polygon{
      * @param nextState new state
      */
     public void setNextState(State nextState){
-        this.nextState = nextState;
+        if(this.stateStore == null){
+            this.nextState = nextState;
+        }
+        else{
+            this.stateStore.setNextState(this.storeIndex, nextState);
+        }
     }
 
     /**
-     * Moves next state to current state and sets the next state to null
+     * Moves the cell's states into a slot of a <code>StateStore</code>. From then on the store holds the states and
+     * the cell only forwards to it.
+     * @param stateStore store that will hold the states
+     * @param storeIndex slot of this cell within the store
      */
-    public void swapStates(){
-        this.setCurrentState(this.getNextState());
-        this.setNextState(null);
-        this.setColor();
-    }
+    public void setStateStore(StateStore stateStore, int storeIndex){
 
-    public boolean isCurrentEqual(State checkState){
-        return (this.currentState == checkState);
-    }
+        State tempCurrent = this.getCurrentState();
+        State tempNext = this.getNextState();
 
-    public boolean isNextEqual(State checkState){
-        return (this.nextState== checkState);
-    }
+        this.stateStore = stateStore;
+        this.storeIndex = storeIndex;
 
-    /*Color Functions*/
+        this.stateStore.setCurrentState(this.storeIndex, tempCurrent);
+        this.stateStore.setNextState(this.storeIndex, tempNext);
 
-    /**
-     * Retrieves the Cell's current color
-     * @return the currentState color
-     */
-    public Color getColor(){
-        this.setColor();
-        return this.cellColor;
     }
 
     /**
-     * Sets color based on the Cell's currentState
+     * Makes the cell report its current state to a population counter. The cell is taken out of the counts of the
+     * counter it reported to before, if any.
+     * @param populationCounter counter of the grid holding the cell, or null to stop reporting
      */
-    private void setColor(){
-        this.cellColor = this.currentState.getColor();
-        this.setFill(this.cellColor);
-    }
+    public void setPopulationCounter(PopulationCounter populationCounter){
+
+        if(this.populationCounter == populationCounter){
+            return;
+        }
+
+        if(this.populationCounter != null){
+            this.populationCounter.changeState(this.getCurrentState(), null);
+        }
+
+        this.populationCounter = populationCounter;
+
+        if(this.populationCounter != null){
+            this.populationCounter.changeState(null, this.getCurrentState());
+        }
 
-    public double getWidth(){
-        return this.getBoundsInParent().getWidth();
     }
 
-    public double getHeight(){
-        return this.getBoundsInParent().getHeight();
+    /**
+     * Moves next state to current state and sets the next state to null
+     */
+    public void swapStates(){
+        this.setCurrentState(this.getNextState());
+        this.setNextState(null);
     }
 
-    /*Location Functions*/
-    public void setLocation(Location cellLocation){
-        this.setTranslateY(this.cellShape.calculateY(cellLocation, this.getWidth(), this.getHeight()));
-        this.setTranslateX(this.cellShape.calculateX(cellLocation, this.getWidth(), this.getHeight()));
-        if(this.cellShape == CellShape.TRIANGLE && (cellLocation.getCol()+cellLocation.getRow())%2 == 0){
-            this.setRotate(ROTATION_FACTOR);
-        }
+    /**
+     * Advances the current state to the next state of its click cycle (used when a user clicks the cell)
+     */
+    public void cycleState(){
+        this.setCurrentState(this.getCurrentState().getCycledState());
     }
 
-    public void setScale(double xFactor) {
-        this.setScaleX(xFactor);
-        this.setScaleY(xFactor);
+    public boolean isCurrentEqual(State checkState){
+        return (this.getCurrentState() == checkState);
     }
-    public Map<State, State> getStateSwapMap(){
-    	return this.stateSwapMap;
+
+    public boolean isNextEqual(State checkState){
+        return (this.getNextState() == checkState);
     }
 }
\ No newline at end of file
@@ -128,7 +128,7 @@ public enum CellShape {
         }
 
         private int getRowFromCubic(int x, int z){
-            return z + (x - (x % 1)) / 2;
+            return z + (x - (x & 1)) / 2;
         }
 
     },
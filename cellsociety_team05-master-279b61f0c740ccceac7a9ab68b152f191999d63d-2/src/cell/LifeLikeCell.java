@@ -0,0 +1,15 @@
+package src.cell;
+
+import src.cell.state.State;
+
+public class LifeLikeCell extends Cell{
+
+    public LifeLikeCell(State currentState) {
+        super(currentState);
+    }
+
+    public LifeLikeCell(State currentState, CellShape cellShape) {
+        super(currentState, cellShape);
+    }
+
+}
@@ -0,0 +1,121 @@
+package src.cell;
+
+import src.cell.state.State;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Number of cells in each <code>State</code>, kept up to date as cells change state. A <code>Cell</code> bound to a
+ * counter through <code>Cell.setPopulationCounter</code> reports every change of its current state, so reading the
+ * populations costs O(number of states) instead of a pass over the grid.
+ *
+ * Each count is a <code>LongAdder</code>, whose striped cells absorb concurrent updates from the threads of a parallel
+ * step without contention.
+ */
+
+public class PopulationCounter {
+
+    private volatile State[] stateValues;
+    private volatile LongAdder[] stateCounts;
+
+    /**
+     * Records a cell leaving one state for another
+     * @param oldState state the cell leaves, or null for a cell that is being added
+     * @param newState state the cell enters, or null for a cell that is being removed
+     */
+    public void changeState(State oldState, State newState){
+
+        if(oldState == newState){
+            return;
+        }
+
+        if(oldState != null){
+            this.getAdder(oldState).decrement();
+        }
+
+        if(newState != null){
+            this.getAdder(newState).increment();
+        }
+
+    }
+
+    /**
+     * Records many cells entering (or, for a negative count, leaving) a state at once, for steps that move the states
+     * of a grid without going through its cells
+     * @param cellState state the cells enter or leave
+     * @param cellCount number of cells entering the state
+     */
+    public void addCount(State cellState, long cellCount){
+        this.getAdder(cellState).add(cellCount);
+    }
+
+    /**
+     * Retrieves the number of cells in a state
+     * @param cellState state to count
+     * @return population of the state
+     */
+    public long getCount(State cellState){
+        return (this.stateCounts == null) ? 0 : this.getAdder(cellState).sum();
+    }
+
+    /**
+     * Retrieves the population of every state, including states with no cells
+     * @return populations in ordinal order, empty while no cell has been counted
+     */
+    public Map<State, Long> getCounts(){
+
+        Map<State, Long> stateMap = new LinkedHashMap<State, Long>();
+
+        /*initCounts publishes the counts before the values, so counts are visible once the values are*/
+        State[] tempValues = this.stateValues;
+
+        if(tempValues == null){
+            return stateMap;
+        }
+
+        LongAdder[] tempCounts = this.stateCounts;
+
+        for(int xOrdinal = 0; xOrdinal < tempValues.length; xOrdinal ++){
+            stateMap.put(tempValues[xOrdinal], tempCounts[xOrdinal].sum());
+        }
+
+        return stateMap;
+
+    }
+
+    /*Helper Methods*/
+
+    /**
+     * Retrieves the adder of a state, sizing the counts to the state's enum the first time a state is seen
+     */
+    private LongAdder getAdder(State cellState){
+
+        if(this.stateCounts == null){
+            this.initCounts(cellState);
+        }
+
+        return this.stateCounts[((Enum<?>) cellState).ordinal()];
+
+    }
+
+    private synchronized void initCounts(State cellState){
+
+        if(this.stateCounts != null){
+            return;
+        }
+
+        State[] tempValues = ((Enum<?>) cellState).getDeclaringClass().asSubclass(State.class).getEnumConstants();
+        LongAdder[] tempCounts = new LongAdder[tempValues.length];
+
+        for(int xOrdinal = 0; xOrdinal < tempCounts.length; xOrdinal ++){
+            tempCounts[xOrdinal] = new LongAdder();
+        }
+
+        this.stateCounts = tempCounts;
+        this.stateValues = tempValues;
+
+    }
+
+}
@@ -0,0 +1,40 @@
+package src.cell;
+
+import src.cell.state.State;
+
+/**
+ * Backing storage for the current and next <code>States</code> of a set of cells, addressed by slot index. A
+ * <code>Cell</code> bound to a store through <code>Cell.setStateStore</code> keeps no states of its own.
+ */
+
+public interface StateStore {
+
+    /**
+     * Retrieve the current state held in a slot
+     * @param index slot of the cell
+     * @return current state of the cell
+     */
+    public State getCurrentState(int index);
+
+    /**
+     * Set the current state held in a slot
+     * @param index slot of the cell
+     * @param currentState new state
+     */
+    public void setCurrentState(int index, State currentState);
+
+    /**
+     * Retrieve the next state held in a slot
+     * @param index slot of the cell
+     * @return next state of the cell, or null if none has been set
+     */
+    public State getNextState(int index);
+
+    /**
+     * Set the next state held in a slot
+     * @param index slot of the cell
+     * @param nextState new state
+     */
+    public void setNextState(int index, State nextState);
+
+}
@@ -4,13 +4,9 @@
 
 package src.cell;
 
-import java.util.Map;
-
+import src.cell.state.RuleSet;
 import src.cell.state.State;
 import src.cell.state.WatorState;
-import javafx.event.EventHandler;
-import javafx.scene.input.MouseEvent;
-import javafx.scene.paint.Color;
 
 /**
  * Created by Christian Martindale
@@ -25,23 +21,11 @@ public class WatorCell extends Cell{
     public WatorCell(State currentState) {
         super(currentState);
         initVar(currentState);
-        stateSwapMap.put(WatorState.PREDATOR, WatorState.PREY);
-        stateSwapMap.put(WatorState.PREY, WatorState.EMPTY);
-        stateSwapMap.put(WatorState.EMPTY, WatorState.PREDATOR);
     }
 
     public WatorCell(State currentState, CellShape cellShape) {
         super(currentState, cellShape);
         initVar(currentState);
-        stateSwapMap.put(WatorState.PREDATOR, WatorState.PREY);
-        stateSwapMap.put(WatorState.PREY, WatorState.EMPTY);
-        stateSwapMap.put(WatorState.EMPTY, WatorState.PREDATOR);
-        this.setOnMouseClicked(new EventHandler<MouseEvent>(){
-        	@Override
-        	public void handle(MouseEvent arg0){
-        		WatorCell.this.setCurrentState(stateSwapMap.get(WatorCell.this.getCurrentState()));
-        	}
-        });
     }
 
     public void moveCell(WatorCell cellToMove){
@@ -85,7 +69,15 @@ public class WatorCell extends Cell{
     }
 
     public void resetBreed(){
-        this.setTurnsToBreed(((WatorState)this.getCurrentState()).getBreedTime());
+        this.resetBreed(RuleSet.getDefault());
+    }
+
+    /**
+     * Restarts the breed countdown from the breed time of a society's parameters
+     * @param ruleSet parameters to read
+     */
+    public void resetBreed(RuleSet ruleSet){
+        this.setTurnsToBreed(((WatorState)this.getCurrentState()).getBreedTime(ruleSet));
     }
 
     public boolean isDead(){
@@ -112,8 +104,16 @@ public class WatorCell extends Cell{
     }
 
     public void resetStats(){
-        this.energy = ((WatorState)this.getCurrentState()).getEnergy();
-        this.turnsToBreed = ((WatorState)this.getCurrentState()).getBreedTime();
+        this.resetStats(RuleSet.getDefault());
+    }
+
+    /**
+     * Restarts the energy and breed countdown from a society's parameters
+     * @param ruleSet parameters to read
+     */
+    public void resetStats(RuleSet ruleSet){
+        this.energy = ((WatorState)this.getCurrentState()).getEnergy(ruleSet);
+        this.turnsToBreed = ((WatorState)this.getCurrentState()).getBreedTime(ruleSet);
     }
 
 }
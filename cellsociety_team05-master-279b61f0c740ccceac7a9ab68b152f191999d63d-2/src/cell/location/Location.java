@@ -94,14 +94,21 @@ public final class Location implements Comparable<Location>{
     }
 
     /**
-     * Generates HashCode
+     * Generates HashCode. The row and column are packed into a long and mixed with the SplitMix64 finalizer, so
+     * neighboring locations land in unrelated bins of a cell map whatever the grid's width.
      * @return hashCode
      */
     @Override
     public int hashCode() {
-        int result = row;
-        result = 31 * result + col;
-        return result;
+
+        long hashValue = ((long) this.row << 32) | (this.col & 0xFFFFFFFFL);
+
+        hashValue = (hashValue ^ (hashValue >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hashValue = (hashValue ^ (hashValue >>> 27)) * 0x94D049BB133111EBL;
+        hashValue = hashValue ^ (hashValue >>> 31);
+
+        return (int) (hashValue ^ (hashValue >>> 32));
+
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,108 @@
+package src.cell.state;
+
+import java.util.Random;
+
+/**
+ * Counter-based random source. Every draw is a hash of (run seed, generation, cell index, draw number) instead of the
+ * next value of a shared sequence, so a cell's draws do not depend on which thread evaluates it or on how many other
+ * cells were evaluated before it. Positioning a source at a cell is cheap, and each thread keeps its own instance.
+ *
+ * Extends <code>Random</code> so that it can be handed to anything that takes one, e.g.
+ * <code>Collections.shuffle</code>; the methods of <code>Random</code> are all built on <code>next</code>.
+ */
+
+public class CounterRandom extends Random {
+
+    /*Index used for draws that belong to the whole grid rather than to one cell*/
+    public static final long GRID_INDEX = -1;
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final long serialVersionUID = 1L;
+
+    private long runSeed;
+    private long generation;
+    private long cellIndex;
+    private long drawCount;
+
+    public CounterRandom(long runSeed){
+        super(runSeed);
+    }
+
+    /**
+     * Sets the run seed and moves back to the first draw of generation 0 on the grid index
+     * @param runSeed new run seed
+     */
+    @Override
+    public void setSeed(long runSeed){
+        this.runSeed = runSeed;
+        this.generation = 0;
+        this.cellIndex = GRID_INDEX;
+        this.drawCount = 0;
+    }
+
+    public long getSeed(){
+        return this.runSeed;
+    }
+
+    /**
+     * Moves to the first draw of a cell in a generation
+     * @param generation generation being computed
+     * @param cellIndex row-major index of the cell, or <code>GRID_INDEX</code>
+     * @return this source
+     */
+    public CounterRandom setPosition(long generation, long cellIndex){
+        this.generation = generation;
+        this.cellIndex = cellIndex;
+        this.drawCount = 0;
+        return this;
+    }
+
+    /**
+     * Derives an independent source for another purpose, such that no draw of one stream repeats in another
+     * @param streamId identifier of the purpose
+     * @return new source at the first draw of generation 0
+     */
+    public CounterRandom split(long streamId){
+        return new CounterRandom(mix(this.runSeed + (streamId + 1) * GOLDEN_GAMMA));
+    }
+
+    @Override
+    protected int next(int bits){
+        return (int) (hash(this.runSeed, this.generation, this.cellIndex, this.drawCount ++) >>> (64 - bits));
+    }
+
+    /*Static Functions*/
+
+    /**
+     * Hashes a draw position into 64 random bits
+     * @param runSeed run seed
+     * @param generation generation being computed
+     * @param cellIndex row-major index of the cell
+     * @param drawCount number of earlier draws at this position
+     * @return random bits
+     */
+    public static long hash(long runSeed, long generation, long cellIndex, long drawCount){
+        long hashValue = mix(runSeed + generation * GOLDEN_GAMMA);
+        hashValue = mix(hashValue + cellIndex * GOLDEN_GAMMA);
+        return mix(hashValue + drawCount * GOLDEN_GAMMA);
+    }
+
+    /**
+     * Hashes a draw position into an int in <code>[0, bound)</code>
+     * @param bound upper bound (exclusive), positive
+     * @return random int
+     */
+    public static int hashInt(long runSeed, long generation, long cellIndex, long drawCount, int bound){
+        return (int) ((hash(runSeed, generation, cellIndex, drawCount) >>> 1) % bound);
+    }
+
+    /**
+     * SplitMix64 finalizer
+     */
+    private static long mix(long hashValue){
+        hashValue = (hashValue ^ (hashValue >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hashValue = (hashValue ^ (hashValue >>> 27)) * 0x94D049BB133111EBL;
+        return hashValue ^ (hashValue >>> 31);
+    }
+
+}
@@ -1,96 +1,22 @@
 package src.cell.state;
 
-import src.cell.state.property.StateColor;
 import src.cell.state.property.StateRules;
 
-import javafx.scene.paint.Color;
-
 import java.util.Collections;
 import java.util.List;
 
 public enum GameOfLifeState implements State {
 
-    ALIVE(StateColor.GOL_ALIVE.getColor()){
-
-        /*Instance Variables*/
-        private int MIN = (int)StateRules.GOL_MIN.getValue();
-        private int MAX = (int)StateRules.GOL_MAX.getValue();
-
-        /**
-         * Checks neighboring <code>states</code> and returns the next <code>State</code>.
-         * @currentState: <code>ALIVE</code>
-         * @rules: Game of Life
-         * @param neighborStates list of the <code>states</code> surrounding the current <code>State</code>
-         * @return the next <code>State</code>
-         */
-        @Override
-        public State neighborUpdate(List<State> neighborStates) {
-            int count = this.getTypeCount(ALIVE, neighborStates);
-            return (count >= this.MIN && count <= this.MAX) ? ALIVE : DEAD;
-        }
-
-        @Override
-        public int getMin() {
-            return MIN;
-        }
-
-        @Override
-        public int getMax() {
-            return MAX;
-        }
-
-        @Override
-        public void setMin(int min) {
-            MIN = min;
-        }
-
-        @Override
-        public void setMax(int max) {
-            MAX = max;
-        }
-
-    },
-
-    DEAD(StateColor.GOL_DEAD.getColor()){
-
-        /*Instance Variables*/
-        private int CHECK = (int)StateRules.GOL_CHECK.getValue();
-
-        /**
-         * Checks neighboring <code>states</code> and returns the next <code>State</code>.
-         * @currentState: <code>DEAD</code>)
-         * @rules: Game of Life
-         * @param neighborStates list of the <code>states</code> surrounding the current <code>State</code>
-         * @return the next <code>State</code>
-         */
-        @Override
-        public State neighborUpdate(List<State> neighborStates) {
-            int count = this.getTypeCount(ALIVE, neighborStates);
-            return (count == this.CHECK) ? ALIVE : DEAD;
-        }
-
-        @Override
-        public int getMin() {
-            return CHECK;
-        }
-
-        @Override
-        public int getMax() {
-            return CHECK;
-        }
-
-        @Override
-        public void setMin(int MIN) { CHECK = MIN; }
-
-        @Override
-        public void setMax(int MAX) { CHECK = MAX; }
-
-    };
-
-    private Color stateColor;
-
-    GameOfLifeState(Color stateColor){
-        this.setColor(stateColor);
+    /*A live cell survives with MIN to MAX live neighbors; a dead cell is born with CHECK (its MIN and MAX)*/
+    ALIVE(StateRules.GOL_MIN, StateRules.GOL_MAX),
+    DEAD(StateRules.GOL_CHECK, StateRules.GOL_CHECK);
+
+    private StateRules minRule;
+    private StateRules maxRule;
+
+    GameOfLifeState(StateRules minRule, StateRules maxRule){
+        this.minRule = minRule;
+        this.maxRule = maxRule;
     }
 
     /*Primary Functions*/
@@ -106,22 +32,72 @@ public enum GameOfLifeState implements State {
         return Collections.frequency(neighborStates, checkState);
     }
 
-    public abstract int getMin();
+    public int getMin(){
+        return this.getMin(RuleSet.getDefault());
+    }
 
-    public abstract int getMax();
+    public int getMax(){
+        return this.getMax(RuleSet.getDefault());
+    }
+
+    /**
+     * Retrieves the fewest live neighbors that keep (or make) a cell alive
+     * @param ruleSet parameters to read
+     * @return minimum live count
+     */
+    public int getMin(RuleSet ruleSet){
+        return ruleSet.getIntValue(this.minRule);
+    }
 
-    public abstract void setMin(int MIN);
+    /**
+     * Retrieves the most live neighbors that keep (or make) a cell alive
+     * @param ruleSet parameters to read
+     * @return maximum live count
+     */
+    public int getMax(RuleSet ruleSet){
+        return ruleSet.getIntValue(this.maxRule);
+    }
 
-    public abstract void setMax(int MAX);
+    public void setMin(int min){
+        RuleSet.getDefault().setValue(this.minRule, min);
+    }
+
+    public void setMax(int max){
+        RuleSet.getDefault().setValue(this.maxRule, max);
+    }
+
+    /*Parent Functions*/
+
+    /**
+     * Checks neighboring <code>states</code> and returns the next <code>State</code>.
+     * @rules: Game of Life
+     * @param neighborStates list of the <code>states</code> surrounding the current <code>State</code>
+     * @return the next <code>State</code>
+     */
+    @Override
+    public State neighborUpdate(List<State> neighborStates, CounterRandom cellRandom) {
+        return this.getNextState(this.getTypeCount(ALIVE, neighborStates), RuleSet.getDefault());
+    }
 
     @Override
-    public void setColor(Color stateColor) {
-        this.stateColor = stateColor;
+    public State neighborUpdate(int[] neighborCounts, int neighborTotal, CounterRandom cellRandom) {
+        return this.getNextState(neighborCounts[ALIVE.ordinal()], RuleSet.getDefault());
     }
 
     @Override
-    public Color getColor() {
-        return this.stateColor;
+    public State neighborUpdate(int[] neighborCounts, int neighborTotal, RuleSet ruleSet, CounterRandom cellRandom) {
+        return this.getNextState(neighborCounts[ALIVE.ordinal()], ruleSet);
+    }
+
+    @Override
+    public State getCycledState() {
+        return (this == ALIVE) ? DEAD : ALIVE;
+    }
+
+    /*Helper Methods*/
+
+    private State getNextState(int aliveCount, RuleSet ruleSet){
+        return (aliveCount >= this.getMin(ruleSet) && aliveCount <= this.getMax(ruleSet)) ? ALIVE : DEAD;
     }
 
-}
\ No newline at end of file
+}
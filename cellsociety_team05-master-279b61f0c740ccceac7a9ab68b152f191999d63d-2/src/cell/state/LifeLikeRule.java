@@ -0,0 +1,346 @@
+package src.cell.state;
+
+import src.society.property.NeighborhoodType;
+
+import java.util.Arrays;
+
+/**
+ * Outer-totalistic rule parsed from a rule string: the next state of a cell depends only on its own state and the
+ * number of <code>ALIVE</code> cells in its neighborhood. Three notations are read:
+ *
+ * <ul>
+ *     <li>Life-like: <code>B36/S23</code> (the legacy <code>23/36</code>, survival first, is also read)</li>
+ *     <li>Generations: <code>B2/S/C3</code>, where <code>C</code> is the number of states; a live cell that does
+ *     not survive passes through <code>C - 2</code> dying states before it is dead</li>
+ *     <li>Larger than Life: <code>R5,C0,M1,S34..58,B34..45,NM</code>, with a Moore (<code>NM</code>) or von
+ *     Neumann (<code>NN</code>) neighborhood of radius <code>R</code>, <code>M1</code> to count the cell itself, and
+ *     ranges of counts for survival and birth</li>
+ * </ul>
+ *
+ * Rules are immutable; a society changes rules by being given a new one.
+ */
+
+public class LifeLikeRule {
+
+    public static final String CONWAY = "B3/S23";
+
+    /*Largest Larger-than-Life radius*/
+    public static final int MAX_RADIUS = 50;
+
+    private static final int MOORE_COUNT = 8;
+
+    private String ruleString;
+    private int radius = 1;
+    private int stateCount = 2;
+    private boolean isCenterCounted;
+    private NeighborhoodType neighborhoodType = NeighborhoodType.MOORE;
+
+    private boolean[] birthCounts;
+    private boolean[] survivalCounts;
+
+    private LifeLikeRule(String ruleString){
+        this.ruleString = ruleString;
+    }
+
+    /**
+     * Parses a rule string
+     * @param ruleString rule in B/S, Generations or Larger-than-Life notation
+     * @return parsed rule
+     * @throws IllegalArgumentException if the string is not a rule, or needs more states than
+     *         <code>LifeLikeState</code> has
+     */
+    public static LifeLikeRule parse(String ruleString){
+
+        String tempString = ruleString.trim().toUpperCase();
+        LifeLikeRule lifeRule = new LifeLikeRule(ruleString.trim());
+
+        if(tempString.startsWith("R") || tempString.contains(",")){
+            lifeRule.parseLargerThanLife(tempString);
+        }
+        else{
+            lifeRule.parseLifeLike(tempString);
+        }
+
+        if(lifeRule.stateCount < 2 || lifeRule.stateCount > LifeLikeState.values().length){
+            throw new IllegalArgumentException("Rule " + ruleString + " needs 2 to " + LifeLikeState.values().length + " states");
+        }
+
+        return lifeRule;
+
+    }
+
+    /*Rule Application*/
+
+    /**
+     * Determines the next state of a cell
+     * @param currentOrdinal ordinal of the cell's <code>LifeLikeState</code>
+     * @param aliveCount number of <code>ALIVE</code> cells in the neighborhood (including the cell itself if the rule
+     *                   counts it)
+     * @return ordinal of the next state
+     */
+    public int getNextOrdinal(int currentOrdinal, int aliveCount){
+
+        if(currentOrdinal == LifeLikeState.DEAD.ordinal()){
+            return this.isBirth(aliveCount) ? LifeLikeState.ALIVE.ordinal() : LifeLikeState.DEAD.ordinal();
+        }
+
+        if(currentOrdinal == LifeLikeState.ALIVE.ordinal()){
+
+            if(this.isSurvival(aliveCount)){
+                return LifeLikeState.ALIVE.ordinal();
+            }
+
+            return (this.stateCount > 2) ? LifeLikeState.DYING_1.ordinal() : LifeLikeState.DEAD.ordinal();
+
+        }
+
+        /*Dying states advance in order; states beyond this rule's count die at once*/
+        return (currentOrdinal + 1 < this.stateCount) ? currentOrdinal + 1 : LifeLikeState.DEAD.ordinal();
+
+    }
+
+    public boolean isBirth(int aliveCount){
+        return aliveCount < this.birthCounts.length && this.birthCounts[aliveCount];
+    }
+
+    public boolean isSurvival(int aliveCount){
+        return aliveCount < this.survivalCounts.length && this.survivalCounts[aliveCount];
+    }
+
+    /*Getters*/
+
+    public int getRadius(){
+        return this.radius;
+    }
+
+    public int getStateCount(){
+        return this.stateCount;
+    }
+
+    /**
+     * @return true if a live cell counts itself among its live neighbors
+     */
+    public boolean isCenterCounted(){
+        return this.isCenterCounted;
+    }
+
+    public NeighborhoodType getNeighborhoodType(){
+        return this.neighborhoodType;
+    }
+
+    /**
+     * @return largest live count the neighborhood can hold
+     */
+    public int getMaxCount(){
+        return this.neighborhoodType.getSlotCount(this.radius) + (this.isCenterCounted ? 1 : 0);
+    }
+
+    /**
+     * Whether the rule is a two-state rule on the eight adjacent cells, which the bit-packed Life engines can run
+     * @return true for two-state, radius 1 rules that do not count the cell itself
+     */
+    public boolean isPackable(){
+        return this.stateCount == 2 && this.radius == 1 && !this.isCenterCounted && this.neighborhoodType == NeighborhoodType.MOORE;
+    }
+
+    /**
+     * @return birth counts as a mask for <code>BitPackedLifeEngine</code>; only meaningful if the rule is packable
+     */
+    public int getBirthMask(){
+        return this.getCountMask(this.birthCounts);
+    }
+
+    /**
+     * @return survival counts as a mask for <code>BitPackedLifeEngine</code>; only meaningful if the rule is packable
+     */
+    public int getSurvivalMask(){
+        return this.getCountMask(this.survivalCounts);
+    }
+
+    @Override
+    public String toString(){
+        return this.ruleString;
+    }
+
+    /*Helper Methods*/
+
+    /**
+     * Reads B/S and Generations notation: tokens separated by '/', each a letter followed by digits
+     */
+    private void parseLifeLike(String tempString){
+
+        String[] tokens = tempString.split("/", -1);
+        this.birthCounts = new boolean[MOORE_COUNT + 1];
+        this.survivalCounts = new boolean[MOORE_COUNT + 1];
+
+        /*Legacy S/B(/C) notation has no letters*/
+        if(!tempString.matches(".*[BSCG].*")){
+
+            if(tokens.length < 2 || tokens.length > 3){
+                throw new IllegalArgumentException("Unknown rule " + this.ruleString);
+            }
+
+            this.readDigits(tokens[0], this.survivalCounts);
+            this.readDigits(tokens[1], this.birthCounts);
+
+            if(tokens.length == 3){
+                this.stateCount = this.readNumber(tokens[2]);
+            }
+
+            return;
+
+        }
+
+        for(String xToken : tokens){
+
+            if(xToken.isEmpty()){
+                throw new IllegalArgumentException("Unknown rule " + this.ruleString);
+            }
+
+            switch(xToken.charAt(0)){
+                case 'B':
+                    this.readDigits(xToken.substring(1), this.birthCounts);
+                    break;
+                case 'S':
+                    this.readDigits(xToken.substring(1), this.survivalCounts);
+                    break;
+                case 'C':
+                case 'G':
+                    this.stateCount = this.readNumber(xToken.substring(1));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown rule " + this.ruleString);
+            }
+
+        }
+
+    }
+
+    /**
+     * Reads Larger-than-Life notation: comma-separated tokens, with counts given as ranges <code>a..b</code>
+     */
+    private void parseLargerThanLife(String tempString){
+
+        String[] tokens = tempString.split(",");
+
+        /*The radius decides the size of the count arrays, so it is read first*/
+        for(String xToken : tokens){
+            if(xToken.startsWith("R")){
+                this.radius = this.readNumber(xToken.substring(1));
+            }
+        }
+
+        if(this.radius < 1 || this.radius > MAX_RADIUS){
+            throw new IllegalArgumentException("Rule " + this.ruleString + " needs a radius of 1 to " + MAX_RADIUS);
+        }
+
+        int width = 2 * this.radius + 1;
+        this.birthCounts = new boolean[width * width + 1];
+        this.survivalCounts = new boolean[width * width + 1];
+
+        for(String xToken : tokens){
+
+            if(xToken.isEmpty()){
+                throw new IllegalArgumentException("Unknown rule " + this.ruleString);
+            }
+
+            switch(xToken.charAt(0)){
+                case 'R':
+                    break;
+                case 'C':
+                    this.stateCount = Math.max(2, this.readNumber(xToken.substring(1)));
+                    break;
+                case 'M':
+                    this.isCenterCounted = (this.readNumber(xToken.substring(1)) != 0);
+                    break;
+                case 'B':
+                    this.readRange(xToken.substring(1), this.birthCounts);
+                    break;
+                case 'S':
+                    this.readRange(xToken.substring(1), this.survivalCounts);
+                    break;
+                case 'N':
+                    this.neighborhoodType = this.readNeighborhood(xToken);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown rule " + this.ruleString);
+            }
+
+        }
+
+    }
+
+    private NeighborhoodType readNeighborhood(String neighborhoodString){
+
+        switch(neighborhoodString){
+            case "NM":
+                return NeighborhoodType.MOORE;
+            case "NN":
+                return NeighborhoodType.VON_NEUMANN;
+            default:
+                throw new IllegalArgumentException("Rule " + this.ruleString + " has an unknown neighborhood " + neighborhoodString);
+        }
+
+    }
+
+    private void readDigits(String digitString, boolean[] counts){
+
+        for(char xDigit : digitString.toCharArray()){
+
+            if(xDigit < '0' || xDigit > '0' + MOORE_COUNT){
+                throw new IllegalArgumentException("Rule " + this.ruleString + " has a count outside 0.." + MOORE_COUNT);
+            }
+
+            counts[xDigit - '0'] = true;
+
+        }
+
+    }
+
+    /**
+     * Reads a count range <code>a..b</code> (or a single count) into a count array; an empty string adds nothing
+     */
+    private void readRange(String rangeString, boolean[] counts){
+
+        if(rangeString.isEmpty()){
+            return;
+        }
+
+        String[] bounds = rangeString.split("\\.\\.");
+        int min = this.readNumber(bounds[0]);
+        int max = (bounds.length > 1) ? this.readNumber(bounds[1]) : min;
+
+        if(bounds.length > 2 || min < 0 || min > max || max >= counts.length){
+            throw new IllegalArgumentException("Rule " + this.ruleString + " has a bad range " + rangeString);
+        }
+
+        Arrays.fill(counts, min, max + 1, true);
+
+    }
+
+    private int readNumber(String numberString){
+
+        try{
+            return Integer.parseInt(numberString);
+        }
+        catch(NumberFormatException E){
+            throw new IllegalArgumentException("Rule " + this.ruleString + " has a bad number " + numberString, E);
+        }
+
+    }
+
+    private int getCountMask(boolean[] counts){
+
+        int countMask = 0;
+
+        for(int xCount = 0; xCount < Math.min(counts.length, MOORE_COUNT + 1); xCount ++){
+            if(counts[xCount]){
+                countMask |= 1 << xCount;
+            }
+        }
+
+        return countMask;
+
+    }
+
+}
@@ -0,0 +1,68 @@
+package src.cell.state;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * States of the rule-string societies. <code>DEAD</code> and <code>ALIVE</code> are the two states of a Life-like
+ * (B/S) rule; a Generations rule with <code>C</code> states also uses the first <code>C - 2</code> dying states, which a
+ * cell passes through in order after leaving <code>ALIVE</code>. Only <code>ALIVE</code> neighbors are counted.
+ *
+ * The rule itself is a <code>LifeLikeRule</code> held by each <code>LifeLikeSociety</code> rather than by these
+ * constants, so societies running different rules can share the states. A state updated on its own, outside a
+ * <code>LifeLikeSociety</code>, follows Conway's rule (<code>LifeLikeRule.CONWAY</code>).
+ */
+
+public enum LifeLikeState implements State {
+
+    DEAD(0),
+    ALIVE(0),
+    DYING_1(1), DYING_2(2), DYING_3(3), DYING_4(4), DYING_5(5), DYING_6(6), DYING_7(7),
+    DYING_8(8), DYING_9(9), DYING_10(10), DYING_11(11), DYING_12(12), DYING_13(13), DYING_14(14);
+
+    /*Number of dying states*/
+    public static final int DYING_COUNT = 14;
+
+    /*Rule of the per-state updates; a society applies its own rule*/
+    private static final LifeLikeRule DEFAULT_RULE = LifeLikeRule.parse(LifeLikeRule.CONWAY);
+
+    private int dyingAge;
+
+    LifeLikeState(int dyingAge){
+        this.dyingAge = dyingAge;
+    }
+
+    /**
+     * Retrieves how many steps a dying state is past <code>ALIVE</code>
+     * @return 1 for <code>DYING_1</code> up to <code>DYING_COUNT</code>, or 0 for <code>DEAD</code> and
+     * <code>ALIVE</code>
+     */
+    public int getDyingAge(){
+        return this.dyingAge;
+    }
+
+    /**
+     * Checks neighboring <code>states</code> and returns the next <code>State</code>.
+     * @rules: Conway's Game of Life (B3/S23); a <code>LifeLikeSociety</code> applies its own rule instead
+     * @param neighborStates list of the <code>states</code> surrounding the current <code>State</code>
+     * @return the next <code>State</code>
+     */
+    @Override
+    public State neighborUpdate(List<State> neighborStates, CounterRandom cellRandom) {
+        return values()[DEFAULT_RULE.getNextOrdinal(this.ordinal(), Collections.frequency(neighborStates, ALIVE))];
+    }
+
+    @Override
+    public State neighborUpdate(int[] neighborCounts, int neighborTotal, CounterRandom cellRandom) {
+        return values()[DEFAULT_RULE.getNextOrdinal(this.ordinal(), neighborCounts[ALIVE.ordinal()])];
+    }
+
+    /**
+     * Clicking toggles between dead and alive; a dying cell is cleared
+     */
+    @Override
+    public State getCycledState() {
+        return (this == DEAD) ? ALIVE : DEAD;
+    }
+
+}
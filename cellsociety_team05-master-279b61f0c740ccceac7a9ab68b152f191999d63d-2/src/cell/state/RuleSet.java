@@ -0,0 +1,72 @@
+package src.cell.state;
+
+import src.cell.state.property.StateRules;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Values of the rule parameters (thresholds, probabilities, breed times) that a society's states are evaluated with,
+ * one per <code>StateRules</code> constant. Every society starts out on the shared default set, which the setters of
+ * the state enums (and so the settings sliders) change; a society given its own set is isolated from those changes
+ * and from every other society, so runs with different parameters can step side by side.
+ *
+ * Each change increments the set's revision, which anything caching results of the rules (compiled tables, skipped
+ * quiet cells) compares to find out that its cache is stale.
+ */
+
+public class RuleSet {
+
+    private static final RuleSet DEFAULT_RULES = new RuleSet();
+
+    private double[] ruleValues;
+    private AtomicLong revision = new AtomicLong();
+
+    /**
+     * Creates a set holding the default value of every parameter
+     */
+    public RuleSet(){
+
+        this.ruleValues = new double[StateRules.values().length];
+
+        for(StateRules xRule : StateRules.values()){
+            this.ruleValues[xRule.ordinal()] = xRule.getValue();
+        }
+
+    }
+
+    /**
+     * Creates a set holding the current values of another set
+     * @param ruleSet set to copy
+     */
+    public RuleSet(RuleSet ruleSet){
+        this.ruleValues = ruleSet.ruleValues.clone();
+    }
+
+    /**
+     * @return the set shared by societies that were not given their own
+     */
+    public static RuleSet getDefault(){
+        return DEFAULT_RULES;
+    }
+
+    public double getValue(StateRules rule){
+        return this.ruleValues[rule.ordinal()];
+    }
+
+    public int getIntValue(StateRules rule){
+        return (int) this.ruleValues[rule.ordinal()];
+    }
+
+    public void setValue(StateRules rule, double value){
+        this.ruleValues[rule.ordinal()] = value;
+        this.revision.incrementAndGet();
+    }
+
+    /**
+     * @return number of changes made to this set
+     */
+    public long getRevision(){
+        return this.revision.get();
+    }
+
+}
@@ -1,23 +1,20 @@
 package src.cell.state;
 
-import src.cell.state.property.StateColor;
 import src.cell.state.property.StateRules;
 
-import javafx.scene.paint.Color;
-
 import java.util.Collections;
 import java.util.List;
 
 public enum SegregationState implements State {
 
-    EMPTY(StateColor.SG_EMPTY.getColor()), AGENT_X(StateColor.SG_AGENTX.getColor()), AGENT_O(StateColor.SG_AGENTO.getColor());
+    EMPTY(StateRules.SG_EMPTYSATISFACTION),
+    AGENT_X(StateRules.SG_XSATISFACTION),
+    AGENT_O(StateRules.SG_OSATISFACTION);
 
-    private double satisfactionRate;
-    private Color stateColor;
+    private StateRules satisfactionRule;
 
-    SegregationState(Color stateColor){
-        this.satisfactionRate = StateRules.SG_SATISFACTION.getValue();
-        this.setColor(stateColor);
+    SegregationState(StateRules satisfactionRule){
+        this.satisfactionRule = satisfactionRule;
     }
 
     /*Primary Functions*/
@@ -27,7 +24,16 @@ public enum SegregationState implements State {
      * @return the satisfaction rate (0.0 to 1.0)
      */
     public double getSatisfactionRate(){
-        return this.satisfactionRate;
+        return this.getSatisfactionRate(RuleSet.getDefault());
+    }
+
+    /**
+     * Retrieves the satisfaction rate for this <code>State</code> from a society's parameters
+     * @param ruleSet parameters to read
+     * @return the satisfaction rate (0.0 to 1.0)
+     */
+    public double getSatisfactionRate(RuleSet ruleSet){
+        return ruleSet.getValue(this.satisfactionRule);
     }
 
     /**
@@ -35,7 +41,7 @@ public enum SegregationState implements State {
      * @param satisfactionRate new satisfaction rate (0.0 to 1.0)
      */
     public void setSatisfactionRate(double satisfactionRate){
-        this.satisfactionRate = satisfactionRate;
+        RuleSet.getDefault().setValue(this.satisfactionRule, satisfactionRate);
     }
 
     /**
@@ -55,7 +61,29 @@ public enum SegregationState implements State {
      * @return true if threshold is met; false otherwise
      */
     public boolean isSatisfied(List<State> neighborStates){
-        return (getTypeFreq(this, neighborStates) >= this.satisfactionRate);
+        return (getTypeFreq(this, neighborStates) >= this.getSatisfactionRate());
+    }
+
+    /**
+     * Indicates whether or not a <code>State</code> is satisfied with the neighbors surrounding it
+     * @param neighborCounts number of neighbors in each <code>State</code>, indexed by ordinal
+     * @param neighborTotal number of neighbor slots
+     * @return true if threshold is met; false otherwise
+     */
+    public boolean isSatisfied(int[] neighborCounts, int neighborTotal){
+        return this.isSatisfied(neighborCounts, neighborTotal, RuleSet.getDefault());
+    }
+
+    /**
+     * Indicates whether or not a <code>State</code> is satisfied with the neighbors surrounding it, under a society's
+     * parameters
+     * @param neighborCounts number of neighbors in each <code>State</code>, indexed by ordinal
+     * @param neighborTotal number of neighbor slots
+     * @param ruleSet parameters to read
+     * @return true if threshold is met; false otherwise
+     */
+    public boolean isSatisfied(int[] neighborCounts, int neighborTotal, RuleSet ruleSet){
+        return (((double) neighborCounts[this.ordinal()])/((double) neighborTotal) >= this.getSatisfactionRate(ruleSet));
     }
 
     /*Parent Functions*/
@@ -67,18 +95,35 @@ public enum SegregationState implements State {
      * @return the next <code>State</code>
      */
     @Override
-    public State neighborUpdate(List<State> neighborStates) {
+    public State neighborUpdate(List<State> neighborStates, CounterRandom cellRandom) {
         return (isSatisfied(neighborStates)) ? this : EMPTY;
     }
 
     @Override
-    public void setColor(Color stateColor) {
-        this.stateColor = stateColor;
+    public State neighborUpdate(int[] neighborCounts, int neighborTotal, CounterRandom cellRandom) {
+        return (isSatisfied(neighborCounts, neighborTotal)) ? this : EMPTY;
+    }
+
+    @Override
+    public State neighborUpdate(int[] neighborCounts, int neighborTotal, RuleSet ruleSet, CounterRandom cellRandom) {
+        return (isSatisfied(neighborCounts, neighborTotal, ruleSet)) ? this : EMPTY;
     }
 
+    /**
+     * Clicking cycles agent X, agent O, empty
+     */
     @Override
-    public Color getColor() {
-        return this.stateColor;
+    public State getCycledState() {
+
+        switch(this){
+            case AGENT_X:
+                return AGENT_O;
+            case AGENT_O:
+                return EMPTY;
+            default:
+                return AGENT_X;
+        }
+
     }
 
 }
\ No newline at end of file
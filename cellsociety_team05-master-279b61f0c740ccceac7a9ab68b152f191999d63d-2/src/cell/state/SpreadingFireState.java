@@ -1,46 +1,71 @@
 package src.cell.state;
 
-import src.cell.state.property.StateColor;
 import src.cell.state.property.StateRules;
-import javafx.scene.paint.Color;
 
 import java.util.List;
 import java.util.Random;
 
 public enum SpreadingFireState implements State{
 
-    EMPTY(StateColor.SF_EMPTY.getColor()), BURNING(StateColor.SF_BURNING.getColor()),
-    TREE(StateColor.SF_TREE.getColor()){
+    EMPTY, BURNING,
+    TREE{
 
         /**
-         * Special neighborUpdate method for tree.
+         * Special neighborUpdate method for tree, drawing from the cell's keyed random source.
          * @param neighborStates list of the <code>States</code> surrounding the current <code>State</code>
+         * @param cellRandom random source positioned at the cell
          * @return the next <code>State</code>
          */
         @Override
-        public State neighborUpdate(List<State> neighborStates) {
+        public State neighborUpdate(List<State> neighborStates, CounterRandom cellRandom) {
+            return this.neighborUpdate(neighborStates, (Random) cellRandom);
+        }
 
-            double randDouble = this.getRandGen().nextDouble();
+        /**
+         * Special neighborUpdate method for tree, on a histogram of the neighbors.
+         * @param neighborCounts number of neighbors in each <code>State</code>, indexed by ordinal
+         * @param neighborTotal number of neighbor slots
+         * @param cellRandom random source positioned at the cell
+         * @return the next <code>State</code>
+         */
+        @Override
+        public State neighborUpdate(int[] neighborCounts, int neighborTotal, CounterRandom cellRandom) {
+            return this.neighborUpdate(neighborCounts, neighborTotal, RuleSet.getDefault(), cellRandom);
+        }
 
-            if(neighborStates.contains(BURNING) && (randDouble <= this.getCatchProb())){
-                return BURNING;
-            }
+        /**
+         * Special neighborUpdate method for tree, on a histogram of the neighbors and a society's parameters.
+         * @param neighborCounts number of neighbors in each <code>State</code>, indexed by ordinal
+         * @param neighborTotal number of neighbor slots
+         * @param ruleSet parameters to read
+         * @param cellRandom random source positioned at the cell
+         * @return the next <code>State</code>
+         */
+        @Override
+        public State neighborUpdate(int[] neighborCounts, int neighborTotal, RuleSet ruleSet, CounterRandom cellRandom) {
+            return this.catchFire(neighborCounts[BURNING.ordinal()] > 0, this.getCatchProb(ruleSet), cellRandom);
+        }
 
-            return TREE;
+        @Override
+        public boolean isStochastic() {
+            return true;
+        }
 
+        private State neighborUpdate(List<State> neighborStates, Random randGen) {
+            return this.catchFire(neighborStates.contains(BURNING), this.getCatchProb(), randGen);
         }
 
-    };
+        private State catchFire(boolean isBurningNearby, double catchProb, Random randGen) {
+
+            if(!isBurningNearby){
+                return TREE;
+            }
 
-    private double catchProb;
-    private Random randGen;
-    private Color stateColor;
+            return (randGen.nextDouble() <= catchProb) ? BURNING : TREE;
 
-    SpreadingFireState(Color stateColor){
-        catchProb = StateRules.SF_PROBABILITY.getValue();
-        randGen = new Random();
-        this.setColor(stateColor);
-    }
+        }
+
+    };
 
     /*Primary Functions*/
 
@@ -48,27 +73,29 @@ public enum SpreadingFireState implements State{
      * Checks neighboring <code>states</code> and returns the next <code>State</code>.
      * @param neighborStates list of the <code>states</code> surrounding the current <code>State</code>
      * @param probCatch probability of a <code>Tree</code> catching fire (value between 0.0 and 1.0)
+     * @param cellRandom random source positioned at the cell
      * @return the next <code>State</code>
      */
-    public State neighborUpdate(List<State> neighborStates, double probCatch){
+    public State neighborUpdate(List<State> neighborStates, double probCatch, CounterRandom cellRandom){
         this.setCatchProb(probCatch);
-        return neighborUpdate(neighborStates);
+        return neighborUpdate(neighborStates, cellRandom);
     }
 
     /**
-     * Retrieves the probability of catching fire
+     * Retrieves the probability of catching fire, which all fire states share
      * @return probability of catching fire
      */
     public double getCatchProb(){
-        return this.catchProb;
+        return this.getCatchProb(RuleSet.getDefault());
     }
 
     /**
-     * Retrieves the random number generator
-     * @return random number generator
+     * Retrieves the probability of catching fire from a society's parameters
+     * @param ruleSet parameters to read
+     * @return probability of catching fire
      */
-    protected Random getRandGen(){
-        return this.randGen;
+    public double getCatchProb(RuleSet ruleSet){
+        return ruleSet.getValue(StateRules.SF_PROBABILITY);
     }
 
     /**
@@ -76,7 +103,7 @@ public enum SpreadingFireState implements State{
      * @param catchProb new probability
      */
     public void setCatchProb(double catchProb){
-        this.catchProb = catchProb;
+        RuleSet.getDefault().setValue(StateRules.SF_PROBABILITY, catchProb);
     }
 
     /*Parent Functions*/
@@ -89,18 +116,30 @@ public enum SpreadingFireState implements State{
      * @return the next <code>State</code>
      */
     @Override
-    public State neighborUpdate(List<State> neighborStates) {
+    public State neighborUpdate(List<State> neighborStates, CounterRandom cellRandom) {
         return EMPTY;
     }
 
     @Override
-    public void setColor(Color stateColor) {
-        this.stateColor = stateColor;
+    public State neighborUpdate(int[] neighborCounts, int neighborTotal, CounterRandom cellRandom) {
+        return EMPTY;
     }
 
+    /**
+     * Clicking cycles burning, tree, empty
+     */
     @Override
-    public Color getColor() {
-        return this.stateColor;
+    public State getCycledState() {
+
+        switch(this){
+            case BURNING:
+                return TREE;
+            case TREE:
+                return EMPTY;
+            default:
+                return BURNING;
+        }
+
     }
 
 }
\ No newline at end of file
@@ -1,28 +1,75 @@
 package src.cell.state;
 
-import javafx.scene.paint.Color;
-
+import java.util.ArrayList;
 import java.util.List;
 
 public interface State {
 
     /**
-     * Checks neighboring <code>States</code> and returns the next <code>State</code>.
+     * Checks neighboring <code>States</code> and returns the next <code>State</code>, drawing any randomness from a
+     * source positioned at the cell being updated. Every form takes the cell's source, so every random choice is keyed
+     * by (seed, generation, cell index); deterministic rules ignore it.
      * @param neighborStates list of the <code>States</code> surrounding the current <code>State</code>
+     * @param cellRandom random source for this cell and generation, or null when the rule is not stochastic
+     * @return the next <code>State</code>
+     */
+    public State neighborUpdate(List<State> neighborStates, CounterRandom cellRandom);
+
+    /**
+     * Checks a histogram of the neighboring <code>States</code> and returns the next <code>State</code>. This is the
+     * form the society step calls, with a count array reused from cell to cell. The default rebuilds a neighbor list
+     * (in ordinal order) for rules that only implement the list form.
+     * @param neighborCounts number of neighbors in each <code>State</code>, indexed by ordinal within this enum
+     * @param neighborTotal number of neighbor slots, including slots past the edge that hold no state
+     * @param cellRandom random source for this cell and generation, or null when the rule is not stochastic
+     * @return the next <code>State</code>
+     */
+    public default State neighborUpdate(int[] neighborCounts, int neighborTotal, CounterRandom cellRandom){
+
+        State[] stateValues = ((Enum<?>) this).getDeclaringClass().asSubclass(State.class).getEnumConstants();
+        List<State> neighborStates = new ArrayList<State>(neighborTotal);
+
+        for(int xOrdinal = 0; xOrdinal < neighborCounts.length; xOrdinal ++){
+            for(int xCount = 0; xCount < neighborCounts[xOrdinal]; xCount ++){
+                neighborStates.add(stateValues[xOrdinal]);
+            }
+        }
+
+        while(neighborStates.size() < neighborTotal){
+            neighborStates.add(null);
+        }
+
+        return this.neighborUpdate(neighborStates, cellRandom);
+
+    }
+
+    /**
+     * Checks a histogram of the neighboring <code>States</code> and returns the next <code>State</code>, reading the
+     * rule parameters from a society's <code>RuleSet</code>. The other forms read the default set; rules without
+     * parameters need not override this.
+     * @param neighborCounts number of neighbors in each <code>State</code>, indexed by ordinal within this enum
+     * @param neighborTotal number of neighbor slots, including slots past the edge that hold no state
+     * @param ruleSet parameters of the society's rules
+     * @param cellRandom random source for this cell and generation, or null when the rule is not stochastic
      * @return the next <code>State</code>
      */
-    public State neighborUpdate(List<State> neighborStates);
+    public default State neighborUpdate(int[] neighborCounts, int neighborTotal, RuleSet ruleSet, CounterRandom cellRandom){
+        return this.neighborUpdate(neighborCounts, neighborTotal, cellRandom);
+    }
 
     /**
-     * Retrieve the <code>Color</code> of the <code>State</code>
-     * @return the <code>State's</code> current <code>Color</code>
+     * Whether the next <code>State</code> is drawn at random, so that it cannot be compiled into a
+     * <code>TransitionTable</code>
+     * @return true if the rule draws from its random source
      */
-    public Color getColor();
+    public default boolean isStochastic(){
+        return false;
+    }
 
     /**
-     * Set the <code>Color</code> of the <code>State</code>
-     * @param stateColor <code>Color</code> to set the <code>State</code> to
+     * Retrieve the <code>State</code> a cell moves to when a user clicks it
+     * @return the next <code>State</code> of the click cycle
      */
-    public void setColor(Color stateColor);
+    public State getCycledState();
 
 }
\ No newline at end of file
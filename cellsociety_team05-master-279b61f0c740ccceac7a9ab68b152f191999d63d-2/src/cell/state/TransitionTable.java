@@ -0,0 +1,147 @@
+package src.cell.state;
+
+/**
+ * A state enum's rules compiled into a lookup table of next states. A key is the current state's ordinal, the number
+ * of neighbor slots and the count of neighbors in each state, packed in mixed radix so that a cell's key is the key of
+ * its (current state, slot count) plus one stride per neighbor. Looking up a cell then costs one add per neighbor and
+ * one array load instead of a call to the rule.
+ *
+ * Entries of stochastic states hold <code>CALL_RULE</code>, meaning the rule must be called with the neighbor counts
+ * as usual. A table reflects the parameters of its <code>RuleSet</code> at the time it was compiled; compile a new one
+ * when the set's revision changes.
+ */
+
+public class TransitionTable {
+
+    /*Entry of a state whose next state must be drawn by its rule*/
+    public static final byte CALL_RULE = -2;
+
+    /*Largest table worth compiling*/
+    private static final int MAX_SIZE = 1 << 22;
+
+    private State[] stateValues;
+    private int[] stateStrides;
+    private int totalStride;
+    private int currentStride;
+    private byte[] nextOrdinals;
+
+    private TransitionTable(State[] stateValues, int maxNeighborCount){
+
+        int radix = maxNeighborCount + 1;
+
+        this.stateValues = stateValues;
+        this.stateStrides = new int[stateValues.length];
+
+        int xStride = 1;
+
+        for(int xOrdinal = 0; xOrdinal < stateValues.length; xOrdinal ++){
+            this.stateStrides[xOrdinal] = xStride;
+            xStride *= radix;
+        }
+
+        this.totalStride = xStride;
+        this.currentStride = xStride * radix;
+        this.nextOrdinals = new byte[this.currentStride * stateValues.length];
+
+    }
+
+    /**
+     * Compiles the rules of a state enum for neighborhoods of up to a given size
+     * @param stateValues every constant of the state enum, in ordinal order
+     * @param maxNeighborCount largest number of neighbor slots of a cell
+     * @param ruleSet parameters to compile the rules with
+     * @return compiled table, or null if the table would be too large to be worth it
+     */
+    public static TransitionTable compile(State[] stateValues, int maxNeighborCount, RuleSet ruleSet){
+
+        double tableSize = stateValues.length * Math.pow(maxNeighborCount + 1, stateValues.length + 1);
+
+        if(stateValues.length == 0 || tableSize > MAX_SIZE){
+            return null;
+        }
+
+        TransitionTable transitionTable = new TransitionTable(stateValues, maxNeighborCount);
+        transitionTable.fill(maxNeighborCount, ruleSet);
+
+        return transitionTable;
+
+    }
+
+    /*Lookup*/
+
+    /**
+     * Retrieves the key of a cell before its neighbors are added
+     * @param currentOrdinal ordinal of the cell's current state
+     * @param neighborTotal number of neighbor slots of the cell
+     * @return partial key
+     */
+    public int getKey(int currentOrdinal, int neighborTotal){
+        return currentOrdinal * this.currentStride + neighborTotal * this.totalStride;
+    }
+
+    /**
+     * Retrieves the amount a neighbor adds to a key
+     * @param stateOrdinal ordinal of the neighbor's current state
+     * @return stride of the state
+     */
+    public int getStride(int stateOrdinal){
+        return this.stateStrides[stateOrdinal];
+    }
+
+    /**
+     * Looks up the next state of a key
+     * @param key full key of a cell
+     * @return ordinal of the next state, or <code>CALL_RULE</code>
+     */
+    public byte getNextOrdinal(int key){
+        return this.nextOrdinals[key];
+    }
+
+    public State getState(int stateOrdinal){
+        return this.stateValues[stateOrdinal];
+    }
+
+    public int getStateCount(){
+        return this.stateValues.length;
+    }
+
+    /**
+     * @return number of keys, one more than the largest key
+     */
+    public int getSize(){
+        return this.nextOrdinals.length;
+    }
+
+    /*Helper Methods*/
+
+    /**
+     * Evaluates the rule of every reachable key; keys whose counts exceed their slot count are never looked up
+     */
+    private void fill(int maxNeighborCount, RuleSet ruleSet){
+
+        int radix = maxNeighborCount + 1;
+        int[] neighborCounts = new int[this.stateValues.length];
+
+        for(int xKey = 0; xKey < this.nextOrdinals.length; xKey ++){
+
+            State currentState = this.stateValues[xKey / this.currentStride];
+            int neighborTotal = (xKey / this.totalStride) % radix;
+            int countSum = 0;
+
+            for(int xOrdinal = 0; xOrdinal < neighborCounts.length; xOrdinal ++){
+                neighborCounts[xOrdinal] = (xKey / this.stateStrides[xOrdinal]) % radix;
+                countSum += neighborCounts[xOrdinal];
+            }
+
+            if(countSum > neighborTotal || currentState.isStochastic()){
+                this.nextOrdinals[xKey] = CALL_RULE;
+                continue;
+            }
+
+            this.nextOrdinals[xKey] = (byte) ((Enum<?>) currentState.neighborUpdate(neighborCounts, neighborTotal, ruleSet, null)).ordinal();
+
+        }
+
+    }
+
+}
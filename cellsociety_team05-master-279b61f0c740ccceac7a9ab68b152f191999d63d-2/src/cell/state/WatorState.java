@@ -1,33 +1,33 @@
 package src.cell.state;
 
-import src.cell.state.property.StateColor;
 import src.cell.state.property.StateRules;
 
-import javafx.scene.paint.Color;
-
 import java.util.List;
 
 public enum WatorState implements State {
 
-    EMPTY(StateColor.WT_EMPTY.getColor(), (int)StateRules.WT_ZERO.getValue(), (int)StateRules.WT_ZERO.getValue()),
-    PREY(StateColor.WT_PREY.getColor(), (int)StateRules.WT_PREYBREED.getValue(), (int)StateRules.WT_ZERO.getValue()),
-    PREDATOR(StateColor.WT_PREDATOR.getColor(), (int)StateRules.WT_PREDATORBREED.getValue(), (int)StateRules.WT_PREDATORENERGY.getValue()){
+    EMPTY(StateRules.WT_EMPTYBREED, StateRules.WT_EMPTYENERGY),
+    PREY(StateRules.WT_PREYBREED, StateRules.WT_PREYENERGY),
+    PREDATOR(StateRules.WT_PREDATORBREED, StateRules.WT_PREDATORENERGY){
 
         @Override
-        public State neighborUpdate(List<State> neighborStates) {
+        public State neighborUpdate(List<State> neighborStates, CounterRandom cellRandom) {
             return (this.isStateAvailable(neighborStates, EMPTY) || this.isStateAvailable(neighborStates, PREY))? EMPTY : this;
         }
 
+        @Override
+        public State neighborUpdate(int[] neighborCounts, int neighborTotal, CounterRandom cellRandom) {
+            return (this.isStateAvailable(neighborCounts, EMPTY) || this.isStateAvailable(neighborCounts, PREY))? EMPTY : this;
+        }
+
     };
 
-    private Color stateColor;
-    private int breedTime;
-    private int energy;
+    private StateRules breedRule;
+    private StateRules energyRule;
 
-    WatorState(Color stateColor, int breedTime, int energy){
-        this.setColor(stateColor);
-        this.setBreedTime(breedTime);
-        this.setEnergy(energy);
+    WatorState(StateRules breedRule, StateRules energyRule){
+        this.breedRule = breedRule;
+        this.energyRule = energyRule;
     }
 
     /*Primary Functions*/
@@ -42,12 +42,31 @@ public enum WatorState implements State {
         return (neighborStates.contains(EMPTY));
     }
 
+    /**
+     * Reports if a specified<code>State</code> is available within the immediate vicinity
+     * @param neighborCounts number of neighbors in each <code>State</code>, indexed by ordinal
+     * @param checkState <code>State</code> to check for
+     * @return true if <code>EMPTY Cell</code> is available; false otherwise
+     */
+    protected boolean isStateAvailable(int[] neighborCounts, WatorState checkState){
+        return (neighborCounts[EMPTY.ordinal()] > 0);
+    }
+
     /**
      * Retrieves the number of turns it takes to breed
      * @return breed time
      */
     public int getBreedTime(){
-        return this.breedTime;
+        return this.getBreedTime(RuleSet.getDefault());
+    }
+
+    /**
+     * Retrieves the number of turns it takes to breed under a society's parameters
+     * @param ruleSet parameters to read
+     * @return breed time
+     */
+    public int getBreedTime(RuleSet ruleSet){
+        return ruleSet.getIntValue(this.breedRule);
     }
 
     /**
@@ -55,7 +74,16 @@ public enum WatorState implements State {
      * @return
      */
     public int getEnergy(){
-        return this.energy;
+        return this.getEnergy(RuleSet.getDefault());
+    }
+
+    /**
+     * Retrieves the starting energy under a society's parameters
+     * @param ruleSet parameters to read
+     * @return energy
+     */
+    public int getEnergy(RuleSet ruleSet){
+        return ruleSet.getIntValue(this.energyRule);
     }
 
     /**
@@ -63,11 +91,11 @@ public enum WatorState implements State {
      * @param breedTime new breed time
      */
     public void setBreedTime(int breedTime){
-        this.breedTime = breedTime;
+        RuleSet.getDefault().setValue(this.breedRule, breedTime);
     }
 
     public void setEnergy(int energy){
-        this.energy = energy;
+        RuleSet.getDefault().setValue(this.energyRule, energy);
     }
 
     /*Parent Functions*/
@@ -79,18 +107,30 @@ public enum WatorState implements State {
      * @return the next <code>State</code>
      */
     @Override
-    public State neighborUpdate(List<State> neighborStates) {
+    public State neighborUpdate(List<State> neighborStates, CounterRandom cellRandom) {
         return (this.isStateAvailable(neighborStates, EMPTY))? EMPTY : this;
     }
 
     @Override
-    public void setColor(Color stateColor) {
-        this.stateColor = stateColor;
+    public State neighborUpdate(int[] neighborCounts, int neighborTotal, CounterRandom cellRandom) {
+        return (this.isStateAvailable(neighborCounts, EMPTY))? EMPTY : this;
     }
 
+    /**
+     * Clicking cycles predator, prey, empty
+     */
     @Override
-    public Color getColor() {
-        return this.stateColor;
+    public State getCycledState() {
+
+        switch(this){
+            case PREDATOR:
+                return PREY;
+            case PREY:
+                return EMPTY;
+            default:
+                return PREDATOR;
+        }
+
     }
 
 }
\ No newline at end of file
@@ -2,6 +2,9 @@ package src.cell.state.property;
 
 /**
  * Created by Justin Wang
+ *
+ * Default values of the rule parameters. A <code>RuleSet</code> holds one value per constant; the states read their
+ * parameters from the rule set of the society they are stepped in.
  */
 
 public enum StateRules {
@@ -10,14 +13,14 @@ public enum StateRules {
     GOL_MIN(2), GOL_MAX(3), GOL_CHECK(3),
 
     /*Segregation*/
-    SG_SATISFACTION(0.25),
+    SG_EMPTYSATISFACTION(0.25), SG_XSATISFACTION(0.25), SG_OSATISFACTION(0.25),
 
     /*Spreading of Fire*/
     SF_PROBABILITY(0.4),
 
     /*Wator*/
-    WT_ZERO(0), WT_PREYBREED(2), WT_PREDATORBREED(16),
-    WT_PREDATORENERGY(5);
+    WT_EMPTYBREED(0), WT_EMPTYENERGY(0), WT_PREYBREED(2), WT_PREYENERGY(0),
+    WT_PREDATORBREED(16), WT_PREDATORENERGY(5);
 
     private double statValue;
 
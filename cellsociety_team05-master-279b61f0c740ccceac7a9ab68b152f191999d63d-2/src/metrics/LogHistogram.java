@@ -0,0 +1,182 @@
+package src.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of non-negative values, such as latencies in nanoseconds or sizes in bytes. Each power of two is split into
+ * <code>SUB_BUCKETS</code> equal buckets, so percentiles are reported within an eighth of the true value at any
+ * magnitude from a fixed array of buckets. Values may be recorded from any thread without locking; a
+ * <code>Snapshot</code> taken while values are being recorded may miss the most recent ones.
+ */
+
+public class LogHistogram {
+
+    /**
+     * Counts of a histogram at one moment
+     */
+    public static class Snapshot {
+
+        private long[] bucketCounts;
+        private long count;
+        private long sum;
+        private long min;
+        private long max;
+
+        private Snapshot(long[] bucketCounts, long count, long sum, long min, long max){
+            this.bucketCounts = bucketCounts;
+            this.count = count;
+            this.sum = sum;
+            this.min = min;
+            this.max = max;
+        }
+
+        public long getCount(){
+            return this.count;
+        }
+
+        public double getMean(){
+            return (this.count == 0) ? 0 : (double) this.sum / this.count;
+        }
+
+        /**
+         * @return smallest recorded value, or 0 if none was recorded
+         */
+        public long getMin(){
+            return (this.count == 0) ? 0 : this.min;
+        }
+
+        public long getMax(){
+            return this.max;
+        }
+
+        /**
+         * Retrieves a percentile of the recorded values
+         * @param percentile percentile between 0 and 100
+         * @return highest value of the bucket holding the percentile, at most the largest recorded value; 0 if none
+         * was recorded
+         */
+        public long getPercentile(double percentile){
+
+            if(percentile < 0 || percentile > 100){
+                throw new IllegalArgumentException("Percentile must be between 0 and 100, was " + percentile);
+            }
+
+            long bucketTotal = 0;
+
+            for(long xCount : this.bucketCounts){
+                bucketTotal += xCount;
+            }
+
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * bucketTotal));
+            long seenCount = 0;
+
+            for(int xBucket = 0; xBucket < this.bucketCounts.length; xBucket ++){
+
+                seenCount += this.bucketCounts[xBucket];
+
+                if(seenCount >= rank){
+                    return Math.min(getBucketLimit(xBucket), this.max);
+                }
+
+            }
+
+            return this.max;
+
+        }
+
+    }
+
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BITS) * SUB_BUCKETS;
+
+    private AtomicLongArray bucketCounts = new AtomicLongArray(BUCKET_COUNT);
+    private LongAdder count = new LongAdder();
+    private LongAdder sum = new LongAdder();
+    private AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a value
+     * @param value value to record; negative values are recorded as 0
+     */
+    public void record(long value){
+
+        long recordedValue = Math.max(0, value);
+
+        this.bucketCounts.incrementAndGet(getBucket(recordedValue));
+        this.count.increment();
+        this.sum.add(recordedValue);
+        this.min.accumulateAndGet(recordedValue, Math::min);
+        this.max.accumulateAndGet(recordedValue, Math::max);
+
+    }
+
+    /**
+     * @return counts recorded so far
+     */
+    public Snapshot getSnapshot(){
+
+        long[] tempCounts = new long[BUCKET_COUNT];
+
+        for(int xBucket = 0; xBucket < BUCKET_COUNT; xBucket ++){
+            tempCounts[xBucket] = this.bucketCounts.get(xBucket);
+        }
+
+        return new Snapshot(tempCounts, this.count.sum(), this.sum.sum(), this.min.get(), this.max.get());
+
+    }
+
+    /**
+     * Forgets every recorded value
+     */
+    public void reset(){
+
+        for(int xBucket = 0; xBucket < BUCKET_COUNT; xBucket ++){
+            this.bucketCounts.set(xBucket, 0);
+        }
+
+        this.count.reset();
+        this.sum.reset();
+        this.min.set(Long.MAX_VALUE);
+        this.max.set(0);
+
+    }
+
+    /*Helper Methods*/
+
+    /**
+     * Finds the bucket of a value: values below <code>SUB_BUCKETS</code> have a bucket each, larger values share a
+     * bucket with the values that agree on their highest <code>SUB_BITS + 1</code> bits
+     */
+    private static int getBucket(long value){
+
+        if(value < SUB_BUCKETS){
+            return (int) value;
+        }
+
+        int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BITS;
+
+        return ((shift + 1) << SUB_BITS) + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+
+    }
+
+    /**
+     * @return highest value that falls in a bucket
+     */
+    private static long getBucketLimit(int bucket){
+
+        if(bucket < SUB_BUCKETS){
+            return bucket;
+        }
+
+        int shift = (bucket >> SUB_BITS) - 1;
+        long lowest = (long) (SUB_BUCKETS | (bucket & (SUB_BUCKETS - 1))) << shift;
+
+        return lowest + (1L << shift) - 1;
+
+    }
+
+}
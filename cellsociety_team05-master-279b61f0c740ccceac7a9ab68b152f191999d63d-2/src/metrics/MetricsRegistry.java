@@ -0,0 +1,160 @@
+package src.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process record of how long the simulation spends where, kept so that a stall can be diagnosed from a running
+ * program without attaching a profiler: a latency histogram per <code>Phase</code>, the cells stepped per second, and
+ * the bytes allocated per step. Societies record into the shared default registry through <code>Society.step</code>
+ * and <code>PhaseTimer</code>; the user interface shows it in its metrics tab, and code can read it at any time.
+ *
+ * Allocation is measured on the thread calling <code>Society.step</code>, so the work of a parallel step's pool
+ * threads is not included.
+ */
+
+public class MetricsRegistry {
+
+    private static final MetricsRegistry DEFAULT_REGISTRY = new MetricsRegistry();
+
+    /*Weight of the newest step in the recent rate of cells per second*/
+    private static final double RATE_WEIGHT = 0.2;
+
+    private static final ThreadMXBean THREAD_BEAN = ManagementFactory.getThreadMXBean();
+
+    private Map<Phase, LogHistogram> phaseHistograms = new EnumMap<Phase, LogHistogram>(Phase.class);
+    private LogHistogram allocationHistogram = new LogHistogram();
+    private LongAdder cellsStepped = new LongAdder();
+    private LongAdder stepNanos = new LongAdder();
+    private double recentCellRate;
+
+    public MetricsRegistry(){
+        for(Phase xPhase : Phase.values()){
+            this.phaseHistograms.put(xPhase, new LogHistogram());
+        }
+    }
+
+    /**
+     * @return the registry the simulation records into
+     */
+    public static MetricsRegistry getDefault(){
+        return DEFAULT_REGISTRY;
+    }
+
+    /**
+     * Reads how many bytes the calling thread has allocated since it started
+     * @return allocated bytes, or -1 if the JVM does not measure allocation per thread
+     */
+    public static long getThreadAllocatedBytes(){
+
+        if(THREAD_BEAN instanceof com.sun.management.ThreadMXBean){
+
+            com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) THREAD_BEAN;
+
+            if(threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled()){
+                return threadBean.getCurrentThreadAllocatedBytes();
+            }
+
+        }
+
+        return -1;
+
+    }
+
+    /**
+     * Records one run of a phase
+     * @param phase phase that ran
+     * @param elapsedNanos time it took
+     */
+    public void recordPhase(Phase phase, long elapsedNanos){
+        this.phaseHistograms.get(phase).record(elapsedNanos);
+    }
+
+    /**
+     * Records one generation of a society as a <code>STEP</code> phase, with its cells and allocation
+     * @param elapsedNanos time the step took
+     * @param cellCount number of cells stepped
+     * @param allocatedBytes bytes allocated by the step, or a negative number if unknown
+     */
+    public void recordStep(long elapsedNanos, int cellCount, long allocatedBytes){
+
+        this.recordPhase(Phase.STEP, elapsedNanos);
+        this.cellsStepped.add(cellCount);
+        this.stepNanos.add(elapsedNanos);
+
+        if(allocatedBytes >= 0){
+            this.allocationHistogram.record(allocatedBytes);
+        }
+
+        if(elapsedNanos > 0){
+
+            double stepRate = cellCount * 1e9 / elapsedNanos;
+
+            synchronized(this){
+                this.recentCellRate = (this.recentCellRate == 0) ? stepRate : this.recentCellRate + RATE_WEIGHT * (stepRate - this.recentCellRate);
+            }
+
+        }
+
+    }
+
+    /**
+     * @param phase phase to read
+     * @return latencies of the phase, in nanoseconds
+     */
+    public LogHistogram getHistogram(Phase phase){
+        return this.phaseHistograms.get(phase);
+    }
+
+    /**
+     * @return bytes allocated per step
+     */
+    public LogHistogram getAllocationHistogram(){
+        return this.allocationHistogram;
+    }
+
+    /**
+     * @return number of cells stepped since the last reset, summed over generations
+     */
+    public long getCellsStepped(){
+        return this.cellsStepped.sum();
+    }
+
+    /**
+     * @return cells stepped per second of stepping over the last few steps, weighted toward the newest
+     */
+    public synchronized double getCellsPerSecond(){
+        return this.recentCellRate;
+    }
+
+    /**
+     * @return cells stepped per second of stepping since the last reset
+     */
+    public double getMeanCellsPerSecond(){
+        long totalNanos = this.stepNanos.sum();
+        return (totalNanos == 0) ? 0 : this.cellsStepped.sum() * 1e9 / totalNanos;
+    }
+
+    /**
+     * Forgets everything recorded
+     */
+    public void reset(){
+
+        for(LogHistogram xHistogram : this.phaseHistograms.values()){
+            xHistogram.reset();
+        }
+
+        this.allocationHistogram.reset();
+        this.cellsStepped.reset();
+        this.stepNanos.reset();
+
+        synchronized(this){
+            this.recentCellRate = 0;
+        }
+
+    }
+
+}
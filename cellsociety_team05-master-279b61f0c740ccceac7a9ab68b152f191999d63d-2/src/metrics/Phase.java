@@ -0,0 +1,28 @@
+package src.metrics;
+
+/**
+ * Timed phases of a simulation step and of an animation frame
+ */
+
+public enum Phase {
+
+    STEP("Step"),
+    UPDATE_NEXT_STATE("Update Next State"),
+    ADVANCE_NEXT_STATE("Advance Next State"),
+    NEIGHBOR_TABLE("Build Neighbor Table"),
+    SNAPSHOT("Snapshot Copy"),
+    CHART_UPDATE("Chart Update"),
+    VIEW_REFRESH("View Refresh"),
+    FRAME("Animation Frame");
+
+    private String phaseName;
+
+    Phase(String phaseName){
+        this.phaseName = phaseName;
+    }
+
+    public String getPhaseName(){
+        return this.phaseName;
+    }
+
+}
@@ -0,0 +1,33 @@
+package src.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event spanning one phase of a step or frame. Recorded by <code>PhaseTimer</code>; disabled events
+ * cost next to nothing, so the phases are always instrumented.
+ */
+
+@Name("src.metrics.Phase")
+@Label("Simulation Phase")
+@Category("Cell Society")
+@Description("Time spent in one phase of a simulation step or animation frame")
+@StackTrace(false)
+public class PhaseEvent extends Event {
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Source")
+    @Description("Society or grid class the phase ran in")
+    String source;
+
+    @Label("Generation")
+    @Description("Generation being stepped, or -1 outside a step")
+    long generation;
+
+}
@@ -0,0 +1,63 @@
+package src.metrics;
+
+/**
+ * Times one run of a phase, into the phase's histogram in the default <code>MetricsRegistry</code> and, while a
+ * flight recording enables it, as a <code>PhaseEvent</code>
+ *
+ * <pre>
+ * PhaseTimer chartTimer = PhaseTimer.start(Phase.CHART_UPDATE, societyName, generation);
+ * chart.updateChart();
+ * chartTimer.stop();
+ * </pre>
+ */
+
+public class PhaseTimer {
+
+    private Phase phase;
+    private String source;
+    private long generation;
+    private PhaseEvent phaseEvent;
+    private long startTime;
+
+    private PhaseTimer(Phase phase, String source, long generation){
+        this.phase = phase;
+        this.source = source;
+        this.generation = generation;
+        this.phaseEvent = new PhaseEvent();
+        this.phaseEvent.begin();
+        this.startTime = System.nanoTime();
+    }
+
+    /**
+     * Starts timing a phase
+     * @param phase phase being run
+     * @param source society or grid class the phase runs in
+     * @param generation generation being stepped, or -1 outside a step
+     * @return running timer
+     */
+    public static PhaseTimer start(Phase phase, String source, long generation){
+        return new PhaseTimer(phase, source, generation);
+    }
+
+    /**
+     * Stops timing and records the phase
+     * @return nanoseconds since the timer started
+     */
+    public long stop(){
+
+        long elapsedNanos = System.nanoTime() - this.startTime;
+
+        MetricsRegistry.getDefault().recordPhase(this.phase, elapsedNanos);
+
+        if(this.phaseEvent.shouldCommit()){
+            this.phaseEvent.phase = this.phase.name();
+            this.phaseEvent.source = this.source;
+            this.phaseEvent.generation = this.generation;
+            this.phaseEvent.commit();
+        }
+
+        return elapsedNanos;
+
+    }
+
+}
@@ -0,0 +1,57 @@
+package src.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event spanning one generation of a society, recorded by <code>Society.step</code>
+ */
+
+@Name("src.metrics.Step")
+@Label("Simulation Step")
+@Category("Cell Society")
+@Description("One generation of a society: next states computed and advanced")
+@StackTrace(false)
+public class StepEvent extends Event {
+
+    @Label("Society")
+    String society;
+
+    @Label("Generation")
+    long generation;
+
+    @Label("Cells")
+    int cellCount;
+
+    @Label("Allocated")
+    @Description("Bytes allocated by the stepping thread, or -1 if the JVM does not measure it")
+    @DataAmount
+    long allocatedBytes;
+
+    /**
+     * Ends the event and commits it if the recording enables it and it lasted past the recording's threshold
+     * @param society society class that was stepped
+     * @param generation generation that was stepped
+     * @param cellCount number of cells stepped
+     * @param allocatedBytes bytes allocated by the stepping thread, or -1 if unknown
+     */
+    public void commit(String society, long generation, int cellCount, long allocatedBytes){
+
+        if(!this.shouldCommit()){
+            return;
+        }
+
+        this.society = society;
+        this.generation = generation;
+        this.cellCount = cellCount;
+        this.allocatedBytes = allocatedBytes;
+        this.commit();
+
+    }
+
+}
@@ -0,0 +1,313 @@
+package src.society;
+
+import src.cell.Cell;
+import src.cell.CellShape;
+import src.cell.StateStore;
+import src.cell.location.Location;
+import src.cell.state.State;
+
+import java.util.*;
+
+/**
+ * A <code>Grid</code> that keeps its cells in a flat row-major array instead of a <code>HashMap</code>. Current and
+ * next states are held as <code>byte</code> ordinals of the society's <code>State</code> enum and every cell placed in
+ * the grid is bound to its slot, so lookups are plain index arithmetic and engines can work on the state arrays
+ * directly.
+ */
+
+public class DenseGrid extends Grid implements StateStore {
+
+    /*Ordinal stored for a missing (null) state*/
+    private static final byte NO_STATE = -1;
+
+    private Cell[] cells;
+
+    private byte[] currentStates;
+    private byte[] nextStates;
+    private State[] stateValues;
+
+    /*Counts writes of current states through the cells, so engines holding a copy know when to reload it*/
+    private long stateRevision;
+
+    /*Population change per ordinal, reused by advanceStateArrays*/
+    private long[] stateChanges = new long[0];
+
+    public DenseGrid(int row, int col, List<Cell> cellList, CellShape cellShape){
+
+        super(row, col);
+
+        this.cells = new Cell[row * col];
+        this.currentStates = new byte[row * col];
+        this.nextStates = new byte[row * col];
+
+        Arrays.fill(this.currentStates, NO_STATE);
+        Arrays.fill(this.nextStates, NO_STATE);
+
+        Iterator<Cell> cellIterator = cellList.iterator();
+
+        for(int xIndex = 0; xIndex < this.cells.length && cellIterator.hasNext(); xIndex ++){
+            this.setCell(this.getLocation(xIndex), cellIterator.next());
+        }
+
+        this.setCellShape(cellShape);
+
+    }
+
+    /**
+     * Retrieves the cell stored in a slot
+     * @param index row-major slot
+     * @return the cell, or null if the slot is empty
+     */
+    @Override
+    public Cell getCell(int index){
+        return this.cells[index];
+    }
+
+    /*State Arrays*/
+
+    /**
+     * Retrieves the live array of current state ordinals (-1 for no state)
+     * @return current states in row-major order
+     */
+    public byte[] getCurrentStates(){
+        return this.currentStates;
+    }
+
+    /**
+     * Retrieves the live array of next state ordinals (-1 for no state)
+     * @return next states in row-major order
+     */
+    public byte[] getNextStates(){
+        return this.nextStates;
+    }
+
+    /**
+     * Retrieves the states that the ordinals in the state arrays refer to
+     * @return states indexed by ordinal, or null while the grid holds no cells
+     */
+    public State[] getStateValues(){
+        return this.stateValues;
+    }
+
+    /**
+     * Retrieves the number of times a current state was set through a cell, or the cells were replaced. Writes made
+     * directly to the state arrays, e.g. by an engine, do not count.
+     * @return revision of the current states
+     */
+    public long getStateRevision(){
+        return this.stateRevision;
+    }
+
+    /**
+     * Moves every slot to its next state by exchanging the state arrays, without visiting the cells, and moves the
+     * populations by the states entered and left. Every slot holding a state must have been given a next state; the
+     * next states are undefined afterwards.
+     */
+    public void advanceStateArrays(){
+
+        if(this.stateValues == null){
+            return;
+        }
+
+        if(this.stateChanges.length != this.stateValues.length){
+            this.stateChanges = new long[this.stateValues.length];
+        }
+
+        long[] stateChanges = this.stateChanges;
+
+        for(int xIndex = 0; xIndex < this.currentStates.length; xIndex ++){
+
+            byte currentOrdinal = this.currentStates[xIndex];
+            byte nextOrdinal = this.nextStates[xIndex];
+
+            if(currentOrdinal == nextOrdinal){
+                continue;
+            }
+
+            if(currentOrdinal != NO_STATE){
+                stateChanges[currentOrdinal] --;
+            }
+
+            if(nextOrdinal != NO_STATE){
+                stateChanges[nextOrdinal] ++;
+            }
+
+        }
+
+        byte[] tempStates = this.currentStates;
+        this.currentStates = this.nextStates;
+        this.nextStates = tempStates;
+
+        for(int xOrdinal = 0; xOrdinal < stateChanges.length; xOrdinal ++){
+            if(stateChanges[xOrdinal] != 0){
+                this.getPopulationCounter().addCount(this.stateValues[xOrdinal], stateChanges[xOrdinal]);
+                stateChanges[xOrdinal] = 0;
+            }
+        }
+
+    }
+
+    /**
+     * Copies the current state array
+     * @param stateOrdinals array of at least <code>getSize()</code> entries, filled in row-major order (-1 for no cell
+     * or no state)
+     * @return states the ordinals refer to, empty while the grid holds no cells
+     */
+    @Override
+    public State[] copyCurrentStates(byte[] stateOrdinals){
+        System.arraycopy(this.currentStates, 0, stateOrdinals, 0, this.currentStates.length);
+        return (this.stateValues == null) ? new State[0] : this.stateValues;
+    }
+
+    /*StateStore Functions*/
+
+    @Override
+    public State getCurrentState(int index) {
+        return this.decode(this.currentStates[index]);
+    }
+
+    @Override
+    public void setCurrentState(int index, State currentState) {
+        this.currentStates[index] = this.encode(currentState);
+        this.stateRevision ++;
+    }
+
+    @Override
+    public State getNextState(int index) {
+        return this.decode(this.nextStates[index]);
+    }
+
+    @Override
+    public void setNextState(int index, State nextState) {
+        this.nextStates[index] = this.encode(nextState);
+    }
+
+    /*Parent Functions*/
+
+    /**
+     * Builds a row-major snapshot of the cells. The map is a copy; changes to it do not reach the grid.
+     * @return map of locations to cells
+     */
+    @Override
+    public Map<Location, Cell> getCellMap(){
+
+        Map<Location, Cell> cellMap = new LinkedHashMap<Location, Cell>();
+
+        for(int xIndex = 0; xIndex < this.cells.length; xIndex ++){
+            if(this.cells[xIndex] != null){
+                cellMap.put(this.getLocation(xIndex), this.cells[xIndex]);
+            }
+        }
+
+        return cellMap;
+
+    }
+
+    @Override
+    public void setCellMap(Map<Location, Cell> cellMap){
+
+        for(Cell xCell : this.cells){
+            if(xCell != null){
+                xCell.setPopulationCounter(null);
+            }
+        }
+
+        Arrays.fill(this.cells, null);
+        Arrays.fill(this.currentStates, NO_STATE);
+        Arrays.fill(this.nextStates, NO_STATE);
+        this.stateRevision ++;
+
+        for(Map.Entry<Location, Cell> mapEntry : cellMap.entrySet()){
+            this.setCell(mapEntry.getKey(), mapEntry.getValue());
+        }
+
+    }
+
+    @Override
+    public Collection<Cell> getCells(){
+
+        List<Cell> cellList = new ArrayList<Cell>();
+
+        for(Cell xCell : this.cells){
+            if(xCell != null){
+                cellList.add(xCell);
+            }
+        }
+
+        return cellList;
+
+    }
+
+    @Override
+    public Cell getCell(Location cellLocation){
+        int index = this.getIndex(cellLocation);
+        return (index < 0) ? null : this.cells[index];
+    }
+
+    /**
+     * Places a cell into the slot of a location and binds its states to that slot. A cell occupies a single slot; a
+     * cell that is placed twice keeps only its latest slot.
+     * @param cellLocation location inside the grid
+     * @param newCell cell to place
+     */
+    @Override
+    public void setCell(Location cellLocation, Cell newCell){
+
+        int index = this.getIndex(cellLocation);
+
+        if(index < 0){
+            throw new IllegalArgumentException("Location " + cellLocation.getRow() + ", " + cellLocation.getCol() + " lies outside the grid");
+        }
+
+        if(this.stateValues == null && newCell.getCurrentState() != null){
+            this.stateValues = (State[]) ((Enum<?>) newCell.getCurrentState()).getDeclaringClass().getEnumConstants();
+        }
+
+        if(this.cells[index] == null){
+            this.invalidateNeighborTable();
+        }
+
+        /*The replaced cell still reads its state from this slot, so it leaves the counts first*/
+        if(this.cells[index] != null && this.cells[index] != newCell){
+            this.cells[index].setPopulationCounter(null);
+        }
+
+        this.cells[index] = newCell;
+        newCell.setStateStore(this, index);
+        newCell.setPopulationCounter(this.getPopulationCounter());
+
+    }
+
+    @Override
+    public boolean contains(Location cellLocation){
+        int index = this.getIndex(cellLocation);
+        return (index >= 0 && this.cells[index] != null);
+    }
+
+    @Override
+    public Map<Location, Cell> getCellsOfType(State cellType){
+
+        Map<Location, Cell> cellMapOfType = new HashMap<Location, Cell>();
+        byte typeOrdinal = this.encode(cellType);
+
+        for(int xIndex = 0; xIndex < this.cells.length; xIndex ++){
+            if(this.cells[xIndex] != null && this.currentStates[xIndex] == typeOrdinal){
+                cellMapOfType.put(this.getLocation(xIndex), this.cells[xIndex]);
+            }
+        }
+
+        return cellMapOfType;
+
+    }
+
+    /*Helper Methods*/
+
+    private byte encode(State xState){
+        return (xState == null) ? NO_STATE : (byte) ((Enum<?>) xState).ordinal();
+    }
+
+    private State decode(byte stateOrdinal){
+        return (stateOrdinal == NO_STATE) ? null : this.stateValues[stateOrdinal];
+    }
+
+}
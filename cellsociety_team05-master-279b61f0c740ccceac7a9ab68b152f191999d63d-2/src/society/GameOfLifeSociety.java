@@ -5,6 +5,14 @@ package src.society;
 
 import src.cell.Cell;
 import src.cell.CellShape;
+import src.cell.PopulationCounter;
+import src.cell.state.GameOfLifeState;
+import src.society.engine.BitPackedLifeEngine;
+import src.society.engine.HashLifeEngine;
+import src.society.engine.PackedLifeRule;
+import src.society.engine.TiledLifeWorld;
+import src.society.property.BorderType;
+import src.society.property.GridType;
 
 import java.util.List;
 
@@ -15,9 +23,235 @@ import java.util.List;
 
 public class GameOfLifeSociety extends Society {
 
+    private BitPackedLifeEngine lifeEngine;
+    private HashLifeEngine hashLifeEngine;
+
+    /*Fully occupied grid whose current states the engine's words hold, as of a revision of its states*/
+    private DenseGrid packedGrid;
+    private long packedRevision;
+    private boolean isPackedStep;
+
+    /*Unbounded world behind an INFINITE grid; the grid shows the window at (0, 0)*/
+    private TiledLifeWorld tiledWorld;
+    private Grid tiledGrid;
+
     public GameOfLifeSociety(int row, int col, List<Cell> cellList, CellShape cellShape) {
         super(row, col, cellList, cellShape);
         
     }
 
+    public GameOfLifeSociety(int row, int col, List<Cell> cellList, CellShape cellShape, GridType gridType) {
+        super(row, col, cellList, cellShape, gridType);
+    }
+
+    /**
+     * Game of Life is deterministic and reads only the neighbor states, so quiet regions are stable
+     */
+    @Override
+    protected boolean isActiveTracked(){
+        return true;
+    }
+
+    @Override
+    protected boolean isParallelSafe(){
+        return true;
+    }
+
+    /**
+     * Square grids are stepped by a <code>BitPackedLifeEngine</code>, or by a <code>TiledLifeWorld</code> that keeps
+     * growing past the grid when the border is INFINITE; other shapes and radius neighborhoods use the generic step, as
+     * do tori with fewer than three rows or columns, where the engine's wrapping would count a neighbor twice but the
+     * <code>NeighborTable</code> lists it once. The rule is read
+     * from the society's <code>RuleSet</code> on every step, so slider changes apply immediately.
+     *
+     * On a fully occupied <code>DenseGrid</code> the engine's words stay the source of truth between steps: the grid's
+     * states are reloaded only when its state revision shows that a cell was edited, and only the words that changed
+     * are written to the grid, advanced and marked in its active set. Other grids are reloaded and written whole every
+     * step.
+     * @param societyGrid
+     */
+    @Override
+    public void updateNextState(Grid societyGrid){
+
+        this.isPackedStep = false;
+
+        if(societyGrid.getCellShape() != CellShape.SQUARE || societyGrid.getSize() == 0 || this.isRadiusNeighborhood(societyGrid)
+                || this.isNarrowTorus(societyGrid)){
+            this.tiledWorld = null;
+            super.updateNextState(societyGrid);
+            return;
+        }
+
+        /*Birth on zero neighbors cannot run unbounded, so such rules keep the grid's edge*/
+        if(societyGrid.getBorderType() == BorderType.INFINITE && (this.getBirthMask() & 1) == 0){
+
+            if(this.tiledWorld == null || this.tiledGrid != societyGrid){
+                this.tiledWorld = new TiledLifeWorld();
+                this.tiledGrid = societyGrid;
+            }
+
+            this.tiledWorld.readStates(societyGrid, GameOfLifeState.ALIVE);
+            this.tiledWorld.step(this.getBirthMask(), this.getSurvivalMask(), this.getStepPool());
+            this.tiledWorld.writeNextStates(societyGrid, GameOfLifeState.ALIVE, GameOfLifeState.DEAD);
+            societyGrid.markAllActive();
+            return;
+
+        }
+
+        this.tiledWorld = null;
+
+        BitPackedLifeEngine lifeEngine = this.getLifeEngine(societyGrid);
+
+        this.isPackedStep = this.readPackedStates(societyGrid, lifeEngine);
+        lifeEngine.step(this.getBirthMask(), this.getSurvivalMask(), this.getStepPool());
+
+        if(this.isPackedStep){
+            lifeEngine.writeChangedStates(this.packedGrid, GameOfLifeState.ALIVE, GameOfLifeState.DEAD);
+            return;
+        }
+
+        lifeEngine.writeNextStates(societyGrid, GameOfLifeState.ALIVE, GameOfLifeState.DEAD);
+
+        /*The cells are swapped without marks, so the grid's marks are stale after this step*/
+        societyGrid.markAllActive();
+
+    }
+
+    /**
+     * Changes current states of all cells to their next states. After an engine step on a fully occupied
+     * <code>DenseGrid</code> only the words that changed are copied, and the populations are moved by the change in
+     * their live count; otherwise the cells are advanced one by one.
+     * @param societyGrid
+     */
+    @Override
+    public void advanceNextState(Grid societyGrid){
+
+        if(!this.isPackedStep || societyGrid != this.packedGrid){
+            super.advanceNextState(societyGrid);
+            return;
+        }
+
+        this.isPackedStep = false;
+
+        long populationChange = this.lifeEngine.advanceChangedStates(this.packedGrid);
+        PopulationCounter populationCounter = societyGrid.getPopulationCounter();
+
+        populationCounter.addCount(GameOfLifeState.ALIVE, populationChange);
+        populationCounter.addCount(GameOfLifeState.DEAD, -populationChange);
+
+        this.addGenerations(1);
+
+    }
+
+    /**
+     * Advances the society many generations at once. Square grids with a REGULAR border and adjacent neighborhoods are
+     * jumped by a <code>HashLifeEngine</code>, whose node cache is kept between jumps; other grids are stepped one
+     * generation at a time. Either way the result matches calling <code>updateNextState</code> and <code>advanceNextState</code>
+     * <code>generations</code> times.
+     * @param generations number of generations to advance
+     */
+    public void jumpGenerations(long generations){
+
+        Grid societyGrid = this.getSocietyGrid();
+
+        if(societyGrid.getCellShape() != CellShape.SQUARE || societyGrid.getBorderType() != BorderType.REGULAR
+                || societyGrid.getSize() == 0 || this.isRadiusNeighborhood(societyGrid)){
+
+            for(long xGeneration = 0; xGeneration < generations; xGeneration ++){
+                this.updateNextState(societyGrid);
+                this.advanceNextState(societyGrid);
+            }
+
+            return;
+
+        }
+
+        if(this.hashLifeEngine == null || this.hashLifeEngine.getRowCount() != societyGrid.getRowCount()
+                || this.hashLifeEngine.getColCount() != societyGrid.getColCount()){
+            this.hashLifeEngine = new HashLifeEngine(societyGrid.getRowCount(), societyGrid.getColCount());
+        }
+
+        this.hashLifeEngine.readStates(societyGrid, GameOfLifeState.ALIVE);
+        this.hashLifeEngine.jumpGenerations(generations, this.getBirthMask(), this.getSurvivalMask());
+        this.hashLifeEngine.writeCurrentStates(societyGrid, GameOfLifeState.ALIVE, GameOfLifeState.DEAD);
+        societyGrid.markAllActive();
+        this.addGenerations(generations);
+
+    }
+
+    /*Helper Methods*/
+
+    /**
+     * Loads the grid's states into the engine unless the engine already holds them
+     * @param societyGrid grid to be stepped
+     * @param lifeEngine engine sized to the grid
+     * @return true if the grid is a fully occupied <code>DenseGrid</code>, whose state arrays can follow the engine
+     */
+    private boolean readPackedStates(Grid societyGrid, BitPackedLifeEngine lifeEngine){
+
+        if(societyGrid == this.packedGrid && this.packedGrid.getStateRevision() == this.packedRevision){
+            return true;
+        }
+
+        lifeEngine.readStates(societyGrid, GameOfLifeState.ALIVE);
+        this.packedGrid = this.isFullyOccupied(societyGrid) ? (DenseGrid) societyGrid : null;
+
+        if(this.packedGrid == null){
+            return false;
+        }
+
+        this.packedRevision = this.packedGrid.getStateRevision();
+        return true;
+
+    }
+
+    /**
+     * @return true if every slot of a <code>DenseGrid</code> holds a Game of Life cell with a state
+     */
+    private boolean isFullyOccupied(Grid societyGrid){
+
+        if(!(societyGrid instanceof DenseGrid) || !(((DenseGrid) societyGrid).getStateValues() instanceof GameOfLifeState[])){
+            return false;
+        }
+
+        for(byte xOrdinal : ((DenseGrid) societyGrid).getCurrentStates()){
+            if(xOrdinal < 0){
+                return false;
+            }
+        }
+
+        return true;
+
+    }
+
+    private boolean isNarrowTorus(Grid societyGrid){
+        return societyGrid.getBorderType() == BorderType.TOROIDAL && (societyGrid.getRowCount() < 3 || societyGrid.getColCount() < 3);
+    }
+
+    private int getBirthMask(){
+        return PackedLifeRule.getCountMask(GameOfLifeState.DEAD.getMin(this.getRuleSet()), GameOfLifeState.DEAD.getMax(this.getRuleSet()));
+    }
+
+    private int getSurvivalMask(){
+        return PackedLifeRule.getCountMask(GameOfLifeState.ALIVE.getMin(this.getRuleSet()), GameOfLifeState.ALIVE.getMax(this.getRuleSet()));
+    }
+
+    /**
+     * Retrieves the engine for a grid, creating a new one if the grid's dimensions have changed
+     * @param societyGrid grid to be stepped
+     * @return engine sized to the grid
+     */
+    private BitPackedLifeEngine getLifeEngine(Grid societyGrid){
+
+        if(this.lifeEngine == null || this.lifeEngine.getRowCount() != societyGrid.getRowCount()
+                || this.lifeEngine.getColCount() != societyGrid.getColCount()){
+            this.lifeEngine = new BitPackedLifeEngine(societyGrid.getRowCount(), societyGrid.getColCount(), societyGrid.getBorderType());
+            this.packedGrid = null;
+        }
+
+        this.lifeEngine.setBorderType(societyGrid.getBorderType());
+        return this.lifeEngine;
+
+    }
+
 }
@@ -7,9 +7,11 @@ package src.society;
 import src.cell.Cell;
 import src.cell.CellShape;
 import src.cell.EdgeCell;
+import src.cell.PopulationCounter;
 import src.cell.location.Location;
 import src.cell.state.State;
-import javafx.scene.Group;
+import src.metrics.Phase;
+import src.metrics.PhaseTimer;
 import src.society.property.BorderType;
 
 import java.util.*;
@@ -23,55 +25,340 @@ public class Grid {
 
     private Map<Location, Cell> cellMap;
     private CellShape cellShape;
+    private BorderType borderType;
+
+    /*Row-Major Indexing*/
+    private int rowCount;
+    private int colCount;
+    private Location[] gridLocations;
+
+    private NeighborTable neighborTable;
+    private List<Location> orderedLocations;
+
+    /*Per-State Populations*/
+    private PopulationCounter populationCounter = new PopulationCounter();
+
+    /*Active-Cell Tracking*/
+    private BitSet activeCells = new BitSet();
+    private BitSet polledCells = new BitSet();
+    private boolean isAllActive;
 
     public Grid(){
         this.cellMap = new HashMap<Location, Cell>();
+        this.initDimensions(0, 0);
     }
 
     public Grid(Map<Location, Cell> cellMap){
         this.setCellMap(cellMap);
     }
 
+    /**
+     * Creates an empty grid with a fixed row-major index space, for subclasses that supply their own storage
+     * @param row number of rows
+     * @param col number of columns
+     */
+    protected Grid(int row, int col){
+        this.cellMap = new HashMap<Location, Cell>();
+        this.initDimensions(row, col);
+    }
+
     public Grid(int row, int col, List<Cell> cellList, CellShape cellShape){
 
-        this();
+        this(row, col);
 
         Iterator<Cell> cellIterator = cellList.iterator();
 
-        for(int xRow = 0; xRow < row; xRow ++){
-            for(int yCol = 0; yCol < col; yCol ++){
-                if(cellIterator.hasNext()){
-                    this.cellMap.put(new Location(xRow, yCol), cellIterator.next());
-                }
-            }
+        for(int xIndex = 0; xIndex < this.gridLocations.length && cellIterator.hasNext(); xIndex ++){
+            Cell xCell = cellIterator.next();
+            this.cellMap.put(this.gridLocations[xIndex], xCell);
+            xCell.setPopulationCounter(this.populationCounter);
         }
 
         this.setCellShape(cellShape);
 
     }
 
+    /**
+     * Sets up the row-major index space and caches one location per index
+     * @param row number of rows
+     * @param col number of columns
+     */
+    private void initDimensions(int row, int col){
+
+        this.rowCount = row;
+        this.colCount = col;
+        this.gridLocations = new Location[row * col];
+
+        for(int xIndex = 0; xIndex < this.gridLocations.length; xIndex ++){
+            this.gridLocations[xIndex] = new Location(xIndex / col, xIndex % col);
+        }
+
+        this.neighborTable = null;
+        this.orderedLocations = null;
+        this.isAllActive = true;
+
+    }
+
     public CellShape getCellShape(){
         return this.cellShape;
     }
 
+    /**
+     * @return border behaviour set for the grid, else that of the grid's cell shape, or REGULAR while neither is set
+     */
+    public BorderType getBorderType(){
+
+        if(this.borderType != null){
+            return this.borderType;
+        }
+
+        return (this.cellShape == null) ? BorderType.REGULAR : this.cellShape.getBorderType();
+
+    }
+
+    /**
+     * Overrides the border behaviour of the cell shape. The neighbor table is rebuilt if the border changes.
+     * @param borderType new border type, or null to use the cell shape's
+     */
+    public void setBorderType(BorderType borderType){
+
+        if(this.borderType != borderType){
+            this.invalidateNeighborTable();
+        }
+
+        this.borderType = borderType;
+
+    }
+
+    /*Index Functions*/
+
+    public int getRowCount(){
+        return this.rowCount;
+    }
+
+    public int getColCount(){
+        return this.colCount;
+    }
+
+    /**
+     * @return number of indices (rows * columns), including empty ones
+     */
+    public int getSize(){
+        return this.gridLocations.length;
+    }
+
+    /**
+     * Converts a location to its row-major index
+     * @param cellLocation location to convert
+     * @return index of the location, or -1 if the location lies outside the grid
+     */
+    public int getIndex(Location cellLocation){
+
+        int row = cellLocation.getRow();
+        int col = cellLocation.getCol();
+
+        if(row < 0 || row >= this.rowCount || col < 0 || col >= this.colCount){
+            return -1;
+        }
+
+        return row * this.colCount + col;
+
+    }
+
+    /**
+     * Retrieves the location of a row-major index
+     * @param index index to convert
+     * @return cached location of the index
+     */
+    public Location getLocation(int index){
+        return this.gridLocations[index];
+    }
+
+    /**
+     * Retrieves the cell at a row-major index
+     * @param index index of the cell
+     * @return the cell, or null if the index holds no cell
+     */
+    public Cell getCell(int index){
+        return this.getCell(this.gridLocations[index]);
+    }
+
+    /**
+     * Copies the ordinals of the cells' current states into an array, for views and snapshots that work from state
+     * arrays instead of cells
+     * @param stateOrdinals array of at least <code>getSize()</code> entries, filled in row-major order (-1 for no cell
+     * or no state)
+     * @return states the ordinals refer to, empty while no cell has a state
+     */
+    public State[] copyCurrentStates(byte[] stateOrdinals){
+
+        State[] stateValues = new State[0];
+
+        for(int xIndex = 0; xIndex < this.getSize(); xIndex ++){
+
+            Cell xCell = this.getCell(xIndex);
+            State xState = (xCell == null) ? null : xCell.getCurrentState();
+
+            if(xState == null){
+                stateOrdinals[xIndex] = -1;
+                continue;
+            }
+
+            if(stateValues.length == 0){
+                stateValues = ((Enum<?>) xState).getDeclaringClass().asSubclass(State.class).getEnumConstants();
+            }
+
+            stateOrdinals[xIndex] = (byte) ((Enum<?>) xState).ordinal();
+
+        }
+
+        return stateValues;
+
+    }
+
+    /**
+     * Retrieves the live count of cells per state, kept up to date by the cells themselves
+     * @return population counter of the grid
+     */
+    public PopulationCounter getPopulationCounter(){
+        return this.populationCounter;
+    }
+
+    /**
+     * Drops the neighbor table and the location order so that they are rebuilt on next use. Called when the set of
+     * occupied indices changes.
+     */
+    protected void invalidateNeighborTable(){
+        this.neighborTable = null;
+        this.orderedLocations = null;
+        this.isAllActive = true;
+    }
+
+    /**
+     * Retrieves the precomputed neighbor indices for the current size, shape and border
+     * @return adjacency table of the grid
+     */
+    public NeighborTable getNeighborTable(){
+
+        if(this.neighborTable == null){
+            PhaseTimer tableTimer = PhaseTimer.start(Phase.NEIGHBOR_TABLE, this.getClass().getSimpleName(), -1);
+            this.neighborTable = new NeighborTable(this, this.cellShape);
+            tableTimer.stop();
+        }
+
+        return this.neighborTable;
+
+    }
+
+    /*Active-Cell Functions*/
+
+    /**
+     * Records that the state of a cell changed, so that the cell and every cell that has it as a neighbor are
+     * evaluated on the next step
+     * @param index row-major index of the changed cell
+     */
+    public void markChanged(int index){
+
+        if(this.isAllActive){
+            return;
+        }
+
+        NeighborTable neighborTable = this.getNeighborTable();
+
+        this.activeCells.set(index);
+
+        for(int xPosition = neighborTable.getDependentStart(index); xPosition < neighborTable.getDependentEnd(index); xPosition ++){
+            this.activeCells.set(neighborTable.getDependent(xPosition));
+        }
+
+    }
+
+    /**
+     * Marks every cell for evaluation on the next step, e.g. after the rules or the layout change
+     */
+    public void markAllActive(){
+        this.isAllActive = true;
+    }
+
+    /**
+     * Retrieves the cells marked for evaluation and starts a new, empty set of marks. The returned set is reused by
+     * the following call, so it is only valid until then.
+     * @return row-major indices of the cells to evaluate
+     */
+    public BitSet pollActiveCells(){
+
+        BitSet tempCells = this.polledCells;
+
+        this.polledCells = this.activeCells;
+        this.activeCells = tempCells;
+        this.activeCells.clear();
+
+        if(this.isAllActive){
+            this.polledCells.set(0, this.getSize());
+            this.isAllActive = false;
+        }
+
+        return this.polledCells;
+
+    }
+
     public Map<Location, Cell> getCellMap(){
         return this.cellMap;
     }
 
+    /**
+     * Retrieves every cell stored in the grid
+     * @return collection of cells
+     */
+    public Collection<Cell> getCells(){
+        return this.cellMap.values();
+    }
+
+    /**
+     * Replaces the cells of the grid. The index space is sized to cover every non-negative location in the map.
+     * @param cellMap map of locations to cells
+     */
     public void setCellMap(Map<Location, Cell> cellMap){
+
+        int row = 0;
+        int col = 0;
+
+        for(Location xLocation : cellMap.keySet()){
+            row = Math.max(row, xLocation.getRow() + 1);
+            col = Math.max(col, xLocation.getCol() + 1);
+        }
+
+        if(this.cellMap != null){
+            for(Cell xCell : this.cellMap.values()){
+                xCell.setPopulationCounter(null);
+            }
+        }
+
+        this.initDimensions(row, col);
         this.cellMap = cellMap;
+
+        for(Cell xCell : this.cellMap.values()){
+            xCell.setPopulationCounter(this.populationCounter);
+        }
+
     }
 
+    /**
+     * Changes the shape of every cell. The neighbor table is rebuilt only if the shape actually changes.
+     * @param cellShape new cell shape
+     */
     public void setCellShape(CellShape cellShape){
 
+        if(this.cellShape != cellShape){
+            this.invalidateNeighborTable();
+        }
+
         this.cellShape = cellShape;
 
-        for(Cell xCell : this.cellMap.values()){
+        for(Cell xCell : this.getCells()){
             xCell.setCellShape(cellShape);
         }
 
-        this.renderCells();
-
     }
 
     public Cell getCell(Location cellLocation){
@@ -86,7 +373,19 @@ public class Grid {
     }
 
     public void setCell(Location cellLocation, Cell newCell){
-        this.cellMap.put(cellLocation, newCell);
+
+        if(!this.cellMap.containsKey(cellLocation)){
+            this.invalidateNeighborTable();
+        }
+
+        Cell oldCell = this.cellMap.put(cellLocation, newCell);
+
+        if(oldCell != null && oldCell != newCell){
+            oldCell.setPopulationCounter(null);
+        }
+
+        newCell.setPopulationCounter(this.populationCounter);
+
     }
 
     public boolean contains(Location cellLocation){
@@ -100,7 +399,7 @@ public class Grid {
         for(Location cellLocation : locationList){
 
             if(this.contains(cellLocation)){
-                cellList.add(this.cellMap.get(cellLocation));
+                cellList.add(this.getCell(cellLocation));
             }
 
         }
@@ -120,6 +419,12 @@ public class Grid {
         return new ArrayList<>(this.getNeighborCellMap(cellLocation).values());
     }
 
+    /**
+     * Builds a map of the neighbors of a location. This allocates on every call; stepping loops should read
+     * <code>getNeighborTable</code> instead.
+     * @param cellLocation location of cell being checked
+     * @return map of the neighboring locations to their cells
+     */
     public Map<Location, Cell> getNeighborCellMap(Location cellLocation){
 
         Map<Location, Cell> neighborCells = new HashMap<Location, Cell>();
@@ -131,10 +436,14 @@ public class Grid {
                 if(this.contains(xLocation)){
                     neighborCells.put(xLocation, this.getCell(xLocation));
                 }
-                else if(cellShape.getBorderType() != BorderType.REGULAR){
+                else if(this.getBorderType() != BorderType.REGULAR){
 
-                    switch(cellShape.getBorderType()){
+                    switch(this.getBorderType()){
                         case TOROIDAL:
+                            Location wrappedLocation = new Location(Math.floorMod(xLocation.getRow(), this.rowCount), Math.floorMod(xLocation.getCol(), this.colCount));
+                            if(this.contains(wrappedLocation)){
+                                neighborCells.put(wrappedLocation, this.getCell(wrappedLocation));
+                            }
                             break;
                         case INFINITE:
                             neighborCells.put(xLocation, new EdgeCell(xLocation));
@@ -165,28 +474,56 @@ public class Grid {
 
     }
 
-    public List<Location> getGridLocations(){
-        List<Location> tempList = new ArrayList<Location>(this.cellMap.keySet());
-        Collections.shuffle(tempList);
+    /**
+     * Retrieves the locations of all cells in a random order, drawn by an <code>IndexPermutation</code> over the
+     * cached location order
+     * @param shuffleRandom source of the order, e.g. a seeded <code>CounterRandom</code> for reproducible runs
+     * @return shuffled list of locations
+     */
+    public List<Location> getGridLocations(Random shuffleRandom){
+
+        List<Location> orderedLocations = this.getOrderedLocations();
+        List<Location> tempList = new ArrayList<Location>(orderedLocations.size());
+        IndexPermutation locationOrder = new IndexPermutation(orderedLocations.size(), shuffleRandom.nextLong());
+
+        while(locationOrder.hasNext()){
+            tempList.add(orderedLocations.get(locationOrder.next()));
+        }
+
         return tempList;
+
     }
 
-    public void renderCells() {
+    /**
+     * Retrieves the locations of all cells in row-major order, for passes that need no randomness. The list is cached
+     * until a cell is placed at a new location and must not be modified.
+     * @return locations of the cells
+     */
+    public List<Location> getOrderedLocations(){
 
-        for(Location xLocation : this.getGridLocations()){
-            Cell xCell = this.getCell(xLocation);
-            xCell.setLocation(xLocation);
+        if(this.orderedLocations != null){
+            return this.orderedLocations;
         }
 
-    }
+        List<Location> tempList = new ArrayList<Location>();
 
-    public void setCellScale(double xFactor) {
+        for(int xIndex = 0; xIndex < this.getSize(); xIndex ++){
+            if(this.getCell(xIndex) != null){
+                tempList.add(this.getLocation(xIndex));
+            }
+        }
 
-        for(Cell xCell : this.cellMap.values()){
-            xCell.setScale(xFactor);
+        /*Cells placed outside the index space come last*/
+        if(this.cellMap.size() > tempList.size()){
+            for(Location xLocation : this.cellMap.keySet()){
+                if(this.getIndex(xLocation) < 0){
+                    tempList.add(xLocation);
+                }
+            }
         }
 
-        this.renderCells();
+        this.orderedLocations = Collections.unmodifiableList(tempList);
+        return this.orderedLocations;
 
     }
 }
\ No newline at end of file
@@ -0,0 +1,88 @@
+package src.society;
+
+import src.cell.state.CounterRandom;
+
+/**
+ * Visits the indices <code>[0, size)</code> once each in a seeded random order, without building or shuffling an
+ * array. A counter runs over the smallest power-of-two domain that covers the size and is passed through a keyed
+ * bijection of that domain (odd multiply, xor-shift and add rounds); values past the size are skipped, which at most
+ * doubles the work. An instance can be reset and reused, so a pass allocates nothing.
+ */
+
+public class IndexPermutation {
+
+    private static final int ROUNDS = 3;
+
+    private int size;
+    private int mask;
+    private int shift;
+    private int[] multipliers = new int[ROUNDS];
+    private int[] addends = new int[ROUNDS];
+
+    private int counter;
+    private int remaining;
+
+    public IndexPermutation(int size, long seed){
+        this.reset(size, seed);
+    }
+
+    /**
+     * Starts a new permutation
+     * @param size number of indices to visit
+     * @param seed seed of the order; the same size and seed always give the same order
+     */
+    public void reset(int size, long seed){
+
+        int bits = 32 - Integer.numberOfLeadingZeros(Math.max(size - 1, 1));
+
+        this.size = size;
+        this.mask = (int) ((1L << bits) - 1);
+        this.shift = Math.max(1, bits / 2);
+
+        for(int xRound = 0; xRound < ROUNDS; xRound ++){
+            long roundKey = CounterRandom.hash(seed, 0, CounterRandom.GRID_INDEX, xRound);
+            this.multipliers[xRound] = (int) roundKey | 1;
+            this.addends[xRound] = (int) (roundKey >>> 32);
+        }
+
+        this.counter = 0;
+        this.remaining = size;
+
+    }
+
+    public boolean hasNext(){
+        return this.remaining > 0;
+    }
+
+    /**
+     * @return the next index of the permutation
+     */
+    public int next(){
+
+        int index;
+
+        do{
+            index = this.permute(this.counter ++);
+        }
+        while(index >= this.size);
+
+        this.remaining --;
+        return index;
+
+    }
+
+    /*Helper Methods*/
+
+    private int permute(int value){
+
+        for(int xRound = 0; xRound < ROUNDS; xRound ++){
+            value = (value * this.multipliers[xRound]) & this.mask;
+            value ^= value >>> this.shift;
+            value = (value + this.addends[xRound]) & this.mask;
+        }
+
+        return value;
+
+    }
+
+}
@@ -0,0 +1,118 @@
+package src.society;
+
+import src.cell.Cell;
+import src.cell.CellShape;
+import src.cell.state.LifeLikeRule;
+import src.cell.state.LifeLikeState;
+import src.society.engine.BitPackedLifeEngine;
+import src.society.engine.LifeLikeEngine;
+import src.society.property.GridType;
+
+import java.util.List;
+
+/**
+ * Society run by a rule string (see <code>LifeLikeRule</code>): Life-like B/S rules, Generations rules and
+ * Larger-than-Life rules share one society type and one set of states. The rule belongs to the society, so societies
+ * running different rules can step side by side.
+ *
+ * Two-state radius-1 rules on square grids are stepped by a <code>BitPackedLifeEngine</code>; everything else by a
+ * <code>LifeLikeEngine</code> over the grid's state ordinals. On a <code>DenseGrid</code> neither the step nor the
+ * advance visits a <code>Cell</code>: the engines write the next state array and <code>advanceNextState</code> swaps it
+ * in. The cells are only read by the views.
+ */
+
+public class LifeLikeSociety extends Society {
+
+    private LifeLikeRule lifeRule = LifeLikeRule.parse(LifeLikeRule.CONWAY);
+
+    private BitPackedLifeEngine packedEngine;
+    private LifeLikeEngine lifeEngine = new LifeLikeEngine();
+
+    public LifeLikeSociety(int row, int col, List<Cell> cellList, CellShape cellShape) {
+        super(row, col, cellList, cellShape);
+    }
+
+    public LifeLikeSociety(int row, int col, List<Cell> cellList, CellShape cellShape, GridType gridType) {
+        super(row, col, cellList, cellShape, gridType);
+    }
+
+    public LifeLikeRule getRule(){
+        return this.lifeRule;
+    }
+
+    /**
+     * Sets the rule applied from the next step on
+     * @param lifeRule parsed rule
+     */
+    public void setRule(LifeLikeRule lifeRule){
+        this.lifeRule = lifeRule;
+    }
+
+    @Override
+    protected boolean isParallelSafe(){
+        return true;
+    }
+
+    /**
+     * Steps every cell under the society's rule. The grid's states are read every step, so cells edited from the
+     * view are picked up.
+     * @param societyGrid
+     */
+    @Override
+    public void updateNextState(Grid societyGrid){
+
+        if(societyGrid.getSize() == 0){
+            return;
+        }
+
+        if(societyGrid.getCellShape() != CellShape.SQUARE || !this.lifeRule.isPackable()){
+            this.lifeEngine.step(societyGrid, this.lifeRule, this.getStepPool());
+            return;
+        }
+
+        BitPackedLifeEngine packedEngine = this.getPackedEngine(societyGrid);
+
+        packedEngine.readStates(societyGrid, LifeLikeState.ALIVE);
+        packedEngine.step(this.lifeRule.getBirthMask(), this.lifeRule.getSurvivalMask(), this.getStepPool());
+        packedEngine.writeNextStates(societyGrid, LifeLikeState.ALIVE, LifeLikeState.DEAD);
+
+    }
+
+    /**
+     * Changes current states of all cells to their next states. A <code>DenseGrid</code> swaps its state arrays;
+     * other grids advance cell by cell.
+     * @param societyGrid
+     */
+    @Override
+    public void advanceNextState(Grid societyGrid){
+
+        if(!(societyGrid instanceof DenseGrid) || ((DenseGrid) societyGrid).getStateValues() == null){
+            super.advanceNextState(societyGrid);
+            return;
+        }
+
+        ((DenseGrid) societyGrid).advanceStateArrays();
+        this.addGenerations(1);
+
+    }
+
+    /*Helper Methods*/
+
+    /**
+     * Retrieves the bit-packed engine for a grid, creating a new one if the grid's dimensions have changed
+     * @param societyGrid grid to be stepped
+     * @return engine sized to the grid
+     */
+    private BitPackedLifeEngine getPackedEngine(Grid societyGrid){
+
+        if(this.packedEngine == null || this.packedEngine.getRowCount() != societyGrid.getRowCount()
+                || this.packedEngine.getColCount() != societyGrid.getColCount()){
+            this.packedEngine = new BitPackedLifeEngine(societyGrid.getRowCount(), societyGrid.getColCount(), societyGrid.getBorderType());
+        }
+
+        this.packedEngine.setBorderType(societyGrid.getBorderType());
+        return this.packedEngine;
+
+    }
+
+}
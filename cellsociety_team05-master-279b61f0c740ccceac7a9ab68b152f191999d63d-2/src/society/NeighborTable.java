@@ -0,0 +1,240 @@
+package src.society;
+
+import src.cell.CellShape;
+import src.cell.location.Location;
+import src.society.property.BorderType;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+
+/**
+ * Compressed adjacency table of a <code>Grid</code>. The neighbors of row-major index <code>i</code> are
+ * <code>getNeighbor(k)</code> for <code>getStart(i) &lt;= k &lt; getEnd(i)</code>. The table is computed once from
+ * <code>CellShape.getNeighborLocations</code>, so stepping loops can walk neighborhoods without allocating.
+ *
+ * With a TOROIDAL border, locations beyond an edge are wrapped into the grid when the table is built, so stepping a
+ * torus costs the same as stepping a bounded grid. As in <code>Grid.getNeighborCellMap</code>, every neighboring cell
+ * is listed once, so on a torus narrower than the neighborhood a cell reached from two sides is not counted twice. The
+ * offset layouts of HEXAGON_POINT (rows), HEXAGON_EDGE (columns) and TRIANGLE (both) alternate with the parity of a
+ * row or column, so they only close into a torus when that dimension is even; a TOROIDAL table of an odd one is
+ * rejected rather than built with a seam where a cell lists a neighbor that does not list it back.
+ */
+
+public class NeighborTable {
+
+    /*Neighbor entry for a location beyond an INFINITE border; it has no cell and no state*/
+    public static final int EDGE = -1;
+
+    private CellShape cellShape;
+    private BorderType borderType;
+
+    private int[] neighborOffsets;
+    private int[] neighborIndices;
+    private int maxNeighborCount;
+
+    /*Transposed table: the cells that list a given cell as their neighbor*/
+    private int[] dependentOffsets;
+    private int[] dependentIndices;
+
+    /**
+     * Builds the table for the occupied indices of a grid
+     * @param societyGrid grid to index, whose border type is used
+     * @param cellShape shape whose neighborhood is used
+     * @throws IllegalArgumentException if the border is TOROIDAL and the shape's layout cannot wrap the grid's size
+     */
+    public NeighborTable(Grid societyGrid, CellShape cellShape){
+
+        this.cellShape = cellShape;
+        this.borderType = societyGrid.getBorderType();
+
+        boolean isToroidal = (this.borderType == BorderType.TOROIDAL);
+        int rowCount = societyGrid.getRowCount();
+        int colCount = societyGrid.getColCount();
+
+        if(isToroidal){
+            checkWrap(cellShape, rowCount, colCount);
+        }
+
+        int size = societyGrid.getSize();
+        int[] tempIndices = new int[size * cellShape.getNeighborLocations(new Location(0, 0)).size()];
+        int position = 0;
+
+        this.neighborOffsets = new int[size + 1];
+
+        for(int xIndex = 0; xIndex < size; xIndex ++){
+
+            this.neighborOffsets[xIndex] = position;
+
+            if(societyGrid.getCell(xIndex) == null){
+                continue;
+            }
+
+            Collection<Integer> xNeighbors = new LinkedHashSet<Integer>();
+
+            for(Location xLocation : cellShape.getNeighborLocations(societyGrid.getLocation(xIndex))){
+
+                int neighborIndex = societyGrid.getIndex(xLocation);
+
+                if(neighborIndex < 0 && isToroidal){
+                    neighborIndex = Math.floorMod(xLocation.getRow(), rowCount) * colCount + Math.floorMod(xLocation.getCol(), colCount);
+                }
+
+                if(neighborIndex >= 0 && societyGrid.getCell(neighborIndex) != null){
+                    xNeighbors.add(neighborIndex);
+                }
+                else if(this.borderType == BorderType.INFINITE){
+                    tempIndices = this.ensureCapacity(tempIndices, position + 1);
+                    tempIndices[position ++] = EDGE;
+                }
+
+            }
+
+            tempIndices = this.ensureCapacity(tempIndices, position + xNeighbors.size());
+
+            for(int neighborIndex : xNeighbors){
+                tempIndices[position ++] = neighborIndex;
+            }
+
+            this.maxNeighborCount = Math.max(this.maxNeighborCount, position - this.neighborOffsets[xIndex]);
+
+        }
+
+        this.neighborOffsets[size] = position;
+        this.neighborIndices = (position == tempIndices.length) ? tempIndices : Arrays.copyOf(tempIndices, position);
+
+    }
+
+    /**
+     * Checks that a shape's offset layout lines up across the seams of a torus of the given size
+     * @param cellShape shape of the cells
+     * @param rowCount number of rows
+     * @param colCount number of columns
+     * @throws IllegalArgumentException if a dimension whose parity the layout alternates with is odd
+     */
+    private static void checkWrap(CellShape cellShape, int rowCount, int colCount){
+
+        boolean isRowParity = (cellShape == CellShape.HEXAGON_POINT || cellShape == CellShape.TRIANGLE);
+        boolean isColParity = (cellShape == CellShape.HEXAGON_EDGE || cellShape == CellShape.TRIANGLE);
+
+        if((isRowParity && rowCount % 2 != 0) || (isColParity && colCount % 2 != 0)){
+            throw new IllegalArgumentException("A TOROIDAL " + cellShape + " grid needs an even number of "
+                    + ((isRowParity && rowCount % 2 != 0) ? "rows" : "columns") + ", not " + rowCount + " x " + colCount);
+        }
+
+    }
+
+    private int[] ensureCapacity(int[] tempIndices, int capacity){
+        return (capacity <= tempIndices.length) ? tempIndices : Arrays.copyOf(tempIndices, Math.max(capacity, tempIndices.length * 2));
+    }
+
+    public CellShape getCellShape(){
+        return this.cellShape;
+    }
+
+    public BorderType getBorderType(){
+        return this.borderType;
+    }
+
+    /**
+     * @param index row-major index of a cell
+     * @return first table position holding a neighbor of the cell
+     */
+    public int getStart(int index){
+        return this.neighborOffsets[index];
+    }
+
+    /**
+     * @param index row-major index of a cell
+     * @return table position just past the last neighbor of the cell
+     */
+    public int getEnd(int index){
+        return this.neighborOffsets[index + 1];
+    }
+
+    /**
+     * @param position table position between <code>getStart</code> and <code>getEnd</code>
+     * @return row-major index of the neighbor, or <code>EDGE</code>
+     */
+    public int getNeighbor(int position){
+        return this.neighborIndices[position];
+    }
+
+    public int getNeighborCount(int index){
+        return this.neighborOffsets[index + 1] - this.neighborOffsets[index];
+    }
+
+    /**
+     * @return largest neighborhood in the table, for sizing reusable buffers
+     */
+    public int getMaxNeighborCount(){
+        return this.maxNeighborCount;
+    }
+
+    /*Dependents*/
+
+    /**
+     * @param index row-major index of a cell
+     * @return first position in the transposed table holding a cell that has this cell as a neighbor
+     */
+    public int getDependentStart(int index){
+        this.initDependents();
+        return this.dependentOffsets[index];
+    }
+
+    /**
+     * @param index row-major index of a cell
+     * @return position in the transposed table just past the last dependent of the cell
+     */
+    public int getDependentEnd(int index){
+        this.initDependents();
+        return this.dependentOffsets[index + 1];
+    }
+
+    /**
+     * @param position position between <code>getDependentStart</code> and <code>getDependentEnd</code>
+     * @return row-major index of a cell whose neighborhood contains the cell
+     */
+    public int getDependent(int position){
+        return this.dependentIndices[position];
+    }
+
+    /**
+     * Builds the transposed table on first use. Neighborhoods are not assumed to be symmetric.
+     */
+    private void initDependents(){
+
+        if(this.dependentOffsets != null){
+            return;
+        }
+
+        int size = this.neighborOffsets.length - 1;
+        int[] tempOffsets = new int[size + 1];
+        int[] tempIndices = new int[this.neighborIndices.length];
+
+        for(int neighborIndex : this.neighborIndices){
+            if(neighborIndex != EDGE){
+                tempOffsets[neighborIndex + 1] ++;
+            }
+        }
+
+        for(int xIndex = 0; xIndex < size; xIndex ++){
+            tempOffsets[xIndex + 1] += tempOffsets[xIndex];
+        }
+
+        int[] tempPositions = Arrays.copyOf(tempOffsets, size);
+
+        for(int xIndex = 0; xIndex < size; xIndex ++){
+            for(int xPosition = this.neighborOffsets[xIndex]; xPosition < this.neighborOffsets[xIndex + 1]; xPosition ++){
+                if(this.neighborIndices[xPosition] != EDGE){
+                    tempIndices[tempPositions[this.neighborIndices[xPosition]] ++] = xIndex;
+                }
+            }
+        }
+
+        this.dependentIndices = tempIndices;
+        this.dependentOffsets = tempOffsets;
+
+    }
+
+}
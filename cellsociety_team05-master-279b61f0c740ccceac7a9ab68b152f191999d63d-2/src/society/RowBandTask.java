@@ -0,0 +1,76 @@
+package src.society;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fork/join task that splits a range of rows into bands and runs a band action on each. The task returns only once
+ * every band has finished, which is the barrier between computing next states and advancing them.
+ */
+
+public class RowBandTask extends RecursiveAction {
+
+    /**
+     * Work done for one band of rows. Bands never overlap, so an action may write anything owned by its rows.
+     */
+    public interface BandAction {
+
+        /**
+         * @param fromRow first row of the band
+         * @param toRow row just past the band
+         */
+        public void run(int fromRow, int toRow);
+
+    }
+
+    private static final long serialVersionUID = 1L;
+
+    private int fromRow;
+    private int toRow;
+    private int bandRows;
+    private BandAction bandAction;
+
+    private RowBandTask(int fromRow, int toRow, int bandRows, BandAction bandAction){
+        this.fromRow = fromRow;
+        this.toRow = toRow;
+        this.bandRows = bandRows;
+        this.bandAction = bandAction;
+    }
+
+    /**
+     * Runs a band action over rows <code>[0, rowCount)</code>, in parallel if a pool is given
+     * @param stepPool pool to run on, or null to run the whole range on the calling thread
+     * @param rowCount number of rows
+     * @param bandAction work to do per band
+     */
+    public static void invoke(ForkJoinPool stepPool, int rowCount, BandAction bandAction){
+
+        if(stepPool == null || rowCount < 2){
+            bandAction.run(0, rowCount);
+            return;
+        }
+
+        /*A few bands per worker so that uneven bands still balance*/
+        int bandCount = Math.min(rowCount, stepPool.getParallelism() * 4);
+        int bandRows = (rowCount + bandCount - 1) / bandCount;
+
+        stepPool.invoke(new RowBandTask(0, rowCount, bandRows, bandAction));
+
+    }
+
+    @Override
+    protected void compute(){
+
+        if(this.toRow - this.fromRow <= this.bandRows){
+            this.bandAction.run(this.fromRow, this.toRow);
+            return;
+        }
+
+        int midRow = this.fromRow + (this.toRow - this.fromRow) / 2;
+
+        invokeAll(new RowBandTask(this.fromRow, midRow, this.bandRows, this.bandAction),
+                new RowBandTask(midRow, this.toRow, this.bandRows, this.bandAction));
+
+    }
+
+}
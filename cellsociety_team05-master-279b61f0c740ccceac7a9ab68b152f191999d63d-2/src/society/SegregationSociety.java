@@ -6,11 +6,12 @@ package src.society;
 
 import src.cell.Cell;
 import src.cell.CellShape;
+import src.society.property.GridType;
 import src.cell.location.Location;
 import src.cell.state.SegregationState;
+import src.society.engine.SegregationMatchEngine;
 
 import java.util.*;
-import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Created by Christian Martindale
@@ -19,50 +20,43 @@ import java.util.concurrent.ThreadLocalRandom;
 
 public class SegregationSociety extends Society {
 
+    /*Random stream of the relocations*/
+    private static final long MATCH_STREAM = 1;
+
+    private SegregationMatchEngine matchEngine;
+
     public SegregationSociety(int row, int col, List<Cell> cellList, CellShape cellShape) {
         super(row, col, cellList, cellShape);
     }
 
+    public SegregationSociety(int row, int col, List<Cell> cellList, CellShape cellShape, GridType gridType) {
+        super(row, col, cellList, cellShape, gridType);
+    }
+
+    /**
+     * Agents only read their neighbors to decide whether to move, so unhappiness is evaluated on the parallel step;
+     * relocations are drawn on the calling thread from a seeded stream
+     */
+    @Override
+    protected boolean isParallelSafe(){
+        return true;
+    }
+
     /**
-     * Updates the next states of all cells, then moves cells accordingly
+     * Updates the next states of all cells, then moves unhappy agents into random vacancies in bulk
      * @param societyGrid grid of cells
      */
     @Override
     public void updateNextState(Grid societyGrid){
 
         super.updateNextState(societyGrid);
-        Map<Location, Cell> emptyCells = getEmptyCells(societyGrid);
-
-        List<Location> tempSet = new ArrayList<>(societyGrid.getGridLocations());
-        Collections.shuffle(tempSet);
-
-        for(Location xLocation : tempSet){
-
-            //Collections.shuffle(tempSet);
-            //tempSet.remove(xLocation);
-            Cell tempCell = societyGrid.getCell(xLocation);
-
-            if(this.willMove(tempCell) && emptyCells.size() > 0){
-
-                List<Location> emptyCellLocations = new ArrayList<Location>(emptyCells.keySet());
-                Collections.shuffle(emptyCellLocations);
-                int randomIndex = ThreadLocalRandom.current().nextInt(emptyCellLocations.size());
-                Location randomLocation = emptyCellLocations.get(randomIndex);
-
-                Cell newCell = emptyCells.remove(randomLocation);
-                newCell.setNextState(tempCell.getCurrentState());
-
-                societyGrid.setCell(randomLocation, newCell);
-
-            }
-
-            else if(this.willMove(tempCell) && emptyCells.size() <= 0){
-                tempCell.setNextState(tempCell.getCurrentState());
-                societyGrid.setCell(xLocation, tempCell);
-            }
 
+        if(this.matchEngine == null){
+            this.matchEngine = new SegregationMatchEngine();
         }
 
+        this.matchEngine.relocate(societyGrid, this.getStepPool(), this.getStepRandom(MATCH_STREAM));
+
     }
 
     /**
@@ -0,0 +1,66 @@
+package src.society;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands generations of a society from the thread stepping it to one thread showing it, without either waiting for the
+ * other. Three snapshots rotate between three roles: the writer fills the back snapshot, the reader holds the front
+ * one, and the middle one is the latest published generation. Publishing swaps back and middle, and acquiring swaps
+ * middle and front, each with a single atomic exchange, so the writer never overwrites what the reader holds and the
+ * reader always gets the newest generation; generations published between two reads are skipped.
+ *
+ * <pre>
+ * SocietySnapshot backSnapshot = snapshotBuffer.getBackSnapshot();     // stepping thread
+ * backSnapshot.copyFrom(society);
+ * snapshotBuffer.publish();
+ *
+ * SocietySnapshot frontSnapshot = snapshotBuffer.acquire();            // showing thread
+ * if(frontSnapshot != null){ ... }
+ * </pre>
+ */
+
+public class SnapshotBuffer {
+
+    /*The shared word holds the index of the middle snapshot and whether it was published since the last read*/
+    private static final int INDEX_MASK = 3;
+    private static final int FRESH = 4;
+
+    private SocietySnapshot[] snapshots = {new SocietySnapshot(), new SocietySnapshot(), new SocietySnapshot()};
+    private AtomicInteger middleIndex = new AtomicInteger(1);
+
+    /*Only touched by the writer and by the reader respectively*/
+    private int backIndex = 0;
+    private int frontIndex = 2;
+
+    /**
+     * Retrieves the snapshot the writer may fill; the reader never sees it until it is published
+     * @return back snapshot
+     */
+    public SocietySnapshot getBackSnapshot(){
+        return this.snapshots[this.backIndex];
+    }
+
+    /**
+     * Makes the back snapshot the latest generation, and takes over the previous middle snapshot as the new back
+     */
+    public void publish(){
+        this.backIndex = this.middleIndex.getAndSet(this.backIndex | FRESH) & INDEX_MASK;
+    }
+
+    /**
+     * Takes the latest published generation, if there is one the reader has not taken yet
+     * @return the newest snapshot, valid until the next call; null if nothing was published since the last call
+     */
+    public SocietySnapshot acquire(){
+
+        if((this.middleIndex.get() & FRESH) == 0){
+            return null;
+        }
+
+        this.frontIndex = this.middleIndex.getAndSet(this.frontIndex) & INDEX_MASK;
+
+        return this.snapshots[this.frontIndex];
+
+    }
+
+}
@@ -7,11 +7,23 @@ package src.society;
 import src.cell.Cell;
 import src.cell.CellShape;
 import src.cell.location.Location;
+import src.cell.state.CounterRandom;
+import src.cell.state.RuleSet;
 import src.cell.state.SpreadingFireState;
-import javafx.event.EventHandler;
-import javafx.scene.input.MouseEvent;
+import src.cell.state.State;
+import src.cell.state.TransitionTable;
+import src.metrics.MetricsRegistry;
+import src.metrics.Phase;
+import src.metrics.PhaseTimer;
+import src.metrics.StepEvent;
+import src.society.property.BorderType;
+import src.society.engine.RowKernel;
+import src.society.property.GridType;
+import src.society.property.NeighborhoodType;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Created by Christian Martindale
@@ -20,17 +32,63 @@ import java.util.*;
 
 public abstract class Society {
 
+    /*Smallest share of the grid evaluated in a step for the row kernel to pay off*/
+    private static final int KERNEL_MIN_SHARE = 4;
+    private static final int MOORE_NEIGHBORS = 8;
+
     private Grid societyGrid;
     double cellScale;
 
+    /*Rule Parameters*/
+    private RuleSet ruleSet = RuleSet.getDefault();
+
+    /*Active-Cell Tracking*/
+    private long ruleRevision = -1;
+    private BitSet evaluatedCells;
+
+    /*Parallel Stepping*/
+    private int parallelism = 1;
+    private ForkJoinPool stepPool;
+
+    /*Reproducible Randomness*/
+    private long seed = ThreadLocalRandom.current().nextLong();
+    private long generation;
+
+    /*Neighbor Histograms*/
+    private State[] stateValues;
+
+    /*Compiled Rules*/
+    private TransitionTable transitionTable;
+    private long tableRevision = -1;
+    private int tableNeighborCount = -1;
+    private State[] tableStates;
+
+    /*Radius Neighborhoods*/
+    private NeighborhoodType neighborhoodType;
+    private int neighborhoodRadius = 1;
+    private SummedAreaTable areaTable = new SummedAreaTable();
+    private byte[] areaStates = new byte[0];
+
     public Society(int row, int col, List<Cell> cellList, CellShape cellShape) {
-        this.societyGrid = new Grid(row, col, cellList, cellShape);
+        this(row, col, cellList, cellShape, GridType.SPARSE);
+    }
+
+    public Society(int row, int col, List<Cell> cellList, CellShape cellShape, GridType gridType) {
+        this.societyGrid = gridType.createGrid(row, col, cellList, cellShape);
     }
 
     public void setCellShape(CellShape cellShape){
         this.societyGrid.setCellShape(cellShape);
     }
 
+    /**
+     * Sets how the society treats the edges of its grid
+     * @param borderType new border type, or null to use the cell shape's
+     */
+    public void setBorderType(BorderType borderType){
+        this.societyGrid.setBorderType(borderType);
+    }
+
     /**
      * Returns the grid of cells that represent the society
      * @return grid of cells
@@ -48,33 +106,675 @@ public abstract class Society {
     }
 
     /**
-     * Determines the cells' next states
+     * Whether a cell whose own state and neighbor states did not change since it was last evaluated can be skipped.
+     * This holds for rules that only read the neighbor states and are deterministic wherever they are quiet. Societies
+     * that return true have only the cells marked by <code>Grid.markChanged</code> evaluated, plus every cell after a
+     * rule parameter changes (see <code>RuleSet</code>).
+     * @return true if quiescent cells may be skipped
+     */
+    protected boolean isActiveTracked(){
+        return false;
+    }
+
+    /**
+     * Whether the next state of every cell depends only on current states and its keyed random draws, with no shared
+     * mutable state, so that cells can be updated in any order or concurrently with identical results.
+     * Only such societies use the parallel step.
+     * @return true if the update step may run in parallel
+     */
+    protected boolean isParallelSafe(){
+        return false;
+    }
+
+    /**
+     * Sets the neighborhood the society's rules count on square grids. Other shapes always count their adjacent
+     * cells, and societies that step through their own engines (WaTor moves, rule-string rules) keep their own
+     * neighborhoods.
+     * @param neighborhoodType radius neighborhood, or null for the cell shape's adjacent cells
+     * @param radius radius of the neighborhood, at least 1
+     */
+    public void setNeighborhood(NeighborhoodType neighborhoodType, int radius){
+
+        if(neighborhoodType != null && radius < 1){
+            throw new IllegalArgumentException("Neighborhood radius must be at least 1, not " + radius);
+        }
+
+        this.neighborhoodType = neighborhoodType;
+        this.neighborhoodRadius = radius;
+
+    }
+
+    /**
+     * @return radius neighborhood type, or null for the cell shape's adjacent cells
+     */
+    public NeighborhoodType getNeighborhoodType(){
+        return this.neighborhoodType;
+    }
+
+    public int getNeighborhoodRadius(){
+        return this.neighborhoodRadius;
+    }
+
+    /**
+     * Whether a step of a grid counts a radius neighborhood from a <code>SummedAreaTable</code> rather than the
+     * adjacent cells in the grid's neighbor table
+     * @param societyGrid grid to be stepped
+     * @return true if a radius neighborhood is set and the grid is square
+     */
+    protected boolean isRadiusNeighborhood(Grid societyGrid){
+        return this.neighborhoodType != null && societyGrid.getCellShape() == CellShape.SQUARE;
+    }
+
+    /**
+     * Retrieves the parameters the society's rules are evaluated with
+     * @return the society's rule set, the shared default unless another was set
+     */
+    public RuleSet getRuleSet(){
+        return this.ruleSet;
+    }
+
+    /**
+     * Evaluates the society's rules with another set of parameters. A society on its own set does not follow the
+     * settings sliders, which change the default set, nor any other society.
+     * @param ruleSet new parameters, or null for the shared default
+     */
+    public void setRuleSet(RuleSet ruleSet){
+        this.ruleSet = (ruleSet == null) ? RuleSet.getDefault() : ruleSet;
+        this.ruleRevision = -1;
+        this.tableRevision = -1;
+    }
+
+    public long getSeed(){
+        return this.seed;
+    }
+
+    /**
+     * Sets the run seed. Every random choice of a step is keyed by (seed, generation, cell index), so two societies
+     * with the same seed and starting grid evolve identically for any parallelism.
+     * @param seed run seed
+     */
+    public void setSeed(long seed){
+        this.seed = seed;
+    }
+
+    /**
+     * Retrieves the number of generations advanced so far
+     * @return generation of the current states
+     */
+    public long getGeneration(){
+        return this.generation;
+    }
+
+    /**
+     * Counts generations advanced without <code>advanceNextState</code>, e.g. by an engine jump
+     * @param generations number of generations advanced
+     */
+    protected void addGenerations(long generations){
+        this.generation += generations;
+    }
+
+    /**
+     * Creates a random source for one purpose of the current step
+     * @param streamId identifier of the purpose, so that different purposes draw independent numbers
+     * @return source positioned at the grid index of the current generation
+     */
+    protected CounterRandom getStepRandom(long streamId){
+        return new CounterRandom(this.seed).split(streamId).setPosition(this.generation, CounterRandom.GRID_INDEX);
+    }
+
+    public int getParallelism(){
+        return this.parallelism;
+    }
+
+    /**
+     * Sets how many threads compute next states. With more than one, societies that are parallel-safe split the grid
+     * into row bands on a dedicated <code>ForkJoinPool</code>; the results are identical to the sequential step.
+     * @param parallelism number of threads (1 for sequential)
+     */
+    public void setParallelism(int parallelism){
+
+        if(parallelism < 1){
+            throw new IllegalArgumentException("Parallelism must be at least 1, was " + parallelism);
+        }
+
+        if(this.parallelism != parallelism && this.stepPool != null){
+            this.stepPool.shutdown();
+            this.stepPool = null;
+        }
+
+        this.parallelism = parallelism;
+
+    }
+
+    /**
+     * Retrieves the pool for the parallel step
+     * @return pool sized to the parallelism, or null if the step runs on the calling thread
+     */
+    protected ForkJoinPool getStepPool(){
+
+        if(this.parallelism == 1 || !this.isParallelSafe()){
+            return null;
+        }
+
+        if(this.stepPool == null){
+            this.stepPool = new ForkJoinPool(this.parallelism);
+        }
+
+        return this.stepPool;
+
+    }
+
+    /**
+     * Advances the society one generation: <code>updateNextState</code> then <code>advanceNextState</code> on its grid.
+     * The time of each phase and of the step, the cells stepped and the bytes the step allocated on the calling thread
+     * are recorded in the default <code>MetricsRegistry</code>, and as flight recorder events while a recording
+     * enables them.
+     */
+    public void step(){
+
+        Grid societyGrid = this.societyGrid;
+        String societyName = this.getClass().getSimpleName();
+        long stepGeneration = this.generation;
+
+        StepEvent stepEvent = new StepEvent();
+        stepEvent.begin();
+        long startBytes = MetricsRegistry.getThreadAllocatedBytes();
+        long startTime = System.nanoTime();
+
+        PhaseTimer updateTimer = PhaseTimer.start(Phase.UPDATE_NEXT_STATE, societyName, stepGeneration);
+        this.updateNextState(societyGrid);
+        updateTimer.stop();
+
+        PhaseTimer advanceTimer = PhaseTimer.start(Phase.ADVANCE_NEXT_STATE, societyName, stepGeneration);
+        this.advanceNextState(societyGrid);
+        advanceTimer.stop();
+
+        long elapsedNanos = System.nanoTime() - startTime;
+        long allocatedBytes = (startBytes < 0) ? -1 : MetricsRegistry.getThreadAllocatedBytes() - startBytes;
+
+        MetricsRegistry.getDefault().recordStep(elapsedNanos, societyGrid.getSize(), allocatedBytes);
+
+        stepEvent.commit(societyName, stepGeneration, societyGrid.getSize(), allocatedBytes);
+
+    }
+
+    /**
+     * Determines the cells' next states. Neighbors are read from the grid's neighbor table, and each band of rows
+     * reuses a single list of neighbor states. Returns only when every cell is done.
      * @param societyGrid
      */
     public void updateNextState(Grid societyGrid){
 
-        for(Location xLocation : societyGrid.getGridLocations()){
-            List<Cell> neighborCells = societyGrid.getNeighborCellList(xLocation);
-            societyGrid.getCell(xLocation).updateState(neighborCells);
+        if(this.isRadiusNeighborhood(societyGrid)){
+            this.updateRadiusNextState(societyGrid);
+            return;
+        }
+
+        NeighborTable neighborTable = societyGrid.getNeighborTable();
+
+        if(this.isActiveTracked()){
+
+            if(this.ruleRevision != this.ruleSet.getRevision()){
+                this.ruleRevision = this.ruleSet.getRevision();
+                societyGrid.markAllActive();
+            }
+
+            this.evaluatedCells = societyGrid.pollActiveCells();
+
+        }
+
+        BitSet evaluatedCells = this.evaluatedCells;
+        int colCount = societyGrid.getColCount();
+        State[] stateValues = this.getStateValues(societyGrid);
+        TransitionTable transitionTable = this.getTransitionTable(neighborTable.getMaxNeighborCount(), stateValues);
+        RowKernel rowKernel = this.getRowKernel(societyGrid, neighborTable, transitionTable, evaluatedCells);
+
+        RowBandTask.invoke(this.getStepPool(), societyGrid.getRowCount(), (fromRow, toRow) -> {
+            if(rowKernel == null){
+                this.updateCells(societyGrid, neighborTable, transitionTable, new int[stateValues.length], new CounterRandom(this.seed),
+                        evaluatedCells, fromRow * colCount, toRow * colCount);
+            }
+            else{
+                this.updateRows((DenseGrid) societyGrid, neighborTable, transitionTable, rowKernel, stateValues.length, evaluatedCells, fromRow, toRow);
+            }
+        });
+
+    }
+
+    /**
+     * Determines the cells' next states from radius neighborhoods. The states are counted from a
+     * <code>SummedAreaTable</code> rebuilt for the step, so a cell costs the same whatever the radius. Every cell is
+     * evaluated: the grid's change marks only reach adjacent cells.
+     * @param societyGrid
+     */
+    private void updateRadiusNextState(Grid societyGrid){
+
+        int rowCount = societyGrid.getRowCount();
+        int colCount = societyGrid.getColCount();
+        State[] stateValues = this.getStateValues(societyGrid);
+        int slotCount = this.neighborhoodType.getSlotCount(this.neighborhoodRadius);
+        TransitionTable transitionTable = this.getTransitionTable(slotCount, stateValues);
+        byte[] currentStates = this.getCurrentOrdinals(societyGrid);
+
+        this.areaTable.rebuild(currentStates, rowCount, colCount, stateValues.length, this.neighborhoodType, this.neighborhoodRadius,
+                societyGrid.getBorderType() == BorderType.TOROIDAL, this.getStepPool());
+
+        /*Slots beyond an INFINITE border count, as in the neighbor table; beyond a REGULAR border there are none*/
+        int fixedTotal = (societyGrid.getBorderType() == BorderType.INFINITE) ? slotCount : -1;
+
+        this.evaluatedCells = null;
+        societyGrid.markAllActive();
+
+        RowBandTask.invoke(this.getStepPool(), rowCount, (fromRow, toRow) ->
+                this.updateRadiusCells(societyGrid, transitionTable, stateValues.length, currentStates, fixedTotal, fromRow, toRow));
+
+    }
+
+    /**
+     * Determines the next states of a band of rows from the summed-area table
+     * @param societyGrid grid holding the cells
+     * @param transitionTable compiled rules, or null to call the rules
+     * @param stateCount number of states a cell can be in
+     * @param currentStates state ordinals the table was built from
+     * @param fixedTotal number of neighbor slots of every cell, or -1 to count the cells present
+     * @param fromRow first row of the band
+     * @param toRow row just past the band
+     */
+    private void updateRadiusCells(Grid societyGrid, TransitionTable transitionTable, int stateCount, byte[] currentStates,
+                                   int fixedTotal, int fromRow, int toRow){
+
+        int colCount = societyGrid.getColCount();
+        int[] neighborCounts = new int[stateCount];
+        CounterRandom cellRandom = new CounterRandom(this.seed);
+
+        for(int xIndex = fromRow * colCount; xIndex < toRow * colCount; xIndex ++){
+
+            Cell xCell = societyGrid.getCell(xIndex);
+            int currentOrdinal = currentStates[xIndex];
+
+            if(xCell == null || currentOrdinal < 0){
+                continue;
+            }
+
+            this.areaTable.getCounts(xIndex / colCount, xIndex % colCount, neighborCounts);
+            neighborCounts[currentOrdinal] --;
+
+            int neighborTotal = fixedTotal;
+
+            if(neighborTotal < 0){
+                neighborTotal = 0;
+                for(int xCount : neighborCounts){
+                    neighborTotal += xCount;
+                }
+            }
+
+            if(transitionTable != null){
+
+                int key = transitionTable.getKey(currentOrdinal, neighborTotal);
+
+                for(int xOrdinal = 0; xOrdinal < stateCount; xOrdinal ++){
+                    key += neighborCounts[xOrdinal] * transitionTable.getStride(xOrdinal);
+                }
+
+                byte nextOrdinal = transitionTable.getNextOrdinal(key);
+
+                if(nextOrdinal != TransitionTable.CALL_RULE){
+                    xCell.setNextState(transitionTable.getState(nextOrdinal));
+                    continue;
+                }
+
+            }
+
+            xCell.updateStateFromCounts(neighborCounts, neighborTotal, this.ruleSet, cellRandom.setPosition(this.generation, xIndex));
+
+        }
+
+    }
+
+    /**
+     * Retrieves the current state ordinals of a grid: a <code>DenseGrid</code>'s own array, or a copy read from the
+     * cells of any other grid
+     * @param societyGrid grid holding the cells
+     * @return ordinals in row-major order (-1 for no cell or no state)
+     */
+    private byte[] getCurrentOrdinals(Grid societyGrid){
+
+        if(societyGrid instanceof DenseGrid && ((DenseGrid) societyGrid).getStateValues() != null){
+            return ((DenseGrid) societyGrid).getCurrentStates();
+        }
+
+        if(this.areaStates.length != societyGrid.getSize()){
+            this.areaStates = new byte[societyGrid.getSize()];
+        }
+
+        for(int xIndex = 0; xIndex < this.areaStates.length; xIndex ++){
+            Cell xCell = societyGrid.getCell(xIndex);
+            this.areaStates[xIndex] = (byte) ((xCell == null) ? -1 : this.getStateOrdinal(societyGrid, null, xIndex));
+        }
+
+        return this.areaStates;
+
+    }
+
+    /**
+     * Determines the next states of a band of rows of a fully occupied square <code>DenseGrid</code>. The keys of the
+     * interior cells of a row are computed together by the row kernel straight from the ordinal array and looked up in
+     * the transition table; the first and last row and column, and cells whose entry calls the rule, go through
+     * <code>updateCell</code>.
+     * @param societyGrid grid holding the cells
+     * @param neighborTable neighbor table of the grid
+     * @param transitionTable compiled rules
+     * @param rowKernel kernel computing the keys
+     * @param stateCount number of states a cell can be in
+     * @param evaluatedCells cells to evaluate, or null for all of them
+     * @param fromRow first row of the band
+     * @param toRow row just past the band
+     */
+    private void updateRows(DenseGrid societyGrid, NeighborTable neighborTable, TransitionTable transitionTable, RowKernel rowKernel,
+                            int stateCount, BitSet evaluatedCells, int fromRow, int toRow){
+
+        int rowCount = societyGrid.getRowCount();
+        int colCount = societyGrid.getColCount();
+        byte[] currentStates = societyGrid.getCurrentStates();
+        byte[] nextStates = societyGrid.getNextStates();
+
+        int[] neighborKeys = new int[stateCount];
+        int[] currentKeys = new int[stateCount];
+
+        for(int xOrdinal = 0; xOrdinal < stateCount; xOrdinal ++){
+            neighborKeys[xOrdinal] = transitionTable.getStride(xOrdinal);
+            currentKeys[xOrdinal] = transitionTable.getKey(xOrdinal, 0);
+        }
+
+        int baseKey = transitionTable.getKey(0, MOORE_NEIGHBORS);
+        int[] cellKeys = new int[colCount - 2];
+        int[] neighborCounts = new int[stateCount];
+        CounterRandom cellRandom = new CounterRandom(this.seed);
+
+        for(int xRow = fromRow; xRow < toRow; xRow ++){
+
+            int rowStart = xRow * colCount;
+
+            if(xRow == 0 || xRow == rowCount - 1){
+                this.updateCells(societyGrid, neighborTable, transitionTable, neighborCounts, cellRandom, evaluatedCells, rowStart, rowStart + colCount);
+                continue;
+            }
+
+            this.updateCells(societyGrid, neighborTable, transitionTable, neighborCounts, cellRandom, evaluatedCells, rowStart, rowStart + 1);
+            this.updateCells(societyGrid, neighborTable, transitionTable, neighborCounts, cellRandom, evaluatedCells, rowStart + colCount - 1, rowStart + colCount);
+
+            rowKernel.computeKeys(currentStates, colCount, rowStart + 1, colCount - 2, neighborKeys, currentKeys, baseKey, cellKeys);
+
+            for(int xCol = 1; xCol < colCount - 1; xCol ++){
+
+                int xIndex = rowStart + xCol;
+
+                if(evaluatedCells != null && !evaluatedCells.get(xIndex)){
+                    continue;
+                }
+
+                byte nextOrdinal = (currentStates[xIndex] < 0) ? TransitionTable.CALL_RULE : transitionTable.getNextOrdinal(cellKeys[xCol - 1]);
+
+                if(nextOrdinal == TransitionTable.CALL_RULE){
+                    this.updateCell(societyGrid, neighborTable, transitionTable, currentStates, neighborCounts, cellRandom, xIndex);
+                }
+                else{
+                    nextStates[xIndex] = nextOrdinal;
+                }
+
+            }
+
+        }
+
+    }
+
+    /**
+     * Determines the next states of a range of cells. The count array and random source are the caller's, created once
+     * per band of rows and reused for every cell, so a step allocates nothing per cell or per row.
+     * @param societyGrid grid holding the cells
+     * @param neighborTable neighbor table of the grid
+     * @param transitionTable compiled rules, or null to call the rules
+     * @param neighborCounts reusable array, one slot per state, to fill with the neighbor counts
+     * @param cellRandom random source of the calling thread
+     * @param evaluatedCells cells to evaluate, or null for all of them
+     * @param fromIndex first row-major index of the range
+     * @param toIndex row-major index just past the range
+     */
+    private void updateCells(Grid societyGrid, NeighborTable neighborTable, TransitionTable transitionTable, int[] neighborCounts,
+                             CounterRandom cellRandom, BitSet evaluatedCells, int fromIndex, int toIndex){
+
+        byte[] currentStates = (societyGrid instanceof DenseGrid) ? ((DenseGrid) societyGrid).getCurrentStates() : null;
+
+        if(evaluatedCells == null){
+
+            for(int xIndex = fromIndex; xIndex < toIndex; xIndex ++){
+                this.updateCell(societyGrid, neighborTable, transitionTable, currentStates, neighborCounts, cellRandom, xIndex);
+            }
+
+            return;
+
+        }
+
+        for(int xIndex = evaluatedCells.nextSetBit(fromIndex); xIndex >= 0 && xIndex < toIndex; xIndex = evaluatedCells.nextSetBit(xIndex + 1)){
+            this.updateCell(societyGrid, neighborTable, transitionTable, currentStates, neighborCounts, cellRandom, xIndex);
         }
 
     }
 
     /**
-     * Changes current states of all cells to their next states
+     * Determines the next state of a single cell, from the transition table if it has an entry for the cell and
+     * otherwise from a histogram of its neighbors' states
+     * @param societyGrid grid holding the cell
+     * @param neighborTable neighbor table of the grid
+     * @param transitionTable compiled rules, or null to call the rules
+     * @param currentStates state ordinals of a <code>DenseGrid</code>, or null to read the cells
+     * @param neighborCounts reusable array to fill with the neighbor counts
+     * @param cellRandom random source of the calling thread, moved to the cell
+     * @param xIndex row-major index of the cell
+     */
+    private void updateCell(Grid societyGrid, NeighborTable neighborTable, TransitionTable transitionTable, byte[] currentStates,
+                            int[] neighborCounts, CounterRandom cellRandom, int xIndex){
+
+        Cell xCell = societyGrid.getCell(xIndex);
+
+        if(xCell == null){
+            return;
+        }
+
+        int neighborStart = neighborTable.getStart(xIndex);
+        int neighborEnd = neighborTable.getEnd(xIndex);
+        int currentOrdinal = this.getStateOrdinal(societyGrid, currentStates, xIndex);
+
+        if(transitionTable != null && currentOrdinal >= 0){
+
+            int key = transitionTable.getKey(currentOrdinal, neighborEnd - neighborStart);
+
+            for(int xPosition = neighborStart; xPosition < neighborEnd; xPosition ++){
+
+                int neighborOrdinal = this.getStateOrdinal(societyGrid, currentStates, neighborTable.getNeighbor(xPosition));
+
+                if(neighborOrdinal >= 0){
+                    key += transitionTable.getStride(neighborOrdinal);
+                }
+
+            }
+
+            byte nextOrdinal = transitionTable.getNextOrdinal(key);
+
+            if(nextOrdinal != TransitionTable.CALL_RULE){
+                xCell.setNextState(transitionTable.getState(nextOrdinal));
+                return;
+            }
+
+        }
+
+        Arrays.fill(neighborCounts, 0);
+
+        for(int xPosition = neighborStart; xPosition < neighborEnd; xPosition ++){
+
+            int neighborOrdinal = this.getStateOrdinal(societyGrid, currentStates, neighborTable.getNeighbor(xPosition));
+
+            if(neighborOrdinal >= 0){
+                neighborCounts[neighborOrdinal] ++;
+            }
+
+        }
+
+        xCell.updateStateFromCounts(neighborCounts, neighborEnd - neighborStart, this.ruleSet, cellRandom.setPosition(this.generation, xIndex));
+
+    }
+
+    /**
+     * Retrieves the states of the society's state enum, from the first cell that has a state
+     * @param societyGrid grid holding the cells
+     * @return states indexed by ordinal, empty while no cell has a state
+     */
+    private State[] getStateValues(Grid societyGrid){
+
+        if(this.stateValues != null){
+            return this.stateValues;
+        }
+
+        for(int xIndex = 0; xIndex < societyGrid.getSize(); xIndex ++){
+
+            Cell xCell = societyGrid.getCell(xIndex);
+
+            if(xCell != null && xCell.getCurrentState() != null){
+                this.stateValues = ((Enum<?>) xCell.getCurrentState()).getDeclaringClass().asSubclass(State.class).getEnumConstants();
+                return this.stateValues;
+            }
+
+        }
+
+        return new State[0];
+
+    }
+
+    /**
+     * Retrieves the compiled rules, compiling them again if a rule parameter, the states or the neighborhood size
+     * changed
+     * @param maxNeighborCount largest number of neighbor slots of a cell
+     * @param stateValues states indexed by ordinal
+     * @return transition table, or null if the rules are not worth compiling
+     */
+    private TransitionTable getTransitionTable(int maxNeighborCount, State[] stateValues){
+
+        if(this.tableRevision != this.ruleSet.getRevision() || this.tableNeighborCount != maxNeighborCount || this.tableStates != stateValues){
+            this.tableRevision = this.ruleSet.getRevision();
+            this.tableNeighborCount = maxNeighborCount;
+            this.tableStates = stateValues;
+            this.transitionTable = TransitionTable.compile(stateValues, maxNeighborCount, this.ruleSet);
+        }
+
+        return this.transitionTable;
+
+    }
+
+    /**
+     * Picks the row kernel for a step, if the step can use one: the grid must be a fully occupied square
+     * <code>DenseGrid</code> of at least three rows and columns with Moore neighborhoods and compiled rules, the keys
+     * must fit the kernel, and enough of the grid must be evaluated that sweeping whole rows pays off
+     * @return kernel, or null to evaluate cell by cell
+     */
+    private RowKernel getRowKernel(Grid societyGrid, NeighborTable neighborTable, TransitionTable transitionTable, BitSet evaluatedCells){
+
+        RowKernel rowKernel = RowKernel.getDefault();
+
+        if(!(societyGrid instanceof DenseGrid) || societyGrid.getCellShape() != CellShape.SQUARE || transitionTable == null){
+            return null;
+        }
+
+        if(transitionTable.getSize() > rowKernel.getKeyLimit() || neighborTable.getMaxNeighborCount() != MOORE_NEIGHBORS){
+            return null;
+        }
+
+        if(societyGrid.getRowCount() < 3 || societyGrid.getColCount() < 3 || societyGrid.getOrderedLocations().size() != societyGrid.getSize()){
+            return null;
+        }
+
+        if(evaluatedCells != null && evaluatedCells.cardinality() * KERNEL_MIN_SHARE < societyGrid.getSize()){
+            return null;
+        }
+
+        return rowKernel;
+
+    }
+
+    /**
+     * Retrieves the ordinal of a cell's current state
+     * @param societyGrid grid holding the cell
+     * @param currentStates state ordinals of a <code>DenseGrid</code>, or null to read the cell
+     * @param xIndex row-major index of the cell, or <code>NeighborTable.EDGE</code>
+     * @return ordinal, or -1 past the edge or for no state
+     */
+    private int getStateOrdinal(Grid societyGrid, byte[] currentStates, int xIndex){
+
+        if(xIndex == NeighborTable.EDGE){
+            return -1;
+        }
+
+        if(currentStates != null){
+            return currentStates[xIndex];
+        }
+
+        State xState = societyGrid.getCell(xIndex).getCurrentState();
+
+        return (xState == null) ? -1 : ((Enum<?>) xState).ordinal();
+
+    }
+
+    /**
+     * Changes current states of all cells to their next states. If only part of the grid was evaluated, only that
+     * part is advanced and the cells that changed are marked for the next step.
      * @param societyGrid
      */
     public void advanceNextState(Grid societyGrid){
 
-        for(Location xLocation : societyGrid.getGridLocations()){
-            societyGrid.getCell(xLocation).swapStates();
+        this.generation ++;
+
+        if(this.evaluatedCells == null){
+
+            for(int xIndex = 0; xIndex < societyGrid.getSize(); xIndex ++){
+
+                Cell xCell = societyGrid.getCell(xIndex);
+
+                if(xCell != null){
+                    xCell.swapStates();
+                }
+
+            }
+
+            return;
+
         }
 
+        for(int xIndex = this.evaluatedCells.nextSetBit(0); xIndex >= 0; xIndex = this.evaluatedCells.nextSetBit(xIndex + 1)){
+
+            Cell xCell = societyGrid.getCell(xIndex);
+
+            if(xCell == null){
+                continue;
+            }
+
+            boolean isChanged = !xCell.isCurrentEqual(xCell.getNextState());
+            xCell.swapStates();
+
+            if(isChanged){
+                societyGrid.markChanged(xIndex);
+            }
+
+        }
+
+        this.evaluatedCells = null;
+
     }
 
+    /**
+     * Records the display scale preferred for this society's cells. Views read it when they are attached.
+     * @param xFactor scale factor
+     */
     public void setCellScale(double xFactor) {
         this.cellScale = xFactor;
-        this.societyGrid.setCellScale(xFactor);
     }
 
     public double getCellScale(){
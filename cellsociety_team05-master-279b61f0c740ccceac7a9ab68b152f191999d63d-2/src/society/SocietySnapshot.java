@@ -0,0 +1,66 @@
+package src.society;
+
+import src.cell.state.State;
+
+import java.util.Map;
+
+/**
+ * Copy of one generation of a <code>Society</code>: the state of every cell as an ordinal, the states the ordinals
+ * refer to, and the population of each state. A snapshot is filled on the thread stepping the society and read on
+ * another, so it holds nothing that the next step changes. Its arrays are reused when it is filled again.
+ */
+
+public class SocietySnapshot {
+
+    private long generation = -1;
+    private byte[] stateOrdinals = new byte[0];
+    private State[] stateValues = new State[0];
+    private Map<State, Long> stateCounts;
+
+    /**
+     * Copies the society's current generation into the snapshot
+     * @param society society to copy, which must not be stepped meanwhile
+     */
+    public void copyFrom(Society society){
+
+        Grid societyGrid = society.getSocietyGrid();
+
+        if(this.stateOrdinals.length != societyGrid.getSize()){
+            this.stateOrdinals = new byte[societyGrid.getSize()];
+        }
+
+        this.stateValues = societyGrid.copyCurrentStates(this.stateOrdinals);
+        this.stateCounts = societyGrid.getPopulationCounter().getCounts();
+        this.generation = society.getGeneration();
+
+    }
+
+    /**
+     * @return generation the snapshot was taken at, or -1 before it was first filled
+     */
+    public long getGeneration(){
+        return this.generation;
+    }
+
+    /**
+     * @return state ordinals in row-major order (-1 for no cell or no state)
+     */
+    public byte[] getStateOrdinals(){
+        return this.stateOrdinals;
+    }
+
+    /**
+     * @return states the ordinals refer to
+     */
+    public State[] getStateValues(){
+        return this.stateValues;
+    }
+
+    /**
+     * @return population of every state, as read from the grid's population counter
+     */
+    public Map<State, Long> getStateCounts(){
+        return this.stateCounts;
+    }
+
+}
@@ -6,6 +6,7 @@ package src.society;
 
 import src.cell.Cell;
 import src.cell.CellShape;
+import src.society.property.GridType;
 
 import java.util.List;
 
@@ -20,4 +21,26 @@ public class SpreadingFireSociety extends Society {
         super(row, col, cellList, cellShape);
     }
 
+    public SpreadingFireSociety(int row, int col, List<Cell> cellList, CellShape cellShape, GridType gridType) {
+        super(row, col, cellList, cellShape, gridType);
+    }
+
+    /**
+     * Only trees change stochastically, and only next to a burning cell, which always burns out on the following step,
+     * so quiet regions are stable.
+     */
+    @Override
+    protected boolean isActiveTracked(){
+        return true;
+    }
+
+    /**
+     * Trees draw from a random source keyed by their index and the generation, so the order of evaluation does not
+     * matter
+     */
+    @Override
+    protected boolean isParallelSafe(){
+        return true;
+    }
+
 }
@@ -0,0 +1,307 @@
+package src.society;
+
+import src.society.property.NeighborhoodType;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Per-state 2D prefix sums of a square grid's state ordinals, from which the number of cells in each state within a
+ * radius-R neighborhood of any cell is read with four lookups, whatever the radius. The table is rebuilt from the
+ * ordinal array each step, which costs O(cells x states).
+ *
+ * The grid is padded by R on every side before summing: with a TOROIDAL border the padding holds the wrapped cells,
+ * otherwise it holds no state, so queries never need to clip or wrap. Moore neighborhoods are rectangles of the padded
+ * grid. Von Neumann neighborhoods are diamonds: a diamond is a stack of row segments whose ends move one column per
+ * row, so it is counted from the running count of each padded row, summed once more along both diagonals. Either
+ * way the tables are about the size of the padded grid.
+ */
+
+public class SummedAreaTable {
+
+    private int rowCount;
+    private int colCount;
+    private int stateCount;
+    private int radius;
+    private NeighborhoodType neighborhoodType;
+
+    /*Padded grid, and width of a row of each sum table*/
+    private int paddedRows;
+    private int paddedCols;
+    private int tableWidth;
+
+    /*One sum table per state, (paddedRows + 1) x tableWidth; for diamonds, paddedRows x tableWidth row running counts
+    summed down-right, and a second table of them summed down-left*/
+    private int[][] stateSums = new int[0][];
+    private int[][] stateAntiSums = new int[0][];
+
+    /**
+     * Rebuilds the sums from the current states of a grid
+     * @param currentStates state ordinals in row-major order; ordinals outside <code>[0, stateCount)</code> are not
+     *                      counted
+     * @param rowCount number of rows of the grid
+     * @param colCount number of columns of the grid
+     * @param stateCount number of states to count
+     * @param neighborhoodType shape of the neighborhoods that will be queried
+     * @param radius radius of the neighborhoods that will be queried
+     * @param isToroidal whether neighborhoods wrap around the edges
+     * @param stepPool pool to build on, or null to build on the calling thread
+     * @throws IllegalArgumentException if a table of the padded grid would not fit in an array
+     */
+    public void rebuild(byte[] currentStates, int rowCount, int colCount, int stateCount, NeighborhoodType neighborhoodType,
+                        int radius, boolean isToroidal, ForkJoinPool stepPool){
+
+        this.rowCount = rowCount;
+        this.colCount = colCount;
+        this.stateCount = stateCount;
+        this.radius = radius;
+        this.neighborhoodType = neighborhoodType;
+        this.paddedRows = rowCount + 2 * radius;
+        this.paddedCols = colCount + 2 * radius;
+
+        boolean isDiamond = (neighborhoodType == NeighborhoodType.VON_NEUMANN);
+        int tableRows = isDiamond ? this.paddedRows : this.paddedRows + 1;
+        this.tableWidth = this.paddedCols + 1;
+
+        long tableSize = (long) tableRows * this.tableWidth;
+
+        if(tableSize > Integer.MAX_VALUE - 8){
+            throw new IllegalArgumentException("A " + rowCount + " x " + colCount + " grid is too large to count radius "
+                    + radius + " neighborhoods");
+        }
+
+        this.initTables((int) tableSize, isDiamond);
+
+        if(isDiamond){
+            this.scatterRows(currentStates, isToroidal, 0, stepPool);
+            this.sumDiagonals(stepPool);
+        }
+        else{
+            this.scatterRows(currentStates, isToroidal, 1, stepPool);
+            this.sumColumns(tableRows, stepPool);
+        }
+
+    }
+
+    /**
+     * Counts the cells in one state within the neighborhood of a cell, the cell itself included
+     * @param stateOrdinal state to count
+     * @param row row of the cell
+     * @param col column of the cell
+     * @return number of cells in the state
+     */
+    public int getCount(int stateOrdinal, int row, int col){
+
+        int[] sums = this.stateSums[stateOrdinal];
+
+        if(this.neighborhoodType == NeighborhoodType.VON_NEUMANN){
+            return this.getDiamond(sums, this.stateAntiSums[stateOrdinal], row + this.radius, col + this.radius);
+        }
+
+        return this.getRectangle(sums, row, col, row + 2 * this.radius + 1, col + 2 * this.radius + 1);
+
+    }
+
+    /**
+     * Counts the cells in every state within the neighborhood of a cell, the cell itself included
+     * @param row row of the cell
+     * @param col column of the cell
+     * @param neighborCounts array to fill, indexed by ordinal
+     */
+    public void getCounts(int row, int col, int[] neighborCounts){
+        for(int xOrdinal = 0; xOrdinal < this.stateCount; xOrdinal ++){
+            neighborCounts[xOrdinal] = this.getCount(xOrdinal, row, col);
+        }
+    }
+
+    public int getRowCount(){
+        return this.rowCount;
+    }
+
+    public int getColCount(){
+        return this.colCount;
+    }
+
+    /*Helper Methods*/
+
+    private void initTables(int tableSize, boolean isDiamond){
+
+        this.stateSums = this.initTable(this.stateSums, tableSize);
+        this.stateAntiSums = isDiamond ? this.initTable(this.stateAntiSums, tableSize) : new int[0][];
+
+    }
+
+    /**
+     * Clears a set of per-state tables, or allocates it again if the number of states or the size changed
+     */
+    private int[][] initTable(int[][] tables, int tableSize){
+
+        if(tables.length != this.stateCount || (this.stateCount > 0 && tables[0].length != tableSize)){
+            return new int[this.stateCount][tableSize];
+        }
+
+        for(int[] xSums : tables){
+            Arrays.fill(xSums, 0);
+        }
+
+        return tables;
+
+    }
+
+    /**
+     * Retrieves the ordinal at a position of the padded grid
+     */
+    private int getPaddedState(byte[] currentStates, int paddedRow, int paddedCol, boolean isToroidal){
+
+        int row = paddedRow - this.radius;
+        int col = paddedCol - this.radius;
+
+        if(row < 0 || row >= this.rowCount || col < 0 || col >= this.colCount){
+
+            if(!isToroidal){
+                return -1;
+            }
+
+            row = Math.floorMod(row, this.rowCount);
+            col = Math.floorMod(col, this.colCount);
+
+        }
+
+        return currentStates[row * this.colCount + col];
+
+    }
+
+    /**
+     * Fills each table row with the running count of its padded row, leaving a zero first column
+     * @param firstTableRow table row receiving the first padded row: 1 to leave a zero first row
+     */
+    private void scatterRows(byte[] currentStates, boolean isToroidal, int firstTableRow, ForkJoinPool stepPool){
+
+        RowBandTask.invoke(stepPool, this.paddedRows, (fromRow, toRow) -> {
+
+            int[] runningCounts = new int[this.stateCount];
+
+            for(int xRow = fromRow; xRow < toRow; xRow ++){
+
+                Arrays.fill(runningCounts, 0);
+                int tableStart = (xRow + firstTableRow) * this.tableWidth + 1;
+
+                for(int xCol = 0; xCol < this.paddedCols; xCol ++){
+
+                    int xOrdinal = this.getPaddedState(currentStates, xRow, xCol, isToroidal);
+
+                    if(xOrdinal >= 0 && xOrdinal < this.stateCount){
+                        runningCounts[xOrdinal] ++;
+                    }
+
+                    for(int xState = 0; xState < this.stateCount; xState ++){
+                        this.stateSums[xState][tableStart + xCol] = runningCounts[xState];
+                    }
+
+                }
+
+            }
+
+        });
+
+    }
+
+    /**
+     * Copies the row running counts into the down-left tables, then sums every table along its diagonals: an entry
+     * of the down-right table adds the entry up and to the left of it, and an entry of the down-left table the entry
+     * up and to the right. Each diagonal starts at the first row or at an edge column.
+     */
+    private void sumDiagonals(ForkJoinPool stepPool){
+
+        for(int xState = 0; xState < this.stateCount; xState ++){
+            System.arraycopy(this.stateSums[xState], 0, this.stateAntiSums[xState], 0, this.stateSums[xState].length);
+        }
+
+        int diagonalCount = this.paddedRows + this.tableWidth - 1;
+
+        /*Diagonals never share an entry, so bands of diagonals can be summed in parallel*/
+        RowBandTask.invoke(stepPool, diagonalCount, (fromDiagonal, toDiagonal) -> {
+            for(int xDiagonal = fromDiagonal; xDiagonal < toDiagonal; xDiagonal ++){
+
+                /*Down-right diagonal of column - row = xDiagonal - (paddedRows - 1)*/
+                int startRow = Math.max(0, this.paddedRows - 1 - xDiagonal);
+                int startCol = startRow + xDiagonal - (this.paddedRows - 1);
+
+                for(int[] xSums : this.stateSums){
+                    for(int xRow = startRow + 1, xCol = startCol + 1; xRow < this.paddedRows && xCol < this.tableWidth; xRow ++, xCol ++){
+                        xSums[xRow * this.tableWidth + xCol] += xSums[(xRow - 1) * this.tableWidth + xCol - 1];
+                    }
+                }
+
+                /*Down-left diagonal of row + column = xDiagonal*/
+                startRow = Math.max(0, xDiagonal - (this.tableWidth - 1));
+                startCol = xDiagonal - startRow;
+
+                for(int[] xSums : this.stateAntiSums){
+                    for(int xRow = startRow + 1, xCol = startCol - 1; xRow < this.paddedRows && xCol >= 0; xRow ++, xCol --){
+                        xSums[xRow * this.tableWidth + xCol] += xSums[(xRow - 1) * this.tableWidth + xCol + 1];
+                    }
+                }
+
+            }
+        });
+
+    }
+
+    /**
+     * Turns row running counts into 2D prefix sums by accumulating down each column
+     */
+    private void sumColumns(int tableRows, ForkJoinPool stepPool){
+
+        RowBandTask.invoke(stepPool, this.tableWidth, (fromCol, toCol) -> {
+            for(int[] xSums : this.stateSums){
+                for(int xRow = 1; xRow < tableRows; xRow ++){
+                    int rowStart = xRow * this.tableWidth;
+                    for(int xCol = fromCol; xCol < toCol; xCol ++){
+                        xSums[rowStart + xCol] += xSums[rowStart - this.tableWidth + xCol];
+                    }
+                }
+            }
+        });
+
+    }
+
+    /**
+     * Sums the cells of a diamond of the padded grid. Row <code>centerRow + k</code> of the diamond is the segment
+     * <code>[centerCol - w, centerCol + w]</code> with <code>w = radius - |k|</code>, i.e. the row's running count at
+     * <code>centerCol + w + 1</code> less its running count at <code>centerCol - w</code>. Over the upper and over the
+     * lower half, each of the two ends moves along a diagonal, so each half is four diagonal lookups.
+     * @param downRight row running counts summed down-right
+     * @param downLeft row running counts summed down-left
+     * @param centerRow padded row of the center
+     * @param centerCol padded column of the center
+     */
+    private int getDiamond(int[] downRight, int[] downLeft, int centerRow, int centerCol){
+
+        int radius = this.radius;
+
+        int upperRight = this.getDiagonal(downRight, centerRow, centerCol + radius + 1) - this.getDiagonal(downRight, centerRow - radius - 1, centerCol);
+        int upperLeft = this.getDiagonal(downLeft, centerRow, centerCol - radius) - this.getDiagonal(downLeft, centerRow - radius - 1, centerCol + 1);
+        int lowerRight = this.getDiagonal(downLeft, centerRow + radius, centerCol + 1) - this.getDiagonal(downLeft, centerRow, centerCol + radius + 1);
+        int lowerLeft = this.getDiagonal(downRight, centerRow + radius, centerCol) - this.getDiagonal(downRight, centerRow, centerCol - radius);
+
+        return upperRight - upperLeft + lowerRight - lowerLeft;
+
+    }
+
+    /**
+     * Reads a diagonal sum, which is 0 above the first row or beyond the columns of the table
+     */
+    private int getDiagonal(int[] sums, int row, int col){
+        return (row < 0 || col < 0 || col >= this.tableWidth) ? 0 : sums[row * this.tableWidth + col];
+    }
+
+    /**
+     * Sums the cells of table rows <code>[fromRow, toRow)</code> and columns <code>[fromCol, toCol)</code>
+     */
+    private int getRectangle(int[] sums, int fromRow, int fromCol, int toRow, int toCol){
+        return sums[toRow * this.tableWidth + toCol] - sums[fromRow * this.tableWidth + toCol]
+                - sums[toRow * this.tableWidth + fromCol] + sums[fromRow * this.tableWidth + fromCol];
+    }
+
+}
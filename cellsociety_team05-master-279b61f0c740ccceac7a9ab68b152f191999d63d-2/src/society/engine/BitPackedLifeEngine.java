@@ -0,0 +1,522 @@
+package src.society.engine;
+
+import src.cell.Cell;
+import src.cell.state.State;
+import src.society.DenseGrid;
+import src.society.Grid;
+import src.society.RowBandTask;
+import src.society.property.BorderType;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Stepping engine for outer-totalistic two-state rules on a square (Moore) neighborhood. Each row is packed into
+ * <code>long</code> words, 64 cells per word, and the eight neighbor counts of a word are added with carry-save
+ * adders, so a whole word of cells is updated with a few dozen bitwise operations.
+ *
+ * Rules are given as masks over the neighbor count: bit <code>k</code> of the birth mask means a dead cell with
+ * <code>k</code> live neighbors becomes alive, bit <code>k</code> of the survival mask means a live cell with
+ * <code>k</code> live neighbors stays alive. Cells beyond a REGULAR or INFINITE border count as dead; a TOROIDAL border
+ * wraps rows and columns.
+ *
+ * Words whose 3x3 block of neighboring words did not change on the previous step (or through
+ * <code>readStates</code>/<code>setAlive</code>) are copied instead of recomputed, so mostly quiet boards step in time
+ * proportional to their activity. <code>writeChangedStates</code> and <code>advanceChangedStates</code> move only the
+ * words that changed into a grid, so keeping a grid in step with the engine costs the same.
+ */
+
+public class BitPackedLifeEngine {
+
+    private static final int WORD_BITS = 64;
+
+    private int rowCount;
+    private int colCount;
+    private int wordsPerRow;
+    private long lastWordMask;
+    private BorderType borderType;
+
+    private long[] currentWords;
+    private long[] nextWords;
+    private long generation;
+
+    /*Word-level change tracking*/
+    private boolean[] changedWords;
+    private boolean[] nextChangedWords;
+    private boolean isAllChanged = true;
+
+    private PackedLifeRule lifeRule;
+
+    public BitPackedLifeEngine(int row, int col, BorderType borderType){
+
+        this.rowCount = row;
+        this.colCount = col;
+        this.wordsPerRow = (col + WORD_BITS - 1) / WORD_BITS;
+        this.lastWordMask = (col % WORD_BITS == 0) ? -1L : (1L << (col % WORD_BITS)) - 1;
+        this.borderType = borderType;
+
+        this.currentWords = new long[row * this.wordsPerRow];
+        this.nextWords = new long[row * this.wordsPerRow];
+        this.changedWords = new boolean[row * this.wordsPerRow];
+        this.nextChangedWords = new boolean[row * this.wordsPerRow];
+
+    }
+
+    /*Getters and Setters*/
+
+    public int getRowCount(){
+        return this.rowCount;
+    }
+
+    public int getColCount(){
+        return this.colCount;
+    }
+
+    public BorderType getBorderType(){
+        return this.borderType;
+    }
+
+    public void setBorderType(BorderType borderType){
+
+        if(this.borderType != borderType){
+            this.isAllChanged = true;
+        }
+
+        this.borderType = borderType;
+
+    }
+
+    /**
+     * @return number of steps taken since the engine was created
+     */
+    public long getGeneration(){
+        return this.generation;
+    }
+
+    public boolean isAlive(int row, int col){
+        return ((this.currentWords[row * this.wordsPerRow + col / WORD_BITS] >>> (col % WORD_BITS)) & 1L) != 0;
+    }
+
+    public void setAlive(int row, int col, boolean isAlive){
+
+        int wordIndex = row * this.wordsPerRow + col / WORD_BITS;
+        long bit = 1L << (col % WORD_BITS);
+
+        this.setWord(wordIndex, isAlive ? (this.currentWords[wordIndex] | bit) : (this.currentWords[wordIndex] & ~bit));
+
+    }
+
+    public void clear(){
+        Arrays.fill(this.currentWords, 0L);
+        this.isAllChanged = true;
+    }
+
+    /**
+     * @return number of live cells
+     */
+    public long getPopulation(){
+
+        long population = 0;
+
+        for(long xWord : this.currentWords){
+            population += Long.bitCount(xWord);
+        }
+
+        return population;
+
+    }
+
+    /*Grid Synchronization*/
+
+    /**
+     * Loads the current states of a grid with the same dimensions. Missing cells are loaded as dead.
+     * @param societyGrid grid to read
+     * @param liveState state that counts as alive
+     */
+    public void readStates(Grid societyGrid, State liveState){
+
+        if(societyGrid instanceof DenseGrid && ((DenseGrid) societyGrid).getStateValues() != null){
+            this.readStates((DenseGrid) societyGrid, liveState);
+            return;
+        }
+
+        long[] tempWords = this.nextWords;
+        Arrays.fill(tempWords, 0L);
+
+        for(int xIndex = 0; xIndex < societyGrid.getSize(); xIndex ++){
+
+            Cell xCell = societyGrid.getCell(xIndex);
+
+            if(xCell != null && xCell.isCurrentEqual(liveState)){
+                tempWords[(xIndex / this.colCount) * this.wordsPerRow + (xIndex % this.colCount) / WORD_BITS] |= 1L << ((xIndex % this.colCount) % WORD_BITS);
+            }
+
+        }
+
+        for(int xWord = 0; xWord < tempWords.length; xWord ++){
+            this.setWord(xWord, tempWords[xWord]);
+        }
+
+    }
+
+    private void readStates(DenseGrid societyGrid, State liveState){
+
+        byte[] currentStates = societyGrid.getCurrentStates();
+        byte liveOrdinal = (byte) ((Enum<?>) liveState).ordinal();
+
+        for(int xRow = 0; xRow < this.rowCount; xRow ++){
+
+            int cellBase = xRow * this.colCount;
+
+            for(int xWord = 0; xWord < this.wordsPerRow; xWord ++){
+
+                int colStart = xWord * WORD_BITS;
+                int colEnd = Math.min(colStart + WORD_BITS, this.colCount);
+                long tempWord = 0L;
+
+                for(int xCol = colStart; xCol < colEnd; xCol ++){
+                    if(currentStates[cellBase + xCol] == liveOrdinal){
+                        tempWord |= 1L << (xCol - colStart);
+                    }
+                }
+
+                this.setWord(xRow * this.wordsPerRow + xWord, tempWord);
+
+            }
+
+        }
+
+    }
+
+    /**
+     * Stores the engine's current generation as the next states of a grid with the same dimensions. Missing cells
+     * are skipped.
+     * @param societyGrid grid to write
+     * @param liveState state written for live cells
+     * @param deadState state written for dead cells
+     */
+    public void writeNextStates(Grid societyGrid, State liveState, State deadState){
+
+        if(societyGrid instanceof DenseGrid && ((DenseGrid) societyGrid).getStateValues() != null){
+            this.writeNextStates((DenseGrid) societyGrid, liveState, deadState);
+            return;
+        }
+
+        for(int xIndex = 0; xIndex < societyGrid.getSize(); xIndex ++){
+
+            Cell xCell = societyGrid.getCell(xIndex);
+
+            if(xCell != null){
+                xCell.setNextState(this.isAlive(xIndex / this.colCount, xIndex % this.colCount) ? liveState : deadState);
+            }
+
+        }
+
+    }
+
+    private void writeNextStates(DenseGrid societyGrid, State liveState, State deadState){
+
+        byte[] currentStates = societyGrid.getCurrentStates();
+        byte[] nextStates = societyGrid.getNextStates();
+        byte liveOrdinal = (byte) ((Enum<?>) liveState).ordinal();
+        byte deadOrdinal = (byte) ((Enum<?>) deadState).ordinal();
+
+        for(int xRow = 0; xRow < this.rowCount; xRow ++){
+
+            int cellBase = xRow * this.colCount;
+
+            for(int xWord = 0; xWord < this.wordsPerRow; xWord ++){
+
+                int colStart = xWord * WORD_BITS;
+                int colEnd = Math.min(colStart + WORD_BITS, this.colCount);
+                long tempWord = this.currentWords[xRow * this.wordsPerRow + xWord];
+
+                for(int xCol = colStart; xCol < colEnd; xCol ++){
+                    if(currentStates[cellBase + xCol] >= 0){
+                        nextStates[cellBase + xCol] = (((tempWord >>> (xCol - colStart)) & 1L) != 0) ? liveOrdinal : deadOrdinal;
+                    }
+                }
+
+            }
+
+        }
+
+    }
+
+    /**
+     * Stores the words that changed on the last step as the next states of a grid whose current states hold the
+     * generation before it. The next states of other words are left as they are, so the step must be completed with
+     * <code>advanceChangedStates</code> rather than by swapping every cell.
+     * @param societyGrid fully occupied grid with the same dimensions
+     * @param liveState state written for live cells
+     * @param deadState state written for dead cells
+     */
+    public void writeChangedStates(DenseGrid societyGrid, State liveState, State deadState){
+
+        byte[] nextStates = societyGrid.getNextStates();
+        byte liveOrdinal = (byte) ((Enum<?>) liveState).ordinal();
+        byte deadOrdinal = (byte) ((Enum<?>) deadState).ordinal();
+
+        for(int xWord = 0; xWord < this.currentWords.length; xWord ++){
+
+            if(!this.changedWords[xWord]){
+                continue;
+            }
+
+            int cellBase = (xWord / this.wordsPerRow) * this.colCount;
+            int colStart = (xWord % this.wordsPerRow) * WORD_BITS;
+            int colEnd = Math.min(colStart + WORD_BITS, this.colCount);
+            long tempWord = this.currentWords[xWord];
+
+            for(int xCol = colStart; xCol < colEnd; xCol ++){
+                nextStates[cellBase + xCol] = (((tempWord >>> (xCol - colStart)) & 1L) != 0) ? liveOrdinal : deadOrdinal;
+            }
+
+        }
+
+    }
+
+    /**
+     * Copies the words written by <code>writeChangedStates</code> from the next states of a grid to its current
+     * states, and marks each cell that changed on the grid so that its active set follows the engine
+     * @param societyGrid grid passed to <code>writeChangedStates</code>
+     * @return change in the number of live cells
+     */
+    public long advanceChangedStates(DenseGrid societyGrid){
+
+        byte[] currentStates = societyGrid.getCurrentStates();
+        byte[] nextStates = societyGrid.getNextStates();
+        long populationChange = 0;
+
+        for(int xWord = 0; xWord < this.currentWords.length; xWord ++){
+
+            if(!this.changedWords[xWord]){
+                continue;
+            }
+
+            int cellStart = (xWord / this.wordsPerRow) * this.colCount + (xWord % this.wordsPerRow) * WORD_BITS;
+            int colStart = (xWord % this.wordsPerRow) * WORD_BITS;
+
+            System.arraycopy(nextStates, cellStart, currentStates, cellStart, Math.min(WORD_BITS, this.colCount - colStart));
+
+            /*After a step the next words hold the generation before it*/
+            populationChange += Long.bitCount(this.currentWords[xWord]) - Long.bitCount(this.nextWords[xWord]);
+
+            for(long xBits = this.currentWords[xWord] ^ this.nextWords[xWord]; xBits != 0; xBits &= xBits - 1){
+                societyGrid.markChanged(cellStart + Long.numberOfTrailingZeros(xBits));
+            }
+
+        }
+
+        return populationChange;
+
+    }
+
+    /*Stepping*/
+
+    /**
+     * Advances the board one generation
+     * @param birthMask neighbor counts at which a dead cell comes alive
+     * @param survivalMask neighbor counts at which a live cell stays alive
+     */
+    public void step(int birthMask, int survivalMask){
+        this.step(birthMask, survivalMask, null);
+    }
+
+    /**
+     * Advances the board one generation, splitting the rows into bands on a pool. Each band writes only its own
+     * rows, so the result is identical to the sequential step.
+     * @param birthMask neighbor counts at which a dead cell comes alive
+     * @param survivalMask neighbor counts at which a live cell stays alive
+     * @param stepPool pool to run the bands on, or null to step on the calling thread
+     */
+    public void step(int birthMask, int survivalMask, ForkJoinPool stepPool){
+
+        if(this.lifeRule == null || !this.lifeRule.isRule(birthMask, survivalMask)){
+            this.lifeRule = new PackedLifeRule(birthMask, survivalMask);
+            this.isAllChanged = true;
+        }
+
+        RowBandTask.invoke(stepPool, this.rowCount, this::stepRows);
+
+        long[] tempWords = this.currentWords;
+        this.currentWords = this.nextWords;
+        this.nextWords = tempWords;
+
+        boolean[] tempChanged = this.changedWords;
+        this.changedWords = this.nextChangedWords;
+        this.nextChangedWords = tempChanged;
+        this.isAllChanged = false;
+
+        this.generation ++;
+
+    }
+
+    /**
+     * Computes the next words of a band of rows from the current words
+     * @param fromRow first row of the band
+     * @param toRow row just past the band
+     */
+    private void stepRows(int fromRow, int toRow){
+
+        boolean isToroidal = (this.borderType == BorderType.TOROIDAL);
+
+        for(int xRow = fromRow; xRow < toRow; xRow ++){
+
+            int aboveRow = this.getWrappedRow(xRow - 1, isToroidal);
+            int belowRow = this.getWrappedRow(xRow + 1, isToroidal);
+
+            for(int xWord = 0; xWord < this.wordsPerRow; xWord ++){
+
+                long center = this.currentWords[xRow * this.wordsPerRow + xWord];
+
+                if(!this.isAllChanged && !this.isNeighborhoodChanged(xRow, xWord, isToroidal)){
+                    this.nextWords[xRow * this.wordsPerRow + xWord] = center;
+                    this.nextChangedWords[xRow * this.wordsPerRow + xWord] = false;
+                    continue;
+                }
+
+                long n0 = this.getWord(aboveRow, xWord);
+                long n1 = this.getWestWord(aboveRow, xWord, isToroidal);
+                long n2 = this.getEastWord(aboveRow, xWord, isToroidal);
+                long n3 = this.getWestWord(xRow, xWord, isToroidal);
+                long n4 = this.getEastWord(xRow, xWord, isToroidal);
+                long n5 = this.getWord(belowRow, xWord);
+                long n6 = this.getWestWord(belowRow, xWord, isToroidal);
+                long n7 = this.getEastWord(belowRow, xWord, isToroidal);
+
+                long nextWord = this.lifeRule.getNextWord(center, n0, n1, n2, n3, n4, n5, n6, n7);
+
+                if(xWord == this.wordsPerRow - 1){
+                    nextWord &= this.lastWordMask;
+                }
+
+                this.nextWords[xRow * this.wordsPerRow + xWord] = nextWord;
+                this.nextChangedWords[xRow * this.wordsPerRow + xWord] = (nextWord != center);
+
+            }
+
+        }
+
+    }
+
+    /*Helper Methods*/
+
+    /**
+     * Replaces a current word, recording whether it changed
+     */
+    private void setWord(int wordIndex, long newWord){
+
+        if(this.currentWords[wordIndex] != newWord){
+            this.currentWords[wordIndex] = newWord;
+            this.changedWords[wordIndex] = true;
+        }
+
+    }
+
+    /**
+     * @return true if the word or any of the eight words around it changed since the previous step
+     */
+    private boolean isNeighborhoodChanged(int row, int word, boolean isToroidal){
+
+        for(int dRow = -1; dRow <= 1; dRow ++){
+
+            int tempRow = this.getWrappedRow(row + dRow, isToroidal);
+
+            if(tempRow < 0){
+                continue;
+            }
+
+            for(int dWord = -1; dWord <= 1; dWord ++){
+
+                int tempWord = word + dWord;
+
+                if(tempWord < 0 || tempWord >= this.wordsPerRow){
+
+                    if(!isToroidal){
+                        continue;
+                    }
+
+                    tempWord = (tempWord + this.wordsPerRow) % this.wordsPerRow;
+
+                }
+
+                if(this.changedWords[tempRow * this.wordsPerRow + tempWord]){
+                    return true;
+                }
+
+            }
+
+        }
+
+        return false;
+
+    }
+
+    /**
+     * @return the row to read for a neighbor row, or -1 if it lies beyond a non-wrapping border
+     */
+    private int getWrappedRow(int row, boolean isToroidal){
+
+        if(row >= 0 && row < this.rowCount){
+            return row;
+        }
+
+        return isToroidal ? (row + this.rowCount) % this.rowCount : -1;
+
+    }
+
+    private long getWord(int row, int word){
+        return (row < 0) ? 0L : this.currentWords[row * this.wordsPerRow + word];
+    }
+
+    /**
+     * @return word whose bit <code>j</code> holds the cell to the west of bit <code>j</code>
+     */
+    private long getWestWord(int row, int word, boolean isToroidal){
+
+        if(row < 0){
+            return 0L;
+        }
+
+        int rowBase = row * this.wordsPerRow;
+        long carry;
+
+        if(word > 0){
+            carry = this.currentWords[rowBase + word - 1] >>> (WORD_BITS - 1);
+        }
+        else if(isToroidal){
+            carry = (this.currentWords[rowBase + this.wordsPerRow - 1] >>> ((this.colCount - 1) % WORD_BITS)) & 1L;
+        }
+        else{
+            carry = 0L;
+        }
+
+        return (this.currentWords[rowBase + word] << 1) | carry;
+
+    }
+
+    /**
+     * @return word whose bit <code>j</code> holds the cell to the east of bit <code>j</code>
+     */
+    private long getEastWord(int row, int word, boolean isToroidal){
+
+        if(row < 0){
+            return 0L;
+        }
+
+        int rowBase = row * this.wordsPerRow;
+        long eastWord = this.currentWords[rowBase + word] >>> 1;
+
+        if(word < this.wordsPerRow - 1){
+            eastWord |= this.currentWords[rowBase + word + 1] << (WORD_BITS - 1);
+        }
+        else if(isToroidal){
+            eastWord |= (this.currentWords[rowBase] & 1L) << ((this.colCount - 1) % WORD_BITS);
+        }
+
+        return eastWord;
+
+    }
+
+}
@@ -0,0 +1,654 @@
+package src.society.engine;
+
+import src.cell.Cell;
+import src.cell.state.State;
+import src.society.Grid;
+
+/**
+ * Memoized quadtree (HashLife) engine for outer-totalistic two-state rules on a square (Moore) neighborhood. Every
+ * distinct block of cells is stored once in a canonical node cache, and each node remembers its center advanced by a
+ * power of two generations, so repeating and empty regions are stepped once no matter how often they occur or how far
+ * ahead the board is jumped.
+ *
+ * The board is bounded like a REGULAR grid: it sits inside cells of a third, "void" kind that are never alive, never
+ * change and count as dead neighbors. Missing cells of a grid are loaded as void as well, so results match stepping
+ * the grid one generation at a time. TOROIDAL borders are not supported.
+ *
+ * The node cache is bounded by a soft limit: when it is exceeded after a step, every node that the current board does
+ * not use is evicted together with all memoized results.
+ */
+
+public class HashLifeEngine {
+
+    public static final int DEFAULT_MAX_NODES = 1 << 22;
+
+    /*Largest power-of-two step taken at once, which keeps coordinates well inside a long*/
+    private static final int MAX_STEP_LOG = 48;
+    private static final int MIN_ROOT_LEVEL = 3;
+
+    private static final int DEAD = 0;
+    private static final int ALIVE = 1;
+    private static final int VOID = 2;
+
+    private int rowCount;
+    private int colCount;
+    private int maxNodes;
+
+    private Node root;
+    private long origin;
+    private long generation;
+
+    private int birthMask = -1;
+    private int survivalMask = -1;
+
+    /*Canonical node cache (chained hash table)*/
+    private Node[] nodeTable = new Node[1 << 10];
+    private int nodeCount;
+
+    private Node[] leaves = new Node[3];
+    private Node[] voidNodes = new Node[1];
+
+    public HashLifeEngine(int row, int col){
+        this(row, col, DEFAULT_MAX_NODES);
+    }
+
+    /**
+     * Creates an engine for an all-dead board
+     * @param row number of rows
+     * @param col number of columns
+     * @param maxNodes number of cached nodes above which unused nodes are evicted
+     */
+    public HashLifeEngine(int row, int col, int maxNodes){
+
+        this.rowCount = row;
+        this.colCount = col;
+        this.maxNodes = maxNodes;
+
+        for(int xState = DEAD; xState <= VOID; xState ++){
+            this.leaves[xState] = new Node(xState);
+        }
+
+        this.voidNodes[0] = this.leaves[VOID];
+        this.clear();
+
+    }
+
+    /*Getters and Setters*/
+
+    public int getRowCount(){
+        return this.rowCount;
+    }
+
+    public int getColCount(){
+        return this.colCount;
+    }
+
+    /**
+     * @return number of generations advanced since the engine was created
+     */
+    public long getGeneration(){
+        return this.generation;
+    }
+
+    /**
+     * @return number of live cells
+     */
+    public long getPopulation(){
+        return this.root.population;
+    }
+
+    /**
+     * @return number of nodes in the canonical cache
+     */
+    public int getNodeCount(){
+        return this.nodeCount;
+    }
+
+    public boolean isAlive(int row, int col){
+
+        Node tempNode = this.root;
+        long tempRow = row + this.origin;
+        long tempCol = col + this.origin;
+
+        while(tempNode.level > 0){
+
+            long halfSize = 1L << (tempNode.level - 1);
+            boolean isSouth = tempRow >= halfSize;
+            boolean isEast = tempCol >= halfSize;
+
+            tempNode = isSouth ? (isEast ? tempNode.se : tempNode.sw) : (isEast ? tempNode.ne : tempNode.nw);
+            tempRow -= isSouth ? halfSize : 0;
+            tempCol -= isEast ? halfSize : 0;
+
+        }
+
+        return tempNode.state == ALIVE;
+
+    }
+
+    public void setAlive(int row, int col, boolean isAlive){
+
+        if(row < 0 || row >= this.rowCount || col < 0 || col >= this.colCount){
+            throw new IllegalArgumentException("Location " + row + ", " + col + " lies outside the board");
+        }
+
+        this.root = this.setLeaf(this.root, row + this.origin, col + this.origin, this.leaves[isAlive ? ALIVE : DEAD]);
+
+    }
+
+    /**
+     * Kills every cell of the board
+     */
+    public void clear(){
+        this.root = this.buildRoot(null, null);
+    }
+
+    /*Grid Synchronization*/
+
+    /**
+     * Loads the current states of a grid with the same dimensions. Missing cells are loaded as void.
+     * @param societyGrid grid to read
+     * @param liveState state that counts as alive
+     */
+    public void readStates(Grid societyGrid, State liveState){
+        this.root = this.buildRoot(societyGrid, liveState);
+    }
+
+    /**
+     * Stores the board as the current states of a grid with the same dimensions
+     * @param societyGrid grid to write
+     * @param liveState state written for live cells
+     * @param deadState state written for dead cells
+     */
+    public void writeCurrentStates(Grid societyGrid, State liveState, State deadState){
+        this.writeCurrentStates(this.root, 0, 0, societyGrid, liveState, deadState);
+    }
+
+    private void writeCurrentStates(Node xNode, long row, long col, Grid societyGrid, State liveState, State deadState){
+
+        if(xNode.isVoid){
+            return;
+        }
+
+        if(xNode.level == 0){
+
+            Cell xCell = societyGrid.getCell((int) ((row - this.origin) * this.colCount + (col - this.origin)));
+            xCell.setCurrentState((xNode.state == ALIVE) ? liveState : deadState);
+            return;
+
+        }
+
+        long halfSize = 1L << (xNode.level - 1);
+
+        this.writeCurrentStates(xNode.nw, row, col, societyGrid, liveState, deadState);
+        this.writeCurrentStates(xNode.ne, row, col + halfSize, societyGrid, liveState, deadState);
+        this.writeCurrentStates(xNode.sw, row + halfSize, col, societyGrid, liveState, deadState);
+        this.writeCurrentStates(xNode.se, row + halfSize, col + halfSize, societyGrid, liveState, deadState);
+
+    }
+
+    /*Stepping*/
+
+    /**
+     * Advances the board a number of generations
+     * @param generations number of generations to advance
+     * @param birthMask neighbor counts at which a dead cell comes alive
+     * @param survivalMask neighbor counts at which a live cell stays alive
+     */
+    public void jumpGenerations(long generations, int birthMask, int survivalMask){
+
+        if(generations < 0){
+            throw new IllegalArgumentException("Cannot jump " + generations + " generations");
+        }
+
+        if(birthMask != this.birthMask || survivalMask != this.survivalMask){
+            this.clearResults();
+            this.birthMask = birthMask;
+            this.survivalMask = survivalMask;
+        }
+
+        long remaining = generations;
+
+        while(remaining > 0){
+
+            int stepLog = Math.min(63 - Long.numberOfLeadingZeros(remaining), MAX_STEP_LOG);
+
+            this.advance(stepLog);
+            remaining -= 1L << stepLog;
+
+            if(this.nodeCount > this.maxNodes){
+                this.collect();
+            }
+
+        }
+
+    }
+
+    /**
+     * Advances the board <code>2^stepLog</code> generations by taking the successor of the root. The board lies in the
+     * center half of the root, so the successor covers all of it; it is then re-centered in void.
+     */
+    private void advance(int stepLog){
+
+        while(this.root.level < stepLog + 2){
+            this.origin += 1L << (this.root.level - 1);
+            this.root = this.center(this.root);
+        }
+
+        /*The successor starts a quarter of the root in, and re-centering moves it back by the same amount*/
+        this.root = this.center(this.getSuccessor(this.root, stepLog));
+        this.generation += 1L << stepLog;
+
+    }
+
+    /**
+     * Computes the center half of a node advanced <code>2^stepLog</code> generations
+     * @param xNode node of level 2 or more
+     * @param stepLog log2 of the generations to advance, at most <code>level - 2</code>
+     * @return node one level below <code>xNode</code>
+     */
+    private Node getSuccessor(Node xNode, int stepLog){
+
+        if(xNode.isVoid){
+            return this.getVoidNode(xNode.level - 1);
+        }
+
+        if(xNode.result != null && xNode.resultStep == stepLog){
+            return xNode.result;
+        }
+
+        Node result;
+
+        if(xNode.level == 2){
+            result = this.getBaseSuccessor(xNode);
+        }
+        else{
+
+            Node n00 = xNode.nw;
+            Node n01 = this.getNode(xNode.nw.ne, xNode.ne.nw, xNode.nw.se, xNode.ne.sw);
+            Node n02 = xNode.ne;
+            Node n10 = this.getNode(xNode.nw.sw, xNode.nw.se, xNode.sw.nw, xNode.sw.ne);
+            Node n11 = this.getNode(xNode.nw.se, xNode.ne.sw, xNode.sw.ne, xNode.se.nw);
+            Node n12 = this.getNode(xNode.ne.sw, xNode.ne.se, xNode.se.nw, xNode.se.ne);
+            Node n20 = xNode.sw;
+            Node n21 = this.getNode(xNode.sw.ne, xNode.se.nw, xNode.sw.se, xNode.se.sw);
+            Node n22 = xNode.se;
+
+            if(stepLog == xNode.level - 2){
+
+                /*Two half steps: advance the nine overlapping quarters, then the four combined blocks*/
+                n00 = this.getSuccessor(n00, stepLog - 1);
+                n01 = this.getSuccessor(n01, stepLog - 1);
+                n02 = this.getSuccessor(n02, stepLog - 1);
+                n10 = this.getSuccessor(n10, stepLog - 1);
+                n11 = this.getSuccessor(n11, stepLog - 1);
+                n12 = this.getSuccessor(n12, stepLog - 1);
+                n20 = this.getSuccessor(n20, stepLog - 1);
+                n21 = this.getSuccessor(n21, stepLog - 1);
+                n22 = this.getSuccessor(n22, stepLog - 1);
+
+                result = this.getNode(
+                        this.getSuccessor(this.getNode(n00, n01, n10, n11), stepLog - 1),
+                        this.getSuccessor(this.getNode(n01, n02, n11, n12), stepLog - 1),
+                        this.getSuccessor(this.getNode(n10, n11, n20, n21), stepLog - 1),
+                        this.getSuccessor(this.getNode(n11, n12, n21, n22), stepLog - 1));
+
+            }
+            else{
+
+                /*Shorter step: take the centers of the nine quarters, then advance the four combined blocks*/
+                n00 = this.getCenter(n00);
+                n01 = this.getCenter(n01);
+                n02 = this.getCenter(n02);
+                n10 = this.getCenter(n10);
+                n11 = this.getCenter(n11);
+                n12 = this.getCenter(n12);
+                n20 = this.getCenter(n20);
+                n21 = this.getCenter(n21);
+                n22 = this.getCenter(n22);
+
+                result = this.getNode(
+                        this.getSuccessor(this.getNode(n00, n01, n10, n11), stepLog),
+                        this.getSuccessor(this.getNode(n01, n02, n11, n12), stepLog),
+                        this.getSuccessor(this.getNode(n10, n11, n20, n21), stepLog),
+                        this.getSuccessor(this.getNode(n11, n12, n21, n22), stepLog));
+
+            }
+
+        }
+
+        xNode.result = result;
+        xNode.resultStep = stepLog;
+
+        return result;
+
+    }
+
+    /**
+     * Advances the center 2x2 cells of a 4x4 node by one generation
+     */
+    private Node getBaseSuccessor(Node xNode){
+
+        int[][] cellStates = new int[4][4];
+
+        for(int xRow = 0; xRow < 4; xRow ++){
+            for(int xCol = 0; xCol < 4; xCol ++){
+                Node quarter = (xRow < 2) ? ((xCol < 2) ? xNode.nw : xNode.ne) : ((xCol < 2) ? xNode.sw : xNode.se);
+                Node leaf = ((xRow & 1) == 0) ? (((xCol & 1) == 0) ? quarter.nw : quarter.ne) : (((xCol & 1) == 0) ? quarter.sw : quarter.se);
+                cellStates[xRow][xCol] = leaf.state;
+            }
+        }
+
+        Node[] nextLeaves = new Node[4];
+
+        for(int xRow = 1; xRow <= 2; xRow ++){
+
+            for(int xCol = 1; xCol <= 2; xCol ++){
+
+                int nextState = cellStates[xRow][xCol];
+
+                if(nextState != VOID){
+
+                    int count = 0;
+
+                    for(int dRow = -1; dRow <= 1; dRow ++){
+                        for(int dCol = -1; dCol <= 1; dCol ++){
+                            if((dRow != 0 || dCol != 0) && cellStates[xRow + dRow][xCol + dCol] == ALIVE){
+                                count ++;
+                            }
+                        }
+                    }
+
+                    int countMask = (nextState == ALIVE) ? this.survivalMask : this.birthMask;
+                    nextState = (((countMask >>> count) & 1) != 0) ? ALIVE : DEAD;
+
+                }
+
+                nextLeaves[(xRow - 1) * 2 + (xCol - 1)] = this.leaves[nextState];
+
+            }
+
+        }
+
+        return this.getNode(nextLeaves[0], nextLeaves[1], nextLeaves[2], nextLeaves[3]);
+
+    }
+
+    /*Node Construction*/
+
+    /**
+     * Builds a root that holds the board in its center half, filled from a grid or left dead
+     */
+    private Node buildRoot(Grid societyGrid, State liveState){
+
+        int level = MIN_ROOT_LEVEL;
+
+        while((1L << (level - 1)) < Math.max(this.rowCount, this.colCount)){
+            level ++;
+        }
+
+        this.origin = 1L << (level - 2);
+        return this.buildNode(level, 0, 0, societyGrid, liveState);
+
+    }
+
+    private Node buildNode(int level, long row, long col, Grid societyGrid, State liveState){
+
+        long size = 1L << level;
+
+        if(row + size <= this.origin || col + size <= this.origin
+                || row >= this.origin + this.rowCount || col >= this.origin + this.colCount){
+            return this.getVoidNode(level);
+        }
+
+        if(level == 0){
+
+            if(societyGrid == null){
+                return this.leaves[DEAD];
+            }
+
+            Cell xCell = societyGrid.getCell((int) ((row - this.origin) * this.colCount + (col - this.origin)));
+
+            if(xCell == null){
+                return this.leaves[VOID];
+            }
+
+            return this.leaves[xCell.isCurrentEqual(liveState) ? ALIVE : DEAD];
+
+        }
+
+        long halfSize = size / 2;
+
+        return this.getNode(
+                this.buildNode(level - 1, row, col, societyGrid, liveState),
+                this.buildNode(level - 1, row, col + halfSize, societyGrid, liveState),
+                this.buildNode(level - 1, row + halfSize, col, societyGrid, liveState),
+                this.buildNode(level - 1, row + halfSize, col + halfSize, societyGrid, liveState));
+
+    }
+
+    private Node setLeaf(Node xNode, long row, long col, Node leaf){
+
+        if(xNode.level == 0){
+            return leaf;
+        }
+
+        long halfSize = 1L << (xNode.level - 1);
+
+        if(row < halfSize){
+            return (col < halfSize)
+                    ? this.getNode(this.setLeaf(xNode.nw, row, col, leaf), xNode.ne, xNode.sw, xNode.se)
+                    : this.getNode(xNode.nw, this.setLeaf(xNode.ne, row, col - halfSize, leaf), xNode.sw, xNode.se);
+        }
+
+        return (col < halfSize)
+                ? this.getNode(xNode.nw, xNode.ne, this.setLeaf(xNode.sw, row - halfSize, col, leaf), xNode.se)
+                : this.getNode(xNode.nw, xNode.ne, xNode.sw, this.setLeaf(xNode.se, row - halfSize, col - halfSize, leaf));
+
+    }
+
+    /**
+     * @return node one level up whose center half is <code>xNode</code>, surrounded by void
+     */
+    private Node center(Node xNode){
+
+        Node voidNode = this.getVoidNode(xNode.level - 1);
+
+        return this.getNode(
+                this.getNode(voidNode, voidNode, voidNode, xNode.nw),
+                this.getNode(voidNode, voidNode, xNode.ne, voidNode),
+                this.getNode(voidNode, xNode.sw, voidNode, voidNode),
+                this.getNode(xNode.se, voidNode, voidNode, voidNode));
+
+    }
+
+    /**
+     * @return center half of a node, one level down
+     */
+    private Node getCenter(Node xNode){
+        return this.getNode(xNode.nw.se, xNode.ne.sw, xNode.sw.ne, xNode.se.nw);
+    }
+
+    private Node getVoidNode(int level){
+
+        if(level >= this.voidNodes.length){
+
+            Node[] tempNodes = new Node[level + 1];
+            System.arraycopy(this.voidNodes, 0, tempNodes, 0, this.voidNodes.length);
+
+            for(int xLevel = this.voidNodes.length; xLevel <= level; xLevel ++){
+                Node below = tempNodes[xLevel - 1];
+                tempNodes[xLevel] = this.getNode(below, below, below, below);
+            }
+
+            this.voidNodes = tempNodes;
+
+        }
+
+        return this.voidNodes[level];
+
+    }
+
+    /*Node Cache*/
+
+    /**
+     * Retrieves the canonical node with the given quarters, creating it if needed
+     */
+    private Node getNode(Node nw, Node ne, Node sw, Node se){
+
+        int hash = Node.hash(nw, ne, sw, se);
+        int bucket = hash & (this.nodeTable.length - 1);
+
+        for(Node xNode = this.nodeTable[bucket]; xNode != null; xNode = xNode.next){
+            if(xNode.hash == hash && xNode.nw == nw && xNode.ne == ne && xNode.sw == sw && xNode.se == se){
+                return xNode;
+            }
+        }
+
+        Node newNode = new Node(nw, ne, sw, se, hash);
+        this.insert(newNode);
+
+        return newNode;
+
+    }
+
+    private void insert(Node newNode){
+
+        if(this.nodeCount >= this.nodeTable.length - (this.nodeTable.length >>> 2)){
+            this.resizeTable(this.nodeTable.length * 2);
+        }
+
+        int bucket = newNode.hash & (this.nodeTable.length - 1);
+
+        newNode.next = this.nodeTable[bucket];
+        this.nodeTable[bucket] = newNode;
+        this.nodeCount ++;
+
+    }
+
+    private void resizeTable(int capacity){
+
+        Node[] oldTable = this.nodeTable;
+        this.nodeTable = new Node[capacity];
+
+        for(Node xBucket : oldTable){
+
+            Node xNode = xBucket;
+
+            while(xNode != null){
+                Node tempNext = xNode.next;
+                int bucket = xNode.hash & (capacity - 1);
+                xNode.next = this.nodeTable[bucket];
+                this.nodeTable[bucket] = xNode;
+                xNode = tempNext;
+            }
+
+        }
+
+    }
+
+    /**
+     * Forgets every memoized successor, e.g. after the rule changes
+     */
+    private void clearResults(){
+
+        for(Node xBucket : this.nodeTable){
+            for(Node xNode = xBucket; xNode != null; xNode = xNode.next){
+                xNode.result = null;
+            }
+        }
+
+    }
+
+    /**
+     * Evicts every node that is not part of the current board (or the void nodes) and all memoized successors
+     */
+    private void collect(){
+
+        this.clearResults();
+        this.nodeTable = new Node[1 << 10];
+        this.nodeCount = 0;
+
+        for(int xLevel = 1; xLevel < this.voidNodes.length; xLevel ++){
+            this.reinsert(this.voidNodes[xLevel]);
+        }
+
+        this.reinsert(this.root);
+
+    }
+
+    private void reinsert(Node xNode){
+
+        if(xNode.level == 0){
+            return;
+        }
+
+        int bucket = xNode.hash & (this.nodeTable.length - 1);
+
+        for(Node tempNode = this.nodeTable[bucket]; tempNode != null; tempNode = tempNode.next){
+            if(tempNode == xNode){
+                return;
+            }
+        }
+
+        this.reinsert(xNode.nw);
+        this.reinsert(xNode.ne);
+        this.reinsert(xNode.sw);
+        this.reinsert(xNode.se);
+
+        this.insert(xNode);
+
+    }
+
+    /**
+     * Quadtree node. Leaves (level 0) hold a single cell state; other nodes are squares of side
+     * <code>2^level</code> built from four canonical quarters.
+     */
+    private static class Node {
+
+        private final Node nw;
+        private final Node ne;
+        private final Node sw;
+        private final Node se;
+        private final int level;
+        private final int state;
+        private final long population;
+        private final boolean isVoid;
+        private final int hash;
+
+        private Node next;
+        private Node result;
+        private int resultStep;
+
+        private Node(int state){
+            this.nw = this.ne = this.sw = this.se = null;
+            this.level = 0;
+            this.state = state;
+            this.population = (state == ALIVE) ? 1 : 0;
+            this.isVoid = (state == VOID);
+            this.hash = state + 1;
+        }
+
+        private Node(Node nw, Node ne, Node sw, Node se, int hash){
+            this.nw = nw;
+            this.ne = ne;
+            this.sw = sw;
+            this.se = se;
+            this.level = nw.level + 1;
+            this.state = DEAD;
+            this.population = nw.population + ne.population + sw.population + se.population;
+            this.isVoid = nw.isVoid && ne.isVoid && sw.isVoid && se.isVoid;
+            this.hash = hash;
+        }
+
+        private static int hash(Node nw, Node ne, Node sw, Node se){
+            int hash = nw.hash;
+            hash = hash * 31 + ne.hash;
+            hash = hash * 31 + sw.hash;
+            hash = hash * 31 + se.hash;
+            return hash ^ (hash >>> 16);
+        }
+
+    }
+
+}
@@ -0,0 +1,236 @@
+package src.society.engine;
+
+import src.cell.Cell;
+import src.cell.CellShape;
+import src.cell.state.LifeLikeRule;
+import src.cell.state.LifeLikeState;
+import src.cell.state.State;
+import src.society.DenseGrid;
+import src.society.Grid;
+import src.society.NeighborTable;
+import src.society.RowBandTask;
+import src.society.SummedAreaTable;
+import src.society.property.BorderType;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Stepping engine for <code>LifeLikeRule</code>s over arrays of state ordinals, one byte per cell in row-major order.
+ * The live count of each cell is looked up with its current state in a next-state table compiled from the rule, so a
+ * step never calls the rule per cell.
+ *
+ * On square grids the live count of the rule's Moore or von Neumann neighborhood is read from a
+ * <code>SummedAreaTable</code>, at O(1) per cell whatever the radius. Cells beyond a REGULAR or INFINITE border count
+ * as dead, and a TOROIDAL border wraps. Other shapes count their neighbor table, which holds only the adjacent cells,
+ * so the rule's radius and neighborhood do not apply to them.
+ *
+ * A <code>DenseGrid</code> is read and written through its ordinal arrays; other grids are copied in and out.
+ */
+
+public class LifeLikeEngine {
+
+    private static final byte ALIVE = (byte) LifeLikeState.ALIVE.ordinal();
+    private static final State[] STATE_VALUES = LifeLikeState.values();
+
+    /*Next-state table: entry (currentOrdinal * countRadix + aliveCount)*/
+    private LifeLikeRule tableRule;
+    private byte[] nextOrdinals;
+    private int countRadix;
+
+    /*Buffers, kept between steps*/
+    private byte[] cellStates = new byte[0];
+    private byte[] nextStates = new byte[0];
+    private SummedAreaTable areaTable = new SummedAreaTable();
+
+    /**
+     * Computes the next states of a grid under a rule and stores them as the grid's next states. Missing cells and
+     * cells without a state are skipped.
+     * @param societyGrid grid to step
+     * @param lifeRule rule to apply
+     * @param stepPool pool to run bands of rows on, or null to step on the calling thread
+     */
+    public void step(Grid societyGrid, LifeLikeRule lifeRule, ForkJoinPool stepPool){
+
+        boolean isDense = (societyGrid instanceof DenseGrid && ((DenseGrid) societyGrid).getStateValues() != null);
+        byte[] currentStates = isDense ? ((DenseGrid) societyGrid).getCurrentStates() : this.readStates(societyGrid);
+        byte[] targetStates = isDense ? ((DenseGrid) societyGrid).getNextStates() : this.getNextBuffer(societyGrid.getSize());
+
+        if(societyGrid.getCellShape() == CellShape.SQUARE){
+            this.stepArea(societyGrid, lifeRule, currentStates, targetStates, stepPool);
+        }
+        else{
+            this.stepTable(societyGrid, lifeRule, currentStates, targetStates, stepPool);
+        }
+
+        if(!isDense){
+            this.writeStates(societyGrid, targetStates, stepPool);
+        }
+
+    }
+
+    /*Square Grids*/
+
+    /**
+     * Counts the rule's radius neighborhoods from a summed-area table of the dead and live cells
+     */
+    private void stepArea(Grid societyGrid, LifeLikeRule lifeRule, byte[] currentStates, byte[] targetStates, ForkJoinPool stepPool){
+
+        int colCount = societyGrid.getColCount();
+        int centerAdjust = lifeRule.isCenterCounted() ? 0 : 1;
+        SummedAreaTable areaTable = this.areaTable;
+
+        this.compileRule(lifeRule, lifeRule.getMaxCount());
+
+        /*Dead and live cells are summed; only the live counts are read*/
+        areaTable.rebuild(currentStates, societyGrid.getRowCount(), colCount, ALIVE + 1, lifeRule.getNeighborhoodType(),
+                lifeRule.getRadius(), societyGrid.getBorderType() == BorderType.TOROIDAL, stepPool);
+
+        RowBandTask.invoke(stepPool, societyGrid.getRowCount(), (fromRow, toRow) -> {
+
+            for(int xRow = fromRow; xRow < toRow; xRow ++){
+
+                int rowStart = xRow * colCount;
+
+                for(int xCol = 0; xCol < colCount; xCol ++){
+
+                    byte currentOrdinal = currentStates[rowStart + xCol];
+
+                    if(currentOrdinal < 0){
+                        continue;
+                    }
+
+                    int aliveCount = areaTable.getCount(ALIVE, xRow, xCol) - ((currentOrdinal == ALIVE) ? centerAdjust : 0);
+                    targetStates[rowStart + xCol] = this.nextOrdinals[currentOrdinal * this.countRadix + aliveCount];
+
+                }
+
+            }
+
+        });
+
+    }
+
+    /*Other Shapes*/
+
+    /**
+     * Counts the live cells of each cell's neighbor table entry
+     */
+    private void stepTable(Grid societyGrid, LifeLikeRule lifeRule, byte[] currentStates, byte[] targetStates, ForkJoinPool stepPool){
+
+        NeighborTable neighborTable = societyGrid.getNeighborTable();
+        int colCount = societyGrid.getColCount();
+        boolean isCenterCounted = lifeRule.isCenterCounted();
+
+        this.compileRule(lifeRule, neighborTable.getMaxNeighborCount() + 1);
+
+        RowBandTask.invoke(stepPool, societyGrid.getRowCount(), (fromRow, toRow) -> {
+
+            for(int xIndex = fromRow * colCount; xIndex < toRow * colCount; xIndex ++){
+
+                byte currentOrdinal = currentStates[xIndex];
+
+                if(currentOrdinal < 0){
+                    continue;
+                }
+
+                int aliveCount = (isCenterCounted && currentOrdinal == ALIVE) ? 1 : 0;
+
+                for(int xPosition = neighborTable.getStart(xIndex); xPosition < neighborTable.getEnd(xIndex); xPosition ++){
+
+                    int neighborIndex = neighborTable.getNeighbor(xPosition);
+
+                    if(neighborIndex != NeighborTable.EDGE && currentStates[neighborIndex] == ALIVE){
+                        aliveCount ++;
+                    }
+
+                }
+
+                targetStates[xIndex] = this.nextOrdinals[currentOrdinal * this.countRadix + aliveCount];
+
+            }
+
+        });
+
+    }
+
+    /*Helper Methods*/
+
+    /**
+     * Tabulates the rule's next state for every state and live count up to a maximum, unless the table already covers
+     * them
+     */
+    private void compileRule(LifeLikeRule lifeRule, int maxCount){
+
+        if(this.tableRule == lifeRule && this.countRadix > maxCount){
+            return;
+        }
+
+        this.countRadix = maxCount + 1;
+        this.nextOrdinals = new byte[STATE_VALUES.length * this.countRadix];
+
+        for(int xOrdinal = 0; xOrdinal < STATE_VALUES.length; xOrdinal ++){
+            for(int xCount = 0; xCount < this.countRadix; xCount ++){
+                this.nextOrdinals[xOrdinal * this.countRadix + xCount] = (byte) lifeRule.getNextOrdinal(xOrdinal, xCount);
+            }
+        }
+
+        this.tableRule = lifeRule;
+
+    }
+
+    /**
+     * Copies the current state ordinals of a grid that does not keep them in an array
+     */
+    private byte[] readStates(Grid societyGrid){
+
+        if(this.cellStates.length != societyGrid.getSize()){
+            this.cellStates = new byte[societyGrid.getSize()];
+        }
+
+        for(int xIndex = 0; xIndex < this.cellStates.length; xIndex ++){
+
+            Cell xCell = societyGrid.getCell(xIndex);
+            State xState = (xCell == null) ? null : xCell.getCurrentState();
+
+            this.cellStates[xIndex] = (xState == null) ? -1 : (byte) ((Enum<?>) xState).ordinal();
+
+        }
+
+        return this.cellStates;
+
+    }
+
+    private byte[] getNextBuffer(int size){
+
+        if(this.nextStates.length != size){
+            this.nextStates = new byte[size];
+        }
+
+        return this.nextStates;
+
+    }
+
+    /**
+     * Sets the next states of a grid's cells from an ordinal array
+     */
+    private void writeStates(Grid societyGrid, byte[] targetStates, ForkJoinPool stepPool){
+
+        int colCount = societyGrid.getColCount();
+
+        RowBandTask.invoke(stepPool, societyGrid.getRowCount(), (fromRow, toRow) -> {
+
+            for(int xIndex = fromRow * colCount; xIndex < toRow * colCount; xIndex ++){
+
+                Cell xCell = societyGrid.getCell(xIndex);
+
+                if(xCell != null && xCell.getCurrentState() != null){
+                    xCell.setNextState(STATE_VALUES[targetStates[xIndex]]);
+                }
+
+            }
+
+        });
+
+    }
+
+}
@@ -0,0 +1,119 @@
+package src.society.engine;
+
+/**
+ * Outer-totalistic two-state rule on a Moore neighborhood, applied to 64 cells at once. Bit <code>k</code> of the
+ * birth mask means a dead cell with <code>k</code> live neighbors becomes alive; bit <code>k</code> of the survival
+ * mask means a live cell with <code>k</code> live neighbors stays alive.
+ */
+
+public class PackedLifeRule {
+
+    public static final int MAX_COUNT = 8;
+
+    private int birthMask;
+    private int survivalMask;
+
+    /*Selectors indexed by neighbor count, and the counts that can produce a live cell*/
+    private long[] birthSelect = new long[MAX_COUNT + 1];
+    private long[] survivalSelect = new long[MAX_COUNT + 1];
+    private int[] activeCounts = new int[MAX_COUNT + 1];
+    private int activeCountSize;
+
+    public PackedLifeRule(int birthMask, int survivalMask){
+
+        this.birthMask = birthMask;
+        this.survivalMask = survivalMask;
+
+        for(int xCount = 0; xCount <= MAX_COUNT; xCount ++){
+
+            this.birthSelect[xCount] = (((birthMask >>> xCount) & 1) != 0) ? -1L : 0L;
+            this.survivalSelect[xCount] = (((survivalMask >>> xCount) & 1) != 0) ? -1L : 0L;
+
+            if((this.birthSelect[xCount] | this.survivalSelect[xCount]) != 0L){
+                this.activeCounts[this.activeCountSize ++] = xCount;
+            }
+
+        }
+
+    }
+
+    /**
+     * Builds the neighbor-count mask for a live range, e.g. <code>getCountMask(2, 3)</code> for Conway survival
+     * @param min smallest count in the range
+     * @param max largest count in the range
+     * @return mask with bits <code>min</code> through <code>max</code> set (empty if the range is empty)
+     */
+    public static int getCountMask(int min, int max){
+
+        int countMask = 0;
+
+        for(int xCount = Math.max(min, 0); xCount <= Math.min(max, MAX_COUNT); xCount ++){
+            countMask |= 1 << xCount;
+        }
+
+        return countMask;
+
+    }
+
+    public int getBirthMask(){
+        return this.birthMask;
+    }
+
+    public int getSurvivalMask(){
+        return this.survivalMask;
+    }
+
+    /**
+     * @return true if the rule uses the given masks
+     */
+    public boolean isRule(int birthMask, int survivalMask){
+        return (this.birthMask == birthMask && this.survivalMask == survivalMask);
+    }
+
+    /**
+     * Computes the next word of cells. Bit <code>j</code> of each neighbor word holds the corresponding neighbor of
+     * bit <code>j</code> of <code>center</code>.
+     * @return next states of the 64 cells
+     */
+    public long getNextWord(long center, long n0, long n1, long n2, long n3, long n4, long n5, long n6, long n7){
+
+        /*Carry-save addition of the eight neighbor words into a 4-bit count per cell*/
+        long sumA = n0 ^ n1 ^ n2;
+        long carryA = (n0 & n1) | (n2 & (n0 ^ n1));
+        long sumB = n3 ^ n4 ^ n5;
+        long carryB = (n3 & n4) | (n5 & (n3 ^ n4));
+        long sumC = n6 ^ n7;
+        long carryC = n6 & n7;
+
+        long bit0 = sumA ^ sumB ^ sumC;
+        long carryD = (sumA & sumB) | (sumC & (sumA ^ sumB));
+
+        long sumE = carryA ^ carryB ^ carryC;
+        long carryE = (carryA & carryB) | (carryC & (carryA ^ carryB));
+
+        long bit1 = sumE ^ carryD;
+        long carryF = sumE & carryD;
+
+        long bit2 = carryE ^ carryF;
+        long bit3 = carryE & carryF;
+
+        long nextWord = 0L;
+
+        for(int xActive = 0; xActive < this.activeCountSize; xActive ++){
+
+            int xCount = this.activeCounts[xActive];
+
+            long countMatch = ~(bit0 ^ -(long) (xCount & 1))
+                    & ~(bit1 ^ -(long) ((xCount >>> 1) & 1))
+                    & ~(bit2 ^ -(long) ((xCount >>> 2) & 1))
+                    & ~(bit3 ^ -(long) ((xCount >>> 3) & 1));
+
+            nextWord |= countMatch & ((this.birthSelect[xCount] & ~center) | (this.survivalSelect[xCount] & center));
+
+        }
+
+        return nextWord;
+
+    }
+
+}
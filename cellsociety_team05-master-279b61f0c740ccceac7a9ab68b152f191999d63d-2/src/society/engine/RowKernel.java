@@ -0,0 +1,47 @@
+package src.society.engine;
+
+/**
+ * Computes <code>TransitionTable</code> keys for a run of interior cells of a square grid whose states are held as one
+ * ordinal byte per cell in row-major order (see <code>DenseGrid.getCurrentStates</code>). A key is the base key plus
+ * what the cell's own state adds plus what each of its eight neighbors adds, so a run is plain arithmetic over the row
+ * above, the row itself and the row below.
+ *
+ * <code>getDefault</code> returns the Vector API kernel when it was compiled (it lives in <code>src-vector</code>, which
+ * only builds with <code>--add-modules jdk.incubator.vector</code>) and the module is present at run time, and the
+ * scalar kernel otherwise.
+ */
+
+public interface RowKernel {
+
+    /**
+     * Writes the key of each cell of a run
+     * @param currentStates state ordinals of the grid (-1 for no state)
+     * @param colCount number of columns of the grid
+     * @param runStart index of the first cell of the run; every cell of the run must have all eight neighbors inside
+     *                 the grid
+     * @param runLength number of cells in the run
+     * @param neighborKeys amount a neighbor adds to a key, per state ordinal
+     * @param currentKeys amount a cell's own state adds to a key, per state ordinal
+     * @param baseKey key of a cell with eight neighbor slots before anything is added
+     * @param cellKeys array receiving the keys, from index 0
+     */
+    public void computeKeys(byte[] currentStates, int colCount, int runStart, int runLength, int[] neighborKeys,
+                            int[] currentKeys, int baseKey, int[] cellKeys);
+
+    /**
+     * Retrieves the number of keys the kernel can represent
+     * @return one more than the largest key the kernel computes correctly
+     */
+    public int getKeyLimit();
+
+    public String getName();
+
+    /**
+     * Retrieves the fastest kernel available in this JVM
+     * @return shared kernel instance
+     */
+    public static RowKernel getDefault(){
+        return ScalarRowKernel.DEFAULT_KERNEL;
+    }
+
+}
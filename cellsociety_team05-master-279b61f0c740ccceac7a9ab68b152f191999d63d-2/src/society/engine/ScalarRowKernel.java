@@ -0,0 +1,78 @@
+package src.society.engine;
+
+/**
+ * Plain Java <code>RowKernel</code>, used when the Vector API is unavailable and for the tail of a run that does not
+ * fill a whole vector.
+ */
+
+public class ScalarRowKernel implements RowKernel {
+
+    private static final String VECTOR_KERNEL = "src.society.engine.VectorRowKernel";
+
+    /*Kernel returned by RowKernel.getDefault*/
+    static final RowKernel DEFAULT_KERNEL = loadDefault();
+
+    @Override
+    public void computeKeys(byte[] currentStates, int colCount, int runStart, int runLength, int[] neighborKeys,
+                            int[] currentKeys, int baseKey, int[] cellKeys){
+        computeKeys(currentStates, colCount, runStart, 0, runLength, neighborKeys, currentKeys, baseKey, cellKeys);
+    }
+
+    @Override
+    public int getKeyLimit(){
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public String getName(){
+        return "scalar";
+    }
+
+    /**
+     * Writes the keys of the cells <code>[fromCell, toCell)</code> of a run
+     */
+    static void computeKeys(byte[] currentStates, int colCount, int runStart, int fromCell, int toCell, int[] neighborKeys,
+                            int[] currentKeys, int baseKey, int[] cellKeys){
+
+        for(int xCell = fromCell; xCell < toCell; xCell ++){
+
+            int center = runStart + xCell;
+            int above = center - colCount;
+            int below = center + colCount;
+
+            if(currentStates[center] < 0){
+                cellKeys[xCell] = -1;
+                continue;
+            }
+
+            cellKeys[xCell] = baseKey + currentKeys[currentStates[center]]
+                    + getNeighborKey(currentStates[above - 1], neighborKeys) + getNeighborKey(currentStates[above], neighborKeys)
+                    + getNeighborKey(currentStates[above + 1], neighborKeys) + getNeighborKey(currentStates[center - 1], neighborKeys)
+                    + getNeighborKey(currentStates[center + 1], neighborKeys) + getNeighborKey(currentStates[below - 1], neighborKeys)
+                    + getNeighborKey(currentStates[below], neighborKeys) + getNeighborKey(currentStates[below + 1], neighborKeys);
+
+        }
+
+    }
+
+    /*Helper Methods*/
+
+    private static int getNeighborKey(byte stateOrdinal, int[] neighborKeys){
+        return (stateOrdinal < 0) ? 0 : neighborKeys[stateOrdinal];
+    }
+
+    /**
+     * Loads the Vector API kernel by name, so that this class links without the incubator module
+     */
+    private static RowKernel loadDefault(){
+
+        try{
+            return (RowKernel) Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance();
+        }
+        catch(ReflectiveOperationException | LinkageError E){
+            return new ScalarRowKernel();
+        }
+
+    }
+
+}
@@ -0,0 +1,101 @@
+package src.society.engine;
+
+import src.cell.Cell;
+import src.cell.state.SegregationState;
+import src.society.Grid;
+import src.society.RowBandTask;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Relocates unhappy Schelling agents in bulk. Once every agent's next state is known (an unhappy agent's next state is
+ * empty), the movers and the vacancies are collected into index arrays and paired by a random matching: when there are
+ * fewer vacancies than movers a random subset of movers gets one, and each gets a uniformly random vacancy. This draws
+ * the same outcomes as visiting the movers in a shuffled order and handing each a random unclaimed vacancy, in
+ * O(cells) instead of O(movers x vacancies).
+ */
+
+public class SegregationMatchEngine {
+
+    /*Reusable index buffers*/
+    private int[] moverIndices = new int[0];
+    private int[] vacancyIndices = new int[0];
+
+    /**
+     * Moves each matched agent into its vacancy and keeps each unmatched mover in place, by setting next states
+     * @param societyGrid grid whose next states have been computed
+     * @param stepPool pool to apply the matching on, or null to run on the calling thread
+     * @param matchRandom source of the matching
+     * @return number of agents relocated
+     */
+    public int relocate(Grid societyGrid, ForkJoinPool stepPool, Random matchRandom){
+
+        int size = societyGrid.getSize();
+
+        if(this.moverIndices.length < size){
+            this.moverIndices = new int[size];
+            this.vacancyIndices = new int[size];
+        }
+
+        int moverCount = 0;
+        int vacancyCount = 0;
+
+        for(int xIndex = 0; xIndex < size; xIndex ++){
+
+            Cell xCell = societyGrid.getCell(xIndex);
+
+            if(xCell == null){
+                continue;
+            }
+
+            if(xCell.isCurrentEqual(SegregationState.EMPTY)){
+                this.vacancyIndices[vacancyCount ++] = xIndex;
+            }
+            else if(xCell.isNextEqual(SegregationState.EMPTY)){
+                this.moverIndices[moverCount ++] = xIndex;
+            }
+
+        }
+
+        int matchCount = Math.min(moverCount, vacancyCount);
+
+        /*Partial shuffles: the first matchCount entries of each become a uniformly random selection*/
+        this.shufflePrefix(this.moverIndices, moverCount, matchCount, matchRandom);
+        this.shufflePrefix(this.vacancyIndices, vacancyCount, matchCount, matchRandom);
+
+        int[] movers = this.moverIndices;
+        int[] vacancies = this.vacancyIndices;
+        int stayCount = moverCount - matchCount;
+
+        RowBandTask.invoke(stepPool, matchCount, (fromMatch, toMatch) -> {
+            for(int xMatch = fromMatch; xMatch < toMatch; xMatch ++){
+                societyGrid.getCell(vacancies[xMatch]).setNextState(societyGrid.getCell(movers[xMatch]).getCurrentState());
+            }
+        });
+
+        RowBandTask.invoke(stepPool, stayCount, (fromStay, toStay) -> {
+            for(int xStay = matchCount + fromStay; xStay < matchCount + toStay; xStay ++){
+                Cell stayCell = societyGrid.getCell(movers[xStay]);
+                stayCell.setNextState(stayCell.getCurrentState());
+            }
+        });
+
+        return matchCount;
+
+    }
+
+    /*Helper Methods*/
+
+    private void shufflePrefix(int[] indices, int count, int prefixCount, Random matchRandom){
+
+        for(int xPosition = 0; xPosition < prefixCount; xPosition ++){
+            int swapPosition = xPosition + matchRandom.nextInt(count - xPosition);
+            int tempIndex = indices[xPosition];
+            indices[xPosition] = indices[swapPosition];
+            indices[swapPosition] = tempIndex;
+        }
+
+    }
+
+}
@@ -0,0 +1,547 @@
+package src.society.engine;
+
+import src.cell.Cell;
+import src.cell.state.State;
+import src.society.Grid;
+import src.society.RowBandTask;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Unbounded world for outer-totalistic two-state rules on a square (Moore) neighborhood, used for the INFINITE
+ * border type. The world is split into 64x64 chunks (one <code>long</code> per chunk row) keyed by their packed chunk
+ * coordinates. A chunk is allocated when live cells reach its edge, sleeps while neither it nor any of its eight
+ * neighbors changed on the previous step, and is freed once it is empty and no live cell borders it, so memory and
+ * step time follow the live area rather than the extent the pattern has covered.
+ *
+ * Rules that give birth on zero neighbors are rejected, since they would fill the whole plane.
+ */
+
+public class TiledLifeWorld {
+
+    public static final int CHUNK_BITS = 6;
+    public static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+    /*Neighbor directions, clockwise from north*/
+    private static final int NORTH = 0;
+    private static final int NORTH_EAST = 1;
+    private static final int EAST = 2;
+    private static final int SOUTH_EAST = 3;
+    private static final int SOUTH = 4;
+    private static final int SOUTH_WEST = 5;
+    private static final int WEST = 6;
+    private static final int NORTH_WEST = 7;
+
+    private static final int[] DIRECTION_ROWS = {-1, -1, 0, 1, 1, 1, 0, -1};
+    private static final int[] DIRECTION_COLS = {0, 1, 1, 1, 0, -1, -1, -1};
+
+    private Map<Long, Chunk> chunkMap = new HashMap<Long, Chunk>();
+    private List<Chunk> chunkList = new ArrayList<Chunk>();
+
+    private PackedLifeRule lifeRule;
+    private long generation;
+
+    /**
+     * Packs chunk coordinates into a single map key
+     * @param chunkRow row of the chunk (world row >> CHUNK_BITS)
+     * @param chunkCol column of the chunk (world column >> CHUNK_BITS)
+     * @return key of the chunk
+     */
+    public static long getChunkKey(int chunkRow, int chunkCol){
+        return ((long) chunkRow << 32) | (chunkCol & 0xFFFFFFFFL);
+    }
+
+    /*Getters and Setters*/
+
+    /**
+     * @return number of steps taken since the world was created
+     */
+    public long getGeneration(){
+        return this.generation;
+    }
+
+    /**
+     * @return number of allocated chunks
+     */
+    public int getChunkCount(){
+        return this.chunkList.size();
+    }
+
+    /**
+     * @return number of chunks that will be stepped next, i.e. that are not asleep
+     */
+    public int getAwakeChunkCount(){
+
+        int awakeCount = 0;
+
+        for(Chunk xChunk : this.chunkList){
+            if(this.isAwake(xChunk)){
+                awakeCount ++;
+            }
+        }
+
+        return awakeCount;
+
+    }
+
+    /**
+     * @return number of live cells
+     */
+    public long getPopulation(){
+
+        long population = 0;
+
+        for(Chunk xChunk : this.chunkList){
+            population += xChunk.getPopulation();
+        }
+
+        return population;
+
+    }
+
+    public boolean isAlive(long row, long col){
+
+        Chunk xChunk = this.chunkMap.get(getChunkKey((int) (row >> CHUNK_BITS), (int) (col >> CHUNK_BITS)));
+
+        return (xChunk != null) && ((xChunk.rows[(int) (row & (CHUNK_SIZE - 1))] >>> (col & (CHUNK_SIZE - 1))) & 1L) != 0;
+
+    }
+
+    public void setAlive(long row, long col, boolean isAlive){
+
+        int chunkRow = (int) (row >> CHUNK_BITS);
+        int chunkCol = (int) (col >> CHUNK_BITS);
+        Chunk xChunk = this.chunkMap.get(getChunkKey(chunkRow, chunkCol));
+
+        if(xChunk == null){
+
+            if(!isAlive){
+                return;
+            }
+
+            xChunk = this.addChunk(chunkRow, chunkCol);
+
+        }
+
+        int localRow = (int) (row & (CHUNK_SIZE - 1));
+        long bit = 1L << (col & (CHUNK_SIZE - 1));
+
+        xChunk.setRow(localRow, isAlive ? (xChunk.rows[localRow] | bit) : (xChunk.rows[localRow] & ~bit));
+
+    }
+
+    /*Grid Synchronization*/
+
+    /**
+     * Loads the current states of a grid into the window of the world whose top-left cell is (0, 0). Cells outside the
+     * window are kept. Missing grid cells are loaded as dead.
+     * @param societyGrid grid to read
+     * @param liveState state that counts as alive
+     */
+    public void readStates(Grid societyGrid, State liveState){
+
+        int rowCount = societyGrid.getRowCount();
+        int colCount = societyGrid.getColCount();
+
+        for(int xRow = 0; xRow < rowCount; xRow ++){
+
+            for(int chunkCol = 0; chunkCol * CHUNK_SIZE < colCount; chunkCol ++){
+
+                int colStart = chunkCol * CHUNK_SIZE;
+                int colEnd = Math.min(colStart + CHUNK_SIZE, colCount);
+                long tempWord = 0L;
+
+                for(int xCol = colStart; xCol < colEnd; xCol ++){
+
+                    Cell xCell = societyGrid.getCell(xRow * colCount + xCol);
+
+                    if(xCell != null && xCell.isCurrentEqual(liveState)){
+                        tempWord |= 1L << (xCol - colStart);
+                    }
+
+                }
+
+                Chunk xChunk = this.chunkMap.get(getChunkKey(xRow >> CHUNK_BITS, chunkCol));
+                long oldWord = (xChunk == null) ? 0L : xChunk.rows[xRow & (CHUNK_SIZE - 1)];
+                long windowMask = (colEnd - colStart == CHUNK_SIZE) ? -1L : (1L << (colEnd - colStart)) - 1;
+
+                if(((oldWord ^ tempWord) & windowMask) != 0L){
+
+                    if(xChunk == null){
+                        xChunk = this.addChunk(xRow >> CHUNK_BITS, chunkCol);
+                    }
+
+                    xChunk.setRow(xRow & (CHUNK_SIZE - 1), (oldWord & ~windowMask) | tempWord);
+
+                }
+
+            }
+
+        }
+
+    }
+
+    /**
+     * Stores the window of the world whose top-left cell is (0, 0) as the next states of a grid. Missing cells are
+     * skipped.
+     * @param societyGrid grid to write
+     * @param liveState state written for live cells
+     * @param deadState state written for dead cells
+     */
+    public void writeNextStates(Grid societyGrid, State liveState, State deadState){
+
+        int colCount = societyGrid.getColCount();
+
+        for(int xIndex = 0; xIndex < societyGrid.getSize(); xIndex ++){
+
+            Cell xCell = societyGrid.getCell(xIndex);
+
+            if(xCell != null){
+                xCell.setNextState(this.isAlive(xIndex / colCount, xIndex % colCount) ? liveState : deadState);
+            }
+
+        }
+
+    }
+
+    /*Stepping*/
+
+    /**
+     * Advances the world one generation
+     * @param birthMask neighbor counts at which a dead cell comes alive (must not contain 0)
+     * @param survivalMask neighbor counts at which a live cell stays alive
+     */
+    public void step(int birthMask, int survivalMask){
+        this.step(birthMask, survivalMask, null);
+    }
+
+    /**
+     * Advances the world one generation, stepping the awake chunks on a pool. Each chunk writes only its own next
+     * rows, so the result is identical to the sequential step.
+     * @param birthMask neighbor counts at which a dead cell comes alive (must not contain 0)
+     * @param survivalMask neighbor counts at which a live cell stays alive
+     * @param stepPool pool to step the chunks on, or null to step on the calling thread
+     */
+    public void step(int birthMask, int survivalMask, ForkJoinPool stepPool){
+
+        if((birthMask & 1) != 0){
+            throw new IllegalArgumentException("Birth on zero neighbors would fill an unbounded world");
+        }
+
+        if(this.lifeRule == null || !this.lifeRule.isRule(birthMask, survivalMask)){
+
+            this.lifeRule = new PackedLifeRule(birthMask, survivalMask);
+
+            for(Chunk xChunk : this.chunkList){
+                xChunk.isChanged = true;
+            }
+
+        }
+
+        this.expandChunks();
+
+        List<Chunk> awakeChunks = new ArrayList<Chunk>();
+
+        for(Chunk xChunk : this.chunkList){
+            if(this.isAwake(xChunk)){
+                awakeChunks.add(xChunk);
+            }
+        }
+
+        for(Chunk xChunk : this.chunkList){
+            xChunk.isChanged = false;
+        }
+
+        RowBandTask.invoke(stepPool, awakeChunks.size(), (fromChunk, toChunk) -> {
+            for(int xPosition = fromChunk; xPosition < toChunk; xPosition ++){
+                this.stepChunk(awakeChunks.get(xPosition));
+            }
+        });
+
+        for(Chunk xChunk : awakeChunks){
+            xChunk.swapRows();
+        }
+
+        this.freeChunks();
+        this.generation ++;
+
+    }
+
+    /**
+     * Allocates the missing neighbors of changed chunks whose facing edge holds live cells
+     */
+    private void expandChunks(){
+
+        int chunkCount = this.chunkList.size();
+
+        for(int xPosition = 0; xPosition < chunkCount; xPosition ++){
+
+            Chunk xChunk = this.chunkList.get(xPosition);
+
+            if(!xChunk.isChanged){
+                continue;
+            }
+
+            for(int xDirection = NORTH; xDirection <= NORTH_WEST; xDirection ++){
+                if(xChunk.neighbors[xDirection] == null && xChunk.isEdgeLive(xDirection)){
+                    this.addChunk(xChunk.chunkRow + DIRECTION_ROWS[xDirection], xChunk.chunkCol + DIRECTION_COLS[xDirection]);
+                }
+            }
+
+        }
+
+    }
+
+    /**
+     * Frees chunks that are empty, did not change, and have no live cell on a neighbor's facing edge
+     */
+    private void freeChunks(){
+
+        List<Chunk> keptChunks = new ArrayList<Chunk>(this.chunkList.size());
+
+        for(Chunk xChunk : this.chunkList){
+
+            boolean isFreeable = !xChunk.isChanged && xChunk.isEmpty();
+
+            for(int xDirection = NORTH; isFreeable && xDirection <= NORTH_WEST; xDirection ++){
+                Chunk neighborChunk = xChunk.neighbors[xDirection];
+                isFreeable = (neighborChunk == null) || !neighborChunk.isEdgeLive((xDirection + 4) % 8);
+            }
+
+            if(!isFreeable){
+                keptChunks.add(xChunk);
+                continue;
+            }
+
+            this.chunkMap.remove(getChunkKey(xChunk.chunkRow, xChunk.chunkCol));
+
+            for(int xDirection = NORTH; xDirection <= NORTH_WEST; xDirection ++){
+                if(xChunk.neighbors[xDirection] != null){
+                    xChunk.neighbors[xDirection].neighbors[(xDirection + 4) % 8] = null;
+                }
+            }
+
+        }
+
+        this.chunkList = keptChunks;
+
+    }
+
+    /**
+     * Computes the next rows of a chunk from its current rows and the facing edges of its neighbors
+     */
+    private void stepChunk(Chunk xChunk){
+
+        boolean isChanged = false;
+
+        for(int xRow = 0; xRow < CHUNK_SIZE; xRow ++){
+
+            long aboveWord = this.getRowWord(xChunk, xRow - 1);
+            long center = xChunk.rows[xRow];
+            long belowWord = this.getRowWord(xChunk, xRow + 1);
+
+            long nextWord = this.lifeRule.getNextWord(center,
+                    aboveWord,
+                    (aboveWord << 1) | this.getWestCarry(xChunk, xRow - 1),
+                    (aboveWord >>> 1) | (this.getEastCarry(xChunk, xRow - 1) << (CHUNK_SIZE - 1)),
+                    (center << 1) | this.getWestCarry(xChunk, xRow),
+                    (center >>> 1) | (this.getEastCarry(xChunk, xRow) << (CHUNK_SIZE - 1)),
+                    belowWord,
+                    (belowWord << 1) | this.getWestCarry(xChunk, xRow + 1),
+                    (belowWord >>> 1) | (this.getEastCarry(xChunk, xRow + 1) << (CHUNK_SIZE - 1)));
+
+            xChunk.nextRows[xRow] = nextWord;
+            isChanged |= (nextWord != center);
+
+        }
+
+        xChunk.isChanged = isChanged;
+
+    }
+
+    /*Helper Methods*/
+
+    private boolean isAwake(Chunk xChunk){
+
+        if(xChunk.isChanged){
+            return true;
+        }
+
+        for(Chunk neighborChunk : xChunk.neighbors){
+            if(neighborChunk != null && neighborChunk.isChanged){
+                return true;
+            }
+        }
+
+        return false;
+
+    }
+
+    /**
+     * @param row chunk-local row from -1 (last row of the northern chunk) to CHUNK_SIZE (first row of the southern one)
+     */
+    private long getRowWord(Chunk xChunk, int row){
+
+        if(row < 0){
+            return (xChunk.neighbors[NORTH] == null) ? 0L : xChunk.neighbors[NORTH].rows[CHUNK_SIZE - 1];
+        }
+
+        if(row >= CHUNK_SIZE){
+            return (xChunk.neighbors[SOUTH] == null) ? 0L : xChunk.neighbors[SOUTH].rows[0];
+        }
+
+        return xChunk.rows[row];
+
+    }
+
+    /**
+     * @return the cell west of column 0 in a chunk-local row, taken from the western chunks
+     */
+    private long getWestCarry(Chunk xChunk, int row){
+
+        Chunk westChunk = xChunk.neighbors[(row < 0) ? NORTH_WEST : (row >= CHUNK_SIZE) ? SOUTH_WEST : WEST];
+
+        if(westChunk == null){
+            return 0L;
+        }
+
+        return westChunk.rows[(row + CHUNK_SIZE) & (CHUNK_SIZE - 1)] >>> (CHUNK_SIZE - 1);
+
+    }
+
+    /**
+     * @return the cell east of the last column in a chunk-local row, taken from the eastern chunks
+     */
+    private long getEastCarry(Chunk xChunk, int row){
+
+        Chunk eastChunk = xChunk.neighbors[(row < 0) ? NORTH_EAST : (row >= CHUNK_SIZE) ? SOUTH_EAST : EAST];
+
+        if(eastChunk == null){
+            return 0L;
+        }
+
+        return eastChunk.rows[(row + CHUNK_SIZE) & (CHUNK_SIZE - 1)] & 1L;
+
+    }
+
+    /**
+     * Allocates an empty chunk and links it with its existing neighbors
+     */
+    private Chunk addChunk(int chunkRow, int chunkCol){
+
+        Chunk newChunk = new Chunk(chunkRow, chunkCol);
+
+        this.chunkMap.put(getChunkKey(chunkRow, chunkCol), newChunk);
+        this.chunkList.add(newChunk);
+
+        for(int xDirection = NORTH; xDirection <= NORTH_WEST; xDirection ++){
+
+            Chunk neighborChunk = this.chunkMap.get(getChunkKey(chunkRow + DIRECTION_ROWS[xDirection], chunkCol + DIRECTION_COLS[xDirection]));
+
+            if(neighborChunk != null){
+                newChunk.neighbors[xDirection] = neighborChunk;
+                neighborChunk.neighbors[(xDirection + 4) % 8] = newChunk;
+            }
+
+        }
+
+        return newChunk;
+
+    }
+
+    /**
+     * A 64x64 block of the world. Bit <code>j</code> of a row holds column <code>j</code> of the chunk.
+     */
+    private static class Chunk {
+
+        private final int chunkRow;
+        private final int chunkCol;
+
+        private long[] rows = new long[CHUNK_SIZE];
+        private long[] nextRows = new long[CHUNK_SIZE];
+        private Chunk[] neighbors = new Chunk[8];
+
+        /*True if the chunk changed on the previous step or was edited since*/
+        private boolean isChanged;
+
+        private Chunk(int chunkRow, int chunkCol){
+            this.chunkRow = chunkRow;
+            this.chunkCol = chunkCol;
+        }
+
+        private void setRow(int row, long newWord){
+
+            if(this.rows[row] != newWord){
+                this.rows[row] = newWord;
+                this.isChanged = true;
+            }
+
+        }
+
+        private void swapRows(){
+            long[] tempRows = this.rows;
+            this.rows = this.nextRows;
+            this.nextRows = tempRows;
+        }
+
+        private long getPopulation(){
+
+            long population = 0;
+
+            for(long xRow : this.rows){
+                population += Long.bitCount(xRow);
+            }
+
+            return population;
+
+        }
+
+        private boolean isEmpty(){
+
+            for(long xRow : this.rows){
+                if(xRow != 0L){
+                    return false;
+                }
+            }
+
+            return true;
+
+        }
+
+        /**
+         * @return true if a live cell lies on the edge or corner facing the given direction
+         */
+        private boolean isEdgeLive(int direction){
+
+            switch(direction){
+                case NORTH:
+                    return this.rows[0] != 0L;
+                case SOUTH:
+                    return this.rows[CHUNK_SIZE - 1] != 0L;
+                case NORTH_EAST:
+                    return (this.rows[0] >>> (CHUNK_SIZE - 1)) != 0L;
+                case NORTH_WEST:
+                    return (this.rows[0] & 1L) != 0L;
+                case SOUTH_EAST:
+                    return (this.rows[CHUNK_SIZE - 1] >>> (CHUNK_SIZE - 1)) != 0L;
+                case SOUTH_WEST:
+                    return (this.rows[CHUNK_SIZE - 1] & 1L) != 0L;
+                default:
+                    long edgeMask = (direction == EAST) ? (1L << (CHUNK_SIZE - 1)) : 1L;
+                    for(long xRow : this.rows){
+                        if((xRow & edgeMask) != 0L){
+                            return true;
+                        }
+                    }
+                    return false;
+            }
+
+        }
+
+    }
+
+}
@@ -0,0 +1,341 @@
+package src.society.engine;
+
+import src.cell.Cell;
+import src.cell.WatorCell;
+import src.cell.state.CounterRandom;
+import src.cell.state.RuleSet;
+import src.cell.state.WatorState;
+import src.society.Grid;
+import src.society.NeighborTable;
+import src.society.RowBandTask;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Conflict-free WaTor step. The cells are split into phases by a greedy distance-2 coloring of the neighbor table: no
+ * two cells of a phase share a cell in their neighborhoods (themselves included), so every fish or shark of a phase can
+ * breed or move at the same time without two animals claiming the same cell. Phases run one after another in an order
+ * shuffled every step, in place of a shuffled visiting order of the cells.
+ *
+ * Random choices are hashed by <code>CounterRandom</code> from (seed, generation, cell index, purpose) rather than
+ * drawn from a shared generator, so a step gives the same ocean for any number of threads.
+ */
+
+public class WatorPhaseEngine {
+
+    private static final int DELTA_ENERGY = 1;
+    private static final int REMOVE_TURNS = 1;
+
+    /*Purposes of the hashed random numbers*/
+    private static final int BREED_TARGET = 0;
+    private static final int MOVE_TARGET = 1;
+
+    /*Parameters and draw position of the step being run*/
+    private RuleSet ruleSet;
+    private long seed;
+    private long generation;
+
+    /*Phases of the last colored table*/
+    private NeighborTable coloredTable;
+    private int[][] phaseCells;
+
+    /**
+     * @return number of phases in the current coloring
+     */
+    public int getPhaseCount(){
+        return (this.phaseCells == null) ? 0 : this.phaseCells.length;
+    }
+
+    /**
+     * Breeds, ages and moves every animal of a grid of <code>WatorCells</code>, then sets each cell's next state to its
+     * current state
+     * @param societyGrid ocean to step
+     * @param stepPool pool to run each phase on, or null to step on the calling thread
+     * @param ruleSet breed times and energies to reset the animals to
+     * @param seed seed of the random choices
+     * @param generation generation being computed
+     */
+    public void step(Grid societyGrid, ForkJoinPool stepPool, RuleSet ruleSet, long seed, long generation){
+
+        this.ruleSet = ruleSet;
+        this.seed = seed;
+        this.generation = generation;
+
+        NeighborTable neighborTable = societyGrid.getNeighborTable();
+
+        if(this.coloredTable != neighborTable){
+            this.phaseCells = this.colorPhases(societyGrid, neighborTable);
+            this.coloredTable = neighborTable;
+        }
+
+        int[] phaseOrder = this.getPhaseOrder();
+
+        for(int xPhase : phaseOrder){
+            this.runPhase(stepPool, this.phaseCells[xPhase], (xIndex, neighborBuffer) -> this.breedCell(societyGrid, neighborTable, xIndex, neighborBuffer));
+        }
+
+        RowBandTask.invoke(stepPool, societyGrid.getSize(), (fromIndex, toIndex) -> {
+            for(int xIndex = fromIndex; xIndex < toIndex; xIndex ++){
+                this.ageCell((WatorCell) societyGrid.getCell(xIndex));
+            }
+        });
+
+        for(int xPhase : phaseOrder){
+            this.runPhase(stepPool, this.phaseCells[xPhase], (xIndex, neighborBuffer) -> this.moveCell(societyGrid, neighborTable, xIndex, neighborBuffer));
+        }
+
+        RowBandTask.invoke(stepPool, societyGrid.getSize(), (fromIndex, toIndex) -> {
+            for(int xIndex = fromIndex; xIndex < toIndex; xIndex ++){
+                Cell xCell = societyGrid.getCell(xIndex);
+                if(xCell != null){
+                    xCell.setNextState(xCell.getCurrentState());
+                }
+            }
+        });
+
+    }
+
+    /*Cell Rules*/
+
+    /**
+     * An animal whose breed time has run out places a copy of itself on a random empty neighbor
+     */
+    private void breedCell(Grid societyGrid, NeighborTable neighborTable, int xIndex, int[] neighborBuffer){
+
+        WatorCell xCell = (WatorCell) societyGrid.getCell(xIndex);
+
+        if(!xCell.canBreed()){
+            return;
+        }
+
+        int emptyCount = this.getNeighborsOfType(societyGrid, neighborTable, xIndex, WatorState.EMPTY, WatorState.EMPTY, neighborBuffer);
+
+        if(emptyCount > 0){
+            xCell.resetStats(this.ruleSet);
+            ((WatorCell) societyGrid.getCell(neighborBuffer[this.getRandomInt(xIndex, BREED_TARGET, emptyCount)])).moveCell(xCell);
+        }
+
+        xCell.resetBreed(this.ruleSet);
+
+    }
+
+    private void ageCell(WatorCell xCell){
+
+        if(xCell == null){
+            return;
+        }
+
+        if(xCell.isCurrentEqual(WatorState.PREDATOR) || xCell.isCurrentEqual(WatorState.PREY)){
+            xCell.removeTurnsToBreed(REMOVE_TURNS);
+        }
+
+        if(xCell.isCurrentEqual(WatorState.PREDATOR)){
+            xCell.removeEnergy(DELTA_ENERGY);
+        }
+
+    }
+
+    /**
+     * A starved shark dies; any other animal moves to a random empty neighbor, and a shark may instead eat a
+     * neighboring fish
+     */
+    private void moveCell(Grid societyGrid, NeighborTable neighborTable, int xIndex, int[] neighborBuffer){
+
+        WatorCell xCell = (WatorCell) societyGrid.getCell(xIndex);
+
+        if(xCell.isEmpty()){
+            return;
+        }
+
+        if(xCell.isDead()){
+            xCell.setEmpty();
+            return;
+        }
+
+        WatorState foodState = xCell.isCurrentEqual(WatorState.PREDATOR) ? WatorState.PREY : WatorState.EMPTY;
+        int neighborCount = this.getNeighborsOfType(societyGrid, neighborTable, xIndex, WatorState.EMPTY, foodState, neighborBuffer);
+
+        xCell.setNextState(xCell.getCurrentState());
+
+        if(neighborCount == 0){
+            return;
+        }
+
+        WatorCell targetCell = (WatorCell) societyGrid.getCell(neighborBuffer[this.getRandomInt(xIndex, MOVE_TARGET, neighborCount)]);
+
+        if(targetCell.isCurrentEqual(WatorState.PREY) && xCell.isCurrentEqual(WatorState.PREDATOR)){
+            xCell.addEnergy(DELTA_ENERGY);
+        }
+
+        targetCell.moveCell(xCell);
+        xCell.setEmpty();
+
+    }
+
+    /*Phases*/
+
+    /**
+     * Work done for one cell of a phase, with a buffer private to the calling thread
+     */
+    private interface PhaseAction {
+        public void run(int xIndex, int[] neighborBuffer);
+    }
+
+    private void runPhase(ForkJoinPool stepPool, int[] cellIndices, PhaseAction phaseAction){
+
+        RowBandTask.invoke(stepPool, cellIndices.length, (fromCell, toCell) -> {
+
+            int[] neighborBuffer = new int[this.coloredTable.getMaxNeighborCount()];
+
+            for(int xCell = fromCell; xCell < toCell; xCell ++){
+                phaseAction.run(cellIndices[xCell], neighborBuffer);
+            }
+
+        });
+
+    }
+
+    /**
+     * Greedily colors the occupied cells so that two cells of the same color never have overlapping closed
+     * neighborhoods, and groups the cells by color
+     * @return cell indices per phase, in row-major order
+     */
+    private int[][] colorPhases(Grid societyGrid, NeighborTable neighborTable){
+
+        int size = societyGrid.getSize();
+        int[] cellColors = new int[size];
+        int[] colorStamps = new int[0];
+        int colorCount = 0;
+
+        Arrays.fill(cellColors, -1);
+
+        for(int xIndex = 0; xIndex < size; xIndex ++){
+
+            if(societyGrid.getCell(xIndex) == null){
+                continue;
+            }
+
+            colorStamps = Arrays.copyOf(colorStamps, Math.max(colorStamps.length, colorCount + 1));
+            int stamp = xIndex + 1;
+
+            /*Any cell sharing a member of this cell's closed neighborhood is a conflict*/
+            this.stampConflicts(neighborTable, cellColors, colorStamps, stamp, xIndex);
+
+            for(int xPosition = neighborTable.getStart(xIndex); xPosition < neighborTable.getEnd(xIndex); xPosition ++){
+                int neighborIndex = neighborTable.getNeighbor(xPosition);
+                if(neighborIndex != NeighborTable.EDGE){
+                    this.stampConflicts(neighborTable, cellColors, colorStamps, stamp, neighborIndex);
+                }
+            }
+
+            int xColor = 0;
+
+            while(colorStamps[xColor] == stamp){
+                xColor ++;
+            }
+
+            cellColors[xIndex] = xColor;
+            colorCount = Math.max(colorCount, xColor + 1);
+
+        }
+
+        int[] phaseSizes = new int[colorCount];
+
+        for(int xColor : cellColors){
+            if(xColor >= 0){
+                phaseSizes[xColor] ++;
+            }
+        }
+
+        int[][] phases = new int[colorCount][];
+
+        for(int xColor = 0; xColor < colorCount; xColor ++){
+            phases[xColor] = new int[phaseSizes[xColor]];
+            phaseSizes[xColor] = 0;
+        }
+
+        for(int xIndex = 0; xIndex < size; xIndex ++){
+            if(cellColors[xIndex] >= 0){
+                phases[cellColors[xIndex]][phaseSizes[cellColors[xIndex]] ++] = xIndex;
+            }
+        }
+
+        return phases;
+
+    }
+
+    /**
+     * Marks the colors of a shared cell and of every cell whose neighborhood contains it
+     */
+    private void stampConflicts(NeighborTable neighborTable, int[] cellColors, int[] colorStamps, int stamp, int sharedIndex){
+
+        if(cellColors[sharedIndex] >= 0){
+            colorStamps[cellColors[sharedIndex]] = stamp;
+        }
+
+        for(int xPosition = neighborTable.getDependentStart(sharedIndex); xPosition < neighborTable.getDependentEnd(sharedIndex); xPosition ++){
+
+            int dependentIndex = neighborTable.getDependent(xPosition);
+
+            if(cellColors[dependentIndex] >= 0){
+                colorStamps[cellColors[dependentIndex]] = stamp;
+            }
+
+        }
+
+    }
+
+    /**
+     * @return the phases in a random order for this step
+     */
+    private int[] getPhaseOrder(){
+
+        int[] phaseOrder = new int[this.phaseCells.length];
+
+        for(int xPhase = 0; xPhase < phaseOrder.length; xPhase ++){
+            phaseOrder[xPhase] = xPhase;
+        }
+
+        for(int xPhase = phaseOrder.length - 1; xPhase > 0; xPhase --){
+            int swapPhase = CounterRandom.hashInt(this.seed, this.generation, CounterRandom.GRID_INDEX, xPhase, xPhase + 1);
+            int tempPhase = phaseOrder[xPhase];
+            phaseOrder[xPhase] = phaseOrder[swapPhase];
+            phaseOrder[swapPhase] = tempPhase;
+        }
+
+        return phaseOrder;
+
+    }
+
+    /*Helper Methods*/
+
+    private int getNeighborsOfType(Grid societyGrid, NeighborTable neighborTable, int xIndex, WatorState firstState, WatorState secondState, int[] neighborBuffer){
+
+        int neighborCount = 0;
+
+        for(int xPosition = neighborTable.getStart(xIndex); xPosition < neighborTable.getEnd(xIndex); xPosition ++){
+
+            int neighborIndex = neighborTable.getNeighbor(xPosition);
+
+            if(neighborIndex == NeighborTable.EDGE){
+                continue;
+            }
+
+            Cell neighborCell = societyGrid.getCell(neighborIndex);
+
+            if(neighborCell.isCurrentEqual(firstState) || neighborCell.isCurrentEqual(secondState)){
+                neighborBuffer[neighborCount ++] = neighborIndex;
+            }
+
+        }
+
+        return neighborCount;
+
+    }
+
+    private int getRandomInt(int xIndex, int purpose, int bound){
+        return CounterRandom.hashInt(this.seed, this.generation, xIndex, purpose, bound);
+    }
+
+}
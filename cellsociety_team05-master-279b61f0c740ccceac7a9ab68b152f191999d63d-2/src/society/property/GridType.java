@@ -0,0 +1,31 @@
+package src.society.property;
+
+import src.cell.Cell;
+import src.cell.CellShape;
+import src.society.DenseGrid;
+import src.society.Grid;
+
+import java.util.List;
+
+/**
+ * Storage backends available for a society's grid
+ */
+
+public enum GridType {
+
+    SPARSE{
+        @Override
+        public Grid createGrid(int row, int col, List<Cell> cellList, CellShape cellShape) {
+            return new Grid(row, col, cellList, cellShape);
+        }
+    },
+    DENSE{
+        @Override
+        public Grid createGrid(int row, int col, List<Cell> cellList, CellShape cellShape) {
+            return new DenseGrid(row, col, cellList, cellShape);
+        }
+    };
+
+    public abstract Grid createGrid(int row, int col, List<Cell> cellList, CellShape cellShape);
+
+}
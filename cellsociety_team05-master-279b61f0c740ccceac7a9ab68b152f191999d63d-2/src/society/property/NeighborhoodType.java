@@ -0,0 +1,31 @@
+package src.society.property;
+
+/**
+ * Radius neighborhoods a society can count on a square grid instead of the cell shape's adjacent cells
+ */
+
+public enum NeighborhoodType {
+
+    /*Every cell of the (2r + 1) x (2r + 1) square around the cell*/
+    MOORE{
+        @Override
+        public int getSlotCount(int radius) {
+            return (2 * radius + 1) * (2 * radius + 1) - 1;
+        }
+    },
+    /*Every cell within Manhattan distance r of the cell*/
+    VON_NEUMANN{
+        @Override
+        public int getSlotCount(int radius) {
+            return 2 * radius * (radius + 1);
+        }
+    };
+
+    /**
+     * Retrieves the number of neighbors of a cell away from the edges
+     * @param radius radius of the neighborhood
+     * @return number of cells in the neighborhood, not counting the cell itself
+     */
+    public abstract int getSlotCount(int radius);
+
+}
@@ -1,9 +1,14 @@
 package src.society.property;
 
 import src.cell.Cell;
+import src.cell.CellShape;
 import src.cell.state.*;
+import src.society.LifeLikeSociety;
+import src.society.Society;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -17,6 +22,13 @@ public class SocietySetting {
 
     private String simulationTitle;
     private SocietyType societyType;
+    private GridType gridType = GridType.SPARSE;
+    private BorderType borderType;
+    private int parallelism = 1;
+    private Long seed;
+    private String rule;
+    private NeighborhoodType neighborhoodType;
+    private int neighborhoodRadius = 1;
 
     private List<Cell> cellList;
 
@@ -65,6 +77,127 @@ public class SocietySetting {
         return this.societyType;
     }
 
+    /**
+     * Get the storage backend for the society's grid
+     * @return enum of type GridType
+     */
+    public GridType getGridType(){
+        return this.gridType;
+    }
+
+    /**
+     * Get the border behaviour requested for the society's grid
+     * @return enum of type BorderType, or null to use the cell shape's
+     */
+    public BorderType getBorderType(){
+        return this.borderType;
+    }
+
+    /**
+     * Get the number of threads used to step the society
+     * @return parallelism (1 for sequential)
+     */
+    public int getParallelism(){
+        return this.parallelism;
+    }
+
+    /**
+     * Get the run seed of the society's random choices
+     * @return seed, or null for an unseeded run
+     */
+    public Long getSeed(){
+        return this.seed;
+    }
+
+    /**
+     * Get the rule string of a rule-string society
+     * @return rule string, or null to use the society's default rule
+     */
+    public String getRule(){
+        return this.rule;
+    }
+
+    /**
+     * Get the radius neighborhood counted on square grids
+     * @return enum of type NeighborhoodType, or null for the cell shape's adjacent cells
+     */
+    public NeighborhoodType getNeighborhoodType(){
+        return this.neighborhoodType;
+    }
+
+    /**
+     * Get the radius of the society's neighborhood
+     * @return radius (1 by default)
+     */
+    public int getNeighborhoodRadius(){
+        return this.neighborhoodRadius;
+    }
+
+    /**
+     * Builds the society these settings describe, with its grid, border, parallelism, neighborhood, seed and rule
+     * applied
+     * @param cellShape shape of the society's cells
+     * @return new society holding the setting's cells
+     * @throws IllegalArgumentException if the rule string or neighborhood is not valid
+     */
+    public Society createSociety(CellShape cellShape){
+
+        Society newSociety = this.societyType.createSociety(this.rowCount, this.colCount, this.getCellList(), cellShape, this.gridType);
+        newSociety.setBorderType(this.borderType);
+        newSociety.setParallelism(this.parallelism);
+        newSociety.setNeighborhood(this.neighborhoodType, this.neighborhoodRadius);
+
+        if(this.seed != null){
+            newSociety.setSeed(this.seed);
+        }
+
+        if(newSociety instanceof LifeLikeSociety && this.rule != null){
+            ((LifeLikeSociety) newSociety).setRule(LifeLikeRule.parse(this.rule));
+        }
+
+        return newSociety;
+
+    }
+
+    /**
+     * Copies these settings for an independent run: the copy has new cells, in the same states as this setting's
+     * cells, laid out by a shuffle under the given seed, so copies with the same seed start from the same grid
+     * @param seed run seed of the copy, used for its layout and for the society's random choices
+     * @return copy sharing no cells with these settings
+     */
+    public SocietySetting copy(long seed){
+
+        SocietySetting settingCopy = new SocietySetting(this.societyType.name());
+        settingCopy.rowCount = this.rowCount;
+        settingCopy.colCount = this.colCount;
+        settingCopy.simulationTitle = this.simulationTitle;
+        settingCopy.gridType = this.gridType;
+        settingCopy.borderType = this.borderType;
+        settingCopy.parallelism = this.parallelism;
+        settingCopy.seed = seed;
+        settingCopy.rule = this.rule;
+        settingCopy.neighborhoodType = this.neighborhoodType;
+        settingCopy.neighborhoodRadius = this.neighborhoodRadius;
+
+        /*Cells are created in ordinal order so that the layout depends only on the seed*/
+        List<State> cellStates = new ArrayList<State>();
+
+        for(Cell xCell : this.cellList){
+            cellStates.add(xCell.getCurrentState());
+        }
+
+        cellStates.sort(Comparator.comparingInt(xState -> ((Enum<?>) xState).ordinal()));
+
+        for(State xState : cellStates){
+            settingCopy.cellList.add(this.societyType.createCell(xState.toString()));
+        }
+
+        Collections.shuffle(settingCopy.cellList, new CounterRandom(seed));
+
+        return settingCopy;
+
+    }
+
     /**
      * Get the number of cells for the society
      * @return
@@ -89,6 +222,76 @@ public class SocietySetting {
         this.colCount = colCount;
     }
 
+    /**
+     * Set the storage backend for the society's grid. An empty string keeps the default (<code>SPARSE</code>).
+     * @param gridString name of a GridType
+     */
+    public void setGridType(String gridString){
+        if(!gridString.isEmpty()){
+            this.gridType = GridType.valueOf(gridString);
+        }
+    }
+
+    /**
+     * Set the border behaviour of the society's grid. An empty string keeps the cell shape's border.
+     * @param borderString name of a BorderType
+     */
+    public void setBorderType(String borderString){
+        if(!borderString.isEmpty()){
+            this.borderType = BorderType.valueOf(borderString);
+        }
+    }
+
+    /**
+     * Set the number of threads used to step the society. An empty string keeps the default (1).
+     * @param parallelismString number of threads
+     */
+    public void setParallelism(String parallelismString){
+        if(!parallelismString.isEmpty()){
+            this.parallelism = Integer.parseInt(parallelismString);
+        }
+    }
+
+    /**
+     * Set the run seed of the society's random choices. An empty string keeps the run unseeded.
+     * @param seedString seed as a long
+     */
+    public void setSeed(String seedString){
+        if(!seedString.isEmpty()){
+            this.seed = Long.parseLong(seedString);
+        }
+    }
+
+    /**
+     * Set the rule string of a rule-string society. An empty string keeps the society's default rule.
+     * @param ruleString rule in a notation read by LifeLikeRule
+     */
+    public void setRule(String ruleString){
+        if(!ruleString.isEmpty()){
+            this.rule = ruleString;
+        }
+    }
+
+    /**
+     * Set the radius neighborhood counted on square grids. An empty string keeps the cell shape's adjacent cells.
+     * @param neighborhoodString name of a NeighborhoodType
+     */
+    public void setNeighborhoodType(String neighborhoodString){
+        if(!neighborhoodString.isEmpty()){
+            this.neighborhoodType = NeighborhoodType.valueOf(neighborhoodString);
+        }
+    }
+
+    /**
+     * Set the radius of the society's neighborhood. An empty string keeps the default (1).
+     * @param radiusString radius as an int
+     */
+    public void setNeighborhoodRadius(String radiusString){
+        if(!radiusString.isEmpty()){
+            this.neighborhoodRadius = Integer.parseInt(radiusString);
+        }
+    }
+
     /**
      * Set the title of the simulation
      * @param simulationTitle title of simulation
@@ -1,9 +1,11 @@
 package src.society.property;
 
-import src.cell.Cell;
-import src.cell.CellShape;
+import src.cell.*;
+import src.cell.state.*;
+import src.cell.state.property.StateRules;
 import src.society.*;
 
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -12,42 +14,93 @@ import java.util.List;
 
 public enum SocietyType {
 
-    GAME_OF_LIFE("Game Of Life"){
+    GAME_OF_LIFE("Game Of Life", StateRules.GOL_MIN, StateRules.GOL_MAX, StateRules.GOL_CHECK){
         @Override
-        public Society createSociety(int row, int col, List<Cell> cellList, CellShape cellShape) {
-            return new GameOfLifeSociety(row, col, cellList, cellShape);
+        public Society createSociety(int row, int col, List<Cell> cellList, CellShape cellShape, GridType gridType) {
+            return new GameOfLifeSociety(row, col, cellList, cellShape, gridType);
+        }
+        @Override
+        public Cell createCell(String stateName) {
+            return new GameOfLifeCell(GameOfLifeState.valueOf(stateName));
         }
     },
-    SEGREGATION("Segregation"){
+    SEGREGATION("Segregation", StateRules.SG_EMPTYSATISFACTION, StateRules.SG_XSATISFACTION, StateRules.SG_OSATISFACTION){
+        @Override
+        public Society createSociety(int row, int col, List<Cell> cellList, CellShape cellShape, GridType gridType) {
+            return new SegregationSociety(row, col, cellList, cellShape, gridType);
+        }
+        @Override
+        public Cell createCell(String stateName) {
+            return new SegregationCell(SegregationState.valueOf(stateName));
+        }
+    },
+    SPREADING_FIRE("Spreading Of Fire", StateRules.SF_PROBABILITY){
+        @Override
+        public Society createSociety(int row, int col, List<Cell> cellList, CellShape cellShape, GridType gridType) {
+            return new SpreadingFireSociety(row, col, cellList, cellShape, gridType);
+        }
         @Override
-        public Society createSociety(int row, int col, List<Cell> cellList, CellShape cellShape) {
-            return new SegregationSociety(row, col, cellList, cellShape);
+        public Cell createCell(String stateName) {
+            return new SpreadingFireCell(SpreadingFireState.valueOf(stateName));
         }
     },
-    SPREADING_FIRE("Spreading Of Fire"){
+    WATOR("WaTor World", StateRules.WT_EMPTYBREED, StateRules.WT_EMPTYENERGY, StateRules.WT_PREYBREED,
+            StateRules.WT_PREYENERGY, StateRules.WT_PREDATORBREED, StateRules.WT_PREDATORENERGY){
         @Override
-        public Society createSociety(int row, int col, List<Cell> cellList, CellShape cellShape) {
-            return new SpreadingFireSociety(row, col, cellList, cellShape);
+        public Society createSociety(int row, int col, List<Cell> cellList, CellShape cellShape, GridType gridType) {
+            return new WatorSociety(row, col, cellList, cellShape, gridType);
+        }
+        @Override
+        public Cell createCell(String stateName) {
+            return new WatorCell(WatorState.valueOf(stateName));
         }
     },
-    WATOR("WaTor World"){
+    LIFE_LIKE("Life-Like Rule"){
         @Override
-        public Society createSociety(int row, int col, List<Cell> cellList, CellShape cellShape) {
-            return new WatorSociety(row, col, cellList, cellShape);
+        public Society createSociety(int row, int col, List<Cell> cellList, CellShape cellShape, GridType gridType) {
+            return new LifeLikeSociety(row, col, cellList, cellShape, gridType);
+        }
+        @Override
+        public Cell createCell(String stateName) {
+            return new LifeLikeCell(LifeLikeState.valueOf(stateName));
         }
     };
 
     private String nameOfSociety;
+    private List<StateRules> societyRules;
 
-    SocietyType(String nameOfSociety){
+    SocietyType(String nameOfSociety, StateRules... societyRules){
         this.nameOfSociety = nameOfSociety;
+        this.societyRules = Arrays.asList(societyRules);
     }
 
     public String getNameOfSociety(){
         return this.nameOfSociety;
     }
 
-    public abstract Society createSociety(int row, int col, List<Cell> cellList, CellShape cellShape);
+    /**
+     * Checks whether this society's states read a rule parameter. Life-like societies read their rule string instead,
+     * so they read none.
+     * @param rule rule parameter
+     * @return true if setting the parameter can change how the society steps
+     */
+    public boolean readsRule(StateRules rule){
+        return this.societyRules.contains(rule);
+    }
+
+    public Society createSociety(int row, int col, List<Cell> cellList, CellShape cellShape){
+        return this.createSociety(row, col, cellList, cellShape, GridType.SPARSE);
+    }
+
+    public abstract Society createSociety(int row, int col, List<Cell> cellList, CellShape cellShape, GridType gridType);
+
+    /**
+     * Creates a cell of this society in a named state
+     * @param stateName name of a constant of the society's state enum
+     * @return new cell
+     * @throws IllegalArgumentException if the society has no such state
+     */
+    public abstract Cell createCell(String stateName);
 
     public static SocietyType fromString(String text) {
 
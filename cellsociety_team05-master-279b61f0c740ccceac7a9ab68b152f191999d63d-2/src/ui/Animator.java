@@ -1,32 +1,49 @@
 package src.ui;
 
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
 import javafx.scene.chart.LineChart;
-import javafx.util.Duration;
+import src.metrics.Phase;
+import src.metrics.PhaseTimer;
 import src.society.Society;
+import src.society.SocietySnapshot;
 import src.society.property.SocietyType;
 
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
+ * The society is stepped on a <code>SimulationThread</code>; on every pulse of the application thread the animator
+ * takes the newest published generation, if any, and draws it into the chart and the attached view. Changes to the
+ * society made while it is animated go through <code>submitEdit</code>. A step that throws stops the animation and is
+ * handed to the step failure handler on the application thread.
  * Created by Mina Mungekar
  */
 
 public class Animator {
 
+    private static final Logger LOGGER = Logger.getLogger(Animator.class.getName());
+
     private final String UITAGS_FILEPATH = "src.ui.property/UITags";
     private ResourceBundle AnimatorProperties = ResourceBundle.getBundle(this.UITAGS_FILEPATH);;
 
     private final int FRAMES_PER_SECOND = Integer.parseInt(AnimatorProperties.getString("FramesPerSecond"));
     private final int MILLISECOND_DELAY = Integer.parseInt(AnimatorProperties.getString("DelayFactor")) / FRAMES_PER_SECOND;
-    private Timeline mainTimeline;
+    private final double UNTHROTTLED_RATE = Double.parseDouble(AnimatorProperties.getString("UnthrottledRate"));
+    private SimulationThread simulationThread;
+    private AnimationTimer pulseTimer;
 
     private Society currentSociety;
     private SocietyType societyType;
     private Chart animatorChart;
+    private SocietyRenderer societyView;
+    private long chartGeneration;
     private boolean isInitialized;
     private boolean isStopped;
+    private Consumer<RuntimeException> stepFailureHandler;
 
     /**
      * @param currentSociety takes in a Society and set of rules for which the Animator
@@ -36,8 +53,18 @@ public class Animator {
         this.currentSociety = currentSociety;
         this.societyType = societyType;
         this.animatorChart =  new Chart(societyType, this.currentSociety);
+        this.chartGeneration = currentSociety.getGeneration();
         this.isInitialized = false;
         this.isStopped = true;
+        this.simulationThread = new SimulationThread(currentSociety);
+        this.simulationThread.setFailureHandler(stepFailure -> Platform.runLater(() -> this.showStepFailure(stepFailure)));
+        this.pulseTimer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                showLatestGeneration();
+            }
+        };
+        this.pulseTimer.start();
     }
 
     /**
@@ -47,6 +74,25 @@ public class Animator {
         return this.currentSociety;
     }
 
+    /**
+     * Attaches the view that is repainted with every generation. Clicks on its cells are made between two steps.
+     * @param societyView view of the animated society
+     */
+    public void setSocietyView(SocietyRenderer societyView){
+        this.societyView = societyView;
+        this.societyView.setCellEditor(this::submitEdit);
+        this.submitEdit(() -> {});
+    }
+
+    /**
+     * Sets what the application is told when a step throws, e.g. to reset its controls and show the error. The handler
+     * runs on the application thread, once the animation has stopped.
+     * @param stepFailureHandler receives what the step threw
+     */
+    public void setStepFailureHandler(Consumer<RuntimeException> stepFailureHandler){
+        this.stepFailureHandler = stepFailureHandler;
+    }
+
     /**
      * @return returns the chart the animator generates
      */
@@ -58,11 +104,9 @@ public class Animator {
      * Initializes and plays animation with default parameters
      */
     public void initialize(){
-        this.mainTimeline = new Timeline();
-        this.mainTimeline.setCycleCount(Timeline.INDEFINITE);
-        this.changeFrames(MILLISECOND_DELAY);
         this.isInitialized = true;
-        this.isStopped = false;
+        this.changeRate(1);
+        this.play();
     }
 
     public boolean isInitialized(){
@@ -77,15 +121,15 @@ public class Animator {
      * Plays animation
      */
     public void play(){
-        this.mainTimeline.play();
+        this.simulationThread.play();
         this.isStopped = false;
     }
 
     /**
-     * Stops animation
+     * Stops animation once the generation being stepped is done
      */
     public void stop(){
-        this.mainTimeline.pause();
+        this.simulationThread.pause();
         this.isStopped = true;
     }
 
@@ -95,53 +139,84 @@ public class Animator {
 
     /**
      * Sets the rate of animation
-     * @param rate
+     * @param rate multiple of the default number of generations per second; rates from
+     * <code>UnthrottledRate</code> up step as fast as the society can be stepped
      */
     public void changeRate(double rate){
         if(isInitialized){
-            this.mainTimeline.setRate(rate);
+            this.simulationThread.setRate((rate >= UNTHROTTLED_RATE) ? Double.POSITIVE_INFINITY : rate * 1000 / MILLISECOND_DELAY);
         }
     }
 
+    public void nextStep(){
+        this.simulationThread.requestStep();
+    }
+
     /**
-     * Retrieves the main timeline for use in parallel transitions
-     * @return the main timeline
+     * Changes the society between two generations, e.g. a rule or a cell's state, and shows the result
+     * @param edit change to make
+     * @return completed once the change is made
      */
-    public Timeline getMainTimeline(){
-        return this.mainTimeline;
+    public CompletableFuture<Void> submitEdit(Runnable edit){
+        return this.simulationThread.submit(edit);
     }
 
-    public void nextStep(){
-        updateSociety();
+    /**
+     * Stops stepping and drawing for good, e.g. when the society is replaced
+     */
+    public void dispose(){
+        this.pulseTimer.stop();
+        this.simulationThread.shutDown();
     }
 
     /**
-     * The method changes the delay between keyframes to slow or speed them up
-     * @param duration gives a keyframe to be added to the timeline;
-     * duration specifies the time delay between keyframes
+     * Marks the animation stopped after the simulation thread stopped playing on a failed step, and passes the failure
+     * on
      */
-    private void changeFrames(double duration){
+    private void showStepFailure(RuntimeException stepFailure){
 
-        this.mainTimeline.stop();
+        this.isStopped = true;
 
-        KeyFrame frame = new KeyFrame(Duration.millis(duration),
-                g -> updateSociety());
+        if(this.stepFailureHandler == null){
+            LOGGER.log(Level.SEVERE, "Step of " + this.currentSociety.getClass().getSimpleName() + " failed", stepFailure);
+            return;
+        }
 
-        this.mainTimeline.getKeyFrames().add(frame);
-        this.mainTimeline.play();
+        this.stepFailureHandler.accept(stepFailure);
 
     }
 
     /**
-     * Calls the two methods in Society which update all cells, then simultaneously
-     * swap them to their next state. The chart with the counts of the different
-     * states is updated as well.
+     * Draws the newest generation published by the simulation thread, if it has not been drawn yet. The chart gets
+     * a data point per new generation and the attached view is repainted from the snapshot. The frame and its chart
+     * and view phases are timed like the society's own phases (see <code>MetricsRegistry</code>).
      */
-    private void updateSociety(){
+    private void showLatestGeneration(){
+
+        SocietySnapshot frontSnapshot = this.simulationThread.getSnapshotBuffer().acquire();
+
+        if(frontSnapshot == null){
+            return;
+        }
+
+        String societyName = this.currentSociety.getClass().getSimpleName();
+        long generation = frontSnapshot.getGeneration();
+        PhaseTimer frameTimer = PhaseTimer.start(Phase.FRAME, societyName, generation);
+
+        if(generation != this.chartGeneration){
+            PhaseTimer chartTimer = PhaseTimer.start(Phase.CHART_UPDATE, societyName, generation);
+            this.animatorChart.updateChart(frontSnapshot.getStateCounts());
+            this.chartGeneration = generation;
+            chartTimer.stop();
+        }
+
+        if(this.societyView != null){
+            PhaseTimer viewTimer = PhaseTimer.start(Phase.VIEW_REFRESH, societyName, generation);
+            this.societyView.render(frontSnapshot.getStateOrdinals(), frontSnapshot.getStateValues());
+            viewTimer.stop();
+        }
 
-        this.currentSociety.updateNextState(this.currentSociety.getSocietyGrid());
-        this.currentSociety.advanceNextState(this.currentSociety.getSocietyGrid());
-        this.animatorChart.updateChart();
+        frameTimer.stop();
 
     }
 
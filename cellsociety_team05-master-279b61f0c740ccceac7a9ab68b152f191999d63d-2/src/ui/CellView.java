@@ -0,0 +1,77 @@
+package src.ui;
+
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Polygon;
+import javafx.scene.shape.StrokeLineJoin;
+import javafx.scene.shape.StrokeType;
+import src.cell.Cell;
+import src.cell.CellShape;
+import src.cell.location.Location;
+
+/**
+ * Scene-graph node that displays a single <code>Cell</code> at its grid location
+ */
+
+public class CellView extends Polygon {
+
+    private static final int ROTATION_FACTOR = 180;
+
+    private Cell viewCell;
+    private Location cellLocation;
+
+    public CellView(Cell viewCell, Location cellLocation){
+        this.viewCell = viewCell;
+        this.cellLocation = cellLocation;
+        this.setCellStroke();
+        this.updateShape();
+        this.refresh();
+    }
+
+    private void setCellStroke(){
+        this.setStroke(Color.DARKSLATEGRAY);
+        this.setStrokeWidth(0.2);
+        this.setStrokeType(StrokeType.INSIDE);
+        this.setStrokeLineJoin(StrokeLineJoin.ROUND);
+    }
+
+    public Cell getCell(){
+        return this.viewCell;
+    }
+
+    /**
+     * Repaints the view with the color of the cell's current state
+     */
+    public void refresh(){
+        this.setFill(StateColor.getColor(this.viewCell.getCurrentState()));
+    }
+
+    /**
+     * Reloads the polygon points from the cell's current shape
+     */
+    public void updateShape(){
+        this.getPoints().setAll(this.viewCell.getCellShape().getShapeCoordinates());
+    }
+
+    public void setScale(double xFactor) {
+        this.setScaleX(xFactor);
+        this.setScaleY(xFactor);
+    }
+
+    /**
+     * Positions the view according to its location and the cell's shape
+     */
+    public void updateLocation(){
+
+        CellShape cellShape = this.viewCell.getCellShape();
+        double width = this.getBoundsInParent().getWidth();
+        double height = this.getBoundsInParent().getHeight();
+
+        this.setTranslateY(cellShape.calculateY(this.cellLocation, width, height));
+        this.setTranslateX(cellShape.calculateX(this.cellLocation, width, height));
+
+        boolean isFlipped = (cellShape == CellShape.TRIANGLE && (this.cellLocation.getCol() + this.cellLocation.getRow()) % 2 == 0);
+        this.setRotate(isFlipped ? ROTATION_FACTOR : 0);
+
+    }
+
+}
@@ -1,16 +1,13 @@
 package src.ui;
 
-import src.cell.location.Location;
 import src.cell.state.SpreadingFireState;
 import src.cell.state.State;
 import javafx.scene.chart.LineChart;
 import javafx.scene.chart.NumberAxis;
 import javafx.scene.chart.XYChart;
-import src.society.Grid;
 import src.society.Society;
 import src.society.property.SocietyType;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.ResourceBundle;
 
@@ -23,13 +20,12 @@ public class Chart {
 
     private String UIPropertiesLocation = "src.ui.property/UITags";
     private ResourceBundle ChartProperties = ResourceBundle.getBundle(UIPropertiesLocation);
-    private final Integer INIT_VALUE = Integer.parseInt(ChartProperties.getString("InitValue"));
-    
+
     private NumberAxis xAxis;
     private NumberAxis yAxis;
 
     private Society chartSociety;
-    private Map<State,Integer> stateMap;
+    private Map<State,Long> stateMap;
 
     private LineChart<Number,Number> lineChart;
 
@@ -68,8 +64,26 @@ public class Chart {
      * data point to the line chart
      */
     public void updateChart(){
-
         this.updateStateCount();
+        this.addDataPoints();
+    }
+
+    /**
+     * Updates the Chart with counts taken elsewhere, e.g. in a snapshot of the society published by the thread
+     * stepping it
+     * @param stateCounts number of cells in each state
+     */
+    public void updateChart(Map<State,Long> stateCounts){
+        this.stateMap = stateCounts;
+        this.addDataPoints();
+    }
+
+    /*Helper Methods*/
+
+    /**
+     * Adds a data point with the current counts to every series
+     */
+    private void addDataPoints(){
 
         for(XYChart.Series xSeries : this.lineChart.getData()){
 
@@ -85,8 +99,6 @@ public class Chart {
 
     }
 
-    /*Helper Methods*/
-
     /**
      * Initializes the series in the graph
      */
@@ -124,23 +136,10 @@ public class Chart {
 
     /**
      * Creates a map with the key being the different states and value being the number
-     * of cells present in that state.
+     * of cells present in that state. The counts are read from the grid's population counter.
      */
     private void updateStateCount() {
-
-        stateMap = new HashMap<State,Integer>();
-
-        Grid societyGrid = this.chartSociety.getSocietyGrid();
-
-        for(Location xLocation : societyGrid.getGridLocations()){
-            State xState = societyGrid.getCell(xLocation).getCurrentState();
-            if(!this.stateMap.containsKey(xState)){
-                this.stateMap.put(xState, this.INIT_VALUE);
-            }
-            this.stateMap.put(xState, stateMap.get(xState) + 1);
-
-        }
-
+        this.stateMap = this.chartSociety.getSocietyGrid().getPopulationCounter().getCounts();
     }
 
     public void setStartTime(double startTime) {
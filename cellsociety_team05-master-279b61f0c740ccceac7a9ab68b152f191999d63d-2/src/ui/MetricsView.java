@@ -0,0 +1,138 @@
+package src.ui;
+
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.geometry.Insets;
+import javafx.scene.control.Button;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Text;
+import javafx.util.Duration;
+import src.metrics.LogHistogram;
+import src.metrics.MetricsRegistry;
+import src.metrics.Phase;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.ResourceBundle;
+
+/**
+ * Shows the default <code>MetricsRegistry</code>: count, mean, median, 99th percentile and maximum time of every
+ * phase, the recent rate of cells stepped and the allocation per step. The figures are refreshed on a timer of their
+ * own, so they keep up while the animation is stalled.
+ */
+
+public class MetricsView {
+
+    private static final double NANOS_PER_MILLI = 1e6;
+    private static final double BYTES_PER_KILOBYTE = 1024;
+
+    private ResourceBundle MetricsProperties = ResourceBundle.getBundle("src.ui.property/UITags");
+
+    private MetricsRegistry metricsRegistry;
+    private VBox metricsBox;
+    private Map<Phase, Text[]> phaseTexts;
+    private Text cellRateText;
+    private Text allocationText;
+
+    public MetricsView(MetricsRegistry metricsRegistry){
+
+        this.metricsRegistry = metricsRegistry;
+        this.phaseTexts = new EnumMap<Phase, Text[]>(Phase.class);
+        this.cellRateText = new Text();
+        this.allocationText = new Text();
+
+        int spacing = Integer.parseInt(MetricsProperties.getString("TempBoxSpacing"));
+
+        Button resetMetrics = new Button(MetricsProperties.getString("ResetMetricsDisplay"));
+        resetMetrics.setOnAction(e -> {
+            this.metricsRegistry.reset();
+            this.refresh();
+        });
+
+        this.metricsBox = new VBox(spacing, this.createPhaseTable(spacing), this.cellRateText, this.allocationText, resetMetrics);
+        this.metricsBox.setPadding(new Insets(spacing));
+
+        Timeline refreshTimeline = new Timeline(new KeyFrame(Duration.millis(Integer.parseInt(MetricsProperties.getString("MetricsRefreshMillis"))),
+                e -> this.refresh()));
+        refreshTimeline.setCycleCount(Timeline.INDEFINITE);
+        refreshTimeline.play();
+
+        this.refresh();
+
+    }
+
+    /**
+     * @return node holding the figures
+     */
+    public VBox getNode(){
+        return this.metricsBox;
+    }
+
+    /**
+     * Reads the registry again and updates every figure
+     */
+    public void refresh(){
+
+        for(Phase xPhase : Phase.values()){
+
+            LogHistogram.Snapshot xSnapshot = this.metricsRegistry.getHistogram(xPhase).getSnapshot();
+            Text[] xTexts = this.phaseTexts.get(xPhase);
+
+            xTexts[0].setText(Long.toString(xSnapshot.getCount()));
+            xTexts[1].setText(this.formatMillis(xSnapshot.getMean()));
+            xTexts[2].setText(this.formatMillis(xSnapshot.getPercentile(50)));
+            xTexts[3].setText(this.formatMillis(xSnapshot.getPercentile(99)));
+            xTexts[4].setText(this.formatMillis(xSnapshot.getMax()));
+
+        }
+
+        LogHistogram.Snapshot allocationSnapshot = this.metricsRegistry.getAllocationHistogram().getSnapshot();
+
+        this.cellRateText.setText(String.format("%s %,.0f", MetricsProperties.getString("CellRateTitle"), this.metricsRegistry.getCellsPerSecond()));
+        this.allocationText.setText(String.format("%s %,.1f | %,.1f", MetricsProperties.getString("AllocationTitle"),
+                allocationSnapshot.getMean() / BYTES_PER_KILOBYTE, allocationSnapshot.getPercentile(99) / BYTES_PER_KILOBYTE));
+
+    }
+
+    /*Helper Methods*/
+
+    /**
+     * Lays out a row per phase under a header row, with a text per figure
+     */
+    private GridPane createPhaseTable(int spacing){
+
+        GridPane phaseTable = new GridPane();
+        phaseTable.setHgap(spacing);
+
+        String[] columnTitles = MetricsProperties.getString("MetricsColumns").split(",");
+
+        for(int xColumn = 0; xColumn < columnTitles.length; xColumn ++){
+            phaseTable.add(new Text(columnTitles[xColumn].trim()), xColumn, 0);
+        }
+
+        for(Phase xPhase : Phase.values()){
+
+            int xRow = xPhase.ordinal() + 1;
+            Text[] xTexts = new Text[columnTitles.length - 1];
+
+            phaseTable.add(new Text(xPhase.getPhaseName()), 0, xRow);
+
+            for(int xColumn = 0; xColumn < xTexts.length; xColumn ++){
+                xTexts[xColumn] = new Text();
+                phaseTable.add(xTexts[xColumn], xColumn + 1, xRow);
+            }
+
+            this.phaseTexts.put(xPhase, xTexts);
+
+        }
+
+        return phaseTable;
+
+    }
+
+    private String formatMillis(double nanos){
+        return String.format("%.3f", nanos / NANOS_PER_MILLI);
+    }
+
+}
@@ -0,0 +1,348 @@
+package src.ui;
+
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import src.cell.Cell;
+import src.cell.CellShape;
+import src.cell.location.Location;
+import src.cell.state.State;
+import src.society.Grid;
+import src.society.Society;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Draws a <code>Society</code> as a single image. The cells are laid out as in a <code>SocietyView</code>, from their
+ * <code>CellShape</code>'s outline and its <code>calculateX</code> and <code>calculateY</code>, but rasterized into a
+ * <code>WritableImage</code>, so the scene graph holds one node whatever the size of the grid. The cell covering each
+ * pixel is worked out once per layout; a repaint only reads the state array through a palette of state colors.
+ * Clicking a cell cycles its state.
+ */
+
+public class RasterSocietyView implements SocietyRenderer {
+
+    /*Largest width or height of the image; larger layouts are drawn at a smaller scale*/
+    private static final int MAX_IMAGE_SIZE = 8192;
+    private static final int BACKGROUND_ARGB = 0;
+    private static final int NO_CELL = -1;
+
+    private Society viewSociety;
+    private ImageView imageView;
+    private WritableImage rasterImage;
+    private int imageWidth;
+    private int imageHeight;
+
+    /*Grid index of the cell covering each pixel, row-major*/
+    private int[] pixelCells = new int[0];
+    private int[] pixelColors = new int[0];
+    /*States last drawn, kept so that a new layout is painted without reading the grid*/
+    private byte[] stateOrdinals = new byte[0];
+    private State[] stateValues;
+    private int[] statePalette = new int[0];
+    private Consumer<Runnable> cellEditor = edit -> {
+        edit.run();
+        this.refresh();
+    };
+
+    public RasterSocietyView(Society viewSociety){
+        this.viewSociety = viewSociety;
+        this.imageView = new ImageView();
+        this.imageView.setOnMouseClicked(e -> this.cycleCell(e.getX(), e.getY()));
+        this.setCellScale(viewSociety.getCellScale());
+    }
+
+    @Override
+    public Society getSociety(){
+        return this.viewSociety;
+    }
+
+    /**
+     * @return view of the image the grid is drawn into
+     */
+    @Override
+    public ImageView getNode(){
+        return this.imageView;
+    }
+
+    /**
+     * Repaints every cell from a copy of the grid's current states
+     */
+    @Override
+    public void refresh(){
+
+        Grid societyGrid = this.viewSociety.getSocietyGrid();
+
+        if(this.stateOrdinals.length != societyGrid.getSize()){
+            this.stateOrdinals = new byte[societyGrid.getSize()];
+        }
+
+        this.render(this.stateOrdinals, societyGrid.copyCurrentStates(this.stateOrdinals));
+
+    }
+
+    /**
+     * Repaints every cell from a copy of the states, and keeps the copy for the next layout
+     */
+    @Override
+    public void render(byte[] stateOrdinals, State[] stateValues){
+
+        if(stateOrdinals != this.stateOrdinals){
+
+            if(this.stateOrdinals.length != stateOrdinals.length){
+                this.stateOrdinals = new byte[stateOrdinals.length];
+            }
+
+            System.arraycopy(stateOrdinals, 0, this.stateOrdinals, 0, stateOrdinals.length);
+
+        }
+
+        if(!Arrays.equals(this.stateValues, stateValues)){
+            this.stateValues = stateValues.clone();
+        }
+        this.paint();
+
+    }
+
+    /**
+     * Scales every cell and rasterizes the layout again
+     * @param xFactor scale factor, as for a <code>SocietyView</code>
+     */
+    @Override
+    public void setCellScale(double xFactor){
+        this.viewSociety.setCellScale(xFactor);
+        this.layoutCells();
+    }
+
+    @Override
+    public void updateShape(){
+        this.layoutCells();
+    }
+
+    @Override
+    public void setCellEditor(Consumer<Runnable> cellEditor){
+        this.cellEditor = cellEditor;
+    }
+
+    /*Helper Methods*/
+
+    /**
+     * Colors every pixel from the states last drawn
+     */
+    private void paint(){
+
+        int[] statePalette = this.getPalette(this.stateValues);
+
+        for(int xPixel = 0; xPixel < this.pixelCells.length; xPixel ++){
+
+            int cellIndex = this.pixelCells[xPixel];
+            int stateOrdinal = (cellIndex == NO_CELL) ? -1 : this.stateOrdinals[cellIndex];
+
+            this.pixelColors[xPixel] = (stateOrdinal < 0) ? BACKGROUND_ARGB : statePalette[stateOrdinal];
+
+        }
+
+        this.rasterImage.getPixelWriter().setPixels(0, 0, this.imageWidth, this.imageHeight, PixelFormat.getIntArgbInstance(),
+                this.pixelColors, 0, this.imageWidth);
+
+    }
+
+    /**
+     * Works out the pixels every cell covers at the current scale and shape, and allocates an image to fit them. The
+     * image is painted from the states last drawn; before any, an empty edit is passed to the cell editor, which
+     * repaints the view once it has run.
+     */
+    private void layoutCells(){
+
+        Grid societyGrid = this.viewSociety.getSocietyGrid();
+        CellShape cellShape = societyGrid.getCellShape();
+        Double[] shapeCoordinates = cellShape.getShapeCoordinates();
+
+        double minX = Double.MAX_VALUE, maxX = -Double.MAX_VALUE, minY = Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+
+        for(int xPoint = 0; xPoint < shapeCoordinates.length; xPoint += 2){
+            minX = Math.min(minX, shapeCoordinates[xPoint]);
+            maxX = Math.max(maxX, shapeCoordinates[xPoint]);
+            minY = Math.min(minY, shapeCoordinates[xPoint + 1]);
+            maxY = Math.max(maxY, shapeCoordinates[xPoint + 1]);
+        }
+
+        /*Cell positions grow linearly with the cell size, so the extent at scale 1 bounds the scale that fits*/
+        double unitWidth = maxX - minX;
+        double unitHeight = maxY - minY;
+        double extentX = 0;
+        double extentY = 0;
+
+        for(int xIndex = 0; xIndex < societyGrid.getSize(); xIndex ++){
+            if(societyGrid.getCell(xIndex) != null){
+                Location xLocation = societyGrid.getLocation(xIndex);
+                extentX = Math.max(extentX, cellShape.calculateX(xLocation, unitWidth, unitHeight) + unitWidth);
+                extentY = Math.max(extentY, cellShape.calculateY(xLocation, unitWidth, unitHeight) + unitHeight);
+            }
+        }
+
+        double scale = Math.min(this.viewSociety.getCellScale(), MAX_IMAGE_SIZE / Math.max(1, Math.max(extentX, extentY)));
+        double cellWidth = unitWidth * scale;
+        double cellHeight = unitHeight * scale;
+
+        this.imageWidth = Math.max(1, (int) Math.ceil(extentX * scale));
+        this.imageHeight = Math.max(1, (int) Math.ceil(extentY * scale));
+        this.pixelCells = new int[this.imageWidth * this.imageHeight];
+        this.pixelColors = new int[this.pixelCells.length];
+
+        Arrays.fill(this.pixelCells, NO_CELL);
+
+        int pointCount = shapeCoordinates.length / 2;
+        double[] outlineX = new double[pointCount];
+        double[] outlineY = new double[pointCount];
+        double[] flippedX = new double[pointCount];
+        double[] flippedY = new double[pointCount];
+
+        for(int xPoint = 0; xPoint < pointCount; xPoint ++){
+            outlineX[xPoint] = (shapeCoordinates[2 * xPoint] - minX) * scale;
+            outlineY[xPoint] = (shapeCoordinates[2 * xPoint + 1] - minY) * scale;
+            flippedX[xPoint] = cellWidth - outlineX[xPoint];
+            flippedY[xPoint] = cellHeight - outlineY[xPoint];
+        }
+
+        for(int xIndex = 0; xIndex < societyGrid.getSize(); xIndex ++){
+
+            if(societyGrid.getCell(xIndex) == null){
+                continue;
+            }
+
+            Location xLocation = societyGrid.getLocation(xIndex);
+            double left = cellShape.calculateX(xLocation, cellWidth, cellHeight);
+            double top = cellShape.calculateY(xLocation, cellWidth, cellHeight);
+
+            /*Triangles alternate pointing up and down, as a SocietyView rotates them*/
+            boolean isFlipped = (cellShape == CellShape.TRIANGLE && (xLocation.getCol() + xLocation.getRow()) % 2 == 0);
+
+            this.fillCell(xIndex, left, top, cellWidth, cellHeight, isFlipped ? flippedX : outlineX, isFlipped ? flippedY : outlineY);
+
+        }
+
+        this.rasterImage = new WritableImage(this.imageWidth, this.imageHeight);
+        this.imageView.setImage(this.rasterImage);
+
+        if(this.stateValues == null || this.stateOrdinals.length != societyGrid.getSize()){
+            this.cellEditor.accept(() -> {});
+        }
+        else{
+            this.paint();
+        }
+
+    }
+
+    /**
+     * Assigns a cell the pixels whose centers fall inside its outline. A cell smaller than a pixel is given the pixel
+     * under its center, so that every cell stays visible.
+     */
+    private void fillCell(int cellIndex, double left, double top, double cellWidth, double cellHeight, double[] outlineX, double[] outlineY){
+
+        int fromX = Math.max(0, (int) Math.floor(left));
+        int toX = Math.min(this.imageWidth, (int) Math.ceil(left + cellWidth));
+        int fromY = Math.max(0, (int) Math.floor(top));
+        int toY = Math.min(this.imageHeight, (int) Math.ceil(top + cellHeight));
+        boolean isFilled = false;
+
+        for(int xRow = fromY; xRow < toY; xRow ++){
+            for(int xCol = fromX; xCol < toX; xCol ++){
+                if(this.isInside(outlineX, outlineY, xCol + 0.5 - left, xRow + 0.5 - top)){
+                    this.pixelCells[xRow * this.imageWidth + xCol] = cellIndex;
+                    isFilled = true;
+                }
+            }
+        }
+
+        int centerX = (int) (left + cellWidth / 2);
+        int centerY = (int) (top + cellHeight / 2);
+
+        if(!isFilled && centerX < this.imageWidth && centerY < this.imageHeight){
+            this.pixelCells[centerY * this.imageWidth + centerX] = cellIndex;
+        }
+
+    }
+
+    /**
+     * Checks whether a point lies inside a convex outline, i.e. on the same side of every edge
+     */
+    private boolean isInside(double[] outlineX, double[] outlineY, double pointX, double pointY){
+
+        boolean hasLeft = false;
+        boolean hasRight = false;
+
+        for(int xPoint = 0; xPoint < outlineX.length; xPoint ++){
+
+            int nextPoint = (xPoint + 1) % outlineX.length;
+            double cross = (outlineX[nextPoint] - outlineX[xPoint]) * (pointY - outlineY[xPoint])
+                    - (outlineY[nextPoint] - outlineY[xPoint]) * (pointX - outlineX[xPoint]);
+
+            hasLeft |= (cross > 0);
+            hasRight |= (cross < 0);
+
+            if(hasLeft && hasRight){
+                return false;
+            }
+
+        }
+
+        return true;
+
+    }
+
+    /**
+     * Converts the states' colors to ARGB, reusing the palette array while the number of states stays the same
+     */
+    private int[] getPalette(State[] stateValues){
+
+        if(this.statePalette.length != stateValues.length){
+            this.statePalette = new int[stateValues.length];
+        }
+
+        for(int xOrdinal = 0; xOrdinal < stateValues.length; xOrdinal ++){
+
+            Color stateColor = StateColor.getColor(stateValues[xOrdinal]);
+
+            this.statePalette[xOrdinal] = ((int) Math.round(stateColor.getOpacity() * 255) << 24)
+                    | ((int) Math.round(stateColor.getRed() * 255) << 16)
+                    | ((int) Math.round(stateColor.getGreen() * 255) << 8)
+                    | (int) Math.round(stateColor.getBlue() * 255);
+
+        }
+
+        return this.statePalette;
+
+    }
+
+    /**
+     * Cycles the state of the cell under a point of the image, as clicking a cell of a <code>SocietyView</code> does
+     */
+    private void cycleCell(double imageX, double imageY){
+
+        int pixelX = (int) imageX;
+        int pixelY = (int) imageY;
+
+        if(pixelX < 0 || pixelX >= this.imageWidth || pixelY < 0 || pixelY >= this.imageHeight){
+            return;
+        }
+
+        int cellIndex = this.pixelCells[pixelY * this.imageWidth + pixelX];
+
+        if(cellIndex == NO_CELL){
+            return;
+        }
+
+        Grid societyGrid = this.viewSociety.getSocietyGrid();
+        Cell xCell = societyGrid.getCell(cellIndex);
+
+        this.cellEditor.accept(() -> {
+            xCell.cycleState();
+            societyGrid.markChanged(cellIndex);
+        });
+
+    }
+
+}
@@ -0,0 +1,288 @@
+package src.ui;
+
+import src.metrics.Phase;
+import src.metrics.PhaseTimer;
+import src.society.SnapshotBuffer;
+import src.society.Society;
+import src.society.SocietySnapshot;
+
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Steps a <code>Society</code> on a thread of its own, so that a slow generation never holds up the application thread
+ * and drawing never holds up stepping. Every generation, and every batch of edits, is copied into a
+ * <code>SnapshotBuffer</code>, from which the application thread takes the newest one when it draws a frame.
+ *
+ * Only this thread touches the society while it runs; anything else that changes the society is submitted as an edit,
+ * which runs between two generations. The thread sleeps while there is nothing to do.
+ */
+
+public class SimulationThread implements Runnable {
+
+    /*Interval meaning the society is held, e.g. at an animation rate of 0*/
+    private static final long HELD = -1;
+
+    private static final Logger LOGGER = Logger.getLogger(SimulationThread.class.getName());
+
+    private Society society;
+    private SnapshotBuffer snapshotBuffer;
+    private Thread thread;
+    private Queue<PendingEdit> pendingEdits;
+    private AtomicInteger requestedSteps;
+
+    private volatile boolean isRunning;
+    private volatile boolean isShutDown;
+    private volatile long stepIntervalNanos;
+    private volatile Consumer<RuntimeException> failureHandler;
+
+    /**
+     * Starts the thread, held until <code>play</code> or <code>requestStep</code> is called
+     * @param society society to step
+     */
+    public SimulationThread(Society society){
+        this.society = society;
+        this.snapshotBuffer = new SnapshotBuffer();
+        this.pendingEdits = new ConcurrentLinkedQueue<PendingEdit>();
+        this.requestedSteps = new AtomicInteger();
+        this.thread = new Thread(this, "Simulation-" + society.getClass().getSimpleName());
+        this.thread.setDaemon(true);
+        this.thread.start();
+        this.submit(() -> {});
+    }
+
+    /**
+     * @return buffer the generations are published to
+     */
+    public SnapshotBuffer getSnapshotBuffer(){
+        return this.snapshotBuffer;
+    }
+
+    /**
+     * Steps the society continuously, at most once per step interval
+     */
+    public void play(){
+        this.isRunning = true;
+        this.wake();
+    }
+
+    /**
+     * Stops stepping once the generation being stepped is done
+     */
+    public void pause(){
+        this.isRunning = false;
+    }
+
+    /**
+     * Steps the society once, after any step already requested
+     */
+    public void requestStep(){
+        this.requestedSteps.incrementAndGet();
+        this.wake();
+    }
+
+    /**
+     * Sets how often the society is stepped while playing
+     * @param generationsPerSecond generations per second; 0 or less holds the society, and infinity steps as fast as
+     *                             the society can be stepped
+     */
+    public void setRate(double generationsPerSecond){
+        this.stepIntervalNanos = (generationsPerSecond <= 0) ? HELD : (long) (1e9 / generationsPerSecond);
+        this.wake();
+    }
+
+    /**
+     * Runs a change to the society between two generations, then publishes the changed society
+     * @param edit change to run on this thread
+     * @return completed once the edit has run, or exceptionally with what the edit threw, or with a
+     * <code>CancellationException</code> if the thread is shut down before the edit runs
+     */
+    public CompletableFuture<Void> submit(Runnable edit){
+
+        PendingEdit pendingEdit = new PendingEdit(edit);
+
+        this.pendingEdits.add(pendingEdit);
+
+        /*The thread drains the queue once it sees the shutdown; an edit queued after that is cancelled here*/
+        if(this.isShutDown){
+            this.cancelEdits();
+        }
+
+        this.wake();
+
+        return pendingEdit.editResult;
+
+    }
+
+    /**
+     * Sets what is told when a step throws. The handler is called on this thread, after playing has stopped.
+     * @param failureHandler receives what the step threw, or null to only log it
+     */
+    public void setFailureHandler(Consumer<RuntimeException> failureHandler){
+        this.failureHandler = failureHandler;
+    }
+
+    /**
+     * Stops the thread; the society may be used from other threads once the generation being stepped is done. Edits
+     * that have not run by then, and edits submitted afterwards, are cancelled.
+     */
+    public void shutDown(){
+        this.isShutDown = true;
+        this.wake();
+    }
+
+    @Override
+    public void run(){
+
+        long nextStepTime = System.nanoTime();
+
+        while(!this.isShutDown){
+
+            boolean isChanged = this.runEdits();
+            long stepInterval = this.stepIntervalNanos;
+            boolean isPlaying = this.isRunning && stepInterval != HELD;
+
+            if(isPlaying && System.nanoTime() - nextStepTime < 0 && this.requestedSteps.get() == 0){
+                if(isChanged){
+                    this.publish();
+                }
+                LockSupport.parkNanos(this, nextStepTime - System.nanoTime());
+                continue;
+            }
+
+            if(isPlaying || this.requestedSteps.get() > 0){
+
+                /*Only this thread takes requested steps, so the count cannot drop below 0*/
+                if(this.requestedSteps.get() > 0){
+                    this.requestedSteps.decrementAndGet();
+                }
+
+                nextStepTime = System.nanoTime() + stepInterval;
+                isChanged |= this.step();
+
+            }
+            else if(!isChanged){
+                LockSupport.park(this);
+                nextStepTime = System.nanoTime();
+                continue;
+            }
+
+            this.publish();
+
+        }
+
+        this.cancelEdits();
+
+    }
+
+    /*Helper Methods*/
+
+    private void wake(){
+        LockSupport.unpark(this.thread);
+    }
+
+    /**
+     * Runs every submitted edit
+     * @return whether any edit ran
+     */
+    private boolean runEdits(){
+
+        boolean isChanged = false;
+
+        for(PendingEdit xEdit = this.pendingEdits.poll(); xEdit != null; xEdit = this.pendingEdits.poll()){
+            xEdit.run();
+            isChanged = true;
+        }
+
+        return isChanged;
+
+    }
+
+    /**
+     * Completes every submitted edit with a <code>CancellationException</code> without running it
+     */
+    private void cancelEdits(){
+        for(PendingEdit xEdit = this.pendingEdits.poll(); xEdit != null; xEdit = this.pendingEdits.poll()){
+            xEdit.editResult.completeExceptionally(new CancellationException("The simulation thread was shut down"));
+        }
+    }
+
+    /**
+     * Steps the society once. A step that throws stops playing rather than the thread, so edits still run, and is
+     * passed to the failure handler.
+     * @return whether the society was stepped
+     */
+    private boolean step(){
+
+        try {
+            this.society.step();
+            return true;
+        } catch (RuntimeException e) {
+            this.isRunning = false;
+            this.requestedSteps.set(0);
+            this.reportFailure(e);
+            return false;
+        }
+
+    }
+
+    private void reportFailure(RuntimeException stepFailure){
+
+        Consumer<RuntimeException> tempHandler = this.failureHandler;
+
+        if(tempHandler == null){
+            LOGGER.log(Level.SEVERE, "Step of " + this.society.getClass().getSimpleName() + " failed", stepFailure);
+            return;
+        }
+
+        tempHandler.accept(stepFailure);
+
+    }
+
+    /**
+     * Copies the society into the back snapshot and publishes it
+     */
+    private void publish(){
+
+        PhaseTimer snapshotTimer = PhaseTimer.start(Phase.SNAPSHOT, this.society.getClass().getSimpleName(),
+                this.society.getGeneration());
+
+        SocietySnapshot backSnapshot = this.snapshotBuffer.getBackSnapshot();
+        backSnapshot.copyFrom(this.society);
+        this.snapshotBuffer.publish();
+
+        snapshotTimer.stop();
+
+    }
+
+    /**
+     * Edit waiting to run, with the future its submitter holds
+     */
+    private static class PendingEdit {
+
+        private Runnable edit;
+        private CompletableFuture<Void> editResult = new CompletableFuture<Void>();
+
+        private PendingEdit(Runnable edit){
+            this.edit = edit;
+        }
+
+        private void run(){
+            try {
+                this.edit.run();
+                this.editResult.complete(null);
+            } catch (RuntimeException e) {
+                this.editResult.completeExceptionally(e);
+            }
+        }
+
+    }
+
+}
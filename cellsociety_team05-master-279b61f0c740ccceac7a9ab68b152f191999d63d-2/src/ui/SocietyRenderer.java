@@ -0,0 +1,54 @@
+package src.ui;
+
+import javafx.scene.Node;
+import src.cell.state.State;
+import src.society.Society;
+
+import java.util.function.Consumer;
+
+/**
+ * Draws a <code>Society</code> in the scene graph. <code>SocietyView</code> builds a node per cell, which keeps the
+ * cell outlines but only suits small grids; <code>RasterSocietyView</code> paints the whole grid into one image.
+ */
+
+public interface SocietyRenderer {
+
+    public Society getSociety();
+
+    /**
+     * @return node showing the society
+     */
+    public Node getNode();
+
+    /**
+     * Repaints every cell with its current state
+     */
+    public void refresh();
+
+    /**
+     * Repaints every cell from a copy of the states, e.g. a snapshot taken off the application thread
+     * @param stateOrdinals state ordinals in row-major order (-1 for no cell or no state)
+     * @param stateValues states the ordinals refer to
+     */
+    public void render(byte[] stateOrdinals, State[] stateValues);
+
+    /**
+     * Scales every cell and lays the cells out again. Layouts keep the colors last drawn rather than reading the
+     * society's states, which may be changing on another thread.
+     * @param xFactor scale factor
+     */
+    public void setCellScale(double xFactor);
+
+    /**
+     * Lays the cells out again after the society's cell shape changed
+     */
+    public void updateShape();
+
+    /**
+     * Sets how a click changes a cell. By default the change is made at once and the view repainted; a society stepped
+     * on another thread passes the change to that thread instead.
+     * @param cellEditor runs a change to the society's cells
+     */
+    public void setCellEditor(Consumer<Runnable> cellEditor);
+
+}
@@ -7,13 +7,17 @@ import java.util.ResourceBundle;
 
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
+import javafx.event.ActionEvent;
+import javafx.event.EventHandler;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Label;
 import javafx.scene.control.Slider;
+import javafx.scene.control.TextField;
 import javafx.scene.layout.VBox;
 import javafx.scene.text.Text;
 import src.cell.state.*;
+import src.society.LifeLikeSociety;
 import src.society.property.SocietyType;
 /**
  * The Society Settings Box sets individual society parameters for the simulation
@@ -41,6 +45,7 @@ public class SocietySettingsBox {
 		settingsMap.put(SocietyType.SEGREGATION, createSegregationSettings());
 		settingsMap.put(SocietyType.WATOR, createWatorSettings());
 		settingsMap.put(SocietyType.SPREADING_FIRE, createFireSettings());	
+		settingsMap.put(SocietyType.LIFE_LIKE, createLifeLikeSettings());
 	}
 	/**
      *Returns the settings box most relevant to the current society
@@ -65,7 +70,7 @@ public class SocietySettingsBox {
 			@Override
 			public void changed(ObservableValue<? extends Number> observable, Number oldValue, Number newValue) {
 				if(mainAnimator.getSocietyType() == SocietyType.SEGREGATION){
-					state.setSatisfactionRate(newValue.doubleValue());
+					mainAnimator.submitEdit(() -> state.setSatisfactionRate(newValue.doubleValue()));
 					rateLabel.setText(String.valueOf(slider.getValue()));
 				}
 			}
@@ -110,7 +115,7 @@ public class SocietySettingsBox {
 			@Override
 			public void changed(ObservableValue<? extends Number> observable, Number oldValue, Number newValue) {
 				if(mainAnimator.getSocietyType() == SocietyType.SPREADING_FIRE){
-					state.setCatchProb(newValue.doubleValue());
+					mainAnimator.submitEdit(() -> state.setCatchProb(newValue.doubleValue()));
 					rateLabel.setText(String.valueOf(slider.getValue()));
 				}
 			}
@@ -156,7 +161,7 @@ public class SocietySettingsBox {
 			@Override
 			public void changed(ObservableValue<? extends Number> observable, Number oldValue, Number newValue) {
 				if(mainAnimator.getSocietyType() == SocietyType.GAME_OF_LIFE){
-					GameOfLifeState.DEAD.setMax(newValue.intValue());
+					mainAnimator.submitEdit(() -> GameOfLifeState.DEAD.setMax(newValue.intValue()));
 					rateLabel.setText(String.valueOf((int)slider.getValue()));
 				}
 			}
@@ -171,7 +176,7 @@ public class SocietySettingsBox {
 			@Override
 			public void changed(ObservableValue<? extends Number> observable, Number oldValue, Number newValue) {
 				if(aliveMinRate.getValue() <= newValue.intValue()){
-					GameOfLifeState.ALIVE.setMax(newValue.intValue());
+					mainAnimator.submitEdit(() -> GameOfLifeState.ALIVE.setMax(newValue.intValue()));
 					rateLabel.setText(String.valueOf((int)slider.getValue()));
 				}
 				else{
@@ -189,7 +194,7 @@ public class SocietySettingsBox {
 			@Override
 			public void changed(ObservableValue<? extends Number> observable, Number oldValue, Number newValue) {
 				if(aliveMaxRate.getValue() >= newValue.intValue()){
-					GameOfLifeState.ALIVE.setMin(newValue.intValue());
+					mainAnimator.submitEdit(() -> GameOfLifeState.ALIVE.setMin(newValue.intValue()));
 					rateLabel.setText(String.valueOf((int)slider.getValue()));
 				}
 				else{
@@ -245,7 +250,7 @@ public class SocietySettingsBox {
 			@Override
 			public void changed(ObservableValue<? extends Number> observable, Number oldValue, Number newValue) {
 				if(mainAnimator.getSocietyType() == SocietyType.WATOR){
-					state.setBreedTime(newValue.intValue());
+					mainAnimator.submitEdit(() -> state.setBreedTime(newValue.intValue()));
 					rateLabel.setText(String.valueOf(slider.getValue()));
 				}
 			}
@@ -288,6 +293,43 @@ public class SocietySettingsBox {
 
 	}
 
+	/**
+     *Sets listener for the rule field, which replaces the society's rule when the user presses enter. A rule that
+     *cannot be parsed leaves the old rule running and shows why in the label.
+     */
+	private void configureRuleListener(TextField ruleField, Label ruleLabel) {
+		ruleField.setOnAction(new EventHandler<ActionEvent>() {
+			@Override
+			public void handle(ActionEvent event) {
+				if(mainAnimator.getSociety() instanceof LifeLikeSociety){
+					try {
+						LifeLikeRule newRule = LifeLikeRule.parse(ruleField.getText());
+						LifeLikeSociety lifeLikeSociety = (LifeLikeSociety) mainAnimator.getSociety();
+						mainAnimator.submitEdit(() -> lifeLikeSociety.setRule(newRule));
+						ruleLabel.setText(SettingsBoxProperties.getString("RuleAccepted"));
+					} catch (IllegalArgumentException e) {
+						ruleLabel.setText(e.getMessage());
+					}
+				}
+			}
+		});
+	}
+
+	/**
+     *Initializes the rule field of the rule-string society, showing the rule it is running
+     */
+	private VBox createLifeLikeSettings() {
+		VBox tempBox = createTempBox();
+		TextField ruleField = new TextField();
+		Label ruleLabel = new Label();
+		if(mainAnimator.getSociety() instanceof LifeLikeSociety){
+			ruleField.setText(((LifeLikeSociety) mainAnimator.getSociety()).getRule().toString());
+		}
+		configureRuleListener(ruleField, ruleLabel);
+		tempBox.getChildren().addAll(new Text(SettingsBoxProperties.getString("RuleFieldTitle")), ruleField, ruleLabel);
+		return tempBox;
+	}
+
 }
 
 
@@ -0,0 +1,146 @@
+package src.ui;
+
+import javafx.scene.Group;
+import src.cell.Cell;
+import src.cell.location.Location;
+import src.cell.state.State;
+import src.society.Grid;
+import src.society.Society;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Builds and maintains the scene-graph nodes for a <code>Society</code>. The society itself holds no nodes, so a view
+ * is only created when the society is displayed. Every cell is a node of its own, so large grids are better drawn by
+ * a <code>RasterSocietyView</code>.
+ */
+
+public class SocietyView implements SocietyRenderer {
+
+    private Society viewSociety;
+    private Group cellGroup;
+    private List<CellView> cellViews;
+    private List<Integer> cellIndices;
+    private Consumer<Runnable> cellEditor = edit -> {
+        edit.run();
+        this.refresh();
+    };
+
+    public SocietyView(Society viewSociety){
+        this.viewSociety = viewSociety;
+        this.cellGroup = new Group();
+        this.cellViews = new ArrayList<CellView>();
+        this.cellIndices = new ArrayList<Integer>();
+        this.initCellViews();
+    }
+
+    /**
+     * Creates one view per cell and lays them out at the society's cell scale
+     */
+    private void initCellViews(){
+
+        Grid societyGrid = this.viewSociety.getSocietyGrid();
+
+        for(Location xLocation : societyGrid.getOrderedLocations()){
+
+            Cell xCell = societyGrid.getCell(xLocation);
+            CellView xView = new CellView(xCell, xLocation);
+
+            xView.setOnMouseClicked(e -> this.cellEditor.accept(() -> {
+                xCell.cycleState();
+                societyGrid.markChanged(societyGrid.getIndex(xLocation));
+            }));
+
+            this.cellViews.add(xView);
+            this.cellIndices.add(societyGrid.getIndex(xLocation));
+            this.cellGroup.getChildren().add(xView);
+
+        }
+
+        this.setCellScale(this.viewSociety.getCellScale());
+
+    }
+
+    @Override
+    public Society getSociety(){
+        return this.viewSociety;
+    }
+
+    /**
+     * @return node holding every cell view
+     */
+    @Override
+    public Group getNode(){
+        return this.cellGroup;
+    }
+
+    /**
+     * Repaints every cell with its current state
+     */
+    @Override
+    public void refresh(){
+        for(CellView xView : this.cellViews){
+            xView.refresh();
+        }
+    }
+
+    @Override
+    public void render(byte[] stateOrdinals, State[] stateValues){
+
+        for(int xView = 0; xView < this.cellViews.size(); xView ++){
+
+            int stateOrdinal = stateOrdinals[this.cellIndices.get(xView)];
+
+            if(stateOrdinal >= 0){
+                this.cellViews.get(xView).setFill(StateColor.getColor(stateValues[stateOrdinal]));
+            }
+
+        }
+
+    }
+
+    /**
+     * Scales every cell view and lays the views out again
+     * @param xFactor scale factor
+     */
+    @Override
+    public void setCellScale(double xFactor){
+
+        this.viewSociety.setCellScale(xFactor);
+
+        for(CellView xView : this.cellViews){
+            xView.setScale(xFactor);
+        }
+
+        this.layoutCells();
+
+    }
+
+    /**
+     * Reloads cell outlines after the society's cell shape changed
+     */
+    @Override
+    public void updateShape(){
+
+        for(CellView xView : this.cellViews){
+            xView.updateShape();
+        }
+
+        this.layoutCells();
+
+    }
+
+    @Override
+    public void setCellEditor(Consumer<Runnable> cellEditor){
+        this.cellEditor = cellEditor;
+    }
+
+    private void layoutCells(){
+        for(CellView xView : this.cellViews){
+            xView.updateLocation();
+        }
+    }
+
+}
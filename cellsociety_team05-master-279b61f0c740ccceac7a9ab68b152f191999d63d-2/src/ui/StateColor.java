@@ -0,0 +1,76 @@
+package src.ui;
+
+import javafx.scene.paint.Color;
+import src.cell.state.*;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Created by Justin Wang
+ *
+ * Colors the views paint each <code>State</code> with. The states hold no colors themselves, so the simulation model
+ * needs no JavaFX classes. A dying <code>LifeLikeState</code> fades from the dying color into the dead color with its
+ * age.
+ */
+
+public enum StateColor {
+
+    /*Game of Life*/
+    GOL_ALIVE(GameOfLifeState.ALIVE, Color.BLACK), GOL_DEAD(GameOfLifeState.DEAD, Color.WHITE),
+
+    /*Spreading of Fire*/
+    SF_EMPTY(SpreadingFireState.EMPTY, Color.GOLD), SF_TREE(SpreadingFireState.TREE, Color.DARKSEAGREEN),
+    SF_BURNING(SpreadingFireState.BURNING, Color.DARKRED),
+
+    /*Segregation*/
+    SG_EMPTY(SegregationState.EMPTY, Color.WHITE), SG_AGENTX(SegregationState.AGENT_X, Color.GOLD),
+    SG_AGENTO(SegregationState.AGENT_O, Color.SILVER),
+
+    /*Wator*/
+    WT_EMPTY(WatorState.EMPTY, Color.STEELBLUE), WT_PREY(WatorState.PREY, Color.GREENYELLOW),
+    WT_PREDATOR(WatorState.PREDATOR, Color.ORANGE),
+
+    /*Life-Like Rules*/
+    LL_DEAD(LifeLikeState.DEAD, Color.WHITE), LL_ALIVE(LifeLikeState.ALIVE, Color.BLACK),
+    LL_DYING(LifeLikeState.DYING_1, Color.CRIMSON);
+
+    private static final Map<State, Color> STATE_COLORS = new IdentityHashMap<State, Color>();
+
+    static{
+
+        for(StateColor xColor : StateColor.values()){
+            STATE_COLORS.put(xColor.colorState, xColor.stateColor);
+        }
+
+        for(LifeLikeState xState : LifeLikeState.values()){
+            if(xState.getDyingAge() > 0){
+                STATE_COLORS.put(xState, LL_DYING.getColor().interpolate(LL_DEAD.getColor(),
+                        (xState.getDyingAge() - 1) / (double) LifeLikeState.DYING_COUNT));
+            }
+        }
+
+    }
+
+    private State colorState;
+    private Color stateColor;
+
+    StateColor(State colorState, Color stateColor){
+        this.colorState = colorState;
+        this.stateColor = stateColor;
+    }
+
+    public Color getColor(){
+        return this.stateColor;
+    }
+
+    /**
+     * Retrieves the color a state is painted with
+     * @param cellState state to paint
+     * @return color of the state, or null if the state has none
+     */
+    public static Color getColor(State cellState){
+        return STATE_COLORS.get(cellState);
+    }
+
+}
@@ -277,11 +277,10 @@ public class UserInterface {
         Group viewSociety = new Group();
         xSociety.getSocietyGrid().renderCells();
         for(Cell xCell : xSociety.getSocietyGrid().getCellMap().values()){
-        	System.out.print(xCell.getStateSwapMap().keySet());
         	  xCell.setOnMouseClicked(new EventHandler<MouseEvent>(){
               	@Override
               	public void handle(MouseEvent arg0){
-              		xCell.setCurrentState(xCell.getStateSwapMap().get(xCell.getCurrentState()));
+              		xCell.cycleState();
               	}
               });
             viewSociety.getChildren().add(xCell);       
@@ -1,25 +1,25 @@
 package src.ui;
 
 import src.cell.*;
-import src.cell.Cell;
 import src.cell.state.GameOfLifeState;
 import src.cell.state.SegregationState;
 import src.cell.state.SpreadingFireState;
 import src.cell.state.WatorState;
+import javafx.application.Platform;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
 import javafx.geometry.*;
-import javafx.scene.Group;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.effect.BlendMode;
-import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.*;
 import javafx.scene.text.Font;
 import javafx.scene.text.Text;
 import javafx.stage.FileChooser;
+import src.metrics.MetricsRegistry;
 import src.society.Society;
 import src.society.property.SocietySetting;
 import src.society.property.SocietyType;
@@ -42,6 +42,7 @@ public class UserInterfaceX {
     private ResourceBundle UIProperties = ResourceBundle.getBundle(UIPropertiesLocation);
 
     private Animator mainAnimator;
+    private SocietyRenderer societyView;
 
     private BorderPane borderPane;
     private Scene primaryScene;
@@ -66,6 +67,7 @@ public class UserInterfaceX {
     private TabPane settingsPaneB;
     private Tab settingsTab;
     private Tab graphTab;
+    private Tab metricsTab;
 
     private HBox mainBox;
 
@@ -90,6 +92,7 @@ public class UserInterfaceX {
             put(SocietyType.WATOR, UIProperties.getString("WatorPath")+".xml");
             put(SocietyType.SEGREGATION, UIProperties.getString("SegregationPath")+".xml");
             put(SocietyType.GAME_OF_LIFE, UIProperties.getString("GameofLifePath")+".xml");
+            put(SocietyType.LIFE_LIKE, UIProperties.getString("LifeLikePath")+".xml");
         }};
 
     }
@@ -101,7 +104,7 @@ public class UserInterfaceX {
 
     private Society createSociety(String filePath, CellShape cellShape) throws Exception {
         SocietySetting societySetting = this.getSettings(filePath);
-        Society newSociety = societySetting.getSocietyType().createSociety(societySetting.getRow(), societySetting.getCol(), societySetting.getCellList(), cellShape);
+        Society newSociety = societySetting.createSociety(cellShape);
         setCellScale(((double)Integer.parseInt(UIProperties.getString("CellScale"))), newSociety);
         return newSociety;
     }
@@ -192,7 +195,7 @@ public class UserInterfaceX {
             String filePath = selectedFile.getPath();
             SocietySetting socSetting = getSettings(filePath);
             Society xSociety = createSociety(selectedFile.getPath(), CellShape.SQUARE);
-            mainAnimator = new Animator(socSetting.getSocietyType(), xSociety);
+            setAnimator(new Animator(socSetting.getSocietyType(), xSociety));
             changeShape.getSelectionModel().select(xSociety.getSocietyGrid().getCellShape().toString());
             enableBottom();
             renderSociety(mainAnimator.getSociety());
@@ -233,6 +236,7 @@ public class UserInterfaceX {
         configureMenuPane();
         configureSettingsTab();
         configureGraphTab();
+        configureMetricsTab();
         configureSettingsPaneA();
         configureSettingsPaneB();
         menuPane.getChildren().addAll(settingsPaneA, settingsPaneB);
@@ -243,7 +247,7 @@ public class UserInterfaceX {
 		settingsPaneB = new TabPane(){{
         	setPrefHeight(Integer.parseInt(UIProperties.getString("PaneBHeight")));
             setPrefWidth(Integer.parseInt(UIProperties.getString("PaneBWidth")));
-            getTabs().add(graphTab);
+            getTabs().addAll(graphTab, metricsTab);
         }};
 	}
 
@@ -261,6 +265,17 @@ public class UserInterfaceX {
         }};
 	}
 
+	/**
+     * The metrics tab shows where the time of each step and frame goes
+     */
+	private void configureMetricsTab() {
+		metricsTab = new Tab(){{
+            setText(UIProperties.getString("MetricsTabTitle"));
+            setClosable(false);
+            setContent(new ScrollPane(new MetricsView(MetricsRegistry.getDefault()).getNode()));
+        }};
+	}
+
 	private void configureSettingsTab() {
 		settingsTab = new Tab(){{
             setText(UIProperties.getString("SettingsTabTitle"));
@@ -350,7 +365,7 @@ public class UserInterfaceX {
 		cellSlider.valueProperty().addListener(new ChangeListener<Number>() {
             @Override
             public void changed(ObservableValue<? extends Number> observable, Number oldValue, Number newValue) {
-                mainAnimator.getSociety().setCellScale(newValue.doubleValue());
+                societyView.setCellScale(newValue.doubleValue());
             }
         });
 	}
@@ -421,12 +436,13 @@ public class UserInterfaceX {
      */
 	private void reset() throws Exception{
         String xShape = changeShape.getValue().toString();
-        mainAnimator = new Animator(mainAnimator.getSocietyType(), createSociety(xmlParser.getFilePath(), CellShape.valueOf(xShape)));
+        setAnimator(new Animator(mainAnimator.getSocietyType(), createSociety(xmlParser.getFilePath(), CellShape.valueOf(xShape))));
         mainAnimator.getSociety().setCellScale(cellSlider.getValue());
         cellSlider.setValue(mainAnimator.getSociety().getCellScale());
         changeShape.getSelectionModel().select(mainAnimator.getSociety().getSocietyGrid().getCellShape().toString());
         renderSociety(mainAnimator.getSociety());
         positionAnimatorChart();
+        setSettings(mainAnimator.getSocietyType());
         startStopButton.setSelected(false);
     }
 	
@@ -447,7 +463,8 @@ public class UserInterfaceX {
 
         ComboBox comboBox = new ComboBox();
         comboBox.getItems().addAll(UIProperties.getString("FireSimTitle"), UIProperties.getString("PredatorSimTitle"),
-                UIProperties.getString("SegregationSimTitle"), UIProperties.getString("GameofLifeSimTitle"));
+                UIProperties.getString("SegregationSimTitle"), UIProperties.getString("GameofLifeSimTitle"),
+                UIProperties.getString("LifeLikeSimTitle"));
 
         initSimOptions(comboBox);
 
@@ -486,8 +503,15 @@ public class UserInterfaceX {
         });
 	}
 
+    /**
+     * Changes the cell shape between two steps of the society, then lays the view out again
+     */
     private void setCellShape(CellShape cellShape, Society xSociety) {
-        xSociety.setCellShape(cellShape);
+        mainAnimator.submitEdit(() -> xSociety.setCellShape(cellShape)).thenRun(() -> Platform.runLater(() -> {
+            if(societyView != null && societyView.getSociety() == xSociety){
+                societyView.updateShape();
+            }
+        }));
     }
 
     private void initSimOptions(ComboBox comboBox) {
@@ -512,7 +536,7 @@ public class UserInterfaceX {
 
 			private void configureSimExceptionHandler(SocietyType sType) {
 				try {
-                    mainAnimator = new Animator(sType, createSociety(fileMap.get(sType), CellShape.SQUARE));
+                    setAnimator(new Animator(sType, createSociety(fileMap.get(sType), CellShape.SQUARE)));
                     changeShape.getSelectionModel().select(mainAnimator.getSociety().getSocietyGrid().getCellShape().toString());
 
                 } catch (Exception e) {
@@ -524,6 +548,33 @@ public class UserInterfaceX {
 
     }
 
+    /**
+     * Replaces the animator, stopping the thread that steps the old society
+     */
+    private void setAnimator(Animator xAnimator){
+        if(mainAnimator != null){
+            mainAnimator.dispose();
+        }
+        mainAnimator = xAnimator;
+        mainAnimator.setStepFailureHandler(stepFailure -> showStepFailure(xAnimator, stepFailure));
+    }
+
+    /**
+     * Releases the start button of the animator whose step failed and shows what went wrong. Failures of an animator
+     * that has since been replaced are ignored.
+     */
+    private void showStepFailure(Animator xAnimator, RuntimeException stepFailure){
+        if(xAnimator != mainAnimator){
+            return;
+        }
+        startStopButton.setSelected(false);
+        Alert failureAlert = new Alert(Alert.AlertType.ERROR);
+        failureAlert.setTitle(UIProperties.getString("StepFailedTitle"));
+        failureAlert.setHeaderText(UIProperties.getString("StepFailedHeader"));
+        failureAlert.setContentText(String.valueOf(stepFailure));
+        failureAlert.show();
+    }
+
     public void enableBottom(){
         mainBox.setDisable(false);
     }
@@ -534,10 +585,13 @@ public class UserInterfaceX {
      */
     private void renderSociety(Society xSociety){
 
-        Group viewSociety = extractCells(xSociety);
-        double tempScale = xSociety.getCellScale();
-        while(viewSociety.getBoundsInParent().getWidth() > (societyPane.getWidth())){
-            setCellScale(tempScale-=Double.parseDouble(UIProperties.getString("TempScale")), xSociety);
+        societyView = createRenderer(xSociety);
+        mainAnimator.setSocietyView(societyView);
+        Node viewSociety = societyView.getNode();
+        /*Views grow linearly with the cell scale, so one rescale fits the pane*/
+        double viewWidth = viewSociety.getBoundsInParent().getWidth();
+        if(societyPane.getWidth() > 0 && viewWidth > societyPane.getWidth()){
+            societyView.setCellScale(xSociety.getCellScale() * societyPane.getWidth() / viewWidth);
         }
         cellSlider.setValue(mainAnimator.getSociety().getCellScale());
         StackPane groupHolder = new StackPane(viewSociety);
@@ -547,20 +601,16 @@ public class UserInterfaceX {
 
     }
 
-	private Group extractCells(Society xSociety) {
-		Group viewSociety = new Group();
-        xSociety.getSocietyGrid().renderCells();
-        for(Cell xCell : xSociety.getSocietyGrid().getCellMap().values()){
-            viewSociety.getChildren().add(xCell);
-            xCell.setOnMouseClicked(new EventHandler<MouseEvent>(){
-                @Override
-                public void handle(MouseEvent arg0){
-                    xCell.setCurrentState(xCell.getStateSwapMap().get(xCell.getCurrentState()));
-                }
-            });
+    /**
+     * Draws small grids with a node per cell, which keeps the cell outlines, and larger grids as a single image
+     */
+    private SocietyRenderer createRenderer(Society xSociety){
+        if(xSociety.getSocietyGrid().getSize() > Integer.parseInt(UIProperties.getString("CellNodeLimit"))){
+            return new RasterSocietyView(xSociety);
         }
-		return viewSociety;
-	}
+        return new SocietyView(xSociety);
+    }
+
 	/**
      *The start, stop, and reset methods all call methods which require action on part of the animator.
      */